@@ -14,4 +14,5 @@ public class AkhqClaimProviderControllerConfig {
     private List<String> roles;
     private String adminGroup;
     private List<String> adminRoles;
+    private boolean mergeRegexes;
 }
@@ -8,7 +8,6 @@ import io.micronaut.core.annotation.Introspected;
 import io.micronaut.core.convert.format.MapFormat;
 import lombok.Getter;
 import lombok.Setter;
-import org.apache.kafka.clients.admin.Admin;
 
 import java.util.Map;
 import java.util.Properties;
@@ -27,7 +26,7 @@ public class KafkaAsyncExecutorConfig {
     private Properties config;
     private Map<String, ConnectConfig> connects;
     private RegistryConfig schemaRegistry;
-    private Admin adminClient = null;
+    private AdminConfig admin;
 
     public KafkaAsyncExecutorConfig(@Parameter String name) {
         this.name = name;
@@ -54,22 +53,76 @@ public class KafkaAsyncExecutorConfig {
         String url;
         String basicAuthUsername;
         String basicAuthPassword;
+
+        /**
+         * Send a second read to another Schema Registry URL when the first one is slower than the usual reads
+         */
+        boolean hedgeReads;
+    }
+
+    @Getter
+    @Setter
+    @ConfigurationProperties("admin")
+    public static class AdminConfig {
+        /**
+         * Admin requests allowed per second, and the burst of requests allowed above this rate
+         */
+        double requestsPerSecond = 20;
+        int burst = 40;
+
+        /**
+         * Admin requests allowed in flight at the same time
+         */
+        int maxInFlightRequests = 10;
+
+        /**
+         * Time in milliseconds a request can wait for an in-flight slot before being rejected
+         */
+        long maxWait = 2000;
+
+        /**
+         * Consecutive failures opening the circuit, and time in milliseconds before a trial request is let through
+         */
+        int failureThreshold = 5;
+        long openDuration = 30000;
+
+        /**
+         * Time in milliseconds listOffsets requests are gathered before being sent as a single request
+         */
+        long coalescingWindow = 5;
+
+        /**
+         * Time in milliseconds the Admin client waits for a response to a single request, and for a whole API call
+         * including metadata fetches and retries. Values set in the cluster config take precedence
+         */
+        int requestTimeout = 15000;
+        int apiTimeout = 30000;
+
+        /**
+         * Consecutive cluster failures after which the Admin client is closed and recreated
+         */
+        int recreateThreshold = 3;
+
+        /**
+         * Consumer groups whose offsets are changed at the same time by a bulk offsets reset
+         */
+        int alterOffsetsParallelism = 5;
+
+        /**
+         * Time in milliseconds between two collections of the log dirs, 0 to disable them, and number of brokers
+         * described by a single describeLogDirs request
+         */
+        long logDirsCollectInterval = 60000;
+        int logDirsBatchSize = 5;
+
+        /**
+         * Time in milliseconds after which collected log dirs are too old to be used by quota checks
+         */
+        long logDirsMaxStaleness = 300000;
     }
 
     public enum KafkaProvider {
         SELF_MANAGED,
         CONFLUENT_CLOUD
     }
-
-    /**
-     * Getter for admin client service
-     * @return The admin client
-     */
-    public Admin getAdminClient() {
-        if (this.adminClient == null) {
-            this.adminClient = Admin.create(config);
-        }
-
-        return this.adminClient;
-    }
 }
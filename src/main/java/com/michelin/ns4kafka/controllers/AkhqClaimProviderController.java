@@ -2,8 +2,8 @@ package com.michelin.ns4kafka.controllers;
 
 import com.michelin.ns4kafka.config.AkhqClaimProviderControllerConfig;
 import com.michelin.ns4kafka.models.AccessControlEntry;
-import com.michelin.ns4kafka.services.AccessControlEntryService;
-import com.michelin.ns4kafka.services.NamespaceService;
+import com.michelin.ns4kafka.services.AkhqClaimIndex;
+import com.michelin.ns4kafka.utils.ResourcePatternUtils;
 import io.micronaut.core.annotation.Introspected;
 import io.micronaut.http.annotation.Body;
 import io.micronaut.http.annotation.Controller;
@@ -19,8 +19,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 @RolesAllowed(SecurityRule.IS_ANONYMOUS)
 @Controller("/akhq-claim")
@@ -33,10 +31,7 @@ public class AkhqClaimProviderController {
     AkhqClaimProviderControllerConfig config;
 
     @Inject
-    AccessControlEntryService accessControlEntryService;
-
-    @Inject
-    NamespaceService namespaceService;
+    AkhqClaimIndex akhqClaimIndex;
 
     /**
      * Generate AKHQ claims for AKHQ v0.19 and prior
@@ -55,22 +50,15 @@ public class AkhqClaimProviderController {
             return AKHQClaimResponse.ofAdmin(config.getAdminRoles());
         }
 
-        List<AccessControlEntry> relatedACL = namespaceService.listAll()
-                .stream()
-                .filter(namespace -> namespace.getMetadata().getLabels() != null &&
-                        groups.contains(namespace.getMetadata().getLabels().getOrDefault(config.getGroupLabel(), "_")))
-                .flatMap(namespace -> accessControlEntryService.findAllGrantedToNamespace(namespace).stream())
-                .collect(Collectors.toList());
-
-        // Add all public ACLs.
-        relatedACL.addAll(accessControlEntryService.findAllPublicGrantedTo());
+        // ACLs of the namespaces of the groups, then public ACLs
+        AkhqClaimIndex.AllowedRegexes allowedRegexes = akhqClaimIndex.getAllowedRegexes(groups);
 
         return AKHQClaimResponse.builder()
                 .roles(config.getRoles())
                 .attributes(
                         Map.of(
-                                "topicsFilterRegexp", computeAllowedRegexListForResourceType(relatedACL, AccessControlEntry.ResourceType.TOPIC),
-                                "connectsFilterRegexp", computeAllowedRegexListForResourceType(relatedACL, AccessControlEntry.ResourceType.CONNECT),
+                                "topicsFilterRegexp", orEmpty(allowedRegexes.getTopics()),
+                                "connectsFilterRegexp", orEmpty(allowedRegexes.getConnects()),
                                 "consumerGroupsFilterRegexp", ADMIN_REGEXP
                         )
                 )
@@ -94,20 +82,13 @@ public class AkhqClaimProviderController {
             return AKHQClaimResponseV2.ofAdmin(config.getAdminRoles());
         }
 
-        List<AccessControlEntry> relatedACL = namespaceService.listAll()
-                .stream()
-                .filter(namespace -> namespace.getMetadata().getLabels() != null &&
-                        groups.contains(namespace.getMetadata().getLabels().getOrDefault(config.getGroupLabel(), "_")))
-                .flatMap(namespace -> accessControlEntryService.findAllGrantedToNamespace(namespace).stream())
-                .collect(Collectors.toList());
-
-        // Add all public ACLs.
-        relatedACL.addAll(accessControlEntryService.findAllPublicGrantedTo());
+        // ACLs of the namespaces of the groups, then public ACLs
+        AkhqClaimIndex.AllowedRegexes allowedRegexes = akhqClaimIndex.getAllowedRegexes(groups);
 
         return AKHQClaimResponseV2.builder()
                 .roles(config.getRoles())
-                .topicsFilterRegexp(computeAllowedRegexListForResourceType(relatedACL, AccessControlEntry.ResourceType.TOPIC))
-                .connectsFilterRegexp(computeAllowedRegexListForResourceType(relatedACL, AccessControlEntry.ResourceType.CONNECT))
+                .topicsFilterRegexp(orEmpty(allowedRegexes.getTopics()))
+                .connectsFilterRegexp(orEmpty(allowedRegexes.getConnects()))
                 .consumerGroupsFilterRegexp(ADMIN_REGEXP)
                 .build();
     }
@@ -119,18 +100,16 @@ public class AkhqClaimProviderController {
      * @return A list of regex
      */
     public List<String> computeAllowedRegexListForResourceType(List<AccessControlEntry> acls, AccessControlEntry.ResourceType resourceType) {
-        List<String> allowedRegex = acls.stream()
-                .filter(accessControlEntry -> accessControlEntry.getSpec().getResourceType() == resourceType)
-                .map(accessControlEntry -> {
-                    String escapedString = Pattern.quote(accessControlEntry.getSpec().getResource());
-                    if (accessControlEntry.getSpec().getResourcePatternType() == AccessControlEntry.ResourcePatternType.PREFIXED) {
-                        return String.format("^%s.*$", escapedString);
-                    } else {
-                        return String.format("^%s$", escapedString);
-                    }
-                })
-                .distinct()
+        List<String> allowedRegex = ResourcePatternUtils.minimize(acls.stream()
+                        .filter(accessControlEntry -> accessControlEntry.getSpec().getResourceType() == resourceType)
+                        .toList())
+                .stream()
+                .map(ResourcePatternUtils::toRegex)
                 .toList();
+        return orEmpty(allowedRegex);
+    }
+
+    private static List<String> orEmpty(List<String> allowedRegex) {
         //AKHQ considers empty list as "^.*$" so we must return something
         return !allowedRegex.isEmpty() ? allowedRegex : EMPTY_REGEXP;
     }
@@ -2,13 +2,16 @@ package com.michelin.ns4kafka.controllers;
 
 import com.michelin.ns4kafka.controllers.generic.NamespacedResourceController;
 import com.michelin.ns4kafka.models.Namespace;
+import com.michelin.ns4kafka.models.consumer.group.ConsumerGroupBulkResetOffsets;
 import com.michelin.ns4kafka.models.consumer.group.ConsumerGroupResetOffsets;
 import com.michelin.ns4kafka.models.consumer.group.ConsumerGroupResetOffsetsResponse;
+import com.michelin.ns4kafka.models.consumer.group.ConsumerGroupStatus;
 import com.michelin.ns4kafka.services.ConsumerGroupService;
 import com.michelin.ns4kafka.utils.enums.ApplyStatus;
 import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
 import io.micronaut.http.annotation.Body;
 import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
 import io.micronaut.http.annotation.Post;
 import io.micronaut.http.annotation.QueryValue;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -18,6 +21,7 @@ import org.apache.kafka.common.TopicPartition;
 import javax.validation.Valid;
 import java.time.Instant;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
@@ -29,6 +33,18 @@ public class ConsumerGroupController extends NamespacedResourceController {
     @Inject
     ConsumerGroupService consumerGroupService;
 
+    /**
+     * List the state and the lag of the consumer groups of a namespace
+     * @param namespace The namespace
+     * @return The consumer group statuses
+     * @throws ExecutionException Any execution exception
+     * @throws InterruptedException Any interrupted exception
+     */
+    @Get
+    public List<ConsumerGroupStatus> list(String namespace) throws ExecutionException, InterruptedException {
+        return consumerGroupService.listConsumerGroupStatuses(getNamespace(namespace));
+    }
+
     /**
      * Reset offsets for a given topic and consumer group
      * @param namespace The namespace
@@ -102,4 +118,88 @@ public class ConsumerGroupController extends NamespacedResourceController {
 
         return topicPartitionOffsets;
     }
+
+    /**
+     * Reset offsets for several topics and consumer groups at once.
+     * The route is matched before the single consumer group one, a reset of a consumer group named _bulk is rejected by the body validation
+     * @param namespace The namespace
+     * @param consumerGroupBulkResetOffsets The consumer groups, the topics and the information about how to reset
+     * @param dryrun Is dry run mode or not ?
+     * @return The reset offsets response, with the error of the consumer groups whose offsets could not be changed
+     * @throws ExecutionException Any execution exception
+     * @throws InterruptedException Any interrupted exception
+     */
+    @Post("/_bulk/reset{?dryrun}")
+    public List<ConsumerGroupResetOffsetsResponse> bulkResetOffsets(String namespace,
+                                                                    @Valid @Body ConsumerGroupBulkResetOffsets consumerGroupBulkResetOffsets,
+                                                                    @QueryValue(defaultValue = "false") boolean dryrun) throws ExecutionException, InterruptedException {
+        Namespace ns = getNamespace(namespace);
+        List<String> consumerGroups = consumerGroupBulkResetOffsets.getSpec().getConsumerGroups()
+                .stream()
+                .distinct()
+                .toList();
+
+        // Validate spec
+        List<String> validationErrors = consumerGroupService.validateBulkResetOffsets(consumerGroupBulkResetOffsets);
+
+        // Validate ownership
+        consumerGroups.forEach(consumerGroup -> {
+            if (!consumerGroupService.isNamespaceOwnerOfConsumerGroup(namespace, consumerGroup)) {
+                validationErrors.add("Namespace not owner of this consumer group \"" + consumerGroup + "\".");
+            }
+        });
+
+        if (!validationErrors.isEmpty()) {
+            throw new ResourceValidationException(validationErrors, "ConsumerGroupBulkResetOffsets",
+                    consumerGroupBulkResetOffsets.getMetadata().getName());
+        }
+
+        // Augment
+        consumerGroupBulkResetOffsets.getMetadata().setCreationTimestamp(Date.from(Instant.now()));
+        consumerGroupBulkResetOffsets.getMetadata().setNamespace(ns.getMetadata().getName());
+        consumerGroupBulkResetOffsets.getMetadata().setCluster(ns.getMetadata().getCluster());
+
+        // Validate Consumer Groups are dead or inactive
+        List<String> activeConsumerGroups = consumerGroupService.getConsumerGroupStatuses(ns, consumerGroups)
+                .entrySet()
+                .stream()
+                .filter(status -> !List.of("Empty", "Dead").contains(status.getValue()))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+        if (!activeConsumerGroups.isEmpty()) {
+            throw new IllegalStateException("Assignments can only be reset if the consumer groups are inactive, but the following consumer groups are active: " +
+                    String.join(", ", activeConsumerGroups) + ".");
+        }
+
+        // Prepare offsets
+        Map<String, Map<TopicPartition, Long>> preparedOffsets = consumerGroupService.prepareBulkOffsetsToReset(ns, consumerGroups,
+                consumerGroupBulkResetOffsets.getSpec().getTopics(), consumerGroupBulkResetOffsets.getSpec().getMethod(),
+                consumerGroupBulkResetOffsets.getSpec().getOptions());
+
+        Map<String, String> errors = new HashMap<>();
+        if (!dryrun) {
+            sendEventLog("ConsumerGroupBulkResetOffsets",
+                    consumerGroupBulkResetOffsets.getMetadata(),
+                    ApplyStatus.changed,
+                    null,
+                    consumerGroupBulkResetOffsets.getSpec());
+            errors.putAll(consumerGroupService.alterConsumerGroupsOffsets(ns, preparedOffsets));
+        }
+
+        return preparedOffsets.entrySet()
+                .stream()
+                .flatMap(group -> group.getValue().entrySet()
+                        .stream()
+                        .map(entry -> ConsumerGroupResetOffsetsResponse.builder()
+                                .spec(ConsumerGroupResetOffsetsResponse.ConsumerGroupResetOffsetsResponseSpec.builder()
+                                        .topic(entry.getKey().topic())
+                                        .partition(entry.getKey().partition())
+                                        .offset(entry.getValue())
+                                        .consumerGroup(group.getKey())
+                                        .error(errors.get(group.getKey()))
+                                        .build())
+                                .build()))
+                .toList();
+    }
 }
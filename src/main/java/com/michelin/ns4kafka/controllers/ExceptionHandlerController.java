@@ -4,6 +4,7 @@ import com.michelin.ns4kafka.models.Status;
 import com.michelin.ns4kafka.models.Status.StatusDetails;
 import com.michelin.ns4kafka.models.Status.StatusPhase;
 import com.michelin.ns4kafka.models.Status.StatusReason;
+import com.michelin.ns4kafka.utils.exceptions.ClusterUnavailableException;
 import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
@@ -125,6 +126,22 @@ public class ExceptionHandlerController {
 
     }
 
+    @Error(global = true)
+    public HttpResponse<Status> error(HttpRequest<?> request, ClusterUnavailableException exception) {
+        var status = Status.builder()
+                .status(StatusPhase.Failed)
+                .message(String.format("Kafka cluster %s unavailable", exception.getCluster()))
+                .reason(StatusReason.ServiceUnavailable)
+                .details(StatusDetails.builder()
+                        .causes(List.of(exception.getMessage()))
+                        .build())
+                .code(HttpStatus.SERVICE_UNAVAILABLE.getCode())
+                .build();
+
+        return HttpResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(status);
+    }
+
     @Error(global = true)
     public HttpResponse<Status> error(HttpRequest<?> request, Exception exception) {
         log.error("An error occurred on API endpoint {} {}: {}", request.getMethodName(), request.getUri(), exception.getMessage());
@@ -0,0 +1,53 @@
+package com.michelin.ns4kafka.controllers;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import com.michelin.ns4kafka.controllers.generic.NonNamespacedResourceController;
+import com.michelin.ns4kafka.models.KafkaClusterStatus;
+import com.michelin.ns4kafka.models.ObjectMeta;
+import com.michelin.ns4kafka.security.ResourceBasedSecurityRule;
+import com.michelin.ns4kafka.services.admin.AdminGateway;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.inject.Inject;
+
+import javax.annotation.security.RolesAllowed;
+import java.util.List;
+
+@Tag(name = "Kafka Clusters")
+@Controller(value = "/api/clusters")
+@RolesAllowed(ResourceBasedSecurityRule.IS_ADMIN)
+public class KafkaClusterController extends NonNamespacedResourceController {
+    @Inject
+    List<KafkaAsyncExecutorConfig> kafkaAsyncExecutorConfigs;
+
+    @Inject
+    ApplicationContext applicationContext;
+
+    /**
+     * Get the state of the Admin circuit breaker of each Kafka cluster
+     * @return The status of the Kafka clusters
+     */
+    @Get("/status")
+    public List<KafkaClusterStatus> listStatuses() {
+        return kafkaAsyncExecutorConfigs
+                .stream()
+                .map(config -> {
+                    AdminGateway adminGateway = applicationContext.getBean(AdminGateway.class, Qualifiers.byName(config.getName()));
+                    AdminGateway.CircuitState circuitState = adminGateway.getCircuitState();
+                    return KafkaClusterStatus.builder()
+                            .metadata(ObjectMeta.builder()
+                                    .name(config.getName())
+                                    .cluster(config.getName())
+                                    .build())
+                            .spec(KafkaClusterStatus.KafkaClusterStatusSpec.builder()
+                                    .circuitState(circuitState)
+                                    .available(circuitState != AdminGateway.CircuitState.OPEN)
+                                    .build())
+                            .build();
+                })
+                .toList();
+    }
+}
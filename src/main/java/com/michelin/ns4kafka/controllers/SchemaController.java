@@ -14,6 +14,7 @@ import io.micronaut.http.HttpStatus;
 import io.micronaut.http.annotation.*;
 import io.micronaut.scheduling.TaskExecutors;
 import io.micronaut.scheduling.annotation.ExecuteOn;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.core.Single;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -43,6 +44,17 @@ public class SchemaController extends NamespacedResourceController {
         return schemaService.findAllForNamespace(ns);
     }
 
+    /**
+     * Get the last version of all the schemas by namespace, with their id, version, type and compatibility
+     * @param namespace The namespace
+     * @return The schemas, streamed
+     */
+    @Get("/_expanded")
+    public Flowable<Schema> listExpanded(String namespace) {
+        Namespace ns = getNamespace(namespace);
+        return schemaService.findAllExpandedForNamespace(ns);
+    }
+
     /**
      * Get the last version of a schema by namespace and subject
      * @param namespace The namespace
@@ -85,43 +97,79 @@ public class SchemaController extends NamespacedResourceController {
         }
 
         return schemaService
-                .validateSchemaCompatibility(ns.getMetadata().getCluster(), schema)
-                .flatMap(validationErrors -> {
-                    if (!validationErrors.isEmpty()) {
-                        return Single.error(new ResourceValidationException(validationErrors, schema.getKind(), schema.getMetadata().getName()));
-                    }
+                .getLatestSubject(ns, schema.getMetadata().getName())
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(latestSubjectOptional -> applyIfChanged(ns, schema, latestSubjectOptional, dryrun));
+    }
+
+    /**
+     * Publish a schema, unless it has the same content as the latest version of its subject.
+     * An identical schema would only be registered again with the id of the latest version
+     * @param ns                    The namespace
+     * @param schema                The schema to create
+     * @param latestSubjectOptional The latest version of the subject, if any
+     * @param dryrun                Does the creation is a dry run
+     * @return The created schema
+     */
+    private Single<HttpResponse<Schema>> applyIfChanged(Namespace ns, Schema schema, Optional<Schema> latestSubjectOptional, boolean dryrun) {
+        Single<Boolean> sameAsLatest = latestSubjectOptional.isPresent()
+                ? schemaService.isSameAsLatest(ns, schema, latestSubjectOptional.get()) : Single.just(false);
 
-                    if (dryrun) {
-                        // Cannot compute the "apply" status before the registration
-                        return Single.just(HttpResponse.ok(schema));
+        return sameAsLatest.flatMap(unchanged -> {
+            if (unchanged) {
+                schema.getMetadata().setCreationTimestamp(Date.from(Instant.now()));
+                schema.getMetadata().setCluster(ns.getMetadata().getCluster());
+                schema.getMetadata().setNamespace(ns.getMetadata().getName());
+                return Single.just(formatHttpResponse(schema, ApplyStatus.unchanged));
+            }
+
+            return schemaService
+                    .validateSchemaCompatibility(ns.getMetadata().getCluster(), schema)
+                    .flatMap(validationErrors -> {
+                        if (!validationErrors.isEmpty()) {
+                            return Single.error(new ResourceValidationException(validationErrors, schema.getKind(), schema.getMetadata().getName()));
+                        }
+
+                        if (dryrun) {
+                            // Cannot compute the "apply" status before the registration
+                            return Single.just(HttpResponse.ok(schema));
+                        }
+
+                        return register(ns, schema, latestSubjectOptional);
+                    });
+        });
+    }
+
+    /**
+     * Register a schema, and compute its "apply" status from the latest version of its subject
+     * @param ns                    The namespace
+     * @param schema                The schema to create
+     * @param latestSubjectOptional The latest version of the subject, if any
+     * @return The created schema
+     */
+    private Single<HttpResponse<Schema>> register(Namespace ns, Schema schema, Optional<Schema> latestSubjectOptional) {
+        return schemaService
+                .register(ns, schema)
+                .map(id -> {
+                    ApplyStatus status;
+
+                    schema.getMetadata().setCreationTimestamp(Date.from(Instant.now()));
+                    schema.getMetadata().setCluster(ns.getMetadata().getCluster());
+                    schema.getMetadata().setNamespace(ns.getMetadata().getName());
+
+                    if (latestSubjectOptional.isEmpty()) {
+                        status = ApplyStatus.created;
+                        sendEventLog(schema.getKind(), schema.getMetadata(), status, null, schema.getSpec());
+                    } else if (!id.equals(latestSubjectOptional.get().getSpec().getId())) {
+                        status = ApplyStatus.changed;
+                        sendEventLog(schema.getKind(), schema.getMetadata(), status, latestSubjectOptional.get().getSpec(),
+                                schema.getSpec());
+                    } else {
+                        status = ApplyStatus.unchanged;
                     }
 
-                    return schemaService
-                            .getLatestSubject(ns, schema.getMetadata().getName())
-                            .map(Optional::of)
-                            .defaultIfEmpty(Optional.empty())
-                            .flatMap(latestSubjectOptional -> schemaService
-                                    .register(ns, schema)
-                                    .map(id -> {
-                                        ApplyStatus status;
-
-                                        schema.getMetadata().setCreationTimestamp(Date.from(Instant.now()));
-                                        schema.getMetadata().setCluster(ns.getMetadata().getCluster());
-                                        schema.getMetadata().setNamespace(ns.getMetadata().getName());
-
-                                        if (latestSubjectOptional.isEmpty()) {
-                                            status = ApplyStatus.created;
-                                            sendEventLog(schema.getKind(), schema.getMetadata(), status, null, schema.getSpec());
-                                        } else if (!id.equals(latestSubjectOptional.get().getSpec().getId())) {
-                                            status = ApplyStatus.changed;
-                                            sendEventLog(schema.getKind(), schema.getMetadata(), status, latestSubjectOptional.get().getSpec(),
-                                                    schema.getSpec());
-                                        } else {
-                                            status = ApplyStatus.unchanged;
-                                        }
-
-                                        return formatHttpResponse(schema, status);
-                                    }));
+                    return formatHttpResponse(schema, status);
                 });
     }
 
@@ -4,19 +4,25 @@ import com.michelin.ns4kafka.controllers.generic.NamespacedResourceController;
 import com.michelin.ns4kafka.models.DeleteRecordsResponse;
 import com.michelin.ns4kafka.models.Namespace;
 import com.michelin.ns4kafka.models.Topic;
+import com.michelin.ns4kafka.models.TopicStats;
 import com.michelin.ns4kafka.services.ResourceQuotaService;
 import com.michelin.ns4kafka.services.TopicService;
 import com.michelin.ns4kafka.utils.enums.ApplyStatus;
 import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
 import io.micronaut.http.annotation.*;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import io.reactivex.rxjava3.core.Flowable;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.inject.Inject;
 import org.apache.kafka.common.TopicPartition;
 
 import javax.validation.Valid;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -57,6 +63,42 @@ public class TopicController extends NamespacedResourceController {
         return topicService.findByName(ns, topic);
     }
 
+    /**
+     * Get the statistics of all the topics of a namespace
+     * @param namespace The namespace
+     * @return The topic statistics
+     * @throws ExecutionException Any execution exception
+     * @throws InterruptedException Any interrupted exception
+     * @throws TimeoutException Any timeout exception
+     */
+    @Get("/_/stats")
+    public List<TopicStats> listStats(String namespace) throws InterruptedException, ExecutionException, TimeoutException {
+        Namespace ns = getNamespace(namespace);
+        return topicService.getTopicStats(ns, topicService.findAllForNamespace(ns));
+    }
+
+    /**
+     * Get the statistics of a topic
+     * @param namespace The namespace
+     * @param topic The topic name
+     * @return The topic statistics
+     * @throws ExecutionException Any execution exception
+     * @throws InterruptedException Any interrupted exception
+     * @throws TimeoutException Any timeout exception
+     */
+    @Get("/{topic}/stats")
+    public Optional<TopicStats> getStats(String namespace, String topic) throws InterruptedException, ExecutionException, TimeoutException {
+        Namespace ns = getNamespace(namespace);
+        Optional<Topic> optionalTopic = topicService.findByName(ns, topic);
+        if (optionalTopic.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return topicService.getTopicStats(ns, List.of(optionalTopic.get()))
+                .stream()
+                .findFirst();
+    }
+
     /**
      * Create a topic
      * @param namespace The namespace
@@ -74,6 +116,11 @@ public class TopicController extends NamespacedResourceController {
         List<String> validationErrors = ns.getSpec().getTopicValidator().validate(topic, ns);
 
         if (existingTopic.isEmpty()) {
+            // The name _ stands for several topics in the routes, such as /_/stats, so a topic cannot use it
+            if (topic.getMetadata().getName().equals("_")) {
+                validationErrors.add("Invalid value _ for name: Value is reserved for the operations on several topics.");
+            }
+
             // Topic namespace ownership validation
             if (!topicService.isNamespaceOwnerOfTopic(namespace, topic.getMetadata().getName())) {
                 validationErrors.add(String.format("Namespace not owner of this topic %s.", topic.getMetadata().getName()));
@@ -242,4 +289,69 @@ public class TopicController extends NamespacedResourceController {
                         .build())
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Delete records from several topics of a namespace, given by name or by prefix
+     * @param namespace The namespace
+     * @param topics The topic names
+     * @param prefix The topic prefix
+     * @param dryrun Is dry run mode or not ?
+     * @return The topic-partitions where records have been deleted, each one emitted as soon as it is done
+     * @throws ExecutionException Any execution exception
+     * @throws InterruptedException Any interrupted exception
+     */
+    @ExecuteOn(TaskExecutors.IO)
+    @Post("/_/delete-records{?topics,prefix,dryrun}")
+    public Flowable<DeleteRecordsResponse> bulkDeleteRecords(String namespace, @Nullable @QueryValue List<String> topics,
+                                                             @Nullable @QueryValue String prefix,
+                                                             @QueryValue(defaultValue = "false") boolean dryrun) throws InterruptedException, ExecutionException {
+        Namespace ns = getNamespace(namespace);
+        List<String> validationErrors = new ArrayList<>();
+        if ((topics == null || topics.isEmpty()) == (prefix == null || prefix.isBlank())) {
+            validationErrors.add("Either topics or a prefix must be given.");
+            throw new ResourceValidationException(validationErrors, "DeleteRecords", namespace);
+        }
+
+        // Validate ownership and cleanup policy of all the topics in one pass
+        Map<String, Topic> ownedTopics = topicService.findAllForNamespace(ns)
+                .stream()
+                .collect(Collectors.toMap(topic -> topic.getMetadata().getName(), topic -> topic));
+
+        List<Topic> deleteRecordsTopics = new ArrayList<>();
+        if (topics != null && !topics.isEmpty()) {
+            topics.stream().distinct().forEach(topic -> {
+                if (!ownedTopics.containsKey(topic)) {
+                    validationErrors.add("Namespace not owner of this topic \"" + topic + "\".");
+                } else {
+                    deleteRecordsTopics.add(ownedTopics.get(topic));
+                }
+            });
+        } else {
+            ownedTopics.values()
+                    .stream()
+                    .filter(topic -> topic.getMetadata().getName().startsWith(prefix))
+                    .forEach(deleteRecordsTopics::add);
+        }
+
+        deleteRecordsTopics.forEach(topic -> topicService.validateDeleteRecordsTopic(topic)
+                .forEach(error -> validationErrors.add(topic.getMetadata().getName() + ": " + error)));
+
+        if (!validationErrors.isEmpty()) {
+            throw new ResourceValidationException(validationErrors, "DeleteRecords", namespace);
+        }
+
+        if (deleteRecordsTopics.isEmpty()) {
+            return Flowable.empty();
+        }
+
+        Map<TopicPartition, Long> recordsToDelete = topicService.prepareBulkRecordsToDelete(ns, deleteRecordsTopics);
+
+        if (dryrun) {
+            return Flowable.fromIterable(recordsToDelete.entrySet())
+                    .map(entry -> TopicService.buildDeleteRecordsResponse(entry.getKey(), entry.getValue(), null));
+        }
+
+        deleteRecordsTopics.forEach(topic -> sendEventLog("DeleteRecords", topic.getMetadata(), ApplyStatus.deleted, null, null));
+        return topicService.bulkDeleteRecords(ns, recordsToDelete);
+    }
 }
@@ -33,5 +33,6 @@ public class DeleteRecordsResponse {
         private String topic;
         private int partition;
         private Long offset;
+        private String error;
     }
 }
@@ -0,0 +1,37 @@
+package com.michelin.ns4kafka.models;
+
+import com.michelin.ns4kafka.services.admin.AdminGateway;
+import io.micronaut.core.annotation.Introspected;
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+@Getter
+@Builder
+@Introspected
+@NoArgsConstructor
+@AllArgsConstructor
+public class KafkaClusterStatus {
+    private final String apiVersion = "v1";
+    private final String kind = "KafkaClusterStatus";
+
+    @Valid
+    @NotNull
+    private ObjectMeta metadata;
+
+    @Valid
+    @NotNull
+    private KafkaClusterStatusSpec spec;
+
+    @Introspected
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @ToString
+    public static class KafkaClusterStatusSpec {
+        private AdminGateway.CircuitState circuitState;
+        private boolean available;
+    }
+}
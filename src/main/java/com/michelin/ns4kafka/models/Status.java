@@ -48,6 +48,7 @@ public class Status {
         Timeout,
         ServerTimeout,
         MethodNotAllowed,
-        InternalError
+        InternalError,
+        ServiceUnavailable
     }
 }
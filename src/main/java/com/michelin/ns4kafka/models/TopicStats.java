@@ -0,0 +1,57 @@
+package com.michelin.ns4kafka.models;
+
+import io.micronaut.core.annotation.Introspected;
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Getter
+@Builder
+@Introspected
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopicStats {
+    private final String apiVersion = "v1";
+    private final String kind = "TopicStats";
+
+    @Valid
+    @NotNull
+    private ObjectMeta metadata;
+
+    @Valid
+    @NotNull
+    private TopicStatsSpec spec;
+
+    @Introspected
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @ToString
+    public static class TopicStatsSpec {
+        private long records;
+        private List<PartitionStats> partitions;
+    }
+
+    @Introspected
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @ToString
+    public static class PartitionStats {
+        private int partition;
+        private Integer leader;
+        private int replicas;
+        private int isrSize;
+        private long earliestOffset;
+        private long latestOffset;
+
+        /**
+         * Approximate number of records, compacted and transaction marker records being counted
+         */
+        private long records;
+    }
+}
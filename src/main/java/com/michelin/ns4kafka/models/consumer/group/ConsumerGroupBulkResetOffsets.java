@@ -0,0 +1,49 @@
+package com.michelin.ns4kafka.models.consumer.group;
+
+import com.michelin.ns4kafka.models.ObjectMeta;
+import io.micronaut.core.annotation.Introspected;
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Data
+@Builder
+@Introspected
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumerGroupBulkResetOffsets {
+    private final String apiVersion = "v1";
+    private final String kind = "ConsumerGroupBulkResetOffsets";
+
+    @Valid
+    @NotNull
+    private ObjectMeta metadata;
+
+    @Valid
+    @NotNull
+    private ConsumerGroupBulkResetOffsetsSpec spec;
+
+    @Getter
+    @Setter
+    @Builder
+    @ToString
+    @Introspected
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ConsumerGroupBulkResetOffsetsSpec {
+        @NotNull
+        @NotEmpty
+        private List<String> consumerGroups;
+
+        @NotNull
+        @NotEmpty
+        private List<String> topics;
+
+        @NotNull
+        private ConsumerGroupResetOffsets.ResetOffsetsMethod method;
+        private String options;
+    }
+}
@@ -63,5 +63,10 @@ public class ConsumerGroupResetOffsetsResponse {
          * The consumer group
          */
         private String consumerGroup;
+
+        /**
+         * The error preventing the offsets of the consumer group from being changed, if any
+         */
+        private String error;
     }
 }
@@ -0,0 +1,96 @@
+package com.michelin.ns4kafka.models.consumer.group;
+
+import com.michelin.ns4kafka.models.ObjectMeta;
+import io.micronaut.core.annotation.Introspected;
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+@Introspected
+@Builder
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConsumerGroupStatus {
+    /**
+     * API version
+     */
+    private final String apiVersion = "v1";
+
+    /**
+     * Resource kind
+     */
+    private final String kind = "ConsumerGroupStatus";
+
+    /**
+     * Resource metadata
+     */
+    @Valid
+    @NotNull
+    private ObjectMeta metadata;
+
+    /**
+     * Resource specifications
+     */
+    @Valid
+    @NotNull
+    private ConsumerGroupStatusSpec spec;
+
+    @Introspected
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @ToString
+    public static class ConsumerGroupStatusSpec {
+        /**
+         * The consumer group state
+         */
+        private String state;
+
+        /**
+         * The sum of the lag of all the partitions
+         */
+        private long totalLag;
+
+        /**
+         * The lag by partition
+         */
+        private List<PartitionLag> partitions;
+    }
+
+    @Introspected
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @ToString
+    public static class PartitionLag {
+        /**
+         * The topic
+         */
+        private String topic;
+
+        /**
+         * The partition
+         */
+        private int partition;
+
+        /**
+         * The offset committed by the consumer group
+         */
+        private long committedOffset;
+
+        /**
+         * The latest offset of the partition
+         */
+        private long endOffset;
+
+        /**
+         * The number of records left to consume
+         */
+        private long lag;
+    }
+}
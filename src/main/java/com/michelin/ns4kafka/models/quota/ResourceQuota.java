@@ -32,7 +32,11 @@ public class ResourceQuota {
         COUNT_TOPICS("count/topics"),
         COUNT_PARTITIONS("count/partitions"),
         DISK_TOPICS("disk/topics"),
-        COUNT_CONNECTORS("count/connectors");
+        DISK_USAGE("disk/usage"),
+        COUNT_CONNECTORS("count/connectors"),
+        USER_PRODUCER_BYTE_RATE("user/producer_byte_rate"),
+        USER_CONSUMER_BYTE_RATE("user/consumer_byte_rate"),
+        USER_REQUEST_PERCENTAGE("user/request_percentage");
 
         private final String key;
 
@@ -34,6 +34,7 @@ public class ResourceQuotaResponse {
         private String countTopic;
         private String countPartition;
         private String diskTopic;
+        private String diskUsage;
         private String countConnector;
     }
 }
@@ -6,6 +6,12 @@ import java.util.Collection;
 import java.util.List;
 
 public interface RoleBindingRepository {
+    /**
+     * List all role bindings
+     * @return The list of role bindings
+     */
+    List<RoleBinding> findAll();
+
     /**
      * List role bindings by groups
      * @param groups The groups used to research
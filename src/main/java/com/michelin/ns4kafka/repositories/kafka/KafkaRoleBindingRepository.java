@@ -8,6 +8,7 @@ import jakarta.inject.Singleton;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.producer.Producer;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -68,6 +69,15 @@ public class KafkaRoleBindingRepository extends KafkaStore<RoleBinding> implemen
         this.produce(getMessageKey(roleBinding),null);
     }
 
+    /**
+     * List all role bindings
+     * @return The list of role bindings
+     */
+    @Override
+    public List<RoleBinding> findAll() {
+        return new ArrayList<>(getKafkaStore().values());
+    }
+
     /**
      * List role bindings by groups
      * @param groups The groups used to research
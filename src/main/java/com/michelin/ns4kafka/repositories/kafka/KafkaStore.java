@@ -253,7 +253,7 @@ public abstract class KafkaStore<T> {
     }
 
     /**
-     * Handle a new consumed record
+     * Handle a new consumed record, then publish the change as a {@link KafkaStoreEvent}
      * See: /core/src/main/java/io/confluent/kafka/schemaregistry/storage/KafkaStoreReaderThread.java#L326
      * @param message The record
      */
@@ -261,11 +261,14 @@ public abstract class KafkaStore<T> {
         try {
             if (!message.key().equals("NOOP")) {
                 log.trace("Applying update ({},{}) to the local store", message.key(), message.value());
+                T previous;
                 if (message.value() == null) {
-                    store.remove(message.key());
+                    previous = store.remove(message.key());
                 } else {
-                    store.put(message.key(), message.value());
+                    previous = store.put(message.key(), message.value());
                 }
+
+                applicationContext.publishEvent(new KafkaStoreEvent(message.key(), previous, message.value()));
             }
 
             try {
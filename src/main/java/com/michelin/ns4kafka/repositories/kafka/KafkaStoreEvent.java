@@ -0,0 +1,23 @@
+package com.michelin.ns4kafka.repositories.kafka;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class KafkaStoreEvent {
+    /**
+     * The key of the changed record in the store
+     */
+    private String key;
+
+    /**
+     * The value before the change, null if the record is new
+     */
+    private Object previous;
+
+    /**
+     * The value after the change, null if the record has been deleted
+     */
+    private Object current;
+}
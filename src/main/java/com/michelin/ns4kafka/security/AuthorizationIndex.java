@@ -0,0 +1,229 @@
+package com.michelin.ns4kafka.security;
+
+import com.michelin.ns4kafka.models.Namespace;
+import com.michelin.ns4kafka.models.RoleBinding;
+import com.michelin.ns4kafka.repositories.NamespaceRepository;
+import com.michelin.ns4kafka.repositories.RoleBindingRepository;
+import com.michelin.ns4kafka.repositories.kafka.KafkaStoreEvent;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.http.HttpMethod;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Singleton
+public class AuthorizationIndex implements ApplicationEventListener<KafkaStoreEvent> {
+    @Inject
+    RoleBindingRepository roleBindingRepository;
+
+    @Inject
+    NamespaceRepository namespaceRepository;
+
+    /**
+     * The granted verbs by group, namespace and resource type, as a bitmask of {@link RoleBinding.Verb} ordinals
+     */
+    private final Map<String, Map<String, Map<String, Integer>>> verbsByGroup = new ConcurrentHashMap<>();
+
+    private final Set<String> existingNamespaces = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The groups that are the subject of a role binding, null until computed again
+     */
+    private volatile BoundGroups boundGroups;
+
+    /**
+     * Incremented on every store change, so that an entry computed from a store that changed meanwhile is not kept
+     */
+    private volatile long generation;
+
+    /**
+     * Check a namespace exists.
+     * Existing namespaces are kept once found, until they are deleted
+     * @param namespace The namespace
+     * @return true if it exists, false otherwise
+     */
+    public boolean namespaceExists(String namespace) {
+        if (existingNamespaces.contains(namespace)) {
+            return true;
+        }
+
+        long currentGeneration = generation;
+        boolean exists = namespaceRepository.findByName(namespace).isPresent();
+        if (exists) {
+            synchronized (this) {
+                if (currentGeneration == generation) {
+                    existingNamespaces.add(namespace);
+                }
+            }
+        }
+
+        return exists;
+    }
+
+    /**
+     * Check one of the given groups is granted a verb on a resource type of a namespace.
+     * The role bindings of a group are indexed on first access, then dropped when one of them changes
+     * @param groups The groups
+     * @param namespace The namespace
+     * @param resourceType The resource type
+     * @param method The HTTP method of the request
+     * @return true if one of the groups is granted the verb, false otherwise
+     */
+    public boolean isAllowed(List<String> groups, String namespace, String resourceType, HttpMethod method) {
+        int verb = toVerbMask(method);
+        if (verb == 0) {
+            return false;
+        }
+
+        for (int i = 0; i < groups.size(); i++) {
+            Map<String, Integer> verbsByResourceType = getVerbsByNamespace(groups.get(i)).get(namespace);
+            if (verbsByResourceType != null) {
+                Integer verbs = verbsByResourceType.get(resourceType);
+                if (verbs != null && (verbs & verb) != 0) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Filter the groups that are the subject of a role binding
+     * @param groups The groups
+     * @return The bound groups, in the given order
+     */
+    public List<String> findBoundGroups(Collection<String> groups) {
+        Set<String> names = getBoundGroups().names;
+        return groups.stream()
+                .filter(names::contains)
+                .toList();
+    }
+
+    /**
+     * Get the version of the bound groups.
+     * It changes whenever a group becomes or stops being the subject of a role binding
+     * @return The version
+     */
+    public String getBoundGroupsVersion() {
+        return getBoundGroups().version;
+    }
+
+    /**
+     * Drop the entries of the groups and namespaces affected by a store change
+     * @param event The store change
+     */
+    @Override
+    public synchronized void onApplicationEvent(KafkaStoreEvent event) {
+        try {
+            Object value = event.getCurrent() != null ? event.getCurrent() : event.getPrevious();
+            if (value instanceof RoleBinding) {
+                generation++;
+                boundGroups = null;
+                invalidateSubject((RoleBinding) event.getPrevious());
+                invalidateSubject((RoleBinding) event.getCurrent());
+            } else if (value instanceof Namespace namespace) {
+                generation++;
+                existingNamespaces.remove(namespace.getMetadata().getName());
+            }
+        } catch (RuntimeException e) {
+            log.error("Error applying store change {} to the authorization index, dropping the whole index", event.getKey(), e);
+            verbsByGroup.clear();
+            existingNamespaces.clear();
+            boundGroups = null;
+        }
+    }
+
+    /**
+     * Get the granted verbs of a group by namespace and resource type, computed from the role bindings if not indexed yet
+     * @param group The group
+     * @return The granted verbs
+     */
+    private Map<String, Map<String, Integer>> getVerbsByNamespace(String group) {
+        Map<String, Map<String, Integer>> verbsByNamespace = verbsByGroup.get(group);
+        if (verbsByNamespace != null) {
+            return verbsByNamespace;
+        }
+
+        long currentGeneration = generation;
+        verbsByNamespace = new HashMap<>();
+        for (RoleBinding roleBinding : roleBindingRepository.findAllForGroups(List.of(group))) {
+            Map<String, Integer> verbsByResourceType = verbsByNamespace
+                    .computeIfAbsent(roleBinding.getMetadata().getNamespace(), key -> new HashMap<>());
+            int verbs = roleBinding.getSpec().getRole().getVerbs()
+                    .stream()
+                    .mapToInt(verb -> 1 << verb.ordinal())
+                    .reduce(0, (left, right) -> left | right);
+            roleBinding.getSpec().getRole().getResourceTypes()
+                    .forEach(resourceType -> verbsByResourceType.merge(resourceType, verbs, (left, right) -> left | right));
+        }
+
+        synchronized (this) {
+            if (currentGeneration == generation) {
+                verbsByGroup.put(group, verbsByNamespace);
+            }
+        }
+
+        return verbsByNamespace;
+    }
+
+    /**
+     * Get the bound groups, computed from all the role bindings if not indexed yet
+     * @return The bound groups
+     */
+    private BoundGroups getBoundGroups() {
+        BoundGroups current = boundGroups;
+        if (current != null) {
+            return current;
+        }
+
+        long currentGeneration = generation;
+        List<String> names = roleBindingRepository.findAll()
+                .stream()
+                .filter(roleBinding -> roleBinding.getSpec().getSubject().getSubjectType() == RoleBinding.SubjectType.GROUP)
+                .map(roleBinding -> roleBinding.getSpec().getSubject().getSubjectName())
+                .distinct()
+                .sorted()
+                .toList();
+        current = new BoundGroups(Set.copyOf(names), Integer.toHexString(names.hashCode()));
+
+        synchronized (this) {
+            if (currentGeneration == generation) {
+                boundGroups = current;
+            }
+        }
+
+        return current;
+    }
+
+    private void invalidateSubject(RoleBinding roleBinding) {
+        if (roleBinding != null && roleBinding.getSpec().getSubject().getSubjectType() == RoleBinding.SubjectType.GROUP) {
+            verbsByGroup.remove(roleBinding.getSpec().getSubject().getSubjectName());
+        }
+    }
+
+    private static int toVerbMask(HttpMethod method) {
+        return switch (method) {
+            case GET -> 1 << RoleBinding.Verb.GET.ordinal();
+            case POST -> 1 << RoleBinding.Verb.POST.ordinal();
+            case PUT -> 1 << RoleBinding.Verb.PUT.ordinal();
+            case DELETE -> 1 << RoleBinding.Verb.DELETE.ordinal();
+            default -> 0;
+        };
+    }
+
+    private static class BoundGroups {
+        private final Set<String> names;
+
+        private final String version;
+
+        private BoundGroups(Set<String> names, String version) {
+            this.names = names;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.michelin.ns4kafka.security;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Tokenizer of the namespaced resource paths /api/namespaces/{namespace}/{resourceType}[/{name}[/{resourceSubtype}]].
+ * It accepts the same paths as the former namespacedResourcePattern regex of the {@link ResourceBasedSecurityRule}
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class NamespacedResourcePath {
+    private static final String PREFIX = "/api/namespaces/";
+
+    /**
+     * The resource types of the API, with their subresources ie. connectors/change-state or consumer-groups/reset.
+     * A resource type of the list is returned as is, any other one is built from the path
+     */
+    private static final String[] RESOURCE_TYPES = {
+            "acls",
+            "connect-clusters",
+            "connectors",
+            "connectors/change-state",
+            "connectors/import",
+            "consumer-groups",
+            "consumer-groups/reset",
+            "resource-quotas",
+            "role-bindings",
+            "schemas",
+            "schemas/config",
+            "streams",
+            "topics",
+            "topics/delete-records",
+            "topics/import",
+            "topics/stats",
+            "users",
+            "users/reset-password"
+    };
+
+    private final String namespace;
+
+    private final String resourceType;
+
+    /**
+     * Parse a request path
+     * @param path The path
+     * @return The namespace and the resource type of the path, null if the path is not a namespaced resource path
+     */
+    public static NamespacedResourcePath parse(String path) {
+        if (!path.startsWith(PREFIX)) {
+            return null;
+        }
+
+        int namespaceStart = PREFIX.length();
+        int namespaceEnd = scan(path, namespaceStart, true, false, true);
+        if (namespaceEnd == namespaceStart || namespaceEnd == path.length() || path.charAt(namespaceEnd) != '/') {
+            return null;
+        }
+
+        int typeStart = namespaceEnd + 1;
+        int typeEnd = scan(path, typeStart, false, false, true);
+        if (typeEnd == typeStart) {
+            return null;
+        }
+
+        int subtypeStart = -1;
+        int subtypeEnd = -1;
+        if (typeEnd < path.length()) {
+            if (path.charAt(typeEnd) != '/') {
+                return null;
+            }
+
+            int nameStart = typeEnd + 1;
+            int nameEnd = scan(path, nameStart, true, true, true);
+            if (nameEnd == nameStart) {
+                return null;
+            }
+
+            if (nameEnd < path.length()) {
+                if (path.charAt(nameEnd) != '/') {
+                    return null;
+                }
+
+                subtypeStart = nameEnd + 1;
+                subtypeEnd = scan(path, subtypeStart, false, false, false);
+                if (subtypeEnd == subtypeStart || subtypeEnd != path.length()) {
+                    return null;
+                }
+            }
+        }
+
+        return new NamespacedResourcePath(path.substring(namespaceStart, namespaceEnd),
+                resourceType(path, typeStart, typeEnd, subtypeStart, subtypeEnd));
+    }
+
+    /**
+     * Find the end of a path segment
+     * @param path The path
+     * @param start The start of the segment
+     * @param alphanumeric Whether upper case letters and digits are allowed, lower case letters and hyphens always are
+     * @param dot Whether dots are allowed
+     * @param underscore Whether underscores are allowed
+     * @return The index of the first character that is not allowed
+     */
+    private static int scan(String path, int start, boolean alphanumeric, boolean dot, boolean underscore) {
+        int index = start;
+        while (index < path.length()) {
+            char c = path.charAt(index);
+            boolean allowed = (c >= 'a' && c <= 'z') || c == '-'
+                    || (alphanumeric && ((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')))
+                    || (dot && c == '.')
+                    || (underscore && c == '_');
+            if (!allowed) {
+                return index;
+            }
+            index++;
+        }
+        return index;
+    }
+
+    private static String resourceType(String path, int typeStart, int typeEnd, int subtypeStart, int subtypeEnd) {
+        int typeLength = typeEnd - typeStart;
+        int length = subtypeStart < 0 ? typeLength : typeLength + 1 + subtypeEnd - subtypeStart;
+
+        for (String resourceType : RESOURCE_TYPES) {
+            if (resourceType.length() == length
+                    && path.regionMatches(typeStart, resourceType, 0, typeLength)
+                    && (subtypeStart < 0 || (resourceType.charAt(typeLength) == '/'
+                        && path.regionMatches(subtypeStart, resourceType, typeLength + 1, subtypeEnd - subtypeStart)))) {
+                return resourceType;
+            }
+        }
+
+        return subtypeStart < 0
+                ? path.substring(typeStart, typeEnd)
+                : path.substring(typeStart, typeEnd) + "/" + path.substring(subtypeStart, subtypeEnd);
+    }
+}
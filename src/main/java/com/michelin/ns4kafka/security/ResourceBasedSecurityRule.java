@@ -1,12 +1,8 @@
 package com.michelin.ns4kafka.security;
 
 import com.michelin.ns4kafka.config.SecurityConfig;
-import com.michelin.ns4kafka.models.RoleBinding;
-import com.michelin.ns4kafka.repositories.NamespaceRepository;
-import com.michelin.ns4kafka.repositories.RoleBindingRepository;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.async.publisher.Publishers;
-import io.micronaut.core.util.StringUtils;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.security.authentication.Authentication;
 import io.micronaut.security.rules.SecurityRule;
@@ -20,24 +16,20 @@ import org.reactivestreams.Publisher;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
 
 @Slf4j
 @Singleton
 public class ResourceBasedSecurityRule implements SecurityRule {
     public static final String IS_ADMIN = "isAdmin()";
 
-    private final Pattern namespacedResourcePattern = Pattern.compile("^\\/api\\/namespaces\\/(?<namespace>[a-zA-Z0-9_-]+)\\/(?<resourceType>[a-z_-]+)(\\/([a-zA-Z0-9_.-]+)(\\/(?<resourceSubtype>[a-z-]+))?)?$");
+    public static final String GROUPS_VERSION = "groupsVersion";
 
     @Inject
     SecurityConfig securityConfig;
 
     @Inject
-    RoleBindingRepository roleBindingRepository;
-
-    @Inject
-    NamespaceRepository namespaceRepository;
+    AuthorizationIndex authorizationIndex;
 
     @Override
     public Publisher<SecurityRuleResult> check(HttpRequest<?> request, RouteMatch<?> routeMatch, Authentication authentication) {
@@ -64,26 +56,25 @@ public class ResourceBasedSecurityRule implements SecurityRule {
         List<String> groups = (List<String>) authentication.getAttributes().get("groups");
         Collection<String> roles = authentication.getRoles();
 
+        // Token issued before a group became or stopped being the subject of a role binding
+        Object groupsVersion = authentication.getAttributes().get(GROUPS_VERSION);
+        if (groupsVersion != null && !groupsVersion.toString().equals(authorizationIndex.getBoundGroupsVersion())) {
+            log.debug("Outdated groups for user [{}] on path [{}]. Returning unknown.",sub,request.getPath());
+            return SecurityRuleResult.UNKNOWN;
+        }
+
         // Request to a URL that is not in the scope of this SecurityRule
-        Matcher matcher = namespacedResourcePattern.matcher(request.getPath());
-        if (!matcher.find()) {
+        NamespacedResourcePath resourcePath = NamespacedResourcePath.parse(request.getPath());
+        if (resourcePath == null) {
             log.debug("Invalid namespaced resource for path [{}]. Returning unknown.",request.getPath());
             return SecurityRuleResult.UNKNOWN;
         }
 
-        String namespace = matcher.group("namespace");
-        String resourceSubtype = matcher.group("resourceSubtype");
-        String resourceType;
-
-        // Subresource handling ie. connects/restart or groups/reset
-        if (StringUtils.isNotEmpty(resourceSubtype)) {
-            resourceType = matcher.group("resourceType") + "/" + resourceSubtype;
-        } else {
-            resourceType = matcher.group("resourceType");
-        }
+        String namespace = resourcePath.getNamespace();
+        String resourceType = resourcePath.getResourceType();
 
         // Namespace doesn't exist
-        if (namespaceRepository.findByName(namespace).isEmpty()) {
+        if (!authorizationIndex.namespaceExists(namespace)) {
             log.debug("Namespace not found for user [{}] on path [{}]. Returning unknown.",sub,request.getPath());
             return SecurityRuleResult.UNKNOWN;
         }
@@ -94,29 +85,13 @@ public class ResourceBasedSecurityRule implements SecurityRule {
             return SecurityRuleResult.ALLOWED;
         }
 
-        // Collect all roleBindings for this user
-        Collection<RoleBinding> roleBindings = roleBindingRepository.findAllForGroups(groups);
-        List<RoleBinding> authorizedRoleBindings = roleBindings.stream()
-                .filter(roleBinding -> roleBinding.getMetadata().getNamespace().equals(namespace))
-                .filter(roleBinding -> roleBinding.getSpec().getRole().getResourceTypes().contains(resourceType))
-                .filter(roleBinding -> roleBinding.getSpec().getRole().getVerbs()
-                        .stream()
-                        .map(Enum::name)
-                        .toList()
-                        .contains(request.getMethodName()))
-                .toList();
-
         // User not authorized to access requested resource
-        if (authorizedRoleBindings.isEmpty()) {
+        if (!authorizationIndex.isAllowed(groups, namespace, resourceType, request.getMethod())) {
             log.debug("No matching RoleBinding for user [{}] on path [{}]. Returning unknown.",sub,request.getPath());
             return SecurityRuleResult.UNKNOWN;
         }
 
-        if (log.isDebugEnabled()) {
-            authorizedRoleBindings.forEach(roleBinding -> log.debug("Found matching RoleBinding : {}", roleBinding.toString()));
-            log.debug("Authorized user [{}] on path [{}]",sub,request.getPath());
-        }
-
+        log.debug("Authorized user [{}] on path [{}]",sub,request.getPath());
         return SecurityRuleResult.ALLOWED;
     }
 
@@ -134,4 +109,21 @@ public class ResourceBasedSecurityRule implements SecurityRule {
 
         return roles;
     }
+
+    /**
+     * Compute the attributes of the token of a user.
+     * Only the groups that are the subject of a role binding, or the admin group, are kept,
+     * along with the version of the bound groups that invalidates the token when they change
+     * @param groups The groups of the user
+     * @return The attributes
+     */
+    public Map<String, Object> computeAttributesFromGroups(List<String> groups) {
+        List<String> boundGroups = authorizationIndex.findBoundGroups(groups);
+        if (groups.contains(securityConfig.getAdminGroup()) && !boundGroups.contains(securityConfig.getAdminGroup())) {
+            boundGroups = new ArrayList<>(boundGroups);
+            boundGroups.add(securityConfig.getAdminGroup());
+        }
+
+        return Map.of("groups", boundGroups, GROUPS_VERSION, authorizationIndex.getBoundGroupsVersion());
+    }
 }
@@ -3,19 +3,28 @@ package com.michelin.ns4kafka.security.gitlab;
 import com.michelin.ns4kafka.config.SecurityConfig;
 import com.michelin.ns4kafka.security.ResourceBasedSecurityRule;
 import com.michelin.ns4kafka.services.RoleBindingService;
+import io.micronaut.context.annotation.Property;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.security.authentication.*;
 import io.reactivex.rxjava3.core.BackpressureStrategy;
 import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import org.reactivestreams.Publisher;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 @Slf4j
@@ -33,6 +42,22 @@ public class GitlabAuthenticationProvider implements AuthenticationProvider {
     @Inject
     SecurityConfig securityConfig;
 
+    @Property(name = "micronaut.security.gitlab.cache-ttl", defaultValue = "60000")
+    long cacheTtl;
+
+    @Property(name = "micronaut.security.gitlab.cache-refresh", defaultValue = "false")
+    boolean cacheRefresh;
+
+    /**
+     * The clock of the cache TTL
+     */
+    Clock clock = Clock.systemUTC();
+
+    /**
+     * The GitLab users by SHA-256 hash of their token
+     */
+    private final Map<String, GitlabUser> gitlabUsers = new ConcurrentHashMap<>();
+
     /**
      * Perform user authentication with GitLab
      * @param httpRequest The HTTP request
@@ -47,17 +72,21 @@ public class GitlabAuthenticationProvider implements AuthenticationProvider {
             log.debug("Checking authentication with token: {}", token);
 
             try {
-                String username = gitlabAuthenticationService.findUsername(token).blockingGet();
-                List<String> groups = gitlabAuthenticationService.findAllGroups(token).toList().blockingGet();
+                GitlabUser gitlabUser = getGitlabUser(token);
+                String username = gitlabUser.username;
+                List<String> groups = gitlabUser.groups;
 
                 if (roleBindingService.listByGroups(groups).isEmpty() && !groups.contains(securityConfig.getAdminGroup())) {
                     log.debug("Error during authentication: user groups not found in any namespace");
                     emitter.onError(new AuthenticationException(new AuthenticationFailed("User groups not found in any namespace. There may be an error on the GitLab group of your namespace.")));
                 } else {
-                    AuthenticationResponse user = AuthenticationResponse.success(username, resourceBasedSecurityRule.computeRolesFromGroups(groups), Map.of("groups", groups));
+                    AuthenticationResponse user = AuthenticationResponse.success(username, resourceBasedSecurityRule.computeRolesFromGroups(groups), resourceBasedSecurityRule.computeAttributesFromGroups(groups));
                     emitter.onNext(user);
                     emitter.onComplete();
                 }
+            } catch (AuthenticationException e) {
+                log.debug("Error during authentication: {}", e.getMessage());
+                emitter.onError(e);
             } catch (Exception e){
                 log.debug("Exception during authentication: {}", e.getMessage());
                 emitter.onError(new AuthenticationException(new AuthenticationFailed(AuthenticationFailureReason.CREDENTIALS_DO_NOT_MATCH)));
@@ -68,4 +97,75 @@ public class GitlabAuthenticationProvider implements AuthenticationProvider {
         return responseFlowable.subscribeOn(Schedulers.io());
     }
 
+    /**
+     * Get the username and the groups of a GitLab user.
+     * They are kept for the cache TTL, and refreshed in the background after half of it when the refresh is enabled.
+     * A failed refresh drops them, so a revoked token is not accepted any longer
+     * @param token The user token
+     * @return The GitLab user
+     */
+    private GitlabUser getGitlabUser(String token) {
+        if (cacheTtl <= 0) {
+            return fetchGitlabUser(token).blockingGet();
+        }
+
+        String key = hash(token);
+        long now = clock.millis();
+        GitlabUser cached = gitlabUsers.get(key);
+        if (cached != null && now < cached.fetchedAt + cacheTtl) {
+            if (cacheRefresh && now >= cached.fetchedAt + cacheTtl / 2 && cached.refreshing.compareAndSet(false, true)) {
+                fetchGitlabUser(token)
+                        .subscribeOn(Schedulers.io())
+                        .subscribe(refreshed -> gitlabUsers.replace(key, cached, refreshed), error -> {
+                            log.debug("Exception during the refresh of a GitLab user: {}", error.getMessage());
+                            gitlabUsers.remove(key, cached);
+                        });
+            }
+
+            return cached;
+        }
+
+        GitlabUser gitlabUser = fetchGitlabUser(token).blockingGet();
+        gitlabUsers.values().removeIf(expired -> now >= expired.fetchedAt + cacheTtl);
+        gitlabUsers.put(key, gitlabUser);
+        return gitlabUser;
+    }
+
+    /**
+     * Find the username and the groups of a GitLab user at the same time. A token without user fails the authentication
+     * @param token The user token
+     * @return The GitLab user
+     */
+    private Single<GitlabUser> fetchGitlabUser(String token) {
+        Single<String> username = gitlabAuthenticationService.findUsername(token)
+                .switchIfEmpty(Single.error(() -> new AuthenticationException(new AuthenticationFailed(AuthenticationFailureReason.USER_NOT_FOUND))));
+
+        return Single.zip(username,
+                gitlabAuthenticationService.findAllGroups(token).toList(),
+                (name, groups) -> new GitlabUser(name, groups, clock.millis()));
+    }
+
+    private static String hash(String token) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class GitlabUser {
+        private final String username;
+
+        private final List<String> groups;
+
+        private final long fetchedAt;
+
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+        private GitlabUser(String username, List<String> groups, long fetchedAt) {
+            this.username = username;
+            this.groups = groups;
+            this.fetchedAt = fetchedAt;
+        }
+    }
 }
@@ -14,6 +14,11 @@ import java.util.Map;
 @Slf4j
 @Singleton
 public class GitlabAuthenticationService {
+    /**
+     * The maximum number of group pages fetched at the same time, to stay below the GitLab rate limits
+     */
+    private static final int MAX_CONCURRENT_PAGES = 8;
+
     @Inject
     GitlabApiClient gitlabApiClient;
 
@@ -23,7 +28,9 @@ public class GitlabAuthenticationService {
      * @return The user groups
      */
     public Flowable<String> findAllGroups(String token){
-        return getPageAndNext(token,1)
+        return gitlabApiClient.getGroupsPage(token, 1)
+            .concatMap(response -> Flowable.just(response)
+                    .concatWith(getNextPages(token, response)))
             .flatMap(response -> Flowable.fromIterable(
                 response.body()
                         .stream()
@@ -44,6 +51,33 @@ public class GitlabAuthenticationService {
             .map(stringObjectMap -> stringObjectMap.get("email").toString());
     }
 
+    /**
+     * Fetch the pages of GitLab user groups following the first one.
+     * When the total number of pages is known, the pages are fetched concurrently and emitted in order,
+     * otherwise they are fetched one after another
+     * @param token The user token
+     * @param firstPage The first page
+     * @return The user groups information
+     */
+    private Flowable<HttpResponse<List<Map<String, Object>>>> getNextPages(String token, HttpResponse<List<Map<String, Object>>> firstPage) {
+        log.debug("Call GitLab groups page 1/{}", firstPage.header("X-Total-Pages"));
+
+        if (StringUtils.isEmpty(firstPage.header("X-Next-Page"))) {
+            return Flowable.empty();
+        }
+
+        if (StringUtils.isEmpty(firstPage.header("X-Total-Pages"))) {
+            return getPageAndNext(token, Integer.parseInt(firstPage.header("X-Next-Page")));
+        }
+
+        int totalPages = Integer.parseInt(firstPage.header("X-Total-Pages"));
+        return Flowable.range(2, Math.max(0, totalPages - 1))
+                .concatMapEager(page -> {
+                    log.debug("Call GitLab groups page {}/{}", page, totalPages);
+                    return gitlabApiClient.getGroupsPage(token, page);
+                }, MAX_CONCURRENT_PAGES, 1);
+    }
+
     /**
      * Fetch all pages of GitLab user groups
      * @param token The user token
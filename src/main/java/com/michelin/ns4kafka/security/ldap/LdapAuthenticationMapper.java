@@ -13,7 +13,6 @@ import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 @Singleton
@@ -25,6 +24,7 @@ public class LdapAuthenticationMapper implements ContextAuthenticationMapper {
 
     @Override
     public AuthenticationResponse map(ConvertibleValues<Object> attributes, String username, Set<String> groups) {
-        return AuthenticationResponse.success(username, resourceBasedSecurityRule.computeRolesFromGroups(List.copyOf(groups)), Map.of("groups",groups));
+        List<String> groupList = List.copyOf(groups);
+        return AuthenticationResponse.success(username, resourceBasedSecurityRule.computeRolesFromGroups(groupList), resourceBasedSecurityRule.computeAttributesFromGroups(groupList));
     }
 }
@@ -14,7 +14,6 @@ import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import org.reactivestreams.Publisher;
 
-import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
@@ -40,7 +39,7 @@ public class LocalUserAuthenticationProvider implements AuthenticationProvider {
             if (authenticatedUser.isPresent()) {
                 AuthenticationResponse user = AuthenticationResponse.success(username,
                         resourceBasedSecurityRule.computeRolesFromGroups(authenticatedUser.get().getGroups()),
-                        Map.of("groups", authenticatedUser.get().getGroups()));
+                        resourceBasedSecurityRule.computeAttributesFromGroups(authenticatedUser.get().getGroups()));
                 emitter.onNext(user);
             }
             emitter.onComplete();
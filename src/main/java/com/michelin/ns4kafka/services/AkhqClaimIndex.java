@@ -0,0 +1,203 @@
+package com.michelin.ns4kafka.services;
+
+import com.michelin.ns4kafka.config.AkhqClaimProviderControllerConfig;
+import com.michelin.ns4kafka.models.AccessControlEntry;
+import com.michelin.ns4kafka.models.Namespace;
+import com.michelin.ns4kafka.repositories.kafka.KafkaStoreEvent;
+import com.michelin.ns4kafka.utils.ResourcePatternUtils;
+import io.micronaut.context.event.ApplicationEventListener;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+import static com.michelin.ns4kafka.services.AccessControlEntryService.PUBLIC_GRANTED_TO;
+
+@Slf4j
+@Singleton
+public class AkhqClaimIndex implements ApplicationEventListener<KafkaStoreEvent> {
+    private static final GrantedResources NO_RESOURCES = new GrantedResources(List.of(), List.of());
+
+    @Inject
+    AkhqClaimProviderControllerConfig config;
+
+    @Inject
+    AccessControlEntryService accessControlEntryService;
+
+    @Inject
+    NamespaceService namespaceService;
+
+    /**
+     * The namespaces by value of the group label, null until computed again
+     */
+    private Map<String, List<Namespace>> namespacesByGroup;
+
+    private final Map<String, GrantedResources> resourcesByGroup = new HashMap<>();
+
+    private GrantedResources publicResources;
+
+    /**
+     * Get the regexes of the topics and connectors the given groups can see in AKHQ.
+     * The ACLs of a group are collected on first access from its namespaces, then kept up to date from the store changes.
+     * The ACLs matched by another one are left out, and the remaining ones are merged into a single regex if configured
+     * @param groups The groups
+     * @return The allowed regexes
+     */
+    public synchronized AllowedRegexes getAllowedRegexes(List<String> groups) {
+        List<AccessControlEntry> topics = new ArrayList<>();
+        List<AccessControlEntry> connects = new ArrayList<>();
+
+        for (String group : groups) {
+            GrantedResources groupResources = getGroupResources(group);
+            topics.addAll(groupResources.topics);
+            connects.addAll(groupResources.connects);
+        }
+
+        if (publicResources == null) {
+            publicResources = collectResources(accessControlEntryService.findAllPublicGrantedTo());
+        }
+
+        topics.addAll(publicResources.topics);
+        connects.addAll(publicResources.connects);
+        return new AllowedRegexes(toRegexes(topics), toRegexes(connects));
+    }
+
+    /**
+     * Apply a store change to the kept ACLs.
+     * An ACL change drops the ACLs of the group of its namespace, or all of them for a public ACL.
+     * A namespace change drops the ACLs of its former and new groups, and moves it to its new group
+     * @param event The store change
+     */
+    @Override
+    public synchronized void onApplicationEvent(KafkaStoreEvent event) {
+        try {
+            Object value = event.getCurrent() != null ? event.getCurrent() : event.getPrevious();
+            if (value instanceof AccessControlEntry) {
+                invalidateGrantedTo((AccessControlEntry) event.getPrevious());
+                invalidateGrantedTo((AccessControlEntry) event.getCurrent());
+            } else if (value instanceof Namespace namespace) {
+                invalidateGroupOf((Namespace) event.getPrevious());
+                invalidateGroupOf((Namespace) event.getCurrent());
+                updateNamespace(namespace.getMetadata().getName(), (Namespace) event.getCurrent());
+            }
+        } catch (RuntimeException e) {
+            log.error("Error applying store change {} to the AKHQ claims, dropping all the ACLs", event.getKey(), e);
+            namespacesByGroup = null;
+            resourcesByGroup.clear();
+            publicResources = null;
+        }
+    }
+
+    private GrantedResources getGroupResources(String group) {
+        GrantedResources groupResources = resourcesByGroup.get(group);
+        if (groupResources != null) {
+            return groupResources;
+        }
+
+        List<Namespace> namespaces = getNamespacesByGroup().get(group);
+        if (namespaces == null) {
+            return NO_RESOURCES;
+        }
+
+        groupResources = collectResources(namespaces
+                .stream()
+                .flatMap(namespace -> accessControlEntryService.findAllGrantedToNamespace(namespace).stream())
+                .toList());
+        resourcesByGroup.put(group, groupResources);
+        return groupResources;
+    }
+
+    private Map<String, List<Namespace>> getNamespacesByGroup() {
+        if (namespacesByGroup == null) {
+            namespacesByGroup = new HashMap<>();
+            namespaceService.listAll()
+                    .stream()
+                    .filter(namespace -> namespace.getMetadata().getLabels() != null)
+                    .forEach(namespace -> namespacesByGroup.computeIfAbsent(getGroup(namespace), key -> new ArrayList<>()).add(namespace));
+        }
+
+        return namespacesByGroup;
+    }
+
+    private GrantedResources collectResources(List<AccessControlEntry> acls) {
+        return new GrantedResources(ResourcePatternUtils.minimize(filterByResourceType(acls, AccessControlEntry.ResourceType.TOPIC)),
+                ResourcePatternUtils.minimize(filterByResourceType(acls, AccessControlEntry.ResourceType.CONNECT)));
+    }
+
+    private List<AccessControlEntry> filterByResourceType(List<AccessControlEntry> acls, AccessControlEntry.ResourceType resourceType) {
+        return acls.stream()
+                .filter(accessControlEntry -> accessControlEntry.getSpec().getResourceType() == resourceType)
+                .toList();
+    }
+
+    private List<String> toRegexes(List<AccessControlEntry> acls) {
+        List<AccessControlEntry> minimalAcls = ResourcePatternUtils.minimize(acls);
+        if (config.isMergeRegexes() && minimalAcls.size() > 1) {
+            return List.of(ResourcePatternUtils.toAlternationRegex(minimalAcls));
+        }
+
+        return minimalAcls.stream()
+                .map(ResourcePatternUtils::toRegex)
+                .toList();
+    }
+
+    private String getGroup(Namespace namespace) {
+        return namespace.getMetadata().getLabels().getOrDefault(config.getGroupLabel(), "_");
+    }
+
+    private void invalidateGrantedTo(AccessControlEntry accessControlEntry) {
+        if (accessControlEntry == null) {
+            return;
+        }
+
+        if (PUBLIC_GRANTED_TO.equals(accessControlEntry.getSpec().getGrantedTo())) {
+            publicResources = null;
+            resourcesByGroup.clear();
+        } else if (namespacesByGroup != null) {
+            namespacesByGroup.forEach((group, namespaces) -> {
+                if (namespaces.stream().anyMatch(namespace -> namespace.getMetadata().getName().equals(accessControlEntry.getSpec().getGrantedTo()))) {
+                    resourcesByGroup.remove(group);
+                }
+            });
+        }
+    }
+
+    private void updateNamespace(String name, Namespace current) {
+        if (namespacesByGroup == null) {
+            return;
+        }
+
+        namespacesByGroup.values().forEach(namespaces -> namespaces.removeIf(namespace -> namespace.getMetadata().getName().equals(name)));
+        namespacesByGroup.values().removeIf(List::isEmpty);
+        if (current != null && current.getMetadata().getLabels() != null) {
+            namespacesByGroup.computeIfAbsent(getGroup(current), key -> new ArrayList<>()).add(current);
+        }
+    }
+
+    private void invalidateGroupOf(Namespace namespace) {
+        if (namespace != null && namespace.getMetadata().getLabels() != null) {
+            resourcesByGroup.remove(getGroup(namespace));
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class AllowedRegexes {
+        private List<String> topics;
+        private List<String> connects;
+    }
+
+    private static class GrantedResources {
+        private final List<AccessControlEntry> topics;
+
+        private final List<AccessControlEntry> connects;
+
+        private GrantedResources(List<AccessControlEntry> topics, List<AccessControlEntry> connects) {
+            this.topics = topics;
+            this.connects = connects;
+        }
+    }
+}
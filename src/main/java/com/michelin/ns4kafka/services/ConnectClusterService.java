@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -145,19 +146,27 @@ public class ConnectClusterService {
             errors.add(String.format("A Connect cluster is already defined globally with the name %s. Please provide a different name.", connectCluster.getMetadata().getName()));
         }
 
-        try {
-            MutableHttpRequest<?> request = HttpRequest.GET(new URL(connectCluster.getSpec().getUrl()) + "/connectors?expand=info&expand=status");
-            if (StringUtils.hasText(connectCluster.getSpec().getUsername()) && StringUtils.hasText(connectCluster.getSpec().getPassword())){
-                request.basicAuth(connectCluster.getSpec().getUsername(), connectCluster.getSpec().getPassword());
-            }
-            HttpResponse<?> response = httpClient.exchange(request).blockingFirst();
-            if (!response.getStatus().equals(HttpStatus.OK)) {
-                errors.add(String.format("The Connect cluster %s is not healthy (HTTP code %s).", connectCluster.getMetadata().getName(), response.getStatus().getCode()));
+        // Every worker of the Connect cluster is checked, as the calls are balanced between them
+        List<String> urls = ProxyRoutingTable.Route.parseUrls(connectCluster.getSpec().getUrl());
+        if (urls.isEmpty()) {
+            urls = Collections.singletonList(connectCluster.getSpec().getUrl());
+        }
+
+        for (String url : urls) {
+            try {
+                MutableHttpRequest<?> request = HttpRequest.GET(new URL(url) + "/connectors?expand=info&expand=status");
+                if (StringUtils.hasText(connectCluster.getSpec().getUsername()) && StringUtils.hasText(connectCluster.getSpec().getPassword())){
+                    request.basicAuth(connectCluster.getSpec().getUsername(), connectCluster.getSpec().getPassword());
+                }
+                HttpResponse<?> response = httpClient.exchange(request).blockingFirst();
+                if (!response.getStatus().equals(HttpStatus.OK)) {
+                    errors.add(String.format("The Connect cluster %s is not healthy at \"%s\" (HTTP code %s).", connectCluster.getMetadata().getName(), url, response.getStatus().getCode()));
+                }
+            } catch (MalformedURLException e) {
+                errors.add(String.format("The Connect cluster %s has a malformed URL \"%s\".", connectCluster.getMetadata().getName(), url));
+            } catch (HttpClientException e) {
+                errors.add(String.format("The following error occurred trying to check the Connect cluster %s health at \"%s\": %s.", connectCluster.getMetadata().getName(), url, e.getMessage()));
             }
-        } catch (MalformedURLException e) {
-            errors.add(String.format("The Connect cluster %s has a malformed URL \"%s\".", connectCluster.getMetadata().getName(), connectCluster.getSpec().getUrl()));
-        } catch (HttpClientException e) {
-            errors.add(String.format("The following error occurred trying to check the Connect cluster %s health: %s.", connectCluster.getMetadata().getName(), e.getMessage()));
         }
 
         return errors;
@@ -4,7 +4,7 @@ import com.michelin.ns4kafka.models.AccessControlEntry;
 import com.michelin.ns4kafka.models.Namespace;
 import com.michelin.ns4kafka.models.connector.Connector;
 import com.michelin.ns4kafka.repositories.ConnectorRepository;
-import com.michelin.ns4kafka.services.connect.ConnectorClientProxy;
+import com.michelin.ns4kafka.services.connect.ConnectorStatusCache;
 import com.michelin.ns4kafka.services.connect.client.ConnectorClient;
 import com.michelin.ns4kafka.services.connect.client.entities.ConnectorSpecs;
 import com.michelin.ns4kafka.services.executors.ConnectorAsyncExecutor;
@@ -42,6 +42,9 @@ public class ConnectorService {
     @Inject
     ConnectClusterService connectClusterService;
 
+    @Inject
+    ConnectorStatusCache connectorStatusCache;
+
     /**
      * Find all connectors by given namespace
      * @param namespace The namespace
@@ -119,7 +122,7 @@ public class ConnectorService {
         }
 
         // Connector type exists on this target connect cluster ?
-        return connectorClient.connectPlugins(ConnectorClientProxy.PROXY_SECRET, namespace.getMetadata().getCluster(),
+        return connectorClient.connectPlugins(namespace.getMetadata().getCluster(),
                         connector.getSpec().getConnectCluster())
                 .map(connectorPluginInfos -> {
                     Optional<String> connectorType = connectorPluginInfos
@@ -154,7 +157,7 @@ public class ConnectorService {
      * @return A list of errors
      */
     public Single<List<String>> validateRemotely(Namespace namespace, Connector connector) {
-        return connectorClient.validate(ConnectorClientProxy.PROXY_SECRET, namespace.getMetadata().getCluster(),
+        return connectorClient.validate(namespace.getMetadata().getCluster(),
                         connector.getSpec().getConnectCluster(), connector.getSpec().getConfig().get("connector.class"),
                 ConnectorSpecs.builder()
                         .config(connector.getSpec().getConfig())
@@ -181,11 +184,12 @@ public class ConnectorService {
      * @param connector The connector
      */
     public Single<HttpResponse<Void>> delete(Namespace namespace, Connector connector) {
-        return connectorClient.delete(ConnectorClientProxy.PROXY_SECRET, namespace.getMetadata().getCluster(),
+        return connectorClient.delete(namespace.getMetadata().getCluster(),
                         connector.getSpec().getConnectCluster(), connector.getMetadata().getName())
                 .defaultIfEmpty(HttpResponse.noContent())
                 .map(httpResponse -> {
                     connectorRepository.delete(connector);
+                    connectorStatusCache.invalidate(namespace.getMetadata().getCluster(), connector.getSpec().getConnectCluster());
 
                     if (log.isInfoEnabled()) {
                         log.info("Success removing Connector [" + connector.getMetadata().getName() +
@@ -227,11 +231,11 @@ public class ConnectorService {
      * @return An HTTP response
      */
     public Single<HttpResponse<Void>> restart(Namespace namespace, Connector connector) {
-        return connectorClient.status(ConnectorClientProxy.PROXY_SECRET, namespace.getMetadata().getCluster(), connector.getSpec().getConnectCluster(),
+        return connectorStatusCache.status(namespace.getMetadata().getCluster(), connector.getSpec().getConnectCluster(),
                 connector.getMetadata().getName())
                 .flatMap(status -> {
                     Observable<HttpResponse<Void>> observable = Observable.fromIterable(status.tasks())
-                        .flatMapSingle(task -> connectorClient.restart(ConnectorClientProxy.PROXY_SECRET, namespace.getMetadata().getCluster(),
+                        .flatMapSingle(task -> connectorClient.restart(namespace.getMetadata().getCluster(),
                                 connector.getSpec().getConnectCluster(), connector.getMetadata().getName(), task.id()))
                         .map(restartedTasks -> {
                             log.info("Success restarting connector [{}] on namespace [{}] connect [{}]",
@@ -243,7 +247,8 @@ public class ConnectorService {
                         });
 
                     return Single.fromObservable(observable);
-                });
+                })
+                .doFinally(() -> connectorStatusCache.invalidate(namespace.getMetadata().getCluster(), connector.getSpec().getConnectCluster()));
     }
 
     /**
@@ -253,9 +258,10 @@ public class ConnectorService {
      * @return An HTTP response
      */
     public Single<HttpResponse<Void>> pause(Namespace namespace, Connector connector) {
-        return connectorClient.pause(ConnectorClientProxy.PROXY_SECRET, namespace.getMetadata().getCluster(),
+        return connectorClient.pause(namespace.getMetadata().getCluster(),
                 connector.getSpec().getConnectCluster(), connector.getMetadata().getName())
                         .map(pause -> {
+                            connectorStatusCache.invalidate(namespace.getMetadata().getCluster(), connector.getSpec().getConnectCluster());
                             log.info("Success pausing Connector [{}] on Namespace [{}] Connect [{}]",
                                     connector.getMetadata().getName(),
                                     namespace.getMetadata().getName(),
@@ -272,9 +278,10 @@ public class ConnectorService {
      * @return An HTTP response
      */
     public Single<HttpResponse<Void>> resume(Namespace namespace, Connector connector) {
-        return connectorClient.resume(ConnectorClientProxy.PROXY_SECRET, namespace.getMetadata().getCluster(),
+        return connectorClient.resume(namespace.getMetadata().getCluster(),
                 connector.getSpec().getConnectCluster(), connector.getMetadata().getName())
                         .map(resume -> {
+                            connectorStatusCache.invalidate(namespace.getMetadata().getCluster(), connector.getSpec().getConnectCluster());
                             log.info("Success resuming Connector [{}] on Namespace [{}] Connect [{}]",
                                     connector.getMetadata().getName(),
                                     namespace.getMetadata().getName(),
@@ -2,22 +2,28 @@ package com.michelin.ns4kafka.services;
 
 import com.michelin.ns4kafka.models.AccessControlEntry;
 import com.michelin.ns4kafka.models.Namespace;
+import com.michelin.ns4kafka.models.ObjectMeta;
+import com.michelin.ns4kafka.models.consumer.group.ConsumerGroupBulkResetOffsets;
 import com.michelin.ns4kafka.models.consumer.group.ConsumerGroupResetOffsets;
 import com.michelin.ns4kafka.models.consumer.group.ConsumerGroupResetOffsets.ResetOffsetsMethod;
+import com.michelin.ns4kafka.models.consumer.group.ConsumerGroupStatus;
 import com.michelin.ns4kafka.services.executors.ConsumerGroupAsyncExecutor;
 import io.micronaut.context.ApplicationContext;
+import io.micronaut.context.annotation.Property;
 import io.micronaut.inject.qualifiers.Qualifiers;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
+import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.clients.admin.OffsetSpec;
 import org.apache.kafka.common.TopicPartition;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -30,6 +36,11 @@ public class ConsumerGroupService {
     @Inject
     AccessControlEntryService accessControlEntryService;
 
+    @Property(name = "ns4kafka.consumer-group.status-cache-ttl", defaultValue = "5000")
+    long statusCacheTtl;
+
+    private final Map<String, CachedConsumerGroupStatuses> consumerGroupStatuses = new ConcurrentHashMap<>();
+
     /**
      * Check if a given namespace is owner of a given group
      * @param namespace The namespace
@@ -46,17 +57,39 @@ public class ConsumerGroupService {
      * @return A list of validation errors
      */
     public List<String> validateResetOffsets(ConsumerGroupResetOffsets consumerGroupResetOffsets) {
+        return validateResetOffsets(List.of(consumerGroupResetOffsets.getSpec().getTopic()),
+                consumerGroupResetOffsets.getSpec().getMethod(), consumerGroupResetOffsets.getSpec().getOptions());
+    }
+
+    /**
+     * Validate the given bulk reset offsets options
+     * @param consumerGroupBulkResetOffsets The bulk reset offsets options
+     * @return A list of validation errors
+     */
+    public List<String> validateBulkResetOffsets(ConsumerGroupBulkResetOffsets consumerGroupBulkResetOffsets) {
+        return validateResetOffsets(consumerGroupBulkResetOffsets.getSpec().getTopics(),
+                consumerGroupBulkResetOffsets.getSpec().getMethod(), consumerGroupBulkResetOffsets.getSpec().getOptions());
+    }
+
+    /**
+     * Validate the given topics, method and options of a reset
+     * @param topics The topics to reset
+     * @param method The method of offsets reset
+     * @param options The options of the method
+     * @return A list of validation errors
+     */
+    private List<String> validateResetOffsets(List<String> topics, ResetOffsetsMethod method, String options) {
         List<String> validationErrors = new ArrayList<>();
         // validate topic
         // allowed : *, <topic>, <topic:partition>
         Pattern validTopicValue = Pattern.compile("^(\\*|[a-zA-Z0-9-_.]+(:[0-9]+)?)$");
-        if (!validTopicValue.matcher(consumerGroupResetOffsets.getSpec().getTopic()).matches()) {
-            validationErrors.add("Invalid topic name \"" + consumerGroupResetOffsets.getSpec().getTopic() + "\". Value must match [*, <topic>, <topic:partition>].");
-        }
+        topics.forEach(topic -> {
+            if (!validTopicValue.matcher(topic).matches()) {
+                validationErrors.add("Invalid topic name \"" + topic + "\". Value must match [*, <topic>, <topic:partition>].");
+            }
+        });
 
-        String options = consumerGroupResetOffsets.getSpec().getOptions();
-
-        switch (consumerGroupResetOffsets.getSpec().getMethod()) {
+        switch (method) {
             case SHIFT_BY:
                 try {
                     Integer.parseInt(options);
@@ -112,6 +145,122 @@ public class ConsumerGroupService {
         return consumerGroupAsyncExecutor.describeConsumerGroups(List.of(groupId)).get(groupId).state().toString();
     }
 
+    /**
+     * List the state and the lag of all the consumer groups owned by a given namespace.
+     * The groups are described and their offsets resolved with a single request of each kind,
+     * and the result is served from memory until the TTL expires
+     * @param namespace The namespace
+     * @return The consumer group statuses
+     * @throws ExecutionException Any execution exception during consumer groups description
+     * @throws InterruptedException Any interrupted exception during consumer groups description
+     */
+    public List<ConsumerGroupStatus> listConsumerGroupStatuses(Namespace namespace) throws ExecutionException, InterruptedException {
+        // Concurrent callers share the same build of the statuses
+        CachedConsumerGroupStatuses building = new CachedConsumerGroupStatuses();
+        CachedConsumerGroupStatuses cached = consumerGroupStatuses.compute(namespace.getMetadata().getName(),
+                (name, current) -> current != null && !current.isExpired(statusCacheTtl) ? current : building);
+
+        if (cached == building) {
+            try {
+                building.complete(buildConsumerGroupStatuses(namespace));
+            } catch (ExecutionException e) {
+                consumerGroupStatuses.remove(namespace.getMetadata().getName(), building);
+                building.statuses.completeExceptionally(e.getCause());
+                throw e;
+            } catch (InterruptedException | RuntimeException e) {
+                consumerGroupStatuses.remove(namespace.getMetadata().getName(), building);
+                building.statuses.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        return cached.statuses.get();
+    }
+
+    /**
+     * Describe the consumer groups owned by a given namespace and compute their lag
+     * @param namespace The namespace
+     * @return The consumer group statuses
+     * @throws ExecutionException Any execution exception during consumer groups description
+     * @throws InterruptedException Any interrupted exception during consumer groups description
+     */
+    private List<ConsumerGroupStatus> buildConsumerGroupStatuses(Namespace namespace) throws ExecutionException, InterruptedException {
+        ConsumerGroupAsyncExecutor consumerGroupAsyncExecutor = applicationContext.getBean(ConsumerGroupAsyncExecutor.class,
+                Qualifiers.byName(namespace.getMetadata().getCluster()));
+
+        List<String> groupIds = consumerGroupAsyncExecutor.listConsumerGroupIds()
+                .stream()
+                .filter(groupId -> isNamespaceOwnerOfConsumerGroup(namespace.getMetadata().getName(), groupId))
+                .sorted()
+                .toList();
+
+        if (groupIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, ConsumerGroupDescription> descriptions = consumerGroupAsyncExecutor.describeConsumerGroups(groupIds);
+        Map<String, Map<TopicPartition, Long>> committedOffsets = consumerGroupAsyncExecutor.getCommittedOffsetsByGroup(groupIds);
+
+        // A single listOffsets request for the partitions of all the groups. The partitions of deleted topics have no end offset and are skipped
+        List<TopicPartition> partitions = committedOffsets.values()
+                .stream()
+                .flatMap(offsets -> offsets.keySet().stream())
+                .distinct()
+                .toList();
+        Map<TopicPartition, Long> endOffsets = consumerGroupAsyncExecutor.getAvailableLogEndOffsets(partitions);
+
+        return groupIds
+                .stream()
+                .map(groupId -> {
+                    List<ConsumerGroupStatus.PartitionLag> partitionLags = committedOffsets.getOrDefault(groupId, Map.of())
+                            .entrySet()
+                            .stream()
+                            .filter(committedOffset -> endOffsets.containsKey(committedOffset.getKey()))
+                            .sorted(Comparator.comparing((Map.Entry<TopicPartition, Long> committedOffset) -> committedOffset.getKey().topic())
+                                    .thenComparingInt(committedOffset -> committedOffset.getKey().partition()))
+                            .map(committedOffset -> ConsumerGroupStatus.PartitionLag.builder()
+                                    .topic(committedOffset.getKey().topic())
+                                    .partition(committedOffset.getKey().partition())
+                                    .committedOffset(committedOffset.getValue())
+                                    .endOffset(endOffsets.get(committedOffset.getKey()))
+                                    .lag(Math.max(0, endOffsets.get(committedOffset.getKey()) - committedOffset.getValue()))
+                                    .build())
+                            .toList();
+
+                    ConsumerGroupDescription description = descriptions.get(groupId);
+                    return ConsumerGroupStatus.builder()
+                            .metadata(ObjectMeta.builder()
+                                    .name(groupId)
+                                    .namespace(namespace.getMetadata().getName())
+                                    .cluster(namespace.getMetadata().getCluster())
+                                    .build())
+                            .spec(ConsumerGroupStatus.ConsumerGroupStatusSpec.builder()
+                                    .state(description != null ? description.state().toString() : null)
+                                    .totalLag(partitionLags.stream().mapToLong(ConsumerGroupStatus.PartitionLag::getLag).sum())
+                                    .partitions(partitionLags)
+                                    .build())
+                            .build();
+                })
+                .toList();
+    }
+
+    /**
+     * Get the status of several consumer groups, in a single request
+     * @param namespace The namespace
+     * @param groupIds The consumer groups
+     * @return The consumer group statuses by consumer group
+     * @throws ExecutionException Any execution exception during consumer groups description
+     * @throws InterruptedException Any interrupted exception during consumer groups description
+     */
+    public Map<String, String> getConsumerGroupStatuses(Namespace namespace, List<String> groupIds) throws ExecutionException, InterruptedException {
+        ConsumerGroupAsyncExecutor consumerGroupAsyncExecutor = applicationContext.getBean(ConsumerGroupAsyncExecutor.class,
+                Qualifiers.byName(namespace.getMetadata().getCluster()));
+        return consumerGroupAsyncExecutor.describeConsumerGroups(groupIds)
+                .entrySet()
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().state().toString()));
+    }
+
     /**
      * Get the partitions of a topic to reset
      * @param namespace The namespace
@@ -183,10 +332,140 @@ public class ConsumerGroupService {
         }
     }
 
+    /**
+     * From given options, compute the new offsets of several consumer groups on several topics.
+     * Every offset needed by the method is listed at once, whatever the number of groups and topics:
+     * up to one listOffsets request for each of the earliest, latest and timestamp offsets
+     * @param namespace The namespace
+     * @param groupIds The consumer groups
+     * @param topics The topics to reset, as *, topic or topic:partition
+     * @param method The method of offsets reset
+     * @param options Given additional options for offsets reset
+     * @return A map with new offsets for topic-partitions, by consumer group
+     * @throws ExecutionException Any execution exception during offsets description
+     * @throws InterruptedException Any interrupted exception during offsets description
+     */
+    public Map<String, Map<TopicPartition, Long>> prepareBulkOffsetsToReset(Namespace namespace, List<String> groupIds, List<String> topics,
+                                                                           ResetOffsetsMethod method, String options) throws InterruptedException, ExecutionException {
+        ConsumerGroupAsyncExecutor consumerGroupAsyncExecutor = applicationContext.getBean(ConsumerGroupAsyncExecutor.class,
+                Qualifiers.byName(namespace.getMetadata().getCluster()));
+
+        Map<String, Map<TopicPartition, Long>> committedOffsets = consumerGroupAsyncExecutor.getCommittedOffsetsByGroup(groupIds);
+        Map<String, List<TopicPartition>> topicPartitions = consumerGroupAsyncExecutor.getTopicPartitions(topics
+                .stream()
+                .filter(topic -> !topic.equals("*") && !topic.contains(":"))
+                .distinct()
+                .toList());
+
+        Map<String, Set<TopicPartition>> partitionsToReset = new LinkedHashMap<>();
+        for (String groupId : groupIds) {
+            Set<TopicPartition> groupPartitions = new LinkedHashSet<>();
+            for (String topic : topics) {
+                if (topic.equals("*")) {
+                    groupPartitions.addAll(committedOffsets.getOrDefault(groupId, Map.of()).keySet());
+                } else if (topic.contains(":")) {
+                    String[] splitResult = topic.split(":");
+                    groupPartitions.add(new TopicPartition(splitResult[0], Integer.parseInt(splitResult[1])));
+                } else {
+                    groupPartitions.addAll(topicPartitions.get(topic));
+                }
+            }
+            partitionsToReset.put(groupId, groupPartitions);
+        }
+
+        Set<TopicPartition> allPartitions = partitionsToReset.values()
+                .stream()
+                .flatMap(Set::stream)
+                .collect(Collectors.toSet());
+
+        // Earliest, latest and timestamp offsets are listed together, only when the method needs them
+        Map<TopicPartition, OffsetSpec> earliestSpecs = new HashMap<>();
+        Map<TopicPartition, OffsetSpec> latestSpecs = new HashMap<>();
+        Map<TopicPartition, OffsetSpec> timestampSpecs = new HashMap<>();
+        long timestamp = switch (method) {
+            case BY_DURATION -> Instant.now().minus(Duration.parse(options)).toEpochMilli();
+            case TO_DATETIME -> OffsetDateTime.parse(options).toInstant().toEpochMilli();
+            default -> -1L;
+        };
+
+        allPartitions.forEach(topicPartition -> {
+            if (method != ResetOffsetsMethod.TO_LATEST && method != ResetOffsetsMethod.BY_DURATION && method != ResetOffsetsMethod.TO_DATETIME) {
+                earliestSpecs.put(topicPartition, OffsetSpec.earliest());
+            }
+
+            if (method != ResetOffsetsMethod.TO_EARLIEST) {
+                latestSpecs.put(topicPartition, OffsetSpec.latest());
+            }
+
+            if (method == ResetOffsetsMethod.BY_DURATION || method == ResetOffsetsMethod.TO_DATETIME) {
+                timestampSpecs.put(topicPartition, OffsetSpec.forTimestamp(timestamp));
+            }
+        });
+
+        List<Map<TopicPartition, Long>> offsets = consumerGroupAsyncExecutor.listOffsets(List.of(earliestSpecs, latestSpecs, timestampSpecs));
+        Map<TopicPartition, Long> earliestOffsets = offsets.get(0);
+        Map<TopicPartition, Long> latestOffsets = offsets.get(1);
+        Map<TopicPartition, Long> timestampOffsets = offsets.get(2);
+
+        Map<String, Map<TopicPartition, Long>> preparedOffsets = new LinkedHashMap<>();
+        partitionsToReset.forEach((groupId, groupPartitions) -> {
+            Map<TopicPartition, Long> groupOffsets = new LinkedHashMap<>();
+            groupPartitions.forEach(topicPartition -> groupOffsets.put(topicPartition, switch (method) {
+                case TO_EARLIEST -> earliestOffsets.get(topicPartition);
+                case TO_LATEST -> latestOffsets.get(topicPartition);
+                case BY_DURATION, TO_DATETIME -> timestampOffsets.getOrDefault(topicPartition, -1L) >= 0 ?
+                        timestampOffsets.get(topicPartition) : latestOffsets.get(topicPartition);
+                case SHIFT_BY -> {
+                    Long committedOffset = committedOffsets.getOrDefault(groupId, Map.of()).get(topicPartition);
+                    if (committedOffset == null) {
+                        throw new IllegalArgumentException("Cannot shift offset for partition " + topicPartition.toString() + " since there is no current committed offset");
+                    }
+                    yield Math.min(Math.max(committedOffset + Integer.parseInt(options), earliestOffsets.get(topicPartition)), latestOffsets.get(topicPartition));
+                }
+                case TO_OFFSET -> Math.min(Math.max(Long.parseLong(options), earliestOffsets.get(topicPartition)), latestOffsets.get(topicPartition));
+            }));
+            preparedOffsets.put(groupId, groupOffsets);
+        });
+
+        return preparedOffsets;
+    }
+
     public void alterConsumerGroupOffsets(Namespace namespace, String consumerGroupId, Map<TopicPartition, Long> preparedOffsets) throws InterruptedException, ExecutionException {
         ConsumerGroupAsyncExecutor consumerGroupAsyncExecutor = applicationContext.getBean(ConsumerGroupAsyncExecutor.class,
                 Qualifiers.byName(namespace.getMetadata().getCluster()));
         consumerGroupAsyncExecutor.alterConsumerGroupOffsets(consumerGroupId, preparedOffsets);
+        consumerGroupStatuses.remove(namespace.getMetadata().getName());
+    }
+
+    /**
+     * Change the committed offsets of several consumer groups
+     * @param namespace The namespace
+     * @param preparedOffsets The new offsets by topic-partition, by consumer group
+     * @return The error message by consumer group, for the consumer groups whose offsets could not be changed
+     * @throws InterruptedException Any interrupted exception during offsets change
+     */
+    public Map<String, String> alterConsumerGroupsOffsets(Namespace namespace, Map<String, Map<TopicPartition, Long>> preparedOffsets) throws InterruptedException {
+        ConsumerGroupAsyncExecutor consumerGroupAsyncExecutor = applicationContext.getBean(ConsumerGroupAsyncExecutor.class,
+                Qualifiers.byName(namespace.getMetadata().getCluster()));
+        try {
+            return consumerGroupAsyncExecutor.alterConsumerGroupsOffsets(preparedOffsets);
+        } finally {
+            consumerGroupStatuses.remove(namespace.getMetadata().getName());
+        }
+    }
 
+    private static class CachedConsumerGroupStatuses {
+        private final CompletableFuture<List<ConsumerGroupStatus>> statuses = new CompletableFuture<>();
+
+        private volatile long loadedAt;
+
+        private void complete(List<ConsumerGroupStatus> value) {
+            loadedAt = System.currentTimeMillis();
+            statuses.complete(value);
+        }
+
+        private boolean isExpired(long ttl) {
+            return statuses.isDone() && System.currentTimeMillis() - loadedAt > ttl;
+        }
     }
 }
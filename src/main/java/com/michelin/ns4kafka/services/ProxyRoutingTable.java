@@ -0,0 +1,524 @@
+package com.michelin.ns4kafka.services;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import com.michelin.ns4kafka.config.SecurityConfig;
+import com.michelin.ns4kafka.models.ConnectCluster;
+import com.michelin.ns4kafka.repositories.kafka.KafkaStoreEvent;
+import com.michelin.ns4kafka.utils.EncryptionUtils;
+import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.reactivex.rxjava3.core.Flowable;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@Slf4j
+@Singleton
+public class ProxyRoutingTable implements ApplicationEventListener<KafkaStoreEvent> {
+    @Inject
+    List<KafkaAsyncExecutorConfig> kafkaAsyncExecutorConfigs;
+
+    @Inject
+    ConnectClusterService connectClusterService;
+
+    @Inject
+    SecurityConfig securityConfig;
+
+    /**
+     * The routes by Kafka cluster, null until built again
+     */
+    private volatile Map<String, ClusterRoutes> routes;
+
+    /**
+     * Incremented on every Connect cluster change, so that routes built from a store that changed meanwhile are not kept
+     */
+    private volatile long generation;
+
+    /**
+     * The routes by settings, so that a route whose settings did not change keeps its ejected URLs and its read
+     * latencies when the routes are built again
+     */
+    private final Map<String, Route> routesBySettings = new ConcurrentHashMap<>();
+
+    /**
+     * Get the route to a Connect cluster, either a self-deployed Connect cluster or one of the Ns4Kafka configuration
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Connect cluster
+     * @return The route
+     * @throws ResourceValidationException if the Kafka cluster or the Connect cluster is unknown
+     */
+    public Route getConnectRoute(String kafkaCluster, String connectCluster) {
+        ClusterRoutes clusterRoutes = getClusterRoutes(kafkaCluster);
+        Route route = clusterRoutes.connects.get(connectCluster);
+        if (route == null) {
+            throw new ResourceValidationException(List.of("Connect cluster [" + connectCluster + "] not found"), null, null);
+        }
+
+        return route;
+    }
+
+    /**
+     * Get the route to the Schema Registry of a Kafka cluster
+     * @param kafkaCluster The Kafka cluster
+     * @return The route
+     * @throws ResourceValidationException if the Kafka cluster is unknown or has no Schema Registry
+     */
+    public Route getSchemaRegistryRoute(String kafkaCluster) {
+        ClusterRoutes clusterRoutes = getClusterRoutes(kafkaCluster);
+        if (clusterRoutes.schemaRegistry == null) {
+            throw new ResourceValidationException(List.of("Kafka Cluster [" + kafkaCluster + "] has no schema registry"), null, null);
+        }
+
+        return clusterRoutes.schemaRegistry;
+    }
+
+    /**
+     * Drop the routes when a self-deployed Connect cluster changes, so they are built again on next request.
+     * The routes whose settings did not change are reused
+     * @param event The store change
+     */
+    @Override
+    public synchronized void onApplicationEvent(KafkaStoreEvent event) {
+        Object value = event.getCurrent() != null ? event.getCurrent() : event.getPrevious();
+        if (value instanceof ConnectCluster) {
+            generation++;
+            routes = null;
+        }
+    }
+
+    private ClusterRoutes getClusterRoutes(String kafkaCluster) {
+        ClusterRoutes clusterRoutes = getRoutes().get(kafkaCluster);
+        if (clusterRoutes == null) {
+            throw new ResourceValidationException(List.of("Kafka Cluster [" + kafkaCluster + "] not found"), null, null);
+        }
+
+        return clusterRoutes;
+    }
+
+    /**
+     * Get the routes, built from the configuration and the self-deployed Connect clusters if not built yet.
+     * The passwords of the self-deployed Connect clusters are decrypted once here, and a self-deployed Connect cluster
+     * whose route cannot be built is left out
+     * @return The routes by Kafka cluster
+     */
+    private Map<String, ClusterRoutes> getRoutes() {
+        Map<String, ClusterRoutes> current = routes;
+        if (current != null) {
+            return current;
+        }
+
+        long currentGeneration = generation;
+        Set<String> usedSettings = new HashSet<>();
+        Map<String, Route> selfDeployedRoutes = new HashMap<>();
+        for (ConnectCluster connectCluster : connectClusterService.findAll()) {
+            if (selfDeployedRoutes.containsKey(connectCluster.getMetadata().getName())) {
+                continue;
+            }
+
+            try {
+                selfDeployedRoutes.put(connectCluster.getMetadata().getName(), getRoute(usedSettings, connectCluster.getSpec().getUrl(),
+                        connectCluster.getSpec().getUsername(),
+                        EncryptionUtils.decryptAES256GCM(connectCluster.getSpec().getPassword(), securityConfig.getAes256EncryptionKey()),
+                        false));
+            } catch (RuntimeException e) {
+                log.error(String.format("Error building the route of Connect cluster %s", connectCluster.getMetadata().getName()), e);
+            }
+        }
+
+        current = new HashMap<>();
+        for (KafkaAsyncExecutorConfig config : kafkaAsyncExecutorConfigs) {
+            Map<String, Route> connects = new HashMap<>();
+            if (config.getConnects() != null) {
+                config.getConnects().forEach((name, connectConfig) -> connects.put(name, getRoute(usedSettings, connectConfig.getUrl(),
+                        connectConfig.getBasicAuthUsername(), connectConfig.getBasicAuthPassword(), false)));
+            }
+
+            // The self-deployed Connect clusters take precedence over the configuration
+            connects.putAll(selfDeployedRoutes);
+
+            Route schemaRegistry = config.getSchemaRegistry() != null ? getRoute(usedSettings, config.getSchemaRegistry().getUrl(),
+                    config.getSchemaRegistry().getBasicAuthUsername(), config.getSchemaRegistry().getBasicAuthPassword(),
+                    config.getSchemaRegistry().isHedgeReads()) : null;
+            current.putIfAbsent(config.getName(), new ClusterRoutes(Map.copyOf(connects), schemaRegistry));
+        }
+
+        current = Map.copyOf(current);
+        synchronized (this) {
+            if (currentGeneration == generation) {
+                routes = current;
+                routesBySettings.keySet().retainAll(usedSettings);
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * Get the route of some settings, reusing the route built before with the same settings if any
+     * @param usedSettings The settings of the routes built so far, completed with these settings
+     * @param url The URL, or a comma-separated list of URLs
+     * @param username The username
+     * @param password The password
+     * @param hedgeReads Whether the slow reads are sent again to another URL
+     * @return The route
+     */
+    private Route getRoute(Set<String> usedSettings, String url, String username, String password, boolean hedgeReads) {
+        String settings = String.join("\n", String.valueOf(url), String.valueOf(username), String.valueOf(password),
+                String.valueOf(hedgeReads));
+        usedSettings.add(settings);
+        return routesBySettings.computeIfAbsent(settings, key -> Route.of(url, username, password, hedgeReads));
+    }
+
+    /**
+     * Target URLs, with the Authorization header to send to them if any.
+     * A route of several URLs, such as the workers of a Connect cluster, balances the calls to the URL with the least
+     * outstanding requests, leaves out for a while a URL that failed, and calls another URL when an idempotent call without
+     * body fails
+     */
+    public static class Route {
+        /**
+         * The time a failed URL is left out of the balancing
+         */
+        private static final long EJECTION_MILLIS = 30000;
+
+        /**
+         * The percentile of the read latencies after which a hedged read is sent
+         */
+        private static final int HEDGE_PERCENTILE = 95;
+
+        private final List<Endpoint> endpoints;
+
+        @Getter
+        private final String authorization;
+
+        /**
+         * The latencies of the reads, to hedge the slow ones. Null if the reads are not hedged
+         */
+        private final Latencies readLatencies;
+
+        /**
+         * The start of the next scan, so that the URLs with as many outstanding requests are called in turn
+         */
+        private final AtomicInteger next = new AtomicInteger();
+
+        private Route(List<Endpoint> endpoints, String authorization, boolean hedgeReads) {
+            this.endpoints = endpoints;
+            this.authorization = authorization;
+            this.readLatencies = hedgeReads ? new Latencies() : null;
+        }
+
+        /**
+         * Build a route, with a basic authentication if both the username and the password are given
+         * @param url The URL, or a comma-separated list of URLs
+         * @param username The username
+         * @param password The password
+         * @return The route
+         */
+        public static Route of(String url, String username, String password) {
+            return of(url, username, password, false);
+        }
+
+        /**
+         * Build a route, with a basic authentication if both the username and the password are given
+         * @param url The URL, or a comma-separated list of URLs
+         * @param username The username
+         * @param password The password
+         * @param hedgeReads Whether the slow reads are sent again to another URL
+         * @return The route
+         */
+        public static Route of(String url, String username, String password, boolean hedgeReads) {
+            List<Endpoint> endpoints = parseUrls(url)
+                    .stream()
+                    .map(Endpoint::new)
+                    .toList();
+
+            if (StringUtils.isEmpty(username) || StringUtils.isEmpty(password)) {
+                return new Route(endpoints, null, hedgeReads);
+            }
+
+            return new Route(endpoints, "Basic " + Base64.getEncoder()
+                    .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8)), hedgeReads);
+        }
+
+        /**
+         * Split a comma-separated list of URLs
+         * @param urls The URLs
+         * @return The list of URLs
+         */
+        public static List<String> parseUrls(String urls) {
+            if (urls == null) {
+                return List.of();
+            }
+
+            return Arrays.stream(urls.split(","))
+                    .map(String::trim)
+                    .filter(url -> !url.isEmpty())
+                    .toList();
+        }
+
+        /**
+         * Get the first URL of the route
+         * @return The URL
+         */
+        public String getUrl() {
+            return endpoints.isEmpty() ? null : endpoints.get(0).url;
+        }
+
+        /**
+         * Call the URL with the least outstanding requests among the ones that did not fail recently.
+         * A connection error or a server error leaves the URL out for a while, and an idempotent call is then sent again
+         * to another URL
+         * @param method The HTTP method of the call
+         * @param call The call, from the URL
+         * @return The response
+         */
+        public <T> Flowable<T> call(HttpMethod method, Function<String, Publisher<T>> call) {
+            return send(method, call, false, false);
+        }
+
+        /**
+         * Call the first URL, in the configured order, among the ones that did not fail recently.
+         * Used for the writes to a Schema Registry, whose followers would forward them to the leader listed first
+         * @param method The HTTP method of the call
+         * @param call The call, from the URL
+         * @return The response
+         */
+        public <T> Flowable<T> callInOrder(HttpMethod method, Function<String, Publisher<T>> call) {
+            return send(method, call, true, false);
+        }
+
+        /**
+         * Proxy a request to the URL with the least outstanding requests, as {@link #call(HttpMethod, Function)} does.
+         * The server errors proxied as responses count as failures of the URL, and the last one is returned as is
+         * @param method The HTTP method of the request
+         * @param call The proxied request, from the URL
+         * @return The proxied response
+         */
+        public Flowable<MutableHttpResponse<?>> proxy(HttpMethod method, Function<String, Publisher<MutableHttpResponse<?>>> call) {
+            return proxy(method, call, false);
+        }
+
+        /**
+         * Proxy a request to the first URL, in the configured order, as {@link #callInOrder(HttpMethod, Function)} does.
+         * The server errors proxied as responses count as failures of the URL, and the last one is returned as is
+         * @param method The HTTP method of the request
+         * @param call The proxied request, from the URL
+         * @return The proxied response
+         */
+        public Flowable<MutableHttpResponse<?>> proxyInOrder(HttpMethod method, Function<String, Publisher<MutableHttpResponse<?>>> call) {
+            return proxy(method, call, true);
+        }
+
+        /**
+         * Read from the URL with the least outstanding requests, as {@link #call(HttpMethod, Function)} does.
+         * If the route hedges its reads and the read is slower than the 95th percentile of the previous reads,
+         * the read is also sent to another URL, and the first response is kept
+         * @param call The read, from the URL
+         * @return The response
+         */
+        public <T> Flowable<T> read(Function<String, Publisher<T>> call) {
+            return send(HttpMethod.GET, call, false, readLatencies != null);
+        }
+
+        private <T> Flowable<T> send(HttpMethod method, Function<String, Publisher<T>> call, boolean inOrder, boolean hedged) {
+            return Flowable.defer(() -> {
+                Endpoint endpoint = choose(null, inOrder);
+                if (endpoint == null) {
+                    return Flowable.error(new IllegalStateException("No URL to call"));
+                }
+
+                Flowable<T> response = endpoint.call(call);
+                if (endpoints.size() == 1) {
+                    return response;
+                }
+
+                if (isIdempotent(method)) {
+                    response = response.onErrorResumeNext(error -> isFailure(error) ? choose(endpoint, inOrder).call(call) : Flowable.<T>error(error));
+                }
+
+                return hedged ? hedge(endpoint, response, call) : response;
+            });
+        }
+
+        private Flowable<MutableHttpResponse<?>> proxy(HttpMethod method, Function<String, Publisher<MutableHttpResponse<?>>> call, boolean inOrder) {
+            Function<String, Publisher<MutableHttpResponse<?>>> failingCall = url -> Flowable.fromPublisher(call.apply(url))
+                    .flatMap(response -> response.status().getCode() >= 500
+                            ? Flowable.<MutableHttpResponse<?>>error(new ServerErrorResponse(response))
+                            : Flowable.just(response));
+
+            return send(method, failingCall, inOrder, false)
+                    .onErrorResumeNext(error -> error instanceof ServerErrorResponse serverError
+                            ? Flowable.just(serverError.response)
+                            : Flowable.error(error));
+        }
+
+        /**
+         * Send the read to another URL if no response came after the usual latency of the reads
+         * @param endpoint The URL already called
+         * @param response The response of the URL already called
+         * @param call The read, from the URL
+         * @return The first response
+         */
+        private <T> Flowable<T> hedge(Endpoint endpoint, Flowable<T> response, Function<String, Publisher<T>> call) {
+            long start = System.nanoTime();
+            long delay = readLatencies.percentile(HEDGE_PERCENTILE);
+            if (delay >= 0) {
+                Endpoint other = choose(endpoint, false);
+                // Only a response of the hedged read is kept, its errors are left to the first read
+                Flowable<T> hedgedResponse = Flowable.timer(delay, TimeUnit.NANOSECONDS)
+                        .flatMap(tick -> other.call(call))
+                        .onErrorResumeNext(error -> Flowable.<T>never());
+                response = Flowable.ambArray(response, hedgedResponse);
+            }
+
+            // The latency is recorded on the first response, as the reads are usually cancelled once it is received
+            AtomicBoolean recorded = new AtomicBoolean();
+            return response.doOnNext(value -> {
+                if (recorded.compareAndSet(false, true)) {
+                    readLatencies.record(System.nanoTime() - start);
+                }
+            });
+        }
+
+        private Endpoint choose(Endpoint excluded, boolean inOrder) {
+            long now = System.currentTimeMillis();
+            int start = inOrder ? 0 : Math.floorMod(next.getAndIncrement(), Math.max(endpoints.size(), 1));
+            Endpoint chosen = null;
+            boolean chosenHealthy = false;
+            for (int i = 0; i < endpoints.size(); i++) {
+                Endpoint endpoint = endpoints.get((start + i) % endpoints.size());
+                if (endpoint == excluded) {
+                    continue;
+                }
+
+                boolean healthy = endpoint.ejectedUntil <= now;
+                if (chosen == null || (healthy && !chosenHealthy)
+                        || (!inOrder && healthy == chosenHealthy && endpoint.outstanding.get() < chosen.outstanding.get())) {
+                    chosen = endpoint;
+                    chosenHealthy = healthy;
+                }
+            }
+
+            return chosen != null ? chosen : excluded;
+        }
+
+        /**
+         * Whether a call can be sent again to another URL. The calls with a body are not, as the body of a proxied
+         * request is streamed and cannot be sent twice
+         * @param method The HTTP method of the call
+         * @return true if the call is idempotent and has no body
+         */
+        private static boolean isIdempotent(HttpMethod method) {
+            return switch (method) {
+                case GET, HEAD, DELETE -> true;
+                default -> false;
+            };
+        }
+
+        private static boolean isFailure(Throwable error) {
+            return !(error instanceof HttpClientResponseException responseException)
+                    || responseException.getStatus().getCode() >= 500;
+        }
+
+        /**
+         * A proxied server error, failing the call so that the URL is left out and the call sent again
+         */
+        private static class ServerErrorResponse extends RuntimeException {
+            private final transient MutableHttpResponse<?> response;
+
+            private ServerErrorResponse(MutableHttpResponse<?> response) {
+                super(response.reason(), null, false, false);
+                this.response = response;
+            }
+        }
+
+        private static class Endpoint {
+            private final String url;
+
+            private final AtomicInteger outstanding = new AtomicInteger();
+
+            private volatile long ejectedUntil;
+
+            private Endpoint(String url) {
+                this.url = url;
+            }
+
+            private <T> Flowable<T> call(Function<String, Publisher<T>> call) {
+                return Flowable.defer(() -> Flowable.fromPublisher(call.apply(url)))
+                        .doOnSubscribe(subscription -> outstanding.incrementAndGet())
+                        .doOnNext(value -> ejectedUntil = 0)
+                        .doOnComplete(() -> ejectedUntil = 0)
+                        .doOnError(error -> {
+                            if (isFailure(error)) {
+                                ejectedUntil = System.currentTimeMillis() + EJECTION_MILLIS;
+                            }
+                        })
+                        .doFinally(outstanding::decrementAndGet);
+            }
+        }
+
+        /**
+         * The latencies of the last reads
+         */
+        private static class Latencies {
+            private static final int SAMPLES = 128;
+
+            /**
+             * The reads needed before hedging, so that a few reads do not give a meaningless percentile
+             */
+            private static final int MIN_SAMPLES = 20;
+
+            private final long[] samples = new long[SAMPLES];
+
+            private int count;
+
+            private int index;
+
+            private synchronized void record(long nanos) {
+                samples[index] = nanos;
+                index = (index + 1) % SAMPLES;
+                count = Math.min(count + 1, SAMPLES);
+            }
+
+            /**
+             * Get a percentile of the last reads
+             * @param percentile The percentile
+             * @return The latency in nanoseconds, or -1 if there are not enough reads yet
+             */
+            private synchronized long percentile(int percentile) {
+                if (count < MIN_SAMPLES) {
+                    return -1;
+                }
+
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                return sorted[Math.min(count - 1, count * percentile / 100)];
+            }
+        }
+    }
+
+    private static class ClusterRoutes {
+        private final Map<String, Route> connects;
+
+        private final Route schemaRegistry;
+
+        private ClusterRoutes(Map<String, Route> connects, Route schemaRegistry) {
+            this.connects = connects;
+            this.schemaRegistry = schemaRegistry;
+        }
+    }
+}
@@ -6,8 +6,11 @@ import com.michelin.ns4kafka.models.Topic;
 import com.michelin.ns4kafka.models.quota.ResourceQuota;
 import com.michelin.ns4kafka.models.quota.ResourceQuotaResponse;
 import com.michelin.ns4kafka.repositories.ResourceQuotaRepository;
+import com.michelin.ns4kafka.services.admin.LogDirUsageCollector;
 import com.michelin.ns4kafka.utils.BytesUtils;
+import io.micronaut.context.ApplicationContext;
 import io.micronaut.core.util.StringUtils;
+import io.micronaut.inject.qualifiers.Qualifiers;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
@@ -30,6 +33,8 @@ public class ResourceQuotaService {
 
     private static final String NO_QUOTA_RESPONSE_FORMAT = "%s";
 
+    private static final String UNKNOWN_USAGE = "unknown";
+
     @Inject
     NamespaceService namespaceService;
 
@@ -37,10 +42,10 @@ public class ResourceQuotaService {
     ResourceQuotaRepository resourceQuotaRepository;
 
     @Inject
-    TopicService topicService;
+    ResourceUsageIndex resourceUsageIndex;
 
     @Inject
-    ConnectorService connectorService;
+    ApplicationContext applicationContext;
 
     /**
      * Find a resource quota by namespace
@@ -119,6 +124,21 @@ public class ResourceQuotaService {
             }
         }
 
+        if (StringUtils.hasText(resourceQuota.getSpec().get(DISK_USAGE.getKey()))) {
+            String limitAsString = resourceQuota.getSpec().get(DISK_USAGE.getKey());
+            if (!limitAsString.endsWith(BYTE) && !limitAsString.endsWith(KIBIBYTE) && !limitAsString.endsWith(MEBIBYTE) && !limitAsString.endsWith(GIBIBYTE)) {
+                errors.add(String.format("Invalid value for %s: value must end with either %s, %s, %s or %s",
+                        DISK_USAGE, BYTE, KIBIBYTE, MEBIBYTE, GIBIBYTE));
+            } else {
+                Optional<Long> used = getCurrentDiskUsageByNamespace(namespace);
+                long limit = BytesUtils.humanReadableToBytes(limitAsString);
+                if (used.isPresent() && used.get() > limit) {
+                    errors.add(String.format(QUOTA_ALREADY_EXCEEDED_ERROR, DISK_USAGE,
+                            BytesUtils.bytesToHumanReadable(used.get()), limitAsString));
+                }
+            }
+        }
+
         if (StringUtils.hasText(resourceQuota.getSpec().get(COUNT_CONNECTORS.getKey()))) {
             long used = getCurrentCountConnectorsByNamespace(namespace);
             long limit = Long.parseLong(resourceQuota.getSpec().get(COUNT_CONNECTORS.getKey()));
@@ -127,16 +147,56 @@ public class ResourceQuotaService {
             }
         }
 
+        // The broker only accepts whole byte rates
+        List.of(USER_PRODUCER_BYTE_RATE, USER_CONSUMER_BYTE_RATE).forEach(userQuotaKey -> {
+            String valueAsString = resourceQuota.getSpec().get(userQuotaKey.getKey());
+            if (StringUtils.hasText(valueAsString) && !isNonNegativeLong(valueAsString)) {
+                errors.add(String.format("Invalid value for %s: value must be a non-negative integer", userQuotaKey));
+            }
+        });
+
+        String requestPercentage = resourceQuota.getSpec().get(USER_REQUEST_PERCENTAGE.getKey());
+        if (StringUtils.hasText(requestPercentage) && !isNonNegativeFiniteDouble(requestPercentage)) {
+            errors.add(String.format("Invalid value for %s: value must be a non-negative number", USER_REQUEST_PERCENTAGE));
+        }
+
         return errors;
     }
 
+    /**
+     * Check if a given quota value is a non-negative integer
+     * @param value The value
+     * @return true if it is, false otherwise
+     */
+    private boolean isNonNegativeLong(String value) {
+        try {
+            return Long.parseLong(value) >= 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Check if a given quota value is a finite non-negative number
+     * @param value The value
+     * @return true if it is, false otherwise
+     */
+    private boolean isNonNegativeFiniteDouble(String value) {
+        try {
+            double number = Double.parseDouble(value);
+            return Double.isFinite(number) && number >= 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
     /**
      * Get currently used number of topics by namespace
      * @param namespace The namespace
      * @return The number of topics
      */
     public long getCurrentCountTopicsByNamespace(Namespace namespace) {
-        return topicService.findAllForNamespace(namespace).size();
+        return resourceUsageIndex.getUsage(namespace).getCountTopics();
     }
 
     /**
@@ -145,11 +205,7 @@ public class ResourceQuotaService {
      * @return The number of partitions
      */
     public long getCurrentCountPartitionsByNamespace(Namespace namespace) {
-        return topicService.findAllForNamespace(namespace)
-                .stream()
-                .map(topic -> topic.getSpec().getPartitions())
-                .reduce(0, Integer::sum)
-                .longValue();
+        return resourceUsageIndex.getUsage(namespace).getCountPartitions();
     }
 
     /**
@@ -158,11 +214,17 @@ public class ResourceQuotaService {
      * @return The number of topic disk
      */
     public long getCurrentDiskTopicsByNamespace(Namespace namespace) {
-        return topicService.findAllForNamespace(namespace)
-                .stream()
-                .map(topic -> Long.parseLong(topic.getSpec().getConfigs().getOrDefault("retention.bytes", "0")) *
-                        topic.getSpec().getPartitions())
-                .reduce(0L, Long::sum);
+        return resourceUsageIndex.getUsage(namespace).getDiskTopics();
+    }
+
+    /**
+     * Get currently used disk in bytes by namespace, as measured on the log dirs of the brokers, replicas included
+     * @param namespace The namespace
+     * @return The disk usage, or empty if the log dirs of the cluster have not been collected recently
+     */
+    public Optional<Long> getCurrentDiskUsageByNamespace(Namespace namespace) {
+        return applicationContext.findBean(LogDirUsageCollector.class, Qualifiers.byName(namespace.getMetadata().getCluster()))
+                .flatMap(logDirUsageCollector -> logDirUsageCollector.getDiskUsage(resourceUsageIndex.getTopics(namespace)));
     }
 
     /**
@@ -171,7 +233,7 @@ public class ResourceQuotaService {
      * @return The number of connectors
      */
     public long getCurrentCountConnectorsByNamespace(Namespace namespace) {
-        return connectorService.findAllForNamespace(namespace).size();
+        return resourceUsageIndex.getUsage(namespace).getCountConnectors();
     }
 
     /**
@@ -228,6 +290,16 @@ public class ResourceQuotaService {
 
         }
 
+        // Reject any apply while the namespace is over its real disk budget. Unknown usage does not block applies
+        if (StringUtils.hasText(resourceQuota.getSpec().get(DISK_USAGE.getKey()))) {
+            Optional<Long> used = getCurrentDiskUsageByNamespace(namespace);
+            long limit = BytesUtils.humanReadableToBytes(resourceQuota.getSpec().get(DISK_USAGE.getKey()));
+            if (used.isPresent() && used.get() > limit) {
+                errors.add(String.format("Exceeding quota for %s: %s/%s (used/limit). Cannot apply topic until disk usage is reduced.", DISK_USAGE,
+                        BytesUtils.bytesToHumanReadable(used.get()), BytesUtils.bytesToHumanReadable(limit)));
+            }
+        }
+
         return errors;
     }
 
@@ -274,13 +346,10 @@ public class ResourceQuotaService {
      * @return A list of quotas as response format
      */
     public ResourceQuotaResponse getUsedResourcesByQuotaByNamespace(Namespace namespace, Optional<ResourceQuota> resourceQuota) {
-        long currentCountTopic = getCurrentCountTopicsByNamespace(namespace);
-        long currentCountPartition = getCurrentCountPartitionsByNamespace(namespace);
-        long currentDiskTopic = getCurrentDiskTopicsByNamespace(namespace);
-        long currentCountConnector = getCurrentCountConnectorsByNamespace(namespace);
+        ResourceUsageIndex.NamespaceUsage usage = resourceUsageIndex.getUsage(namespace);
 
-        return formatUsedResourceByQuotaResponse(namespace, currentCountTopic, currentCountPartition, currentDiskTopic,
-                currentCountConnector, resourceQuota);
+        return formatUsedResourceByQuotaResponse(namespace, usage.getCountTopics(), usage.getCountPartitions(), usage.getDiskTopics(),
+                usage.getCountConnectors(), getCurrentDiskUsageByNamespace(namespace), resourceQuota);
     }
 
     /**
@@ -290,11 +359,12 @@ public class ResourceQuotaService {
      * @param currentCountPartition The current number of partitions
      * @param currentDiskTopic The current number of disk space used by topics
      * @param currentCountConnector The current number of connectors
+     * @param currentDiskUsage The current disk used on the brokers, if known
      * @param resourceQuota The quota to map
      * @return A list of quotas as response format
      */
     public ResourceQuotaResponse formatUsedResourceByQuotaResponse(Namespace namespace, long currentCountTopic, long currentCountPartition, long currentDiskTopic,
-                                                     long currentCountConnector, Optional<ResourceQuota> resourceQuota) {
+                                                     long currentCountConnector, Optional<Long> currentDiskUsage, Optional<ResourceQuota> resourceQuota) {
         String countTopic = resourceQuota.isPresent() && StringUtils.hasText(resourceQuota.get().getSpec().get(COUNT_TOPICS.getKey())) ?
                 String.format(QUOTA_RESPONSE_FORMAT, currentCountTopic, resourceQuota.get().getSpec().get(COUNT_TOPICS.getKey())) :
                 String.format(NO_QUOTA_RESPONSE_FORMAT, currentCountTopic);
@@ -311,6 +381,11 @@ public class ResourceQuotaService {
                 String.format(QUOTA_RESPONSE_FORMAT, currentCountConnector, resourceQuota.get().getSpec().get(COUNT_CONNECTORS.getKey())) :
                 String.format(NO_QUOTA_RESPONSE_FORMAT, currentCountConnector);
 
+        String currentDiskUsageAsString = currentDiskUsage.map(BytesUtils::bytesToHumanReadable).orElse(UNKNOWN_USAGE);
+        String diskUsage = resourceQuota.isPresent() && StringUtils.hasText(resourceQuota.get().getSpec().get(DISK_USAGE.getKey())) ?
+                String.format(QUOTA_RESPONSE_FORMAT, currentDiskUsageAsString, resourceQuota.get().getSpec().get(DISK_USAGE.getKey())) :
+                String.format(NO_QUOTA_RESPONSE_FORMAT, currentDiskUsageAsString);
+
         return ResourceQuotaResponse.builder()
                 .metadata(resourceQuota.map(ResourceQuota::getMetadata).orElse(ObjectMeta.builder()
                         .namespace(namespace.getMetadata().getName())
@@ -320,6 +395,7 @@ public class ResourceQuotaService {
                         .countTopic(countTopic)
                         .countPartition(countPartition)
                         .diskTopic(diskTopic)
+                        .diskUsage(diskUsage)
                         .countConnector(countConnector)
                         .build())
                 .build();
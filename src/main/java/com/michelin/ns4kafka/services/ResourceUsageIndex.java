@@ -0,0 +1,199 @@
+package com.michelin.ns4kafka.services;
+
+import com.michelin.ns4kafka.models.AccessControlEntry;
+import com.michelin.ns4kafka.models.Namespace;
+import com.michelin.ns4kafka.models.Topic;
+import com.michelin.ns4kafka.models.connector.Connector;
+import com.michelin.ns4kafka.repositories.kafka.KafkaStoreEvent;
+import io.micronaut.context.event.ApplicationEventListener;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+import static com.michelin.ns4kafka.services.AccessControlEntryService.PUBLIC_GRANTED_TO;
+import static org.apache.kafka.common.config.TopicConfig.RETENTION_BYTES_CONFIG;
+
+@Slf4j
+@Singleton
+public class ResourceUsageIndex implements ApplicationEventListener<KafkaStoreEvent> {
+    @Inject
+    TopicService topicService;
+
+    @Inject
+    ConnectorService connectorService;
+
+    @Inject
+    AccessControlEntryService accessControlEntryService;
+
+    private final Map<String, UsageCounters> countersByNamespace = new HashMap<>();
+
+    /**
+     * Get the resources currently used by the given namespace.
+     * The usage is computed on first access, then kept up to date from the store changes
+     * @param namespace The namespace
+     * @return The used resources
+     */
+    public synchronized NamespaceUsage getUsage(Namespace namespace) {
+        UsageCounters counters = countersByNamespace.get(namespace.getMetadata().getName());
+        if (counters == null) {
+            counters = computeCounters(namespace);
+            countersByNamespace.put(namespace.getMetadata().getName(), counters);
+        }
+
+        return new NamespaceUsage(counters.topics.size(), counters.countPartitions, counters.diskTopics, counters.connectors.size());
+    }
+
+    /**
+     * Get the topics currently owned by the given namespace
+     * @param namespace The namespace
+     * @return The topic names
+     */
+    public synchronized Set<String> getTopics(Namespace namespace) {
+        getUsage(namespace);
+        return new HashSet<>(countersByNamespace.get(namespace.getMetadata().getName()).topics.keySet());
+    }
+
+    /**
+     * Apply a store change to the usage counters.
+     * Topic and connector changes update the counters of their owners, ownership changes drop the counters
+     * of the affected namespaces so they are computed again on next access
+     * @param event The store change
+     */
+    @Override
+    public synchronized void onApplicationEvent(KafkaStoreEvent event) {
+        try {
+            Object value = event.getCurrent() != null ? event.getCurrent() : event.getPrevious();
+            if (value instanceof Topic topic) {
+                onTopicChange(topic.getMetadata().getCluster(), topic.getMetadata().getName(), (Topic) event.getCurrent());
+            } else if (value instanceof Connector connector) {
+                onConnectorChange(connector.getMetadata().getCluster(), connector.getMetadata().getName(), event.getCurrent() != null);
+            } else if (value instanceof AccessControlEntry) {
+                invalidateGrantedTo((AccessControlEntry) event.getPrevious());
+                invalidateGrantedTo((AccessControlEntry) event.getCurrent());
+            } else if (value instanceof Namespace namespace) {
+                countersByNamespace.remove(namespace.getMetadata().getName());
+            }
+        } catch (RuntimeException e) {
+            log.error("Error applying store change {} to the resource usage, dropping all the usage counters", event.getKey(), e);
+            countersByNamespace.clear();
+        }
+    }
+
+    /**
+     * Compute the usage counters of a namespace from the store
+     * @param namespace The namespace
+     * @return The usage counters
+     */
+    private UsageCounters computeCounters(Namespace namespace) {
+        List<AccessControlEntry> ownerAcls = accessControlEntryService.findAllGrantedToNamespace(namespace)
+                .stream()
+                .filter(accessControlEntry -> accessControlEntry.getSpec().getPermission() == AccessControlEntry.Permission.OWNER)
+                .toList();
+
+        UsageCounters counters = new UsageCounters(namespace.getMetadata().getCluster(), ownerAcls);
+        topicService.findAllForNamespace(namespace).forEach(counters::putTopic);
+        connectorService.findAllForNamespace(namespace).forEach(connector -> counters.connectors.add(connector.getMetadata().getName()));
+        return counters;
+    }
+
+    private void onTopicChange(String cluster, String name, Topic current) {
+        countersByNamespace.values()
+                .stream()
+                .filter(counters -> counters.cluster.equals(cluster))
+                .forEach(counters -> {
+                    if (current != null && counters.isOwner(AccessControlEntry.ResourceType.TOPIC, name)) {
+                        counters.putTopic(current);
+                    } else {
+                        counters.removeTopic(name);
+                    }
+                });
+    }
+
+    private void onConnectorChange(String cluster, String name, boolean exists) {
+        countersByNamespace.values()
+                .stream()
+                .filter(counters -> counters.cluster.equals(cluster))
+                .forEach(counters -> {
+                    if (exists && counters.isOwner(AccessControlEntry.ResourceType.CONNECT, name)) {
+                        counters.connectors.add(name);
+                    } else {
+                        counters.connectors.remove(name);
+                    }
+                });
+    }
+
+    private void invalidateGrantedTo(AccessControlEntry accessControlEntry) {
+        if (accessControlEntry == null || accessControlEntry.getSpec().getPermission() != AccessControlEntry.Permission.OWNER) {
+            return;
+        }
+
+        if (PUBLIC_GRANTED_TO.equals(accessControlEntry.getSpec().getGrantedTo())) {
+            countersByNamespace.clear();
+        } else {
+            countersByNamespace.remove(accessControlEntry.getSpec().getGrantedTo());
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class NamespaceUsage {
+        private long countTopics;
+        private long countPartitions;
+        private long diskTopics;
+        private long countConnectors;
+    }
+
+    private static class UsageCounters {
+        private final String cluster;
+
+        private final List<AccessControlEntry> ownerAcls;
+
+        private final Map<String, long[]> topics = new HashMap<>();
+
+        private final Set<String> connectors = new HashSet<>();
+
+        private long countPartitions;
+
+        private long diskTopics;
+
+        private UsageCounters(String cluster, List<AccessControlEntry> ownerAcls) {
+            this.cluster = cluster;
+            this.ownerAcls = ownerAcls;
+        }
+
+        /**
+         * Add or replace the contribution of a topic, so that applying the same change twice is harmless
+         * @param topic The topic
+         */
+        private void putTopic(Topic topic) {
+            long partitions = topic.getSpec().getPartitions();
+            long disk = Long.parseLong(topic.getSpec().getConfigs().getOrDefault(RETENTION_BYTES_CONFIG, "0")) * partitions;
+
+            removeTopic(topic.getMetadata().getName());
+            topics.put(topic.getMetadata().getName(), new long[] {partitions, disk});
+            countPartitions += partitions;
+            diskTopics += disk;
+        }
+
+        private void removeTopic(String name) {
+            long[] contribution = topics.remove(name);
+            if (contribution != null) {
+                countPartitions -= contribution[0];
+                diskTopics -= contribution[1];
+            }
+        }
+
+        private boolean isOwner(AccessControlEntry.ResourceType resourceType, String name) {
+            return ownerAcls.stream()
+                    .filter(accessControlEntry -> accessControlEntry.getSpec().getResourceType() == resourceType)
+                    .anyMatch(accessControlEntry -> switch (accessControlEntry.getSpec().getResourcePatternType()) {
+                        case PREFIXED -> name.startsWith(accessControlEntry.getSpec().getResource());
+                        case LITERAL -> name.equals(accessControlEntry.getSpec().getResource());
+                    });
+        }
+    }
+}
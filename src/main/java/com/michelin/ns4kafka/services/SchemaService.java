@@ -1,28 +1,43 @@
 package com.michelin.ns4kafka.services;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.michelin.ns4kafka.models.AccessControlEntry;
 import com.michelin.ns4kafka.models.Namespace;
 import com.michelin.ns4kafka.models.ObjectMeta;
 import com.michelin.ns4kafka.models.schema.Schema;
 import com.michelin.ns4kafka.models.schema.SchemaList;
-import com.michelin.ns4kafka.services.schema.KafkaSchemaRegistryClientProxy;
 import com.michelin.ns4kafka.services.schema.client.KafkaSchemaRegistryClient;
 import com.michelin.ns4kafka.services.schema.client.entities.SchemaCompatibilityResponse;
 import com.michelin.ns4kafka.services.schema.client.entities.SchemaRequest;
 import com.michelin.ns4kafka.services.schema.client.entities.SchemaResponse;
+import com.michelin.ns4kafka.utils.ResourcePatternUtils;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.core.Single;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.List;
-import java.util.Optional;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Singleton
 public class SchemaService {
+    private static final Pattern SUBJECT_SUFFIX = Pattern.compile("(-key|-value)$");
+
+    /**
+     * The subjects read at the same time when listing the schemas with their details
+     */
+    private static final int EXPANDED_LIST_CONCURRENCY = 16;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
     @Inject
     AccessControlEntryService accessControlEntryService;
 
@@ -35,23 +50,26 @@ public class SchemaService {
      * @return A list of schemas
      */
     public Single<List<SchemaList>> findAllForNamespace(Namespace namespace) {
-        List<AccessControlEntry> acls = accessControlEntryService.findAllGrantedToNamespace(namespace).stream()
+        List<AccessControlEntry> acls = ResourcePatternUtils.minimize(accessControlEntryService.findAllGrantedToNamespace(namespace).stream()
                 .filter(acl -> acl.getSpec().getPermission() == AccessControlEntry.Permission.OWNER)
-                .filter(acl -> acl.getSpec().getResourceType() == AccessControlEntry.ResourceType.TOPIC).toList();
+                .filter(acl -> acl.getSpec().getResourceType() == AccessControlEntry.ResourceType.TOPIC).toList());
+
+        Set<String> literals = acls.stream()
+                .filter(acl -> acl.getSpec().getResourcePatternType() == AccessControlEntry.ResourcePatternType.LITERAL)
+                .map(acl -> acl.getSpec().getResource())
+                .collect(Collectors.toSet());
+        List<String> prefixes = acls.stream()
+                .filter(acl -> acl.getSpec().getResourcePatternType() == AccessControlEntry.ResourcePatternType.PREFIXED)
+                .map(acl -> acl.getSpec().getResource())
+                .toList();
 
         return kafkaSchemaRegistryClient
-                .getSubjects(KafkaSchemaRegistryClientProxy.PROXY_SECRET, namespace.getMetadata().getCluster())
+                .getSubjects(namespace.getMetadata().getCluster())
                 .map(subjects -> subjects
                         .stream()
                         .filter(subject -> {
-                            String underlyingTopicName = subject.replaceAll("(-key|-value)$","");
-
-                            return acls.stream().anyMatch(accessControlEntry -> switch (accessControlEntry.getSpec().getResourcePatternType()) {
-                                case PREFIXED ->
-                                        underlyingTopicName.startsWith(accessControlEntry.getSpec().getResource());
-                                case LITERAL ->
-                                        underlyingTopicName.equals(accessControlEntry.getSpec().getResource());
-                            });
+                            String underlyingTopicName = getUnderlyingTopicName(subject);
+                            return literals.contains(underlyingTopicName) || prefixes.stream().anyMatch(underlyingTopicName::startsWith);
                         })
                         .map(namespacedSubject -> SchemaList.builder()
                                 .metadata(ObjectMeta.builder()
@@ -64,6 +82,19 @@ public class SchemaService {
                 );
     }
 
+    /**
+     * Get the last version of all the schemas by namespace, read with a bounded number of subjects at a time
+     * and streamed in the order of the subjects
+     * @param namespace The namespace
+     * @return The schemas
+     */
+    public Flowable<Schema> findAllExpandedForNamespace(Namespace namespace) {
+        return findAllForNamespace(namespace)
+                .flattenAsFlowable(schemas -> schemas)
+                .concatMapEager(schema -> getLatestSubject(namespace, schema.getMetadata().getName()).toFlowable(),
+                        EXPANDED_LIST_CONCURRENCY, 1);
+    }
+
     /**
      * Get the last version of a schema by namespace and subject
      *
@@ -73,9 +104,9 @@ public class SchemaService {
      */
     public Maybe<Schema> getLatestSubject(Namespace namespace, String subject) {
         return kafkaSchemaRegistryClient
-                .getLatestSubject(KafkaSchemaRegistryClientProxy.PROXY_SECRET, namespace.getMetadata().getCluster(), subject)
+                .getLatestSubject(namespace.getMetadata().getCluster(), subject)
                 .flatMap(latestSubjectOptional -> kafkaSchemaRegistryClient
-                    .getCurrentCompatibilityBySubject(KafkaSchemaRegistryClientProxy.PROXY_SECRET, namespace.getMetadata().getCluster(), subject)
+                    .getCurrentCompatibilityBySubject(namespace.getMetadata().getCluster(), subject)
                     .map(Optional::of)
                     .defaultIfEmpty(Optional.empty())
                     .map(currentCompatibilityOptional -> {
@@ -92,6 +123,7 @@ public class SchemaService {
                                         .version(latestSubjectOptional.version())
                                         .compatibility(compatibility)
                                         .schema(latestSubjectOptional.schema())
+                                        .references(latestSubjectOptional.references())
                                         .schemaType(latestSubjectOptional.schemaType() == null ? Schema.SchemaType.AVRO :
                                                 Schema.SchemaType.valueOf(latestSubjectOptional.schemaType()))
                                         .build())
@@ -109,7 +141,7 @@ public class SchemaService {
      */
     public Single<Integer> register(Namespace namespace, Schema schema) {
         return kafkaSchemaRegistryClient.
-                register(KafkaSchemaRegistryClientProxy.PROXY_SECRET, namespace.getMetadata().getCluster(),
+                register(namespace.getMetadata().getCluster(),
                         schema.getMetadata().getName(), SchemaRequest.builder()
                                 .schemaType(String.valueOf(schema.getSpec().getSchemaType()))
                                 .schema(schema.getSpec().getSchema())
@@ -126,9 +158,9 @@ public class SchemaService {
      */
     public Single<Integer[]> deleteSubject(Namespace namespace, String subject) {
         return kafkaSchemaRegistryClient
-                .deleteSubject(KafkaSchemaRegistryClientProxy.PROXY_SECRET, namespace.getMetadata().getCluster(), subject, false)
+                .deleteSubject(namespace.getMetadata().getCluster(), subject, false)
                 .flatMap(ids -> kafkaSchemaRegistryClient.
-                        deleteSubject(KafkaSchemaRegistryClientProxy.PROXY_SECRET, namespace.getMetadata().getCluster(),
+                        deleteSubject(namespace.getMetadata().getCluster(),
                                 subject, true));
     }
 
@@ -140,8 +172,7 @@ public class SchemaService {
      * @return A list of errors
      */
     public Single<List<String>> validateSchemaCompatibility(String cluster, Schema schema) {
-        return kafkaSchemaRegistryClient.validateSchemaCompatibility(KafkaSchemaRegistryClientProxy.PROXY_SECRET,
-                cluster, schema.getMetadata().getName(), SchemaRequest.builder()
+        return kafkaSchemaRegistryClient.validateSchemaCompatibility(cluster, schema.getMetadata().getName(), SchemaRequest.builder()
                         .schemaType(String.valueOf(schema.getSpec().getSchemaType()))
                         .schema(schema.getSpec().getSchema())
                         .references(schema.getSpec().getReferences())
@@ -171,16 +202,72 @@ public class SchemaService {
     public Single<SchemaCompatibilityResponse> updateSubjectCompatibility(Namespace namespace, Schema schema, Schema.Compatibility compatibility) {
         // Reset to default
         if (compatibility.equals(Schema.Compatibility.GLOBAL)) {
-            return kafkaSchemaRegistryClient.deleteCurrentCompatibilityBySubject(KafkaSchemaRegistryClientProxy.PROXY_SECRET,
-                    namespace.getMetadata().getCluster(), schema.getMetadata().getName());
+            return kafkaSchemaRegistryClient.deleteCurrentCompatibilityBySubject(namespace.getMetadata().getCluster(), schema.getMetadata().getName());
         } else {
             // Update
-            return kafkaSchemaRegistryClient.updateSubjectCompatibility(KafkaSchemaRegistryClientProxy.PROXY_SECRET,
-                    namespace.getMetadata().getCluster(), schema.getMetadata().getName(),
+            return kafkaSchemaRegistryClient.updateSubjectCompatibility(namespace.getMetadata().getCluster(), schema.getMetadata().getName(),
                     compatibility.toString());
         }
     }
 
+    /**
+     * Does the schema have the same content as the latest version of its subject, so that registering it would only
+     * return the id of the latest version.
+     * As the latest version may come from a stale cache, a match is confirmed by looking the schema up in the subject,
+     * and the confirmation is cached by id of the latest version
+     *
+     * @param namespace The namespace
+     * @param schema The schema
+     * @param latestSchema The latest version of the subject
+     * @return true if the schema is unchanged, false otherwise
+     */
+    public Single<Boolean> isSameAsLatest(Namespace namespace, Schema schema, Schema latestSchema) {
+        String fingerprint = fingerprint(schema.getSpec());
+        if (!fingerprint(latestSchema.getSpec()).equals(fingerprint)) {
+            return Single.just(false);
+        }
+
+        return kafkaSchemaRegistryClient.isLatestVersion(namespace.getMetadata().getCluster(), schema.getMetadata().getName(),
+                latestSchema.getSpec().getId(), fingerprint, SchemaRequest.builder()
+                        .schemaType(String.valueOf(schema.getSpec().getSchemaType()))
+                        .schema(schema.getSpec().getSchema())
+                        .references(schema.getSpec().getReferences())
+                        .build());
+    }
+
+    /**
+     * Hash the type, the content and the references of a schema.
+     * The JSON of the Avro and JSON schemas is compacted, so that a change of formatting is not a change of the schema
+     *
+     * @param spec The schema
+     * @return The fingerprint
+     */
+    private static String fingerprint(Schema.SchemaSpec spec) {
+        Schema.SchemaType schemaType = spec.getSchemaType() == null ? Schema.SchemaType.AVRO : spec.getSchemaType();
+        String content = spec.getSchema() == null ? "" : spec.getSchema();
+        if (schemaType != Schema.SchemaType.PROTOBUF) {
+            try {
+                content = JSON.readTree(content).toString();
+            } catch (JsonProcessingException e) {
+                // Left as is, the Schema Registry will reject it
+            }
+        }
+
+        StringBuilder fingerprint = new StringBuilder(schemaType.name()).append('\n').append(content);
+        if (spec.getReferences() != null) {
+            spec.getReferences().forEach(reference -> fingerprint.append('\n').append(reference.getName())
+                    .append('/').append(reference.getSubject())
+                    .append('/').append(reference.getVersion()));
+        }
+
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256")
+                    .digest(fingerprint.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Does the namespace is owner of the given schema
      *
@@ -189,8 +276,18 @@ public class SchemaService {
      * @return true if it's owner, false otherwise
      */
     public boolean isNamespaceOwnerOfSubject(Namespace namespace, String subjectName) {
-        String underlyingTopicName = subjectName.replaceAll("(-key|-value)$","");
+        String underlyingTopicName = getUnderlyingTopicName(subjectName);
         return accessControlEntryService.isNamespaceOwnerOfResource(namespace.getMetadata().getName(), AccessControlEntry.ResourceType.TOPIC,
                 underlyingTopicName);
     }
+
+    /**
+     * Get the topic of a subject, without its "-key" or "-value" suffix
+     *
+     * @param subject The subject
+     * @return The topic name
+     */
+    private static String getUnderlyingTopicName(String subject) {
+        return SUBJECT_SUFFIX.matcher(subject).replaceFirst("");
+    }
 }
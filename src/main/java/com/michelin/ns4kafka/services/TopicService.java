@@ -2,14 +2,20 @@ package com.michelin.ns4kafka.services;
 
 import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
 import com.michelin.ns4kafka.models.AccessControlEntry;
+import com.michelin.ns4kafka.models.DeleteRecordsResponse;
 import com.michelin.ns4kafka.models.Namespace;
 import com.michelin.ns4kafka.models.Topic;
+import com.michelin.ns4kafka.models.TopicStats;
 import com.michelin.ns4kafka.repositories.TopicRepository;
+import com.michelin.ns4kafka.services.admin.BrokerTopicCache;
 import com.michelin.ns4kafka.services.executors.TopicAsyncExecutor;
 import io.micronaut.context.ApplicationContext;
 import io.micronaut.inject.qualifiers.Qualifiers;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Single;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.RecordsToDelete;
 import org.apache.kafka.common.TopicPartition;
 
@@ -20,6 +26,7 @@ import java.util.stream.Collectors;
 
 import static org.apache.kafka.common.config.TopicConfig.*;
 
+@Slf4j
 @Singleton
 public class TopicService {
     @Inject
@@ -123,17 +130,13 @@ public class TopicService {
      * @throws TimeoutException Any timeout exception
      */
     public List<String> findCollidingTopics(Namespace namespace, Topic topic) throws InterruptedException, ExecutionException, TimeoutException  {
-        TopicAsyncExecutor topicAsyncExecutor = applicationContext.getBean(TopicAsyncExecutor.class,
+        BrokerTopicCache brokerTopicCache = applicationContext.getBean(BrokerTopicCache.class,
                 Qualifiers.byName(namespace.getMetadata().getCluster()));
 
         try {
-            List<String> clusterTopics = topicAsyncExecutor.listBrokerTopicNames();
-            return clusterTopics.stream()
-                    // existing topics with the exact same name (and not currently in ns4kafka) should not interfere
-                    // this topic could be created on ns4kafka during "import" step
-                    .filter(clusterTopic -> !topic.getMetadata().getName().equals(clusterTopic))
-                    .filter(clusterTopic -> hasCollision(clusterTopic, topic.getMetadata().getName()))
-                    .toList();
+            // existing topics with the exact same name (and not currently in ns4kafka) should not interfere
+            // this topic could be created on ns4kafka during "import" step
+            return brokerTopicCache.findCollidingTopics(topic.getMetadata().getName());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new InterruptedException(e.getMessage());
@@ -174,16 +177,6 @@ public class TopicService {
         return validationErrors;
     }
 
-    /**
-     * Check if topics collide with "_" instead of "."
-     * @param topicA The first topic
-     * @param topicB The second topic
-     * @return true if it does, false otherwise
-     */
-    private boolean hasCollision(String topicA, String topicB) {
-        return topicA.replace('.', '_').equals(topicB.replace('.', '_'));
-    }
-
     /**
      * List the topics that are not synchronized to ns4kafka by namespace
      * @param namespace The namespace
@@ -215,15 +208,39 @@ public class TopicService {
      * @throws TimeoutException Any timeout exception
      */
     public List<String> listUnsynchronizedTopicNames(Namespace namespace) throws ExecutionException, InterruptedException, TimeoutException {
-        TopicAsyncExecutor topicAsyncExecutor = applicationContext.getBean(TopicAsyncExecutor.class,
+        BrokerTopicCache brokerTopicCache = applicationContext.getBean(BrokerTopicCache.class,
                 Qualifiers.byName(namespace.getMetadata().getCluster()));
 
-        return topicAsyncExecutor.listBrokerTopicNames()
+        List<AccessControlEntry> ownerAcls = accessControlEntryService.findAllGrantedToNamespace(namespace)
+                .stream()
+                .filter(accessControlEntry -> accessControlEntry.getSpec().getGrantedTo().equals(namespace.getMetadata().getName()))
+                .filter(accessControlEntry -> accessControlEntry.getSpec().getPermission() == AccessControlEntry.Permission.OWNER)
+                .filter(accessControlEntry -> accessControlEntry.getSpec().getResourceType() == AccessControlEntry.ResourceType.TOPIC)
+                .toList();
+
+        // List the broker topics that belong to this namespace...
+        Set<String> ownedTopics = new LinkedHashSet<>();
+        for (AccessControlEntry accessControlEntry : ownerAcls) {
+            String resource = accessControlEntry.getSpec().getResource();
+            switch (accessControlEntry.getSpec().getResourcePatternType()) {
+                case PREFIXED -> ownedTopics.addAll(brokerTopicCache.findAllByPrefix(resource));
+                case LITERAL -> {
+                    if (brokerTopicCache.contains(resource)) {
+                        ownedTopics.add(resource);
+                    }
+                }
+            }
+        }
+
+        // ...and aren't in ns4kafka storage
+        Set<String> ns4kafkaTopics = findAllForNamespace(namespace)
+                .stream()
+                .map(topic -> topic.getMetadata().getName())
+                .collect(Collectors.toSet());
+
+        return ownedTopics
                 .stream()
-                // ...that belongs to this namespace
-                .filter(topic -> isNamespaceOwnerOfTopic(namespace.getMetadata().getName(), topic))
-                // ...and aren't in ns4kafka storage
-                .filter(topic -> findByName(namespace, topic).isEmpty())
+                .filter(topic -> !ns4kafkaTopics.contains(topic))
                 .toList();
     }
 
@@ -284,4 +301,96 @@ public class TopicService {
             throw new InterruptedException(e.getMessage());
         }
     }
+
+    /**
+     * For given topics, get each latest offset by partition in order to delete all the records before these offsets
+     * @param namespace The namespace
+     * @param topics The topics to delete records
+     * @return A map of offsets by topic-partitions
+     * @throws ExecutionException Any execution exception
+     * @throws InterruptedException Any interrupted exception
+     */
+    public Map<TopicPartition, Long> prepareBulkRecordsToDelete(Namespace namespace, List<Topic> topics) throws ExecutionException, InterruptedException {
+        TopicAsyncExecutor topicAsyncExecutor = applicationContext.getBean(TopicAsyncExecutor.class,
+                Qualifiers.byName(namespace.getMetadata().getCluster()));
+
+        return topicAsyncExecutor.prepareRecordsToDeleteForTopics(topics
+                        .stream()
+                        .map(topic -> topic.getMetadata().getName())
+                        .toList())
+                .entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, kv -> kv.getValue().beforeOffset()));
+    }
+
+    /**
+     * Delete the records of several topics with a single request. The new offset of each partition is emitted
+     * as soon as the partition is done, -1 with the error message if the deletion failed
+     * @param namespace The namespace
+     * @param recordsToDelete The offsets by topic-partitions
+     * @return The new offsets by topic-partitions
+     */
+    public Flowable<DeleteRecordsResponse> bulkDeleteRecords(Namespace namespace, Map<TopicPartition, Long> recordsToDelete) {
+        TopicAsyncExecutor topicAsyncExecutor = applicationContext.getBean(TopicAsyncExecutor.class,
+                Qualifiers.byName(namespace.getMetadata().getCluster()));
+
+        Map<TopicPartition, RecordsToDelete> recordsToDeleteMap = recordsToDelete.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, kv -> RecordsToDelete.beforeOffset(kv.getValue())));
+
+        return Flowable.fromIterable(topicAsyncExecutor.deleteRecordsAsync(recordsToDeleteMap).entrySet())
+                .flatMapSingle(lowWatermark -> Single.<Long>create(emitter -> lowWatermark.getValue().whenComplete((offset, error) -> {
+                            if (error != null) {
+                                emitter.onError(error);
+                            } else {
+                                emitter.onSuccess(offset);
+                            }
+                        }))
+                        .map(offset -> buildDeleteRecordsResponse(lowWatermark.getKey(), offset, null))
+                        .onErrorReturn(error -> {
+                            log.error(String.format("Error deleting records of topic-partition %s", lowWatermark.getKey()), error);
+                            return buildDeleteRecordsResponse(lowWatermark.getKey(), -1L, error.getMessage());
+                        }));
+    }
+
+    /**
+     * Build the delete records response of a topic-partition
+     * @param topicPartition The topic-partition
+     * @param offset The new offset of the topic-partition
+     * @param error The error of the deletion, if any
+     * @return The delete records response
+     */
+    public static DeleteRecordsResponse buildDeleteRecordsResponse(TopicPartition topicPartition, Long offset, String error) {
+        return DeleteRecordsResponse.builder()
+                .spec(DeleteRecordsResponse.DeleteRecordsResponseSpec.builder()
+                        .topic(topicPartition.topic())
+                        .partition(topicPartition.partition())
+                        .offset(offset)
+                        .error(error)
+                        .build())
+                .build();
+    }
+
+    /**
+     * Get the statistics of the given topics of a namespace
+     * @param namespace The namespace
+     * @param topics The topics
+     * @return The statistics of the topics existing on the cluster
+     * @throws ExecutionException Any execution exception
+     * @throws InterruptedException Any interrupted exception
+     * @throws TimeoutException Any timeout exception
+     */
+    public List<TopicStats> getTopicStats(Namespace namespace, List<Topic> topics) throws ExecutionException, InterruptedException, TimeoutException {
+        TopicAsyncExecutor topicAsyncExecutor = applicationContext.getBean(TopicAsyncExecutor.class,
+                Qualifiers.byName(namespace.getMetadata().getCluster()));
+
+        Map<String, TopicStats> topicStats = topicAsyncExecutor.getTopicStats(topics
+                .stream()
+                .map(topic -> topic.getMetadata().getName())
+                .toList());
+
+        return topics
+                .stream()
+                .map(topic -> topicStats.get(topic.getMetadata().getName()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
 }
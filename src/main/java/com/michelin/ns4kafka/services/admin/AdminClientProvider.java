@@ -0,0 +1,147 @@
+package com.michelin.ns4kafka.services.admin;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import io.micronaut.context.annotation.EachBean;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@EachBean(KafkaAsyncExecutorConfig.class)
+@Singleton
+public class AdminClientProvider {
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(5);
+
+    private final KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig;
+
+    private final KafkaAsyncExecutorConfig.AdminConfig adminConfig;
+
+    private Admin adminClient;
+
+    private int consecutiveFailures;
+
+    private boolean closed;
+
+    public AdminClientProvider(KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig) {
+        this.kafkaAsyncExecutorConfig = kafkaAsyncExecutorConfig;
+        this.adminConfig = Optional.ofNullable(kafkaAsyncExecutorConfig.getAdmin())
+                .orElseGet(KafkaAsyncExecutorConfig.AdminConfig::new);
+    }
+
+    /**
+     * Get the Admin client of the cluster, creating it on first use or after it has been recreated
+     * @return The Admin client
+     */
+    public synchronized Admin getAdminClient() {
+        if (closed) {
+            throw new IllegalStateException(String.format("Admin client of Kafka cluster %s is closed", kafkaAsyncExecutorConfig.getName()));
+        }
+
+        if (adminClient == null) {
+            log.info("Creating Admin client of Kafka cluster {}", kafkaAsyncExecutorConfig.getName());
+            adminClient = createAdminClient(buildAdminProperties());
+        }
+
+        return adminClient;
+    }
+
+    /**
+     * Create the Admin client and check the cluster answers
+     */
+    public void warmUp() {
+        try {
+            String clusterId = getAdminClient().describeCluster().clusterId()
+                    .get(adminConfig.getApiTimeout(), TimeUnit.MILLISECONDS);
+            log.info("Admin client of Kafka cluster {} connected to cluster id {}", kafkaAsyncExecutorConfig.getName(), clusterId);
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            log.warn("Admin client of Kafka cluster {} could not reach the cluster at startup: {}",
+                    kafkaAsyncExecutorConfig.getName(), e.getMessage());
+        } catch (InterruptedException e) {
+            log.warn("Interrupted while warming up Admin client of Kafka cluster {}", kafkaAsyncExecutorConfig.getName());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Record a request answered by the cluster
+     */
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * Record a request failed because of the cluster. After too many consecutive failures, the Admin client is closed
+     * so the next request creates a new one with fresh connections and metadata
+     */
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+
+        if (consecutiveFailures >= adminConfig.getRecreateThreshold() && adminClient != null) {
+            log.warn("Recreating Admin client of Kafka cluster {} after {} consecutive failures",
+                    kafkaAsyncExecutorConfig.getName(), consecutiveFailures);
+            closeAdminClient();
+            consecutiveFailures = 0;
+        }
+    }
+
+    /**
+     * Close the Admin client on shutdown
+     */
+    @PreDestroy
+    public synchronized void close() {
+        closed = true;
+        closeAdminClient();
+    }
+
+    /**
+     * Build the Admin client properties from the cluster config, with the configured timeouts as defaults
+     * @return The Admin client properties
+     */
+    Properties buildAdminProperties() {
+        Properties properties = new Properties();
+        if (kafkaAsyncExecutorConfig.getConfig() != null) {
+            properties.putAll(kafkaAsyncExecutorConfig.getConfig());
+        }
+
+        properties.putIfAbsent(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, String.valueOf(adminConfig.getRequestTimeout()));
+
+        // The API timeout cannot be lower than the request timeout
+        int requestTimeout = Integer.parseInt(properties.get(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG).toString());
+        properties.putIfAbsent(AdminClientConfig.DEFAULT_API_TIMEOUT_MS_CONFIG,
+                String.valueOf(Math.max(requestTimeout, adminConfig.getApiTimeout())));
+
+        return properties;
+    }
+
+    /**
+     * Create an Admin client
+     * @param properties The Admin client properties
+     * @return The Admin client
+     */
+    Admin createAdminClient(Properties properties) {
+        return Admin.create(properties);
+    }
+
+    private void closeAdminClient() {
+        if (adminClient == null) {
+            return;
+        }
+
+        try {
+            adminClient.close(CLOSE_TIMEOUT);
+        } catch (RuntimeException e) {
+            log.warn("Error closing Admin client of Kafka cluster {}: {}", kafkaAsyncExecutorConfig.getName(), e.getMessage());
+        }
+
+        adminClient = null;
+    }
+}
@@ -0,0 +1,33 @@
+package com.michelin.ns4kafka.services.admin;
+
+import io.micronaut.runtime.event.ApplicationStartupEvent;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.scheduling.TaskExecutors;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+@Slf4j
+@Singleton
+public class AdminClientWarmUp {
+    @Inject
+    List<AdminClientProvider> adminClientProviders;
+
+    @Inject
+    @Named(TaskExecutors.IO)
+    ExecutorService executorService;
+
+    /**
+     * Create the Admin clients of all the clusters in parallel at startup, so the first requests do not pay for it
+     * @param event The application start event
+     */
+    @EventListener
+    public void onStartupEvent(ApplicationStartupEvent event) {
+        log.info("Warming up {} Admin client(s)", adminClientProviders.size());
+        adminClientProviders.forEach(adminClientProvider -> executorService.submit(adminClientProvider::warmUp));
+    }
+}
@@ -0,0 +1,250 @@
+package com.michelin.ns4kafka.services.admin;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import com.michelin.ns4kafka.utils.exceptions.ClusterUnavailableException;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.context.annotation.EachBean;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.errors.*;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@Slf4j
+@EachBean(KafkaAsyncExecutorConfig.class)
+@Singleton
+public class AdminGateway {
+    private final KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig;
+
+    private final KafkaAsyncExecutorConfig.AdminConfig adminConfig;
+
+    private final Semaphore inFlightRequests;
+
+    private double availableTokens;
+
+    private long lastRefill;
+
+    private CircuitState circuitState = CircuitState.CLOSED;
+
+    private int consecutiveFailures;
+
+    private long openedAt;
+
+    private boolean trialInFlight;
+
+    @Inject
+    ApplicationContext applicationContext;
+
+    public AdminGateway(KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig) {
+        this.kafkaAsyncExecutorConfig = kafkaAsyncExecutorConfig;
+        this.adminConfig = Optional.ofNullable(kafkaAsyncExecutorConfig.getAdmin())
+                .orElseGet(KafkaAsyncExecutorConfig.AdminConfig::new);
+        this.inFlightRequests = new Semaphore(adminConfig.getMaxInFlightRequests(), true);
+        this.availableTokens = adminConfig.getBurst();
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Send a request returning a single future to the Admin client of the cluster
+     * @param request The request
+     * @param <T> The type of the request result
+     * @return The future of the request result
+     */
+    public <T> KafkaFuture<T> call(Function<Admin, KafkaFuture<T>> request) {
+        return submit(request, Function.identity());
+    }
+
+    /**
+     * Send a request to the Admin client of the cluster, once the circuit breaker, the rate limiter and the bulkhead let it through.
+     * The request holds its in-flight slot until the completion future is done
+     * @param request The request
+     * @param completion The future completed once the whole request is done, used to release the slot and record the outcome
+     * @param <R> The type of the request result
+     * @return The request result
+     */
+    public <R> R submit(Function<Admin, R> request, Function<R, KafkaFuture<?>> completion) {
+        acquirePermission();
+
+        try {
+            takeToken();
+            acquireInFlightSlot();
+        } catch (RuntimeException e) {
+            releaseTrial();
+            throw e;
+        }
+
+        R result;
+        try {
+            result = request.apply(getAdminClientProvider().getAdminClient());
+        } catch (RuntimeException e) {
+            inFlightRequests.release();
+            if (isClusterFailure(e)) {
+                onFailure(e);
+            } else {
+                releaseTrial();
+            }
+            throw e;
+        }
+
+        completion.apply(result).whenComplete((value, error) -> {
+            inFlightRequests.release();
+            if (error != null && isClusterFailure(error)) {
+                onFailure(error);
+            } else {
+                onSuccess();
+            }
+        });
+
+        return result;
+    }
+
+    /**
+     * Is the cluster accepting requests, i.e. the circuit is not open
+     * @return true if it is, false otherwise
+     */
+    public synchronized boolean isAvailable() {
+        return getCircuitState() != CircuitState.OPEN;
+    }
+
+    /**
+     * Get the current state of the circuit breaker
+     * @return The circuit state
+     */
+    public synchronized CircuitState getCircuitState() {
+        if (circuitState == CircuitState.OPEN && System.currentTimeMillis() - openedAt >= adminConfig.getOpenDuration()) {
+            circuitState = CircuitState.HALF_OPEN;
+            trialInFlight = false;
+            log.info("Circuit breaker of Kafka cluster {} is half-open", kafkaAsyncExecutorConfig.getName());
+        }
+
+        return circuitState;
+    }
+
+    /**
+     * Check the circuit breaker lets a request through. A half-open circuit lets a single trial request through
+     */
+    private synchronized void acquirePermission() {
+        CircuitState state = getCircuitState();
+        if (state == CircuitState.OPEN || (state == CircuitState.HALF_OPEN && trialInFlight)) {
+            throw new ClusterUnavailableException(kafkaAsyncExecutorConfig.getName(),
+                    String.format("Circuit breaker is %s after %s consecutive failures", state, consecutiveFailures));
+        }
+
+        if (state == CircuitState.HALF_OPEN) {
+            trialInFlight = true;
+        }
+    }
+
+    /**
+     * Take a token from the bucket, rejecting the request right away if the bucket is empty so that no request thread
+     * is stalled by the rate limit
+     */
+    private synchronized void takeToken() {
+        long now = System.nanoTime();
+        availableTokens = Math.min(adminConfig.getBurst(),
+                availableTokens + (now - lastRefill) * adminConfig.getRequestsPerSecond() / TimeUnit.SECONDS.toNanos(1));
+        lastRefill = now;
+
+        if (availableTokens < 1) {
+            throw new ClusterUnavailableException(kafkaAsyncExecutorConfig.getName(),
+                    String.format("Admin request rate limit of %s requests per second exceeded", adminConfig.getRequestsPerSecond()));
+        }
+
+        availableTokens--;
+    }
+
+    /**
+     * Take an in-flight slot, waiting for a slot to be released if needed
+     */
+    private void acquireInFlightSlot() {
+        try {
+            if (!inFlightRequests.tryAcquire(adminConfig.getMaxWait(), TimeUnit.MILLISECONDS)) {
+                throw new ClusterUnavailableException(kafkaAsyncExecutorConfig.getName(),
+                        String.format("Too many Admin requests in flight (%s)", adminConfig.getMaxInFlightRequests()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClusterUnavailableException(kafkaAsyncExecutorConfig.getName(), "Interrupted while waiting for an Admin request slot");
+        }
+    }
+
+    /**
+     * Getter for the Admin client provider of the cluster
+     * @return The Admin client provider
+     */
+    private AdminClientProvider getAdminClientProvider() {
+        return applicationContext.getBean(AdminClientProvider.class, Qualifiers.byName(kafkaAsyncExecutorConfig.getName()));
+    }
+
+    private synchronized void releaseTrial() {
+        trialInFlight = false;
+    }
+
+    private void onSuccess() {
+        getAdminClientProvider().onSuccess();
+        recordSuccess();
+    }
+
+    private void onFailure(Throwable error) {
+        getAdminClientProvider().onFailure();
+        recordFailure(error);
+    }
+
+    private synchronized void recordSuccess() {
+        if (circuitState != CircuitState.CLOSED) {
+            log.info("Circuit breaker of Kafka cluster {} is closed", kafkaAsyncExecutorConfig.getName());
+        }
+
+        circuitState = CircuitState.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    private synchronized void recordFailure(Throwable error) {
+        consecutiveFailures++;
+        trialInFlight = false;
+
+        if (circuitState == CircuitState.HALF_OPEN || consecutiveFailures >= adminConfig.getFailureThreshold()) {
+            if (circuitState != CircuitState.OPEN) {
+                log.warn("Circuit breaker of Kafka cluster {} is open after {} consecutive failures, last one: {}",
+                        kafkaAsyncExecutorConfig.getName(), consecutiveFailures, error.getMessage());
+            }
+
+            circuitState = CircuitState.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Does the given error tell the cluster is unhealthy, rather than the request being invalid
+     * @param error The error
+     * @return true if it does, false otherwise
+     */
+    private boolean isClusterFailure(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+
+        return cause instanceof TimeoutException
+                || cause instanceof DisconnectException
+                || cause instanceof NetworkException
+                || cause instanceof BrokerNotAvailableException
+                || cause instanceof ThrottlingQuotaExceededException;
+    }
+
+    public enum CircuitState {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+}
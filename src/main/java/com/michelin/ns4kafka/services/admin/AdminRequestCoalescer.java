@@ -0,0 +1,241 @@
+package com.michelin.ns4kafka.services.admin;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.context.annotation.EachBean;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.TaskScheduler;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.ConsumerGroupListing;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.admin.TopicListing;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Slf4j
+@EachBean(KafkaAsyncExecutorConfig.class)
+@Singleton
+public class AdminRequestCoalescer {
+    private final KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig;
+
+    private final Map<String, KafkaFuture<?>> inFlightRequests = new ConcurrentHashMap<>();
+
+    private final List<PendingListOffsets> pendingListOffsets = new ArrayList<>();
+
+    @Inject
+    ApplicationContext applicationContext;
+
+    @Inject
+    @Named(TaskExecutors.SCHEDULED)
+    TaskScheduler taskScheduler;
+
+    public AdminRequestCoalescer(KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig) {
+        this.kafkaAsyncExecutorConfig = kafkaAsyncExecutorConfig;
+    }
+
+    /**
+     * List the topics of the cluster, sharing the in-flight request with concurrent callers
+     * @return The topic listings
+     */
+    public KafkaFuture<Collection<TopicListing>> listTopics() {
+        return coalesce("listTopics", () -> getAdminGateway().call(admin -> admin.listTopics().listings()));
+    }
+
+    /**
+     * List the consumer groups of the cluster, sharing the in-flight request with concurrent callers
+     * @return The consumer group listings
+     */
+    public KafkaFuture<Collection<ConsumerGroupListing>> listConsumerGroups() {
+        return coalesce("listConsumerGroups", () -> getAdminGateway().call(admin -> admin.listConsumerGroups().all()));
+    }
+
+    /**
+     * Describe a topic, sharing the in-flight request with concurrent callers describing the same topic
+     * @param topic The topic
+     * @return The topic description
+     */
+    public KafkaFuture<TopicDescription> describeTopic(String topic) {
+        return coalesce("describeTopic/" + topic,
+                () -> getAdminGateway().call(admin -> admin.describeTopics(List.of(topic)).all())
+                        .thenApply(descriptions -> descriptions.get(topic)));
+    }
+
+    /**
+     * List the offsets of some topic-partitions. Requests submitted within the coalescing window are merged
+     * into as few listOffsets requests as possible
+     * @param offsetSpecs The offset specs by topic-partition
+     * @return The offsets by topic-partition
+     */
+    public KafkaFuture<Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo>> listOffsets(Map<TopicPartition, OffsetSpec> offsetSpecs) {
+        PendingListOffsets pending = new PendingListOffsets(offsetSpecs);
+        if (offsetSpecs.isEmpty()) {
+            pending.result.complete(Map.of());
+            return pending.result;
+        }
+
+        boolean scheduleFlush;
+        synchronized (pendingListOffsets) {
+            scheduleFlush = pendingListOffsets.isEmpty();
+            pendingListOffsets.add(pending);
+        }
+
+        if (scheduleFlush) {
+            taskScheduler.schedule(Duration.ofMillis(getCoalescingWindow()), this::flushListOffsets);
+        }
+
+        return pending.result;
+    }
+
+    /**
+     * Send the listOffsets requests submitted during the window.
+     * A topic-partition can only be listed once by request, so requests listing the same topic-partition go to separate rounds
+     */
+    void flushListOffsets() {
+        List<PendingListOffsets> toFlush;
+        synchronized (pendingListOffsets) {
+            toFlush = new ArrayList<>(pendingListOffsets);
+            pendingListOffsets.clear();
+        }
+
+        List<List<PendingListOffsets>> rounds = new ArrayList<>();
+        List<Set<TopicPartition>> roundPartitions = new ArrayList<>();
+        for (PendingListOffsets pending : toFlush) {
+            int round = 0;
+            while (round < rounds.size() && !Collections.disjoint(roundPartitions.get(round), pending.offsetSpecs.keySet())) {
+                round++;
+            }
+
+            if (round == rounds.size()) {
+                rounds.add(new ArrayList<>());
+                roundPartitions.add(new HashSet<>());
+            }
+
+            rounds.get(round).add(pending);
+            roundPartitions.get(round).addAll(pending.offsetSpecs.keySet());
+        }
+
+        log.debug("Sending {} listOffsets request(s) for {} coalesced request(s) on cluster {}",
+                rounds.size(), toFlush.size(), kafkaAsyncExecutorConfig.getName());
+
+        rounds.forEach(this::sendListOffsets);
+    }
+
+    /**
+     * Send a single listOffsets request for the given requests and dispatch its result.
+     * Each request only depends on the results of its own topic-partitions, so a failed topic-partition does not fail the others
+     * @param round The requests, with no topic-partition in common
+     */
+    private void sendListOffsets(List<PendingListOffsets> round) {
+        Map<TopicPartition, OffsetSpec> merged = new HashMap<>();
+        round.forEach(pending -> merged.putAll(pending.offsetSpecs));
+
+        ListOffsetsResult response;
+        try {
+            response = getAdminGateway().submit(admin -> admin.listOffsets(merged), ListOffsetsResult::all);
+        } catch (RuntimeException e) {
+            round.forEach(pending -> pending.result.completeExceptionally(e));
+            return;
+        }
+
+        round.forEach(pending -> {
+            Map<TopicPartition, KafkaFuture<ListOffsetsResult.ListOffsetsResultInfo>> partitionResults = pending.offsetSpecs.keySet()
+                    .stream()
+                    .collect(Collectors.toMap(topicPartition -> topicPartition, response::partitionResult));
+
+            KafkaFuture.allOf(partitionResults.values().toArray(new KafkaFuture[0])).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    pending.result.completeExceptionally(error);
+                    return;
+                }
+
+                Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> offsets = new HashMap<>();
+                try {
+                    for (Map.Entry<TopicPartition, KafkaFuture<ListOffsetsResult.ListOffsetsResultInfo>> partitionResult : partitionResults.entrySet()) {
+                        offsets.put(partitionResult.getKey(), partitionResult.getValue().get());
+                    }
+                    pending.result.complete(offsets);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    pending.result.completeExceptionally(e);
+                } catch (ExecutionException e) {
+                    pending.result.completeExceptionally(e.getCause());
+                }
+            });
+        });
+    }
+
+    /**
+     * Send a request, unless an identical request is already in flight, in which case its result is shared
+     * @param key The request identifier
+     * @param request The request
+     * @param <T> The type of the request result
+     * @return The request result
+     */
+    @SuppressWarnings("unchecked")
+    private <T> KafkaFuture<T> coalesce(String key, Supplier<KafkaFuture<T>> request) {
+        KafkaFutureImpl<T> result = new KafkaFutureImpl<>();
+        KafkaFuture<?> inFlight = inFlightRequests.putIfAbsent(key, result);
+        if (inFlight != null) {
+            return (KafkaFuture<T>) inFlight;
+        }
+
+        try {
+            request.get().whenComplete((value, error) -> {
+                inFlightRequests.remove(key, result);
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlightRequests.remove(key, result);
+            result.completeExceptionally(e);
+            throw e;
+        }
+
+        return result;
+    }
+
+    /**
+     * Getter for the coalescing window of listOffsets requests
+     * @return The window in milliseconds
+     */
+    private long getCoalescingWindow() {
+        return Optional.ofNullable(kafkaAsyncExecutorConfig.getAdmin())
+                .orElseGet(KafkaAsyncExecutorConfig.AdminConfig::new)
+                .getCoalescingWindow();
+    }
+
+    /**
+     * Getter for the Admin gateway of the cluster
+     * @return The Admin gateway
+     */
+    private AdminGateway getAdminGateway() {
+        return applicationContext.getBean(AdminGateway.class, Qualifiers.byName(kafkaAsyncExecutorConfig.getName()));
+    }
+
+    private static class PendingListOffsets {
+        private final Map<TopicPartition, OffsetSpec> offsetSpecs;
+
+        private final KafkaFutureImpl<Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo>> result = new KafkaFutureImpl<>();
+
+        private PendingListOffsets(Map<TopicPartition, OffsetSpec> offsetSpecs) {
+            this.offsetSpecs = offsetSpecs;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.michelin.ns4kafka.services.admin;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.context.annotation.EachBean;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.TopicListing;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@EachBean(KafkaAsyncExecutorConfig.class)
+@Singleton
+public class BrokerTopicCache {
+    private final KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+    private volatile TopicIndex topicIndex;
+
+    /**
+     * Incremented on every local change, guarded by this
+     */
+    private long generation;
+
+    /**
+     * The latest local change of each topic not known to be part of the cached listing yet, guarded by this
+     */
+    private final Map<String, LocalChange> localChanges = new HashMap<>();
+
+    @Inject
+    ApplicationContext applicationContext;
+
+    @Property(name = "ns4kafka.topic.broker-cache-ttl", defaultValue = "30000")
+    long brokerCacheTtl;
+
+    public BrokerTopicCache(KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig) {
+        this.kafkaAsyncExecutorConfig = kafkaAsyncExecutorConfig;
+    }
+
+    /**
+     * List the topics of the cluster whose name collides with the given topic name once "." and "_" are considered equal.
+     * The topic itself is not part of the result
+     * @param topic The topic name
+     * @return The colliding topic names
+     * @throws ExecutionException Any execution exception
+     * @throws InterruptedException Any interrupted exception
+     * @throws TimeoutException Any timeout exception
+     */
+    public List<String> findCollidingTopics(String topic) throws ExecutionException, InterruptedException, TimeoutException {
+        Set<String> sameNormalizedName = getTopicIndex().topicsByNormalizedName.getOrDefault(normalize(topic), Set.of());
+        return sameNormalizedName
+                .stream()
+                .filter(clusterTopic -> !clusterTopic.equals(topic))
+                .toList();
+    }
+
+    /**
+     * List the topics of the cluster starting with the given prefix
+     * @param prefix The prefix
+     * @return The topic names
+     * @throws ExecutionException Any execution exception
+     * @throws InterruptedException Any interrupted exception
+     * @throws TimeoutException Any timeout exception
+     */
+    public List<String> findAllByPrefix(String prefix) throws ExecutionException, InterruptedException, TimeoutException {
+        return new ArrayList<>(getTopicIndex().topics.subSet(prefix, true, prefix + Character.MAX_VALUE, true));
+    }
+
+    /**
+     * Does the cluster contain the given topic
+     * @param topic The topic name
+     * @return true if it does, false otherwise
+     * @throws ExecutionException Any execution exception
+     * @throws InterruptedException Any interrupted exception
+     * @throws TimeoutException Any timeout exception
+     */
+    public boolean contains(String topic) throws ExecutionException, InterruptedException, TimeoutException {
+        return getTopicIndex().topics.contains(topic);
+    }
+
+    /**
+     * Getter for the generation of the local changes. It is taken before listing the cluster topics
+     * and given back to {@link #replaceAll(Collection, long)}, so that the changes made during the listing are not lost
+     * @return The generation
+     */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Replace the cached topics with a fresh listing of the cluster.
+     * The topics added or removed by ns4kafka since the listing started are replayed on the listing,
+     * and a listing older than the cached one is discarded
+     * @param topics The topic names
+     * @param listingGeneration The generation taken before listing the topics
+     */
+    public synchronized void replaceAll(Collection<String> topics, long listingGeneration) {
+        if (topicIndex != null && topicIndex.generation > listingGeneration) {
+            log.debug("Discarding a stale listing of the broker topics of cluster {}", kafkaAsyncExecutorConfig.getName());
+            return;
+        }
+
+        TopicIndex fresh = new TopicIndex(topics, listingGeneration);
+        localChanges.forEach((topic, change) -> {
+            if (change.generation > listingGeneration) {
+                change.apply(fresh, topic);
+            }
+        });
+
+        // The changes made before the listing are part of it
+        localChanges.values().removeIf(change -> change.generation <= listingGeneration);
+        topicIndex = fresh;
+    }
+
+    /**
+     * Register a topic created by ns4kafka
+     * @param topic The topic name
+     */
+    public synchronized void add(String topic) {
+        recordChange(topic, true);
+    }
+
+    /**
+     * Unregister a topic deleted by ns4kafka
+     * @param topic The topic name
+     */
+    public synchronized void remove(String topic) {
+        recordChange(topic, false);
+    }
+
+    /**
+     * Apply a local change to the cached topics, and keep it until a listing started after it replaces them
+     * @param topic The topic name
+     * @param added true if the topic was added, false if it was removed
+     */
+    private void recordChange(String topic, boolean added) {
+        LocalChange change = new LocalChange(added, ++generation);
+        localChanges.put(topic, change);
+        if (topicIndex != null) {
+            change.apply(topicIndex, topic);
+        }
+    }
+
+    /**
+     * Get the topic index of the cluster. The first call loads it, later calls serve it from memory
+     * and trigger a background refresh once it is older than the TTL
+     * @return The topic index
+     * @throws ExecutionException Any execution exception
+     * @throws InterruptedException Any interrupted exception
+     * @throws TimeoutException Any timeout exception
+     */
+    private TopicIndex getTopicIndex() throws ExecutionException, InterruptedException, TimeoutException {
+        TopicIndex current = topicIndex;
+        if (current == null) {
+            long listingGeneration = getGeneration();
+            Collection<TopicListing> listings = getAdminRequestCoalescer().listTopics().get(30, TimeUnit.SECONDS);
+            replaceAll(listings.stream().map(TopicListing::name).toList(), listingGeneration);
+            return topicIndex;
+        }
+
+        if (System.currentTimeMillis() - current.loadedAt > brokerCacheTtl && refreshing.compareAndSet(false, true)) {
+            refresh();
+        }
+
+        return current;
+    }
+
+    /**
+     * Reload the topic index in the background
+     */
+    private void refresh() {
+        long listingGeneration = getGeneration();
+        try {
+            getAdminRequestCoalescer().listTopics().whenComplete((listings, error) -> {
+                refreshing.set(false);
+                if (error != null) {
+                    log.warn("Error refreshing broker topics of cluster {}: {}", kafkaAsyncExecutorConfig.getName(), error.getMessage());
+                } else {
+                    replaceAll(listings.stream().map(TopicListing::name).toList(), listingGeneration);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.set(false);
+            log.warn("Error refreshing broker topics of cluster {}: {}", kafkaAsyncExecutorConfig.getName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Getter for the Admin request coalescer of the cluster
+     * @return The Admin request coalescer
+     */
+    private AdminRequestCoalescer getAdminRequestCoalescer() {
+        return applicationContext.getBean(AdminRequestCoalescer.class, Qualifiers.byName(kafkaAsyncExecutorConfig.getName()));
+    }
+
+    /**
+     * Normalize a topic name so colliding names are equal: Kafka metric names do not tell "." from "_"
+     * @param topic The topic name
+     * @return The normalized name
+     */
+    static String normalize(String topic) {
+        return topic.replace('.', '_');
+    }
+
+    private static class TopicIndex {
+        private final NavigableSet<String> topics = new ConcurrentSkipListSet<>();
+
+        private final Map<String, Set<String>> topicsByNormalizedName = new ConcurrentHashMap<>();
+
+        private final long loadedAt = System.currentTimeMillis();
+
+        private final long generation;
+
+        private TopicIndex(Collection<String> names, long generation) {
+            this.generation = generation;
+            names.forEach(this::add);
+        }
+
+        private void add(String topic) {
+            topics.add(topic);
+            topicsByNormalizedName.computeIfAbsent(normalize(topic), key -> ConcurrentHashMap.newKeySet()).add(topic);
+        }
+
+        private void remove(String topic) {
+            topics.remove(topic);
+            topicsByNormalizedName.computeIfPresent(normalize(topic), (key, names) -> {
+                names.remove(topic);
+                return names.isEmpty() ? null : names;
+            });
+        }
+    }
+
+    private static class LocalChange {
+        private final boolean added;
+
+        private final long generation;
+
+        private LocalChange(boolean added, long generation) {
+            this.added = added;
+            this.generation = generation;
+        }
+
+        private void apply(TopicIndex index, String topic) {
+            if (added) {
+                index.add(topic);
+            } else {
+                index.remove(topic);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.michelin.ns4kafka.services.admin;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.context.annotation.EachBean;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import io.micronaut.scheduling.TaskExecutors;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.LogDirDescription;
+import org.apache.kafka.common.Node;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+@EachBean(KafkaAsyncExecutorConfig.class)
+@Singleton
+public class LogDirUsageCollector {
+    private final KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig;
+
+    private final KafkaAsyncExecutorConfig.AdminConfig adminConfig;
+
+    private final AtomicBoolean collecting = new AtomicBoolean(false);
+
+    private volatile long lastCollectStart;
+
+    private volatile LogDirUsage logDirUsage;
+
+    @Inject
+    ApplicationContext applicationContext;
+
+    @Inject
+    @Named(TaskExecutors.IO)
+    ExecutorService executorService;
+
+    public LogDirUsageCollector(KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig) {
+        this.kafkaAsyncExecutorConfig = kafkaAsyncExecutorConfig;
+        this.adminConfig = Optional.ofNullable(kafkaAsyncExecutorConfig.getAdmin())
+                .orElseGet(KafkaAsyncExecutorConfig.AdminConfig::new);
+    }
+
+    /**
+     * Start a collection of the log dirs in the background, unless one is running or the last one is too recent.
+     * Confluent Cloud clusters do not expose their log dirs, so they are never collected
+     */
+    public void run() {
+        if (adminConfig.getLogDirsCollectInterval() <= 0
+                || kafkaAsyncExecutorConfig.getProvider() == KafkaAsyncExecutorConfig.KafkaProvider.CONFLUENT_CLOUD
+                || System.currentTimeMillis() - lastCollectStart < adminConfig.getLogDirsCollectInterval()
+                || !getAdminGateway().isAvailable()
+                || !collecting.compareAndSet(false, true)) {
+            return;
+        }
+
+        lastCollectStart = System.currentTimeMillis();
+        executorService.submit(() -> {
+            try {
+                collect();
+            } finally {
+                collecting.set(false);
+            }
+        });
+    }
+
+    /**
+     * Get the disk used by the given topics, replicas included
+     * @param topics The topic names
+     * @return The disk usage in bytes, or empty if no collection is recent enough
+     */
+    public Optional<Long> getDiskUsage(Collection<String> topics) {
+        LogDirUsage current = logDirUsage;
+        if (current == null || System.currentTimeMillis() - current.collectedAt > adminConfig.getLogDirsMaxStaleness()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(topics.stream()
+                .mapToLong(topic -> current.sizeByTopic.getOrDefault(topic, 0L))
+                .sum());
+    }
+
+    /**
+     * Describe the log dirs of all the brokers, a batch of brokers at a time, and sum the replica sizes by topic.
+     * The future replicas of the log dir reassignments are left out
+     */
+    void collect() {
+        try {
+            List<Integer> brokerIds = getAdminGateway().call(admin -> admin.describeCluster().nodes())
+                    .get(30, TimeUnit.SECONDS)
+                    .stream()
+                    .map(Node::id)
+                    .toList();
+
+            Map<String, Long> sizeByTopic = new HashMap<>();
+            for (int i = 0; i < brokerIds.size(); i += adminConfig.getLogDirsBatchSize()) {
+                List<Integer> batch = brokerIds.subList(i, Math.min(i + adminConfig.getLogDirsBatchSize(), brokerIds.size()));
+                Map<Integer, Map<String, LogDirDescription>> logDirsByBroker = getAdminGateway()
+                        .call(admin -> admin.describeLogDirs(batch).allDescriptions())
+                        .get(30, TimeUnit.SECONDS);
+
+                // The future replicas of a log dir reassignment are copies of the current replicas, not counted twice
+                logDirsByBroker.values().forEach(logDirs -> logDirs.values()
+                        .forEach(logDir -> logDir.replicaInfos()
+                                .forEach((topicPartition, replicaInfo) -> {
+                                    if (!replicaInfo.isFuture()) {
+                                        sizeByTopic.merge(topicPartition.topic(), replicaInfo.size(), Long::sum);
+                                    }
+                                })));
+            }
+
+            logDirUsage = new LogDirUsage(sizeByTopic, System.currentTimeMillis());
+            log.debug("Collected log dirs of {} broker(s) and {} topic(s) on cluster {}",
+                    brokerIds.size(), sizeByTopic.size(), kafkaAsyncExecutorConfig.getName());
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            log.warn("Error collecting log dirs of cluster {}: {}", kafkaAsyncExecutorConfig.getName(), e.getMessage());
+        } catch (InterruptedException e) {
+            log.error("Error", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Getter for the Admin gateway of the cluster
+     * @return The Admin gateway
+     */
+    private AdminGateway getAdminGateway() {
+        return applicationContext.getBean(AdminGateway.class, Qualifiers.byName(kafkaAsyncExecutorConfig.getName()));
+    }
+
+    private static class LogDirUsage {
+        private final Map<String, Long> sizeByTopic;
+
+        private final long collectedAt;
+
+        private LogDirUsage(Map<String, Long> sizeByTopic, long collectedAt) {
+            this.sizeByTopic = sizeByTopic;
+            this.collectedAt = collectedAt;
+        }
+    }
+}
@@ -1,11 +1,6 @@
 package com.michelin.ns4kafka.services.connect;
 
-import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
-import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig.ConnectConfig;
-import com.michelin.ns4kafka.config.SecurityConfig;
-import com.michelin.ns4kafka.models.ConnectCluster;
-import com.michelin.ns4kafka.services.ConnectClusterService;
-import com.michelin.ns4kafka.utils.EncryptionUtils;
+import com.michelin.ns4kafka.services.ProxyRoutingTable;
 import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
 import io.micronaut.core.async.publisher.Publishers;
 import io.micronaut.core.util.StringUtils;
@@ -23,7 +18,6 @@ import org.reactivestreams.Publisher;
 
 import java.net.URI;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
@@ -43,13 +37,7 @@ public class ConnectorClientProxy implements HttpServerFilter {
     ProxyHttpClient client;
 
     @Inject
-    List<KafkaAsyncExecutorConfig> kafkaAsyncExecutorConfigs;
-
-    @Inject
-    ConnectClusterService connectClusterService;
-
-    @Inject
-    SecurityConfig securityConfig;
+    ProxyRoutingTable proxyRoutingTable;
 
     /**
      * Filter requests
@@ -80,49 +68,25 @@ public class ConnectorClientProxy implements HttpServerFilter {
         String kafkaCluster = request.getHeaders().get(ConnectorClientProxy.PROXY_HEADER_KAFKA_CLUSTER);
         String connectCluster = request.getHeaders().get(ConnectorClientProxy.PROXY_HEADER_CONNECT_CLUSTER);
 
-        // Get config of the kafkaCluster
-        Optional<KafkaAsyncExecutorConfig> config = kafkaAsyncExecutorConfigs.stream()
-                .filter(kafkaAsyncExecutorConfig -> kafkaAsyncExecutorConfig.getName().equals(kafkaCluster))
-                .findFirst();
-
-        if (config.isEmpty()) {
-            return Publishers.just(new ResourceValidationException(List.of("Kafka Cluster [" + kafkaCluster + "] not found"),null,null));
+        ProxyRoutingTable.Route route;
+        try {
+            route = proxyRoutingTable.getConnectRoute(kafkaCluster, connectCluster);
+        } catch (ResourceValidationException e) {
+            return Publishers.just(e);
         }
 
-        Optional<ConnectCluster> connectClusterOptional = connectClusterService.findAll()
-                .stream()
-                .filter(researchConnectCluster -> researchConnectCluster.getMetadata().getName().equals(connectCluster))
-                .findFirst();
-
-        if (connectClusterOptional.isPresent()) {
-            log.debug("Self deployed Connect cluster {} found in namespace {}", connectCluster, connectClusterOptional.get().getMetadata().getNamespace());
-            return client.proxy(mutateKafkaConnectRequest(request, connectClusterOptional.get().getSpec().getUrl(),
-                    connectClusterOptional.get().getSpec().getUsername(),
-                    EncryptionUtils.decryptAES256GCM(connectClusterOptional.get().getSpec().getPassword(), securityConfig.getAes256EncryptionKey())));
-        }
-
-        ConnectConfig connectConfig = config.get().getConnects().get(connectCluster);
-        if (connectConfig == null) {
-            return Publishers.just(new ResourceValidationException(List.of("Connect cluster [" + connectCluster + "] not found"), null, null));
-        }
-
-        log.debug("Connect cluster {} found in Ns4Kafka configuration", connectCluster);
-
-        return client.proxy(mutateKafkaConnectRequest(request, connectConfig.getUrl(),
-                connectConfig.getBasicAuthUsername(),
-                connectConfig.getBasicAuthPassword()));
+        return route.proxy(request.getMethod(), url -> client.proxy(mutateKafkaConnectRequest(request, url, route.getAuthorization())));
     }
 
     /**
      * Mutate the prefixed request to the required Connect cluster, either from the Ns4Kafka configuration or from a self-deployed
      * Connect cluster configuration
      * @param request The request to modify
-     * @param url The Connect cluster URL
-     * @param username The Connect cluster username
-     * @param password The Connect cluster password
+     * @param url The URL of the Connect worker chosen by the route
+     * @param authorization The Authorization header of the route, if any
      * @return The modified request
      */
-    public MutableHttpRequest<?> mutateKafkaConnectRequest(HttpRequest<?> request, String url, String username, String password) {
+    public MutableHttpRequest<?> mutateKafkaConnectRequest(HttpRequest<?> request, String url, String authorization) {
         URI newURI = URI.create(url);
 
         MutableHttpRequest<?> mutableHttpRequest = request.mutate()
@@ -134,8 +98,11 @@ public class ConnectorClientProxy implements HttpServerFilter {
                                 newURI.getPath(),
                                 request.getPath().substring(ConnectorClientProxy.PROXY_PREFIX.length())
                         ))
-                )
-                .basicAuth(username, password);
+                );
+
+        if (authorization != null) {
+            mutableHttpRequest.header(HttpHeaders.AUTHORIZATION, authorization);
+        }
 
         // Micronaut resets Host later on with proper value.
         mutableHttpRequest.getHeaders().remove(HttpHeaders.HOST);
@@ -0,0 +1,109 @@
+package com.michelin.ns4kafka.services.connect;
+
+import com.michelin.ns4kafka.services.connect.client.ConnectorClient;
+import com.michelin.ns4kafka.services.connect.client.entities.ConnectorStateInfo;
+import com.michelin.ns4kafka.services.connect.client.entities.ConnectorStatus;
+import io.micronaut.context.annotation.Property;
+import io.reactivex.rxjava3.core.Single;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Singleton
+public class ConnectorStatusCache {
+    @Inject
+    ConnectorClient connectorClient;
+
+    @Property(name = "ns4kafka.connect.status-cache-ttl", defaultValue = "5000")
+    long statusCacheTtl;
+
+    private final Map<String, CachedStatuses> entries = new ConcurrentHashMap<>();
+
+    /**
+     * List the connectors with their status deployed on the given Connect cluster.
+     * Concurrent callers for the same Connect cluster share a single in-flight HTTP call, and the result
+     * is served from memory until the TTL expires or the entry is invalidated
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Connect cluster
+     * @return The connectors by name
+     */
+    public Single<Map<String, ConnectorStatus>> listAll(String kafkaCluster, String connectCluster) {
+        String key = buildKey(kafkaCluster, connectCluster);
+        return entries.compute(key, (k, current) -> {
+            if (current != null && !current.isExpired(statusCacheTtl)) {
+                return current;
+            }
+
+            return load(k, kafkaCluster, connectCluster);
+        }).statuses;
+    }
+
+    /**
+     * Get the status of a given connector, from the cached Connect cluster statuses if present
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Connect cluster
+     * @param connector The connector name
+     * @return The connector status
+     */
+    public Single<ConnectorStateInfo> status(String kafkaCluster, String connectCluster, String connector) {
+        return listAll(kafkaCluster, connectCluster)
+                .flatMap(statuses -> {
+                    ConnectorStatus connectorStatus = statuses.get(connector);
+                    if (connectorStatus != null && connectorStatus.getStatus() != null) {
+                        return Single.just(connectorStatus.getStatus());
+                    }
+
+                    return connectorClient.status(kafkaCluster, connectCluster, connector);
+                });
+    }
+
+    /**
+     * Drop the cached statuses of the given Connect cluster, so the next read hits the Connect cluster
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Connect cluster
+     */
+    public void invalidate(String kafkaCluster, String connectCluster) {
+        log.debug("Invalidating connector statuses of Kafka cluster {} and Connect cluster {}", kafkaCluster, connectCluster);
+        entries.remove(buildKey(kafkaCluster, connectCluster));
+    }
+
+    /**
+     * Build a cache entry that loads the statuses once and replays them to every subscriber.
+     * Failed loads are evicted so the next caller retries
+     * @param key The cache key
+     * @param kafkaCluster The Kafka cluster
+     * @param connectCluster The Connect cluster
+     * @return The cache entry
+     */
+    private CachedStatuses load(String key, String kafkaCluster, String connectCluster) {
+        CachedStatuses entry = new CachedStatuses();
+        entry.statuses = connectorClient.listAll(kafkaCluster, connectCluster)
+                .doOnSuccess(statuses -> entry.loadedAt = System.currentTimeMillis())
+                .doOnError(error -> entries.remove(key, entry))
+                .cache();
+        return entry;
+    }
+
+    private static String buildKey(String kafkaCluster, String connectCluster) {
+        return kafkaCluster + "/" + connectCluster;
+    }
+
+    private static class CachedStatuses {
+        private Single<Map<String, ConnectorStatus>> statuses;
+
+        private volatile long loadedAt = -1;
+
+        /**
+         * An entry still in flight never expires, so that concurrent callers keep sharing it
+         * @param ttl The TTL in milliseconds
+         * @return true if the entry is expired, false otherwise
+         */
+        private boolean isExpired(long ttl) {
+            return loadedAt != -1 && System.currentTimeMillis() - loadedAt > ttl;
+        }
+    }
+}
@@ -1,80 +1,122 @@
 package com.michelin.ns4kafka.services.connect.client;
 
+import com.michelin.ns4kafka.services.ProxyRoutingTable;
 import com.michelin.ns4kafka.services.connect.ConnectorClientProxy;
 import com.michelin.ns4kafka.services.connect.client.entities.*;
+import io.micronaut.core.type.Argument;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
-import io.micronaut.http.annotation.*;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpRequest;
 import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.http.uri.UriTemplate;
+import io.micronaut.rxjava3.http.client.Rx3HttpClient;
 import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.core.Single;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
 
 import java.util.List;
 import java.util.Map;
 
-@Client(value = ConnectorClientProxy.PROXY_PREFIX)
-public interface ConnectorClient {
-    @Get("/connectors?expand=info&expand=status")
-    Single<Map<String, ConnectorStatus>> listAll(
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_SECRET) String secret,
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_KAFKA_CLUSTER) String cluster,
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_CONNECT_CLUSTER) String connectCluster);
-
-    @Put("/connector-plugins/{connectorClass}/config/validate")
-    Single<ConfigInfos> validate(
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_SECRET) String secret,
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_KAFKA_CLUSTER) String cluster,
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_CONNECT_CLUSTER) String connectCluster,
-            String connectorClass,
-            @Body ConnectorSpecs connectorSpec);
-
-    @Put("/connectors/{connector}/config")
-    Single<ConnectorInfo> createOrUpdate(
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_SECRET) String secret,
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_KAFKA_CLUSTER) String cluster,
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_CONNECT_CLUSTER) String connectCluster,
-            String connector,
-            @Body ConnectorSpecs connectorSpec);
-
-    @Delete("/connectors/{connector}")
-    Maybe<HttpResponse<Void>> delete(
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_SECRET) String secret,
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_KAFKA_CLUSTER) String cluster,
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_CONNECT_CLUSTER) String connectCluster,
-            String connector);
-
-
-    @Get("/connector-plugins")
-    Single<List<ConnectorPluginInfo>> connectPlugins(
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_SECRET) String secret,
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_KAFKA_CLUSTER) String cluster,
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_CONNECT_CLUSTER) String connectCluster);
-
-    @Get("/connectors/{connector}/status")
-    Single<ConnectorStateInfo> status(
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_SECRET) String secret,
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_KAFKA_CLUSTER) String cluster,
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_CONNECT_CLUSTER) String connectCluster,
-            String connector);
-
-    @Post("/connectors/{connector}/tasks/{taskId}/restart")
-    Single<HttpResponse<Void>> restart(
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_SECRET) String secret,
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_KAFKA_CLUSTER) String cluster,
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_CONNECT_CLUSTER) String connectCluster,
-            String connector,
-            int taskId);
-
-    @Put("/connectors/{connector}/pause")
-    Single<HttpResponse<Void>> pause(
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_SECRET) String secret,
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_KAFKA_CLUSTER) String cluster,
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_CONNECT_CLUSTER) String connectCluster,
-            String connector);
-
-    @Put("/connectors/{connector}/resume")
-    Single<HttpResponse<Void>> resume(
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_SECRET) String secret,
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_KAFKA_CLUSTER) String cluster,
-            @Header(value = ConnectorClientProxy.PROXY_HEADER_CONNECT_CLUSTER) String connectCluster,
-            String connector);
+/**
+ * Client of the Connect clusters.
+ * The Connect cluster is resolved in-process and called directly, without going through {@link ConnectorClientProxy}.
+ */
+@Singleton
+public class ConnectorClient {
+    @Inject
+    @Client(ConnectorClientProxy.PROXY_PREFIX)
+    Rx3HttpClient httpClient;
+
+    @Inject
+    ProxyRoutingTable proxyRoutingTable;
+
+    public Single<Map<String, ConnectorStatus>> listAll(String cluster, String connectCluster) {
+        return retrieve(cluster, connectCluster, HttpRequest.GET("/connectors?expand=info&expand=status"),
+                Argument.mapOf(String.class, ConnectorStatus.class));
+    }
+
+    public Single<ConfigInfos> validate(String cluster, String connectCluster, String connectorClass, ConnectorSpecs connectorSpec) {
+        return retrieve(cluster, connectCluster,
+                HttpRequest.PUT(expand("/connector-plugins/{connectorClass}/config/validate", Map.of("connectorClass", connectorClass)), connectorSpec),
+                Argument.of(ConfigInfos.class));
+    }
+
+    public Single<ConnectorInfo> createOrUpdate(String cluster, String connectCluster, String connector, ConnectorSpecs connectorSpec) {
+        return retrieve(cluster, connectCluster,
+                HttpRequest.PUT(expand("/connectors/{connector}/config", Map.of("connector", connector)), connectorSpec),
+                Argument.of(ConnectorInfo.class));
+    }
+
+    public Maybe<HttpResponse<Void>> delete(String cluster, String connectCluster, String connector) {
+        return exchange(cluster, connectCluster, HttpRequest.DELETE(expand("/connectors/{connector}", Map.of("connector", connector))))
+                .toMaybe()
+                .onErrorResumeNext(error -> error instanceof HttpClientResponseException responseException
+                        && responseException.getStatus() == HttpStatus.NOT_FOUND ? Maybe.empty() : Maybe.error(error));
+    }
+
+    public Single<List<ConnectorPluginInfo>> connectPlugins(String cluster, String connectCluster) {
+        return retrieve(cluster, connectCluster, HttpRequest.GET("/connector-plugins"), Argument.listOf(ConnectorPluginInfo.class));
+    }
+
+    public Single<ConnectorStateInfo> status(String cluster, String connectCluster, String connector) {
+        return retrieve(cluster, connectCluster,
+                HttpRequest.GET(expand("/connectors/{connector}/status", Map.of("connector", connector))),
+                Argument.of(ConnectorStateInfo.class));
+    }
+
+    public Single<HttpResponse<Void>> restart(String cluster, String connectCluster, String connector, int taskId) {
+        return exchange(cluster, connectCluster,
+                HttpRequest.POST(expand("/connectors/{connector}/tasks/{taskId}/restart", Map.of("connector", connector, "taskId", taskId)), null));
+    }
+
+    public Single<HttpResponse<Void>> pause(String cluster, String connectCluster, String connector) {
+        return exchange(cluster, connectCluster, HttpRequest.PUT(expand("/connectors/{connector}/pause", Map.of("connector", connector)), null));
+    }
+
+    public Single<HttpResponse<Void>> resume(String cluster, String connectCluster, String connector) {
+        return exchange(cluster, connectCluster, HttpRequest.PUT(expand("/connectors/{connector}/resume", Map.of("connector", connector)), null));
+    }
+
+    private <T> Single<T> retrieve(String cluster, String connectCluster, MutableHttpRequest<?> request, Argument<T> type) {
+        return Single.defer(() -> {
+            ProxyRoutingTable.Route route = proxyRoutingTable.getConnectRoute(cluster, connectCluster);
+            return route.call(request.getMethod(), url -> httpClient.retrieve(point(route, url, request), type)).firstOrError();
+        });
+    }
+
+    private Single<HttpResponse<Void>> exchange(String cluster, String connectCluster, MutableHttpRequest<?> request) {
+        return Single.defer(() -> {
+            ProxyRoutingTable.Route route = proxyRoutingTable.getConnectRoute(cluster, connectCluster);
+            return route.call(request.getMethod(), url -> httpClient.exchange(point(route, url, request), Void.class)).firstOrError();
+        });
+    }
+
+    /**
+     * Point a copy of a request to a worker of the required Connect cluster, either from a self-deployed Connect cluster
+     * configuration or from the Ns4Kafka configuration. Each attempt gets its own copy, as a failed call may be sent
+     * again to another worker
+     * @param route The route to the Connect cluster
+     * @param url The URL of the worker chosen by the route
+     * @param request The request, relative to the Connect cluster URL
+     * @return The request to the Connect worker
+     */
+    private static MutableHttpRequest<?> point(ProxyRoutingTable.Route route, String url, MutableHttpRequest<?> request) {
+        MutableHttpRequest<Object> pointed = HttpRequest.create(request.getMethod(), StringUtils.prependUri(url, request.getUri().toString()));
+        request.getHeaders().forEach((name, values) -> values.forEach(value -> pointed.header(name, value)));
+        request.getBody().ifPresent(pointed::body);
+        if (route.getAuthorization() != null) {
+            pointed.header(HttpHeaders.AUTHORIZATION, route.getAuthorization());
+        }
+
+        return pointed;
+    }
+
+    private static String expand(String template, Map<String, ?> variables) {
+        return UriTemplate.of(template).expand(Map.<String, Object>copyOf(variables));
+    }
 }
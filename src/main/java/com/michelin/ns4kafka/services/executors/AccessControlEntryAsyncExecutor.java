@@ -9,11 +9,15 @@ import com.michelin.ns4kafka.repositories.kafka.KafkaStoreException;
 import com.michelin.ns4kafka.services.AccessControlEntryService;
 import com.michelin.ns4kafka.services.ConnectorService;
 import com.michelin.ns4kafka.services.StreamService;
+import com.michelin.ns4kafka.services.admin.AdminGateway;
+import io.micronaut.context.ApplicationContext;
 import io.micronaut.context.annotation.EachBean;
+import io.micronaut.inject.qualifiers.Qualifiers;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.CreateAclsResult;
+import org.apache.kafka.clients.admin.DeleteAclsResult;
 import org.apache.kafka.common.acl.AclBinding;
 import org.apache.kafka.common.acl.AclBindingFilter;
 import org.apache.kafka.common.acl.AclOperation;
@@ -51,6 +55,9 @@ public class AccessControlEntryAsyncExecutor {
     @Inject
     NamespaceRepository namespaceRepository;
 
+    @Inject
+    ApplicationContext applicationContext;
+
     public AccessControlEntryAsyncExecutor(KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig) {
         this.kafkaAsyncExecutorConfig = kafkaAsyncExecutorConfig;
     }
@@ -60,6 +67,12 @@ public class AccessControlEntryAsyncExecutor {
      */
     public void run() {
         if (this.kafkaAsyncExecutorConfig.isManageAcls()) {
+            if (!getAdminGateway().isAvailable()) {
+                log.warn("Skipping ACLs synchronization for cluster {}: circuit breaker is {}",
+                        kafkaAsyncExecutorConfig.getName(), getAdminGateway().getCircuitState());
+                return;
+            }
+
             synchronizeACLs();
         }
     }
@@ -179,9 +192,9 @@ public class AccessControlEntryAsyncExecutor {
         //TODO never ever : manage CREATE and DELETE Topics (managed by ns4kafka !)
         List<ResourceType> validResourceTypes = List.of(ResourceType.TOPIC, ResourceType.GROUP, ResourceType.TRANSACTIONAL_ID);
 
-        List<AclBinding> userACLs = getAdminClient()
-                .describeAcls(AclBindingFilter.ANY)
-                .values().get(10, TimeUnit.SECONDS)
+        List<AclBinding> userACLs = getAdminGateway()
+                .call(admin -> admin.describeAcls(AclBindingFilter.ANY).values())
+                .get(10, TimeUnit.SECONDS)
                 .stream()
                 .filter(aclBinding -> validResourceTypes.contains(aclBinding.pattern().resourceType()))
                 .toList();
@@ -323,10 +336,10 @@ public class AccessControlEntryAsyncExecutor {
      * @param toDelete The list of ACLs to delete
      */
     private void deleteACLs(List<AclBinding> toDelete) {
-        getAdminClient()
-                .deleteAcls(toDelete.stream()
+        getAdminGateway()
+                .submit(admin -> admin.deleteAcls(toDelete.stream()
                         .map(AclBinding::toFilter)
-                        .collect(Collectors.toList()))
+                        .collect(Collectors.toList())), DeleteAclsResult::all)
                 .values().forEach((key, value) -> {
                     try {
                         value.get(10, TimeUnit.SECONDS);
@@ -381,7 +394,7 @@ public class AccessControlEntryAsyncExecutor {
      * @param toCreate The list of ACLs to create
      */
     private void createACLs(List<AclBinding> toCreate) {
-        getAdminClient().createAcls(toCreate)
+        getAdminGateway().submit(admin -> admin.createAcls(toCreate), CreateAclsResult::all)
                 .values()
                 .forEach((key, value) -> {
                     try {
@@ -397,11 +410,11 @@ public class AccessControlEntryAsyncExecutor {
     }
 
     /**
-     * Getter for admin client service
+     * Getter for the Admin gateway of the cluster
      *
-     * @return The admin client
+     * @return The Admin gateway
      */
-    private Admin getAdminClient() {
-        return kafkaAsyncExecutorConfig.getAdminClient();
+    private AdminGateway getAdminGateway() {
+        return applicationContext.getBean(AdminGateway.class, Qualifiers.byName(kafkaAsyncExecutorConfig.getName()));
     }
 }
@@ -5,7 +5,7 @@ import com.michelin.ns4kafka.models.ObjectMeta;
 import com.michelin.ns4kafka.models.connector.Connector;
 import com.michelin.ns4kafka.repositories.ConnectorRepository;
 import com.michelin.ns4kafka.services.ConnectClusterService;
-import com.michelin.ns4kafka.services.connect.ConnectorClientProxy;
+import com.michelin.ns4kafka.services.connect.ConnectorStatusCache;
 import com.michelin.ns4kafka.services.connect.client.ConnectorClient;
 import com.michelin.ns4kafka.services.connect.client.entities.ConnectorSpecs;
 import com.michelin.ns4kafka.services.connect.client.entities.ConnectorStatus;
@@ -38,6 +38,9 @@ public class ConnectorAsyncExecutor {
     @Inject
     private ConnectClusterService connectClusterService;
 
+    @Inject
+    private ConnectorStatusCache connectorStatusCache;
+
     public ConnectorAsyncExecutor(KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig) {
         this.kafkaAsyncExecutorConfig = kafkaAsyncExecutorConfig;
     }
@@ -125,7 +128,7 @@ public class ConnectorAsyncExecutor {
      * @return A list of connectors
      */
     public Single<List<Connector>> collectBrokerConnectors(String connectCluster) {
-        return connectorClient.listAll(ConnectorClientProxy.PROXY_SECRET, kafkaAsyncExecutorConfig.getName(), connectCluster)
+        return connectorStatusCache.listAll(kafkaAsyncExecutorConfig.getName(), connectCluster)
                 .map(connectors -> {
                     log.debug("Connectors found on Connect cluster {} : {}", connectCluster, connectors.size());
 
@@ -195,9 +198,10 @@ public class ConnectorAsyncExecutor {
      * @param connector The connector to deploy
      */
     private void deployConnector(Connector connector) {
-        connectorClient.createOrUpdate(ConnectorClientProxy.PROXY_SECRET, kafkaAsyncExecutorConfig.getName(),
+        connectorClient.createOrUpdate(kafkaAsyncExecutorConfig.getName(),
                 connector.getSpec().getConnectCluster(), connector.getMetadata().getName(),
                         ConnectorSpecs.builder().config(connector.getSpec().getConfig()).build())
+                .doFinally(() -> connectorStatusCache.invalidate(kafkaAsyncExecutorConfig.getName(), connector.getSpec().getConnectCluster()))
                 .subscribe(new ConsumerSingleObserver<>(httpResponse -> log.info("Success deploying Connector [{}] on Kafka [{}] Connect [{}]",
                         connector.getMetadata().getName(), kafkaAsyncExecutorConfig.getName(), connector.getSpec().getConnectCluster()),
                         httpError -> log.error(String.format("Error deploying Connector [%s] on Kafka [%s] Connect [%s]",
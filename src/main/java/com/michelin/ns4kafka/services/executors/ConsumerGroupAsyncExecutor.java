@@ -1,20 +1,27 @@
 package com.michelin.ns4kafka.services.executors;
 
 import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import com.michelin.ns4kafka.services.admin.AdminGateway;
+import com.michelin.ns4kafka.services.admin.AdminRequestCoalescer;
+import io.micronaut.context.ApplicationContext;
 import io.micronaut.context.annotation.EachBean;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.kafka.clients.admin.Admin;
 import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.admin.ConsumerGroupListing;
+import org.apache.kafka.clients.admin.ListConsumerGroupOffsetsSpec;
 import org.apache.kafka.clients.admin.OffsetSpec;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.TopicPartition;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -24,35 +31,135 @@ import java.util.stream.Collectors;
 public class ConsumerGroupAsyncExecutor {
     private final KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig;
 
+    @Inject
+    ApplicationContext applicationContext;
+
     public ConsumerGroupAsyncExecutor(KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig) {
         this.kafkaAsyncExecutorConfig = kafkaAsyncExecutorConfig;
     }
 
     /**
-     * Getter for Kafka Admin client
-     * @return A Kafka Admin client instance
+     * Getter for the Admin gateway of the cluster
+     * @return The Admin gateway
+     */
+    private AdminGateway getAdminGateway() {
+        return applicationContext.getBean(AdminGateway.class, Qualifiers.byName(kafkaAsyncExecutorConfig.getName()));
+    }
+
+    /**
+     * Getter for the Admin config of the cluster
+     * @return The Admin config
+     */
+    private KafkaAsyncExecutorConfig.AdminConfig getAdminConfig() {
+        return Optional.ofNullable(kafkaAsyncExecutorConfig.getAdmin())
+                .orElseGet(KafkaAsyncExecutorConfig.AdminConfig::new);
+    }
+
+    /**
+     * Getter for the Admin request coalescer of the cluster
+     * @return The Admin request coalescer
      */
-    private Admin getAdminClient() {
-        return kafkaAsyncExecutorConfig.getAdminClient();
+    private AdminRequestCoalescer getAdminRequestCoalescer() {
+        return applicationContext.getBean(AdminRequestCoalescer.class, Qualifiers.byName(kafkaAsyncExecutorConfig.getName()));
+    }
+
+    /**
+     * List the ids of all the consumer groups of the cluster
+     * @return The consumer group ids
+     * @throws ExecutionException Any execution exception during consumer groups listing
+     * @throws InterruptedException Any interrupted exception during consumer groups listing
+     */
+    public List<String> listConsumerGroupIds() throws ExecutionException, InterruptedException {
+        return getAdminRequestCoalescer().listConsumerGroups()
+                .get()
+                .stream()
+                .map(ConsumerGroupListing::groupId)
+                .toList();
     }
 
     public Map<String, ConsumerGroupDescription> describeConsumerGroups(List<String> groupIds) throws ExecutionException, InterruptedException {
-        return getAdminClient().describeConsumerGroups(groupIds).all().get();
+        return getAdminGateway().call(admin -> admin.describeConsumerGroups(groupIds).all()).get();
     }
 
     public void alterConsumerGroupOffsets(String consumerGroupId, Map<TopicPartition, Long> preparedOffsets)
             throws InterruptedException, ExecutionException {
-        getAdminClient().alterConsumerGroupOffsets(consumerGroupId,
-                preparedOffsets.entrySet()
-                        .stream()
-                        .collect(Collectors.toMap(Map.Entry::getKey, e -> new OffsetAndMetadata(e.getValue())))
-        ).all().get();
+        Map<TopicPartition, OffsetAndMetadata> offsets = preparedOffsets.entrySet()
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> new OffsetAndMetadata(e.getValue())));
+        getAdminGateway().call(admin -> admin.alterConsumerGroupOffsets(consumerGroupId, offsets).all()).get();
         log.info("Consumer Group {} changed offset", consumerGroupId);
         if (log.isDebugEnabled()) {
             preparedOffsets.forEach((topicPartition, offset)-> log.debug("TopicPartition {} has the new offset {}", topicPartition, offset));
         }
     }
 
+    /**
+     * Change the committed offsets of several consumer groups, with at most the configured number of requests in flight.
+     * A consumer group failing does not prevent the others from being changed
+     * @param preparedOffsets The new offsets by topic-partition, by consumer group
+     * @return The error message by consumer group, for the consumer groups whose offsets could not be changed
+     * @throws InterruptedException Any interrupted exception during offsets change
+     */
+    public Map<String, String> alterConsumerGroupsOffsets(Map<String, Map<TopicPartition, Long>> preparedOffsets) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(getAdminConfig().getAlterOffsetsParallelism());
+        Map<String, KafkaFuture<Void>> results = new LinkedHashMap<>();
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<TopicPartition, Long>> group : preparedOffsets.entrySet()) {
+            Map<TopicPartition, OffsetAndMetadata> offsets = group.getValue().entrySet()
+                    .stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, e -> new OffsetAndMetadata(e.getValue())));
+
+            inFlight.acquire();
+            try {
+                KafkaFuture<Void> result = getAdminGateway().call(admin -> admin.alterConsumerGroupOffsets(group.getKey(), offsets).all());
+                result.whenComplete((value, error) -> inFlight.release());
+                results.put(group.getKey(), result);
+            } catch (RuntimeException e) {
+                inFlight.release();
+                log.error("Error changing offsets of Consumer Group {}", group.getKey(), e);
+                errors.put(group.getKey(), e.getMessage());
+            }
+        }
+
+        for (Map.Entry<String, KafkaFuture<Void>> result : results.entrySet()) {
+            try {
+                result.getValue().get();
+                log.info("Consumer Group {} changed offset", result.getKey());
+            } catch (ExecutionException e) {
+                log.error("Error changing offsets of Consumer Group {}", result.getKey(), e);
+                errors.put(result.getKey(), e.getCause().getMessage());
+            }
+        }
+
+        return errors;
+    }
+
+    /**
+     * Find offsets matching several sets of offset specs. All the requests are sent before waiting for any of them,
+     * so they are coalesced within the same window. A topic-partition is listed once per listOffsets request,
+     * so the sets sharing topic-partitions still take one listOffsets request each
+     * @param offsetSpecs The sets of offset specs
+     * @return A map of topic-partition and offsets, for each set of offset specs
+     * @throws ExecutionException Any execution exception during offsets description
+     * @throws InterruptedException Any interrupted exception during offsets description
+     */
+    public List<Map<TopicPartition, Long>> listOffsets(List<Map<TopicPartition, OffsetSpec>> offsetSpecs) throws InterruptedException, ExecutionException {
+        List<KafkaFuture<Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo>>> results = offsetSpecs
+                .stream()
+                .map(specs -> getAdminRequestCoalescer().listOffsets(specs))
+                .toList();
+
+        List<Map<TopicPartition, Long>> offsets = new ArrayList<>();
+        for (KafkaFuture<Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo>> result : results) {
+            offsets.add(result.get()
+                    .entrySet()
+                    .stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, kv -> kv.getValue().offset())));
+        }
+
+        return offsets;
+    }
+
     /**
      * Find offsets matching the offset specs for given partition (e.g.: last offset for latest spec)
      * @param offsetsForTheSpec The offset specs
@@ -61,8 +168,7 @@ public class ConsumerGroupAsyncExecutor {
      * @throws InterruptedException Any interrupted exception during offsets description
      */
     public Map<TopicPartition, Long> listOffsets(Map<TopicPartition, OffsetSpec> offsetsForTheSpec) throws InterruptedException, ExecutionException {
-        return getAdminClient().listOffsets(offsetsForTheSpec)
-                .all()
+        return getAdminRequestCoalescer().listOffsets(offsetsForTheSpec)
                 .get()
                 .entrySet()
                 .stream()
@@ -77,14 +183,39 @@ public class ConsumerGroupAsyncExecutor {
      * @throws InterruptedException Any interrupted exception during consumer groups description
      */
     public Map<TopicPartition, Long> getCommittedOffsets(String groupId) throws ExecutionException, InterruptedException {
-        return getAdminClient().listConsumerGroupOffsets(groupId)
-                .partitionsToOffsetAndMetadata()
+        return getAdminGateway().call(admin -> admin.listConsumerGroupOffsets(groupId).partitionsToOffsetAndMetadata())
                 .get()
                 .entrySet()
                 .stream()
                 .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().offset()));
     }
 
+    /**
+     * Get all the committed offsets of the given consumer groups, in a single request
+     * @param groupIds The consumer groups
+     * @return A map of consumer group and committed offset number by topic-partition
+     * @throws ExecutionException Any execution exception during consumer groups description
+     * @throws InterruptedException Any interrupted exception during consumer groups description
+     */
+    public Map<String, Map<TopicPartition, Long>> getCommittedOffsetsByGroup(Collection<String> groupIds) throws ExecutionException, InterruptedException {
+        if (groupIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, ListConsumerGroupOffsetsSpec> groupSpecs = groupIds
+                .stream()
+                .collect(Collectors.toMap(Function.identity(), groupId -> new ListConsumerGroupOffsetsSpec()));
+        return getAdminGateway().call(admin -> admin.listConsumerGroupOffsets(groupSpecs).all())
+                .get()
+                .entrySet()
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, group -> group.getValue()
+                        .entrySet()
+                        .stream()
+                        .filter(e -> e.getValue() != null)
+                        .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().offset()))));
+    }
+
     /**
      * Get the list of partitions of a given topic
      * @param topicName The topic name
@@ -93,16 +224,38 @@ public class ConsumerGroupAsyncExecutor {
      * @throws InterruptedException Any interrupted exception during topics description
      */
     public List<TopicPartition> getTopicPartitions(String topicName) throws ExecutionException, InterruptedException {
-        return getAdminClient().describeTopics(Collections.singletonList(topicName))
-                .all()
+        return getAdminRequestCoalescer().describeTopic(topicName)
                 .get()
-                .get(topicName)
                 .partitions()
                 .stream()
                 .map(partitionInfo -> new TopicPartition(topicName, partitionInfo.partition()))
                 .toList();
     }
 
+    /**
+     * Get the list of partitions of several topics. All the topics are described before waiting for any of them
+     * @param topicNames The topic names
+     * @return A list of partitions by topic
+     * @throws ExecutionException Any execution exception during topics description
+     * @throws InterruptedException Any interrupted exception during topics description
+     */
+    public Map<String, List<TopicPartition>> getTopicPartitions(Collection<String> topicNames) throws ExecutionException, InterruptedException {
+        Map<String, KafkaFuture<TopicDescription>> descriptions = new HashMap<>();
+        topicNames.forEach(topicName -> descriptions.put(topicName, getAdminRequestCoalescer().describeTopic(topicName)));
+
+        Map<String, List<TopicPartition>> partitions = new HashMap<>();
+        for (Map.Entry<String, KafkaFuture<TopicDescription>> description : descriptions.entrySet()) {
+            partitions.put(description.getKey(), description.getValue()
+                    .get()
+                    .partitions()
+                    .stream()
+                    .map(partitionInfo -> new TopicPartition(description.getKey(), partitionInfo.partition()))
+                    .toList());
+        }
+
+        return partitions;
+    }
+
     /**
      * Get earliest offsets for given list of topic-partitions
      * @param partitionsToReset The topic-partitions list
@@ -131,6 +284,33 @@ public class ConsumerGroupAsyncExecutor {
         return listOffsets(endOffsets);
     }
 
+    /**
+     * Get latest offsets for given list of topic-partitions, skipping the topic-partitions whose offset cannot be listed,
+     * such as the partitions of a deleted topic. Each topic-partition is listed on its own so a failure does not affect the others,
+     * but they are still coalesced in a single request
+     * @param partitions The topic-partitions list
+     * @return A map of topic-partition and offsets
+     * @throws InterruptedException Any interrupted exception during offsets description
+     */
+    public Map<TopicPartition, Long> getAvailableLogEndOffsets(List<TopicPartition> partitions) throws InterruptedException {
+        Map<TopicPartition, KafkaFuture<Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo>>> results = partitions
+                .stream()
+                .collect(Collectors.toMap(Function.identity(),
+                        topicPartition -> getAdminRequestCoalescer().listOffsets(Map.of(topicPartition, OffsetSpec.latest()))));
+
+        Map<TopicPartition, Long> offsets = new HashMap<>();
+        for (Map.Entry<TopicPartition, KafkaFuture<Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo>>> result : results.entrySet()) {
+            try {
+                offsets.put(result.getKey(), result.getValue().get().get(result.getKey()).offset());
+            } catch (ExecutionException e) {
+                log.debug("Skipping the end offset of {} on cluster {}: {}", result.getKey(),
+                        kafkaAsyncExecutorConfig.getName(), e.getCause().getMessage());
+            }
+        }
+
+        return offsets;
+    }
+
     /**
      * Get offsets from timestamp for given list of topic-partitions
      * @param partitionsToReset The topic-partitions list
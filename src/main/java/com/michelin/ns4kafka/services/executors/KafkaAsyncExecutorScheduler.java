@@ -1,5 +1,6 @@
 package com.michelin.ns4kafka.services.executors;
 
+import com.michelin.ns4kafka.services.admin.LogDirUsageCollector;
 import io.micronaut.runtime.event.ApplicationStartupEvent;
 import io.micronaut.runtime.event.annotation.EventListener;
 import io.micronaut.scheduling.annotation.Scheduled;
@@ -26,6 +27,9 @@ public class KafkaAsyncExecutorScheduler {
     @Inject
     List<UserAsyncExecutor> userAsyncExecutors;
 
+    @Inject
+    List<LogDirUsageCollector> logDirUsageCollectors;
+
     private final AtomicBoolean ready = new AtomicBoolean(false);
 
     /**
@@ -47,6 +51,7 @@ public class KafkaAsyncExecutorScheduler {
             accessControlEntryAsyncExecutors.forEach(AccessControlEntryAsyncExecutor::run);
             connectorAsyncExecutors.forEach(ConnectorAsyncExecutor::run);
             userAsyncExecutors.forEach(UserAsyncExecutor::run);
+            logDirUsageCollectors.forEach(LogDirUsageCollector::run);
         } else {
             log.warn("Scheduled jobs did not start because Micronaut is not ready yet");
         }
@@ -3,13 +3,21 @@ package com.michelin.ns4kafka.services.executors;
 import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
 import com.michelin.ns4kafka.models.ObjectMeta;
 import com.michelin.ns4kafka.models.Topic;
+import com.michelin.ns4kafka.models.TopicStats;
 import com.michelin.ns4kafka.repositories.TopicRepository;
 import com.michelin.ns4kafka.repositories.kafka.KafkaStoreException;
+import com.michelin.ns4kafka.services.admin.AdminGateway;
+import com.michelin.ns4kafka.services.admin.AdminRequestCoalescer;
+import com.michelin.ns4kafka.services.admin.BrokerTopicCache;
+import io.micronaut.context.ApplicationContext;
 import io.micronaut.context.annotation.EachBean;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.inject.qualifiers.Qualifiers;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.admin.*;
+import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.config.ConfigResource;
 
@@ -17,6 +25,7 @@ import java.net.MalformedURLException;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -32,12 +41,40 @@ public class TopicAsyncExecutor {
     @Inject
     TopicRepository topicRepository;
 
+    @Inject
+    ApplicationContext applicationContext;
+
+    @Property(name = "ns4kafka.topic.stats-cache-ttl", defaultValue = "10000")
+    long statsCacheTtl;
+
+    private final Map<String, CachedTopicStats> topicStats = new ConcurrentHashMap<>();
+
     public TopicAsyncExecutor(KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig) throws MalformedURLException {
         this.kafkaAsyncExecutorConfig = kafkaAsyncExecutorConfig;
     }
 
-    private Admin getAdminClient(){
-        return kafkaAsyncExecutorConfig.getAdminClient();
+    /**
+     * Getter for the Admin gateway of the cluster
+     * @return The Admin gateway
+     */
+    private AdminGateway getAdminGateway() {
+        return applicationContext.getBean(AdminGateway.class, Qualifiers.byName(kafkaAsyncExecutorConfig.getName()));
+    }
+
+    /**
+     * Getter for the Admin request coalescer of the cluster
+     * @return The Admin request coalescer
+     */
+    private AdminRequestCoalescer getAdminRequestCoalescer() {
+        return applicationContext.getBean(AdminRequestCoalescer.class, Qualifiers.byName(kafkaAsyncExecutorConfig.getName()));
+    }
+
+    /**
+     * Getter for the broker topic cache of the cluster
+     * @return The broker topic cache
+     */
+    private BrokerTopicCache getBrokerTopicCache() {
+        return applicationContext.getBean(BrokerTopicCache.class, Qualifiers.byName(kafkaAsyncExecutorConfig.getName()));
     }
 
     /**
@@ -45,6 +82,12 @@ public class TopicAsyncExecutor {
      */
     public void run(){
         if(this.kafkaAsyncExecutorConfig.isManageTopics()) {
+            if (!getAdminGateway().isAvailable()) {
+                log.warn("Skipping topic synchronization for cluster {}: circuit breaker is {}",
+                        kafkaAsyncExecutorConfig.getName(), getAdminGateway().getCircuitState());
+                return;
+            }
+
             synchronizeTopics();
         }
     }
@@ -53,7 +96,9 @@ public class TopicAsyncExecutor {
         log.debug("Starting topic collection for cluster {}",kafkaAsyncExecutorConfig.getName());
         try {
             // List topics from broker
+            long listingGeneration = getBrokerTopicCache().getGeneration();
             Map<String, Topic> brokerTopicList = collectBrokerTopics();
+            getBrokerTopicCache().replaceAll(brokerTopicList.keySet(), listingGeneration);
             // List topics from ns4kafka Repository
             List<Topic> ns4kafkaTopicList = topicRepository.findAllForCluster(kafkaAsyncExecutorConfig.getName());
 
@@ -133,7 +178,9 @@ public class TopicAsyncExecutor {
          */
     }
     public void deleteTopic(Topic topic) throws InterruptedException, ExecutionException, TimeoutException {
-        getAdminClient().deleteTopics(List.of(topic.getMetadata().getName())).all().get(30, TimeUnit.SECONDS);
+        getAdminGateway().call(admin -> admin.deleteTopics(List.of(topic.getMetadata().getName())).all()).get(30, TimeUnit.SECONDS);
+        getBrokerTopicCache().remove(topic.getMetadata().getName());
+        topicStats.remove(topic.getMetadata().getName());
         log.info("Success deleting topic {} on {}", topic.getMetadata().getName(), this.kafkaAsyncExecutorConfig.getName());
     }
 
@@ -141,7 +188,7 @@ public class TopicAsyncExecutor {
         return collectBrokerTopicsFromNames(listBrokerTopicNames());
     }
     public List<String> listBrokerTopicNames() throws InterruptedException, ExecutionException, TimeoutException {
-        return getAdminClient().listTopics().listings()
+        return getAdminRequestCoalescer().listTopics()
                 .get(30, TimeUnit.SECONDS)
                 .stream()
                 .map(TopicListing::name)
@@ -149,14 +196,14 @@ public class TopicAsyncExecutor {
     }
 
     public Map<String, Topic> collectBrokerTopicsFromNames(List<String> topicNames) throws InterruptedException, ExecutionException, TimeoutException {
-        Map<String, TopicDescription> topicDescriptions = getAdminClient().describeTopics(topicNames).all().get();
+        Map<String, TopicDescription> topicDescriptions = getAdminGateway().call(admin -> admin.describeTopics(topicNames).all()).get();
         // Create a Map<TopicName, Map<ConfigName, ConfigValue>> for all topics
         // includes only Dynamic config properties
-        return getAdminClient()
-                .describeConfigs(topicNames.stream()
+        return getAdminGateway()
+                .call(admin -> admin.describeConfigs(topicNames.stream()
                         .map(s -> new ConfigResource(ConfigResource.Type.TOPIC, s))
                         .toList())
-                .all()
+                        .all())
                 .get(30, TimeUnit.SECONDS)
                 .entrySet()
                 .stream()
@@ -185,7 +232,7 @@ public class TopicAsyncExecutor {
                 .collect(Collectors.toMap( topic -> topic.getMetadata().getName(), Function.identity()));
     }
     private void alterTopics(Map<ConfigResource, Collection<AlterConfigOp>> toUpdate, List<Topic> topics) {
-        AlterConfigsResult alterConfigsResult = getAdminClient().incrementalAlterConfigs(toUpdate);
+        AlterConfigsResult alterConfigsResult = getAdminGateway().submit(admin -> admin.incrementalAlterConfigs(toUpdate), AlterConfigsResult::all);
         alterConfigsResult.values().entrySet()
                 .forEach(mapEntry -> {
                     Topic updatedTopic = topics.stream().filter(t -> t.getMetadata().getName().equals(mapEntry.getKey().name())).findFirst().get();
@@ -221,11 +268,12 @@ public class TopicAsyncExecutor {
                 })
                 .toList();
 
-        CreateTopicsResult createTopicsResult = getAdminClient().createTopics(newTopics);
+        CreateTopicsResult createTopicsResult = getAdminGateway().submit(admin -> admin.createTopics(newTopics), CreateTopicsResult::all);
         createTopicsResult.values().forEach((key, value) -> {
             Topic createdTopic = topics.stream().filter(t -> t.getMetadata().getName().equals(key)).findFirst().get();
             try {
                 value.get(10, TimeUnit.SECONDS);
+                getBrokerTopicCache().add(key);
                 createdTopic.getMetadata().setCreationTimestamp(Date.from(Instant.now()));
                 createdTopic.getMetadata().setGeneration(1);
                 createdTopic.setStatus(Topic.TopicStatus.ofSuccess("Topic created"));
@@ -275,6 +323,111 @@ public class TopicAsyncExecutor {
         return total;
     }
 
+    /**
+     * Get the statistics of some topics. Statistics collected less than the TTL ago are served from memory,
+     * the other topics are described with a single request, and their earliest and latest offsets listed with one request each
+     * @param topicNames The topic names
+     * @return The statistics by topic, for the topics existing on the cluster
+     * @throws ExecutionException Any execution exception
+     * @throws InterruptedException Any interrupted exception
+     * @throws TimeoutException Any timeout exception
+     */
+    public Map<String, TopicStats> getTopicStats(Collection<String> topicNames) throws ExecutionException, InterruptedException, TimeoutException {
+        Map<String, TopicStats> stats = new HashMap<>();
+        List<String> topicsToCollect = new ArrayList<>();
+        for (String topicName : topicNames) {
+            CachedTopicStats cached = topicStats.get(topicName);
+            if (cached != null && System.currentTimeMillis() - cached.collectedAt <= statsCacheTtl) {
+                stats.put(topicName, cached.stats);
+            } else {
+                topicsToCollect.add(topicName);
+            }
+        }
+
+        if (!topicsToCollect.isEmpty()) {
+            long collectedAt = System.currentTimeMillis();
+            collectTopicStats(topicsToCollect).forEach((topicName, collected) -> {
+                topicStats.put(topicName, new CachedTopicStats(collected, collectedAt));
+                stats.put(topicName, collected);
+            });
+        }
+
+        return stats;
+    }
+
+    /**
+     * Describe some topics and list their earliest and latest offsets
+     * @param topicNames The topic names
+     * @return The statistics by topic, for the topics existing on the cluster
+     * @throws ExecutionException Any execution exception
+     * @throws InterruptedException Any interrupted exception
+     * @throws TimeoutException Any timeout exception
+     */
+    private Map<String, TopicStats> collectTopicStats(List<String> topicNames) throws ExecutionException, InterruptedException, TimeoutException {
+        List<String> existingTopicNames = new ArrayList<>();
+        for (String topicName : topicNames) {
+            if (getBrokerTopicCache().contains(topicName)) {
+                existingTopicNames.add(topicName);
+            }
+        }
+
+        if (existingTopicNames.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, TopicDescription> topicDescriptions = getAdminGateway().call(admin -> admin.describeTopics(existingTopicNames).all())
+                .get(30, TimeUnit.SECONDS);
+
+        List<TopicPartition> topicPartitions = topicDescriptions.values()
+                .stream()
+                .flatMap(topicDescription -> topicDescription.partitions()
+                        .stream()
+                        .map(partitionInfo -> new TopicPartition(topicDescription.name(), partitionInfo.partition())))
+                .toList();
+
+        // Both listings are submitted before waiting, so they are sent within the same coalescing window.
+        // They list the same topic-partitions, so they still take one listOffsets request each
+        KafkaFuture<Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo>> earliestOffsetsFuture = getAdminRequestCoalescer()
+                .listOffsets(topicPartitions.stream().collect(Collectors.toMap(Function.identity(), v -> OffsetSpec.earliest())));
+        KafkaFuture<Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo>> latestOffsetsFuture = getAdminRequestCoalescer()
+                .listOffsets(topicPartitions.stream().collect(Collectors.toMap(Function.identity(), v -> OffsetSpec.latest())));
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> earliestOffsets = earliestOffsetsFuture.get(30, TimeUnit.SECONDS);
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> latestOffsets = latestOffsetsFuture.get(30, TimeUnit.SECONDS);
+
+        return topicDescriptions.values()
+                .stream()
+                .collect(Collectors.toMap(TopicDescription::name, topicDescription -> {
+                    List<TopicStats.PartitionStats> partitionStats = topicDescription.partitions()
+                            .stream()
+                            .map(partitionInfo -> {
+                                TopicPartition topicPartition = new TopicPartition(topicDescription.name(), partitionInfo.partition());
+                                long earliestOffset = earliestOffsets.get(topicPartition).offset();
+                                long latestOffset = latestOffsets.get(topicPartition).offset();
+                                return TopicStats.PartitionStats.builder()
+                                        .partition(partitionInfo.partition())
+                                        .leader(partitionInfo.leader() != null ? partitionInfo.leader().id() : null)
+                                        .replicas(partitionInfo.replicas().size())
+                                        .isrSize(partitionInfo.isr().size())
+                                        .earliestOffset(earliestOffset)
+                                        .latestOffset(latestOffset)
+                                        .records(Math.max(0, latestOffset - earliestOffset))
+                                        .build();
+                            })
+                            .toList();
+
+                    return TopicStats.builder()
+                            .metadata(ObjectMeta.builder()
+                                    .name(topicDescription.name())
+                                    .cluster(kafkaAsyncExecutorConfig.getName())
+                                    .build())
+                            .spec(TopicStats.TopicStatsSpec.builder()
+                                    .records(partitionStats.stream().mapToLong(TopicStats.PartitionStats::getRecords).sum())
+                                    .partitions(partitionStats)
+                                    .build())
+                            .build();
+                }));
+    }
+
     /**
      * For a given topic, get each latest offset by partition in order to delete all the records
      * before these offsets
@@ -285,15 +438,38 @@ public class TopicAsyncExecutor {
      */
     public Map<TopicPartition, RecordsToDelete> prepareRecordsToDelete(String topic) throws ExecutionException, InterruptedException {
         // List all partitions for topic and prepare a listOffsets call
-        Map<TopicPartition, OffsetSpec> topicsPartitionsToDelete = getAdminClient().describeTopics(List.of(topic)).all().get()
-                .entrySet()
+        Map<TopicPartition, OffsetSpec> topicsPartitionsToDelete = getAdminRequestCoalescer().describeTopic(topic).get()
+                .partitions()
                 .stream()
-                .flatMap(topicDescriptionEntry -> topicDescriptionEntry.getValue().partitions().stream())
                 .map(partitionInfo -> new TopicPartition(topic, partitionInfo.partition()))
                 .collect(Collectors.toMap(Function.identity(), v -> OffsetSpec.latest()));
 
         // list all latest offsets for each partitions
-        return getAdminClient().listOffsets(topicsPartitionsToDelete).all().get()
+        return getAdminRequestCoalescer().listOffsets(topicsPartitionsToDelete).get()
+                .entrySet()
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, kv -> RecordsToDelete.beforeOffset(kv.getValue().offset())));
+    }
+
+    /**
+     * For given topics, get each latest offset by partition in order to delete all the records
+     * before these offsets. The topics are described and their offsets listed with a single request each
+     * @param topics The topics to delete records
+     * @return A map of offsets by topic-partitions
+     * @throws ExecutionException Any execution exception
+     * @throws InterruptedException Any interrupted exception
+     */
+    public Map<TopicPartition, RecordsToDelete> prepareRecordsToDeleteForTopics(Collection<String> topics) throws ExecutionException, InterruptedException {
+        Map<TopicPartition, OffsetSpec> topicsPartitionsToDelete = getAdminGateway().call(admin -> admin.describeTopics(topics).all())
+                .get()
+                .values()
+                .stream()
+                .flatMap(topicDescription -> topicDescription.partitions()
+                        .stream()
+                        .map(partitionInfo -> new TopicPartition(topicDescription.name(), partitionInfo.partition())))
+                .collect(Collectors.toMap(Function.identity(), v -> OffsetSpec.latest()));
+
+        return getAdminRequestCoalescer().listOffsets(topicsPartitionsToDelete).get()
                 .entrySet()
                 .stream()
                 .collect(Collectors.toMap(Map.Entry::getKey, kv -> RecordsToDelete.beforeOffset(kv.getValue().offset())));
@@ -306,12 +482,19 @@ public class TopicAsyncExecutor {
      * @throws InterruptedException Any interrupted exception
      */
     public Map<TopicPartition, Long> deleteRecords(Map<TopicPartition, RecordsToDelete> recordsToDelete) throws InterruptedException {
-        return getAdminClient().deleteRecords(recordsToDelete).lowWatermarks().entrySet().stream()
+        Map<TopicPartition, KafkaFuture<Long>> lowWatermarks = deleteRecordsAsync(recordsToDelete);
+
+        // Wait for all the partitions at once, failed partitions are reported one by one below
+        try {
+            KafkaFuture.allOf(lowWatermarks.values().toArray(new KafkaFuture[0])).get();
+        } catch (ExecutionException e) {
+            log.debug("Error deleting records of some topic-partitions", e);
+        }
+
+        return lowWatermarks.entrySet().stream()
                 .collect(Collectors.toMap(Map.Entry::getKey, kv-> {
                     try {
-                        var newValue = kv.getValue().get().lowWatermark();
-                        log.info("Deleting records {} of topic-partition {}", newValue, kv.getKey());
-                        return newValue;
+                        return kv.getValue().get();
                     } catch (InterruptedException e) {
                         Thread.currentThread().interrupt();
                         log.error(String.format("Thread interrupted deleting records of topic-partition %s", kv.getKey()), e);
@@ -326,4 +509,30 @@ public class TopicAsyncExecutor {
                 }));
 
     }
+
+    /**
+     * Delete the records for each partition, before each offset, with a single request
+     * @param recordsToDelete The offsets by topic-partitions
+     * @return The futures of the new offsets by topic-partitions, completed as soon as each partition is done
+     */
+    public Map<TopicPartition, KafkaFuture<Long>> deleteRecordsAsync(Map<TopicPartition, RecordsToDelete> recordsToDelete) {
+        recordsToDelete.keySet().forEach(topicPartition -> topicStats.remove(topicPartition.topic()));
+        return getAdminGateway().submit(admin -> admin.deleteRecords(recordsToDelete), DeleteRecordsResult::all)
+                .lowWatermarks().entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, kv -> kv.getValue().thenApply(deletedRecords -> {
+                    log.info("Deleting records {} of topic-partition {}", deletedRecords.lowWatermark(), kv.getKey());
+                    return deletedRecords.lowWatermark();
+                })));
+    }
+
+    private static class CachedTopicStats {
+        private final TopicStats stats;
+
+        private final long collectedAt;
+
+        private CachedTopicStats(TopicStats stats, long collectedAt) {
+            this.stats = stats;
+            this.collectedAt = collectedAt;
+        }
+    }
 }
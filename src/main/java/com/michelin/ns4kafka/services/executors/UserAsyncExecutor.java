@@ -1,16 +1,24 @@
 package com.michelin.ns4kafka.services.executors;
 
 import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import com.michelin.ns4kafka.models.Namespace;
+import com.michelin.ns4kafka.models.quota.ResourceQuota;
 import com.michelin.ns4kafka.repositories.NamespaceRepository;
+import com.michelin.ns4kafka.repositories.ResourceQuotaRepository;
+import com.michelin.ns4kafka.services.admin.AdminGateway;
+import com.michelin.ns4kafka.utils.exceptions.ClusterUnavailableException;
 import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
+import io.micronaut.context.ApplicationContext;
 import io.micronaut.context.annotation.EachBean;
+import io.micronaut.inject.qualifiers.Qualifiers;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AlterClientQuotasResult;
 import org.apache.kafka.clients.admin.ScramCredentialInfo;
 import org.apache.kafka.clients.admin.ScramMechanism;
 import org.apache.kafka.clients.admin.UserScramCredentialUpsertion;
+import org.apache.kafka.common.KafkaFuture;
 import org.apache.kafka.common.quota.ClientQuotaAlteration;
 import org.apache.kafka.common.quota.ClientQuotaEntity;
 import org.apache.kafka.common.quota.ClientQuotaFilter;
@@ -18,15 +26,23 @@ import org.apache.kafka.common.quota.ClientQuotaFilterComponent;
 
 import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
 @EachBean(KafkaAsyncExecutorConfig.class)
 @Singleton
 public class UserAsyncExecutor {
+    public static final double BYTE_RATE_DEFAULT_VALUE = 102400.0;
+
+    private static final String USER_QUOTA_PREFIX = "user/";
+
     private final KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig;
 
     private final AbstractUserSynchronizer userExecutor;
@@ -34,11 +50,17 @@ public class UserAsyncExecutor {
     @Inject
     NamespaceRepository namespaceRepository;
 
+    @Inject
+    ResourceQuotaRepository resourceQuotaRepository;
+
+    @Inject
+    ApplicationContext applicationContext;
+
     public UserAsyncExecutor(KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig) {
         this.kafkaAsyncExecutorConfig = kafkaAsyncExecutorConfig;
         switch (kafkaAsyncExecutorConfig.getProvider()) {
             case SELF_MANAGED:
-                this.userExecutor = new Scram512UserSynchronizer(kafkaAsyncExecutorConfig.getAdminClient());
+                this.userExecutor = new Scram512UserSynchronizer(this::getAdminGateway);
                 break;
             case CONFLUENT_CLOUD:
             default:
@@ -49,6 +71,12 @@ public class UserAsyncExecutor {
 
     public void run() {
         if (this.kafkaAsyncExecutorConfig.isManageUsers() && this.userExecutor.canSynchronizeQuotas()) {
+            if (!getAdminGateway().isAvailable()) {
+                log.warn("Skipping user synchronization for cluster {}: circuit breaker is {}",
+                        kafkaAsyncExecutorConfig.getName(), getAdminGateway().getCircuitState());
+                return;
+            }
+
             synchronizeUsers();
         }
 
@@ -70,20 +98,59 @@ public class UserAsyncExecutor {
                 .stream()
                 .filter(entry -> !ns4kafkaUserQuotas.containsKey(entry.getKey()))
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        // Broker quotas not managed by Ns4Kafka are left as is, so a user only differing by them has nothing to update
         Map<String, Map<String, Double>> toUpdate = ns4kafkaUserQuotas.entrySet()
                 .stream()
                 .filter(entry -> brokerUserQuotas.containsKey(entry.getKey()))
-                .filter(entry -> entry.getValue().equals(brokerUserQuotas.get(entry.getKey())))
+                .map(entry -> Map.entry(entry.getKey(), computeQuotaChanges(entry.getValue(), brokerUserQuotas.get(entry.getKey()))))
+                .filter(entry -> !entry.getValue().isEmpty())
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
 
         if (log.isDebugEnabled()) {
             log.debug("UserQuotas to create : " + String.join(", ", toCreate.keySet()));
             log.debug("UserQuotas to delete : " + toDelete.size());
-            log.debug("UserQuotas to update : " + toUpdate.size());
+            log.debug("UserQuotas to update : " + String.join(", ", toUpdate.keySet()));
+        }
+
+        Map<String, Map<String, Double>> toApply = new HashMap<>(toCreate);
+        toApply.putAll(toUpdate);
+
+        if (!toApply.isEmpty()) {
+            userExecutor.applyQuotas(toApply);
         }
+    }
+
+    /**
+     * Compute the quota operations to move a user from its broker quotas to its expected quotas.
+     * Quotas managed by Ns4Kafka but no longer expected are mapped to a null value, which removes them
+     * @param expected The expected quotas
+     * @param actual The quotas currently set on the broker
+     * @return The quota operations
+     */
+    private Map<String, Double> computeQuotaChanges(Map<String, Double> expected, Map<String, Double> actual) {
+        Map<String, Double> changes = new HashMap<>();
+        expected.entrySet()
+                .stream()
+                .filter(entry -> !entry.getValue().equals(actual.get(entry.getKey())))
+                .forEach(entry -> changes.put(entry.getKey(), entry.getValue()));
+
+        actual.keySet()
+                .stream()
+                .filter(key -> !expected.containsKey(key) && isManagedQuota(key))
+                .forEach(key -> changes.put(key, null));
+
+        return changes;
+    }
 
-        createUserQuotas(toCreate);
-        createUserQuotas(toUpdate);
+    /**
+     * Is the given broker quota key managed by a resource quota
+     * @param key The quota key, such as producer_byte_rate
+     * @return true if it is, false otherwise
+     */
+    private boolean isManagedQuota(String key) {
+        return List.of(ResourceQuota.ResourceQuotaSpecKey.values())
+                .stream()
+                .anyMatch(specKey -> specKey.getKey().equals(USER_QUOTA_PREFIX + key));
     }
 
     public String resetPassword(String user) {
@@ -97,20 +164,81 @@ public class UserAsyncExecutor {
         }
     }
 
+    /**
+     * Collect the expected user quotas from the resource quotas of the namespaces of the cluster.
+     * Byte rates default to {@link #BYTE_RATE_DEFAULT_VALUE} when not set.
+     * When several namespaces share a user with different quotas, the quotas of the first namespace by name are kept
+     * @return The quotas by user
+     */
     private Map<String, Map<String, Double>> collectNs4kafkaQuotas() {
-        // TODO fetch data from QuotaRepository when available
-        return namespaceRepository.findAllForCluster(this.kafkaAsyncExecutorConfig.getName())
+        Map<String, Map<String, Double>> quotasByUser = new HashMap<>();
+        Map<String, String> namespaceByUser = new HashMap<>();
+        namespaceRepository.findAllForCluster(this.kafkaAsyncExecutorConfig.getName())
                 .stream()
-                .map(namespace -> Map.entry(
-                        namespace.getSpec().getKafkaUser(),
-                        Map.of(
-                                "producer_byte_rate", 102400.0,
-                                "consumer_byte_rate", 102400.0)))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+                .sorted(Comparator.comparing(namespace -> namespace.getMetadata().getName()))
+                .forEach(namespace -> {
+                    String user = namespace.getSpec().getKafkaUser();
+                    Map<String, Double> quotas = buildUserQuotas(namespace);
+                    Map<String, Double> keptQuotas = quotasByUser.putIfAbsent(user, quotas);
+                    if (keptQuotas == null) {
+                        namespaceByUser.put(user, namespace.getMetadata().getName());
+                    } else if (!keptQuotas.equals(quotas)) {
+                        log.warn("Conflicting quotas for user {} on cluster {}: keeping the quotas of namespace {} over namespace {}",
+                                user, kafkaAsyncExecutorConfig.getName(), namespaceByUser.get(user), namespace.getMetadata().getName());
+                    }
+                });
+
+        return quotasByUser;
+    }
+
+    /**
+     * Build the user quotas of a given namespace from its resource quota
+     * @param namespace The namespace
+     * @return The user quotas
+     */
+    private Map<String, Double> buildUserQuotas(Namespace namespace) {
+        Optional<ResourceQuota> resourceQuota = resourceQuotaRepository.findForNamespace(namespace.getMetadata().getName());
+        Map<String, String> spec = resourceQuota.map(ResourceQuota::getSpec).orElse(Map.of());
+
+        Map<String, Double> quotas = new HashMap<>();
+        quotas.put("producer_byte_rate", parseQuota(spec.get(ResourceQuota.ResourceQuotaSpecKey.USER_PRODUCER_BYTE_RATE.getKey()),
+                BYTE_RATE_DEFAULT_VALUE));
+        quotas.put("consumer_byte_rate", parseQuota(spec.get(ResourceQuota.ResourceQuotaSpecKey.USER_CONSUMER_BYTE_RATE.getKey()),
+                BYTE_RATE_DEFAULT_VALUE));
+
+        Double requestPercentage = parseQuota(spec.get(ResourceQuota.ResourceQuotaSpecKey.USER_REQUEST_PERCENTAGE.getKey()), null);
+        if (requestPercentage != null) {
+            quotas.put("request_percentage", requestPercentage);
+        }
+
+        return quotas;
+    }
+
+    /**
+     * Parse a quota value from a resource quota
+     * @param value The value
+     * @param defaultValue The value to use when the quota is not set or invalid
+     * @return The parsed value
+     */
+    private Double parseQuota(String value, Double defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            log.warn("Invalid user quota value {} on cluster {}, using {}", value, kafkaAsyncExecutorConfig.getName(), defaultValue);
+            return defaultValue;
+        }
     }
 
-    private void createUserQuotas(Map<String, Map<String, Double>> toCreate) {
-        toCreate.forEach(this.userExecutor::applyQuotas);
+    /**
+     * Getter for the Admin gateway of the cluster
+     * @return The Admin gateway
+     */
+    private AdminGateway getAdminGateway() {
+        return applicationContext.getBean(AdminGateway.class, Qualifiers.byName(kafkaAsyncExecutorConfig.getName()));
     }
 
     interface AbstractUserSynchronizer {
@@ -120,20 +248,20 @@ public class UserAsyncExecutor {
 
         String resetPassword(String user);
 
-        void applyQuotas(String user, Map<String, Double> quotas);
+        void applyQuotas(Map<String, Map<String, Double>> quotasByUser);
 
         Map<String, Map<String, Double>> listQuotas();
     }
 
     static class Scram512UserSynchronizer implements AbstractUserSynchronizer {
 
-        private Admin admin;
+        private final Supplier<AdminGateway> adminGateway;
 
         private final ScramCredentialInfo info = new ScramCredentialInfo(ScramMechanism.SCRAM_SHA_512, 4096);
         private final SecureRandom secureRandom = new SecureRandom();
 
-        public Scram512UserSynchronizer(Admin admin) {
-            this.admin = admin;
+        public Scram512UserSynchronizer(Supplier<AdminGateway> adminGateway) {
+            this.adminGateway = adminGateway;
         }
 
         @Override
@@ -153,12 +281,14 @@ public class UserAsyncExecutor {
             String password = Base64.getEncoder().encodeToString(randomBytes);
             UserScramCredentialUpsertion update = new UserScramCredentialUpsertion(user, info, password);
             try {
-                admin.alterUserScramCredentials(List.of(update)).all().get(10, TimeUnit.SECONDS);
+                adminGateway.get().call(admin -> admin.alterUserScramCredentials(List.of(update)).all()).get(10, TimeUnit.SECONDS);
                 log.info("Success resetting password for user {}", user);
             } catch (InterruptedException e) {
                 log.error("Error", e);
                 Thread.currentThread().interrupt();
                 return null;
+            } catch (ClusterUnavailableException e) {
+                throw e;
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
@@ -169,7 +299,7 @@ public class UserAsyncExecutor {
         public Map<String, Map<String, Double>> listQuotas() {
             ClientQuotaFilter filter = ClientQuotaFilter.containsOnly(List.of(ClientQuotaFilterComponent.ofEntityType(ClientQuotaEntity.USER)));
             try {
-                return admin.describeClientQuotas(filter).entities().get(10, TimeUnit.SECONDS)
+                return adminGateway.get().call(admin -> admin.describeClientQuotas(filter).entities()).get(10, TimeUnit.SECONDS)
                         .entrySet()
                         .stream()
                         .map(entry -> Map.entry(entry.getKey().entries().get(ClientQuotaEntity.USER), entry.getValue()))
@@ -185,22 +315,39 @@ public class UserAsyncExecutor {
         }
 
         @Override
-        public void applyQuotas(String user, Map<String, Double> quotas) {
-            ClientQuotaEntity client = new ClientQuotaEntity(Map.of("user", user));
-            ClientQuotaAlteration.Op producerQuota = new ClientQuotaAlteration.Op("producer_byte_rate", 102400.0);
-            ClientQuotaAlteration.Op consumerQuota = new ClientQuotaAlteration.Op("consumer_byte_rate", 102400.0);
-            ClientQuotaAlteration clientQuota = new ClientQuotaAlteration(client, List.of(producerQuota, consumerQuota));
-            try {
-                admin.alterClientQuotas(List.of(clientQuota)).all().get(10, TimeUnit.SECONDS);
-                log.info("Success applying quotas {} for user {}", quotas, user);
-            } catch (InterruptedException e) {
-                log.error("Error", e);
-                Thread.currentThread().interrupt();
-            } catch (Exception e) {
-                log.error(String.format("Error while applying quotas for user %s", user), e);
-
+        public void applyQuotas(Map<String, Map<String, Double>> quotasByUser) {
+            List<ClientQuotaAlteration> alterations = quotasByUser.entrySet()
+                    .stream()
+                    .filter(entry -> !entry.getValue().isEmpty())
+                    .map(entry -> new ClientQuotaAlteration(
+                            new ClientQuotaEntity(Map.of(ClientQuotaEntity.USER, entry.getKey())),
+                            entry.getValue().entrySet()
+                                    .stream()
+                                    .map(quota -> new ClientQuotaAlteration.Op(quota.getKey(), quota.getValue()))
+                                    .toList()))
+                    .toList();
+
+            if (alterations.isEmpty()) {
+                return;
             }
 
+            // A single request for all the users, each user gets its own result
+            Map<ClientQuotaEntity, KafkaFuture<Void>> results = adminGateway.get()
+                    .submit(admin -> admin.alterClientQuotas(alterations), AlterClientQuotasResult::all)
+                    .values();
+            for (Map.Entry<ClientQuotaEntity, KafkaFuture<Void>> result : results.entrySet()) {
+                String user = result.getKey().entries().get(ClientQuotaEntity.USER);
+                try {
+                    result.getValue().get(10, TimeUnit.SECONDS);
+                    log.info("Success applying quotas {} for user {}", quotasByUser.get(user), user);
+                } catch (InterruptedException e) {
+                    log.error("Error", e);
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    log.error(String.format("Error while applying quotas for user %s", user), e);
+                }
+            }
         }
     }
 
@@ -224,7 +371,7 @@ public class UserAsyncExecutor {
         }
 
         @Override
-        public void applyQuotas(String user, Map<String, Double> quotas) {
+        public void applyQuotas(Map<String, Map<String, Double>> quotasByUser) {
             throw exception;
         }
 
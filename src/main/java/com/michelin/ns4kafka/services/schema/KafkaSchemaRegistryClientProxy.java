@@ -1,10 +1,11 @@
 package com.michelin.ns4kafka.services.schema;
 
-import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import com.michelin.ns4kafka.services.ProxyRoutingTable;
 import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
 import io.micronaut.core.async.publisher.Publishers;
 import io.micronaut.core.util.StringUtils;
 import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpMethod;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.MutableHttpRequest;
 import io.micronaut.http.MutableHttpResponse;
@@ -17,8 +18,8 @@ import org.reactivestreams.Publisher;
 
 import java.net.URI;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Filter(KafkaSchemaRegistryClientProxy.SCHEMA_REGISTRY_PREFIX + "/**")
 public class KafkaSchemaRegistryClientProxy implements HttpServerFilter {
@@ -31,7 +32,7 @@ public class KafkaSchemaRegistryClientProxy implements HttpServerFilter {
     public static final String PROXY_SECRET = UUID.randomUUID().toString();
 
     @Inject
-    List<KafkaAsyncExecutorConfig> kafkaAsyncExecutorConfigs;
+    ProxyRoutingTable proxyRoutingTable;
 
     @Inject
     ProxyHttpClient client;
@@ -60,30 +61,28 @@ public class KafkaSchemaRegistryClientProxy implements HttpServerFilter {
 
         String kafkaCluster = request.getHeaders().get(KafkaSchemaRegistryClientProxy.PROXY_HEADER_KAFKA_CLUSTER);
 
-        Optional<KafkaAsyncExecutorConfig> config = kafkaAsyncExecutorConfigs.stream()
-                .filter(kafkaAsyncExecutorConfig -> kafkaAsyncExecutorConfig.getName().equals(kafkaCluster))
-                .findFirst();
-
-        if (config.isEmpty()) {
-            return Publishers.just(new ResourceValidationException(List.of("Kafka Cluster [" + kafkaCluster + "] not found"),null,null));
-        }
-
-        if (config.get().getSchemaRegistry() == null) {
-            return Publishers.just(new ResourceValidationException(List.of("Kafka Cluster [" + kafkaCluster + "] has no schema registry"),null,null));
+        ProxyRoutingTable.Route route;
+        try {
+            route = proxyRoutingTable.getSchemaRegistryRoute(kafkaCluster);
+        } catch (ResourceValidationException e) {
+            return Publishers.just(e);
         }
 
-        return client.proxy(mutateSchemaRegistryRequest(request, config.get()));
+        // The writes go to the first reachable URL, which should be the leader, as the followers would forward them
+        Function<String, Publisher<MutableHttpResponse<?>>> call = url -> client.proxy(mutateSchemaRegistryRequest(request, url, route.getAuthorization()));
+        return request.getMethod() == HttpMethod.GET ? route.proxy(request.getMethod(), call) : route.proxyInOrder(request.getMethod(), call);
     }
 
     /**
-     * Mutate a request to the Schema Registry by modifying the base URI by the Schema Registry URI from the
-     * cluster config
+     * Mutate a request to the Schema Registry by modifying the base URI by the Schema Registry URI of the
+     * cluster route
      * @param request The request to modify
-     * @param config The configuration used to modify the request
+     * @param url The Schema Registry URL chosen by the route
+     * @param authorization The Authorization header of the route, if any
      * @return The modified request
      */
-    public MutableHttpRequest<?> mutateSchemaRegistryRequest(HttpRequest<?> request, KafkaAsyncExecutorConfig config) {
-        URI newURI = URI.create(config.getSchemaRegistry().getUrl());
+    public MutableHttpRequest<?> mutateSchemaRegistryRequest(HttpRequest<?> request, String url, String authorization) {
+        URI newURI = URI.create(url);
 
         MutableHttpRequest<?> mutableHttpRequest = request.mutate()
                 .uri(mutableRequest -> mutableRequest
@@ -95,10 +94,8 @@ public class KafkaSchemaRegistryClientProxy implements HttpServerFilter {
                         ))
                 );
 
-        if (StringUtils.isNotEmpty(config.getSchemaRegistry().getBasicAuthUsername()) &&
-                StringUtils.isNotEmpty(config.getSchemaRegistry().getBasicAuthPassword())) {
-            mutableHttpRequest.basicAuth(config.getSchemaRegistry().getBasicAuthUsername(),
-                    config.getSchemaRegistry().getBasicAuthPassword());
+        if (authorization != null) {
+            mutableHttpRequest.header(HttpHeaders.AUTHORIZATION, authorization);
         }
 
         mutableHttpRequest.getHeaders().remove(HttpHeaders.HOST);
@@ -1,59 +1,184 @@
 package com.michelin.ns4kafka.services.schema.client;
 
+import com.michelin.ns4kafka.services.ProxyRoutingTable;
 import com.michelin.ns4kafka.services.schema.KafkaSchemaRegistryClientProxy;
 import com.michelin.ns4kafka.services.schema.client.entities.SchemaCompatibilityCheckResponse;
 import com.michelin.ns4kafka.services.schema.client.entities.SchemaCompatibilityResponse;
 import com.michelin.ns4kafka.services.schema.client.entities.SchemaRequest;
 import com.michelin.ns4kafka.services.schema.client.entities.SchemaResponse;
-import io.micronaut.http.annotation.*;
+import io.micronaut.core.type.Argument;
+import io.micronaut.core.util.StringUtils;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpRequest;
 import io.micronaut.http.client.annotation.Client;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.http.uri.UriTemplate;
+import io.micronaut.rxjava3.http.client.Rx3HttpClient;
 import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.core.Single;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.reactivestreams.Publisher;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
-@Client(value = KafkaSchemaRegistryClientProxy.SCHEMA_REGISTRY_PREFIX)
-public interface KafkaSchemaRegistryClient {
-    @Get("/subjects")
-    Single<List<String>> getSubjects(@Header(value = KafkaSchemaRegistryClientProxy.PROXY_HEADER_SECRET) String secret,
-                                     @Header(value = KafkaSchemaRegistryClientProxy.PROXY_HEADER_KAFKA_CLUSTER) String cluster);
-
-    @Get("/subjects/{subject}/versions/latest")
-    Maybe<SchemaResponse> getLatestSubject(@Header(value = KafkaSchemaRegistryClientProxy.PROXY_HEADER_SECRET) String secret,
-                                           @Header(value = KafkaSchemaRegistryClientProxy.PROXY_HEADER_KAFKA_CLUSTER) String cluster,
-                                           @PathVariable String subject);
-
-    @Post("/subjects/{subject}/versions")
-    Single<SchemaResponse> register(@Header(value = KafkaSchemaRegistryClientProxy.PROXY_HEADER_SECRET) String secret,
-                                    @Header(value = KafkaSchemaRegistryClientProxy.PROXY_HEADER_KAFKA_CLUSTER) String cluster,
-                                    @PathVariable String subject,
-                                    @Body SchemaRequest request);
-
-    @Delete("/subjects/{subject}")
-    Single<Integer[]> deleteSubject(@Header(value = KafkaSchemaRegistryClientProxy.PROXY_HEADER_SECRET) String secret,
-                                             @Header(value = KafkaSchemaRegistryClientProxy.PROXY_HEADER_KAFKA_CLUSTER) String cluster,
-                                             @PathVariable String subject,
-                                             @QueryValue("permanent") boolean hardDelete);
-
-    @Post("/compatibility/subjects/{subject}/versions?verbose=true")
-    Maybe<SchemaCompatibilityCheckResponse> validateSchemaCompatibility(@Header(value = KafkaSchemaRegistryClientProxy.PROXY_HEADER_SECRET) String secret,
-                                                                        @Header(value = KafkaSchemaRegistryClientProxy.PROXY_HEADER_KAFKA_CLUSTER) String cluster,
-                                                                        @PathVariable String subject,
-                                                                        @Body SchemaRequest request);
-
-    @Put("/config/{subject}")
-    Single<SchemaCompatibilityResponse> updateSubjectCompatibility(@Header(value = KafkaSchemaRegistryClientProxy.PROXY_HEADER_SECRET) String secret,
-                                    @Header(value = KafkaSchemaRegistryClientProxy.PROXY_HEADER_KAFKA_CLUSTER) String cluster,
-                                    @PathVariable String subject,
-                                    String compatibility);
-
-    @Get("/config/{subject}")
-    Maybe<SchemaCompatibilityResponse> getCurrentCompatibilityBySubject(@Header(value = KafkaSchemaRegistryClientProxy.PROXY_HEADER_SECRET) String secret,
-                                                                           @Header(value = KafkaSchemaRegistryClientProxy.PROXY_HEADER_KAFKA_CLUSTER) String cluster,
-                                                                           @PathVariable String subject);
-
-    @Delete("/config/{subject}")
-    Single<SchemaCompatibilityResponse> deleteCurrentCompatibilityBySubject(@Header(value = KafkaSchemaRegistryClientProxy.PROXY_HEADER_SECRET) String secret,
-                                             @Header(value = KafkaSchemaRegistryClientProxy.PROXY_HEADER_KAFKA_CLUSTER) String cluster,
-                                             @PathVariable String subject);
+/**
+ * Client of the Schema Registries.
+ * The Schema Registry of the Kafka cluster is resolved in-process and called directly, without going through {@link KafkaSchemaRegistryClientProxy}.
+ * The subjects, the latest versions and the compatibilities are served from a cache, invalidated by the writes of this client.
+ * The lookups of a schema in a subject are not cached, except the ones confirming a schema is the latest version
+ */
+@Singleton
+public class KafkaSchemaRegistryClient {
+    @Inject
+    @Client(KafkaSchemaRegistryClientProxy.SCHEMA_REGISTRY_PREFIX)
+    Rx3HttpClient httpClient;
+
+    @Inject
+    ProxyRoutingTable proxyRoutingTable;
+
+    @Inject
+    SchemaRegistryCache schemaRegistryCache;
+
+    public Single<List<String>> getSubjects(String cluster) {
+        return schemaRegistryCache.get(cluster, SchemaRegistryCache.SUBJECTS,
+                        () -> retrieve(cluster, HttpRequest.GET("/subjects"), Argument.listOf(String.class)).toMaybe())
+                .toSingle();
+    }
+
+    public Maybe<SchemaResponse> getLatestSubject(String cluster, String subject) {
+        return schemaRegistryCache.get(cluster, SchemaRegistryCache.latestKey(subject), () -> emptyIfNotFound(retrieve(cluster,
+                HttpRequest.GET(expand("/subjects/{subject}/versions/latest", Map.of("subject", subject))),
+                Argument.of(SchemaResponse.class))));
+    }
+
+    public Single<SchemaResponse> register(String cluster, String subject, SchemaRequest request) {
+        return invalidating(cluster, subject, retrieve(cluster,
+                HttpRequest.POST(expand("/subjects/{subject}/versions", Map.of("subject", subject)), request),
+                Argument.of(SchemaResponse.class)));
+    }
+
+    public Single<Integer[]> deleteSubject(String cluster, String subject, boolean hardDelete) {
+        return invalidating(cluster, subject, retrieve(cluster,
+                HttpRequest.DELETE(expand("/subjects/{subject}{?permanent}", Map.of("subject", subject, "permanent", hardDelete))),
+                Argument.of(Integer[].class)));
+    }
+
+    public Maybe<SchemaResponse> lookUpSubjectVersion(String cluster, String subject, SchemaRequest request) {
+        return emptyIfNotFound(retrieve(cluster,
+                HttpRequest.POST(expand("/subjects/{subject}", Map.of("subject", subject)), request),
+                Argument.of(SchemaResponse.class)));
+    }
+
+    /**
+     * Is a schema the latest version of a subject, found by looking it up in the subject.
+     * The fingerprint of the schema found is cached by subject and id of the latest version, so that the next lookups
+     * of a schema with the same fingerprint are only sent when the cached one is missing or old enough to be refreshed
+     * @param cluster The Kafka cluster
+     * @param subject The subject
+     * @param latestId The id of the latest version
+     * @param fingerprint The fingerprint of the schema
+     * @param request The schema
+     * @return true if the schema is found with the id of the latest version, false otherwise
+     */
+    public Single<Boolean> isLatestVersion(String cluster, String subject, Integer latestId, String fingerprint, SchemaRequest request) {
+        return schemaRegistryCache.get(cluster, SchemaRegistryCache.fingerprintKey(subject, latestId),
+                        () -> lookUpSubjectVersion(cluster, subject, request)
+                                .filter(registeredSchema -> registeredSchema.id().equals(latestId))
+                                .map(registeredSchema -> fingerprint))
+                .map(fingerprint::equals)
+                .defaultIfEmpty(false);
+    }
+
+    public Maybe<SchemaCompatibilityCheckResponse> validateSchemaCompatibility(String cluster, String subject, SchemaRequest request) {
+        return emptyIfNotFound(retrieve(cluster,
+                HttpRequest.POST(expand("/compatibility/subjects/{subject}/versions?verbose=true", Map.of("subject", subject)), request),
+                Argument.of(SchemaCompatibilityCheckResponse.class)));
+    }
+
+    public Single<SchemaCompatibilityResponse> updateSubjectCompatibility(String cluster, String subject, String compatibility) {
+        return invalidating(cluster, subject, retrieve(cluster,
+                HttpRequest.PUT(expand("/config/{subject}", Map.of("subject", subject)), Map.of("compatibility", compatibility)),
+                Argument.of(SchemaCompatibilityResponse.class)));
+    }
+
+    public Maybe<SchemaCompatibilityResponse> getCurrentCompatibilityBySubject(String cluster, String subject) {
+        return schemaRegistryCache.get(cluster, SchemaRegistryCache.compatibilityKey(subject), () -> emptyIfNotFound(retrieve(cluster,
+                HttpRequest.GET(expand("/config/{subject}", Map.of("subject", subject))),
+                Argument.of(SchemaCompatibilityResponse.class))));
+    }
+
+    public Single<SchemaCompatibilityResponse> deleteCurrentCompatibilityBySubject(String cluster, String subject) {
+        return invalidating(cluster, subject, retrieve(cluster,
+                HttpRequest.DELETE(expand("/config/{subject}", Map.of("subject", subject))),
+                Argument.of(SchemaCompatibilityResponse.class)));
+    }
+
+    /**
+     * Invalidate the cached values of a subject once a write to it is done, even if it failed as it may have been applied
+     * @param cluster The Kafka cluster
+     * @param subject The subject
+     * @param response The response of the write
+     * @return The response of the write
+     */
+    private <T> Single<T> invalidating(String cluster, String subject, Single<T> response) {
+        return response.doOnEvent((value, error) -> schemaRegistryCache.invalidate(cluster, subject));
+    }
+
+    /**
+     * Send a request to the Schema Registry of the Kafka cluster.
+     * The reads are balanced between the Schema Registry URLs, and hedged if configured.
+     * The writes go to the first reachable URL, which should be the leader, as the followers would forward them
+     * @param cluster The Kafka cluster
+     * @param request The request, relative to the Schema Registry URL
+     * @param type The type of the response
+     * @return The response
+     */
+    private <T> Single<T> retrieve(String cluster, MutableHttpRequest<?> request, Argument<T> type) {
+        return Single.defer(() -> {
+            ProxyRoutingTable.Route route = proxyRoutingTable.getSchemaRegistryRoute(cluster);
+            Function<String, Publisher<T>> call = url -> httpClient.retrieve(point(route, url, request), type);
+            return (request.getMethod() == HttpMethod.GET ? route.read(call) : route.callInOrder(request.getMethod(), call))
+                    .firstOrError();
+        });
+    }
+
+    /**
+     * Complete empty when the subject is not found, as the declarative clients do
+     * @param response The response
+     * @return The response, or empty if not found
+     */
+    private static <T> Maybe<T> emptyIfNotFound(Single<T> response) {
+        return response
+                .toMaybe()
+                .onErrorResumeNext(error -> error instanceof HttpClientResponseException responseException
+                        && responseException.getStatus() == HttpStatus.NOT_FOUND ? Maybe.empty() : Maybe.error(error));
+    }
+
+    /**
+     * Point a copy of a request to a Schema Registry URL, as a hedged read may be in flight with the request to another URL
+     * @param route The route to the Schema Registry
+     * @param url The URL chosen by the route
+     * @param request The request, relative to the Schema Registry URL
+     * @return The request to the Schema Registry
+     */
+    private static MutableHttpRequest<?> point(ProxyRoutingTable.Route route, String url, MutableHttpRequest<?> request) {
+        MutableHttpRequest<Object> pointed = HttpRequest.create(request.getMethod(), StringUtils.prependUri(url, request.getUri().toString()));
+        request.getHeaders().forEach((name, values) -> values.forEach(value -> pointed.header(name, value)));
+        request.getBody().ifPresent(pointed::body);
+        if (route.getAuthorization() != null) {
+            pointed.header(HttpHeaders.AUTHORIZATION, route.getAuthorization());
+        }
+
+        return pointed;
+    }
+
+    private static String expand(String template, Map<String, ?> variables) {
+        return UriTemplate.of(template).expand(Map.<String, Object>copyOf(variables));
+    }
 }
@@ -0,0 +1,202 @@
+package com.michelin.ns4kafka.services.schema.client;
+
+import io.micronaut.context.annotation.Property;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.core.Single;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the Schema Registry reads, by Kafka cluster.
+ * A value older than the refresh delay is still served while it is read again in the background, and a value older
+ * than the expiry delay is read again before being served.
+ * The writes through Ns4Kafka invalidate the values of their subject, and the reads started before are not cached.
+ * Concurrent reads of the same value share a single in-flight call to the Schema Registry
+ */
+@Slf4j
+@Singleton
+class SchemaRegistryCache {
+    static final String SUBJECTS = "subjects";
+
+    /**
+     * The age in milliseconds after which a value is read again in the background
+     */
+    @Property(name = "ns4kafka.schema-registry.cache-refresh", defaultValue = "30000")
+    long cacheRefresh;
+
+    /**
+     * The age in milliseconds after which a value is not served anymore
+     */
+    @Property(name = "ns4kafka.schema-registry.cache-expiry", defaultValue = "300000")
+    long cacheExpiry;
+
+    /**
+     * The clock of the value ages
+     */
+    Clock clock = Clock.systemUTC();
+
+    private final Map<String, ClusterCache> clusters = new ConcurrentHashMap<>();
+
+    /**
+     * Get the key of the latest version of a subject
+     * @param subject The subject
+     * @return The key
+     */
+    static String latestKey(String subject) {
+        return "latest/" + subject;
+    }
+
+    /**
+     * Get the key of the compatibility of a subject
+     * @param subject The subject
+     * @return The key
+     */
+    static String compatibilityKey(String subject) {
+        return "compatibility/" + subject;
+    }
+
+    /**
+     * Get the key of the fingerprint of a schema found as a given latest version of a subject
+     * @param subject The subject
+     * @param latestId The id of the latest version
+     * @return The key
+     */
+    static String fingerprintKey(String subject, Integer latestId) {
+        return fingerprintPrefix(subject) + latestId;
+    }
+
+    private static String fingerprintPrefix(String subject) {
+        return "fingerprint/" + subject + "/";
+    }
+
+    /**
+     * Get a cached value, or read it if not cached or expired. An empty read is cached too
+     * @param cluster The Kafka cluster
+     * @param key The key of the value
+     * @param loader The read of the value
+     * @return The value
+     */
+    <T> Maybe<T> get(String cluster, String key, Supplier<Maybe<T>> loader) {
+        ClusterCache clusterCache = clusters.computeIfAbsent(cluster, name -> new ClusterCache());
+        return Maybe.defer(() -> {
+            Entry entry = clusterCache.entries.get(key);
+            long age = entry != null ? clock.millis() - entry.loadedAt : Long.MAX_VALUE;
+            if (age >= cacheExpiry) {
+                return load(clusterCache, key, loader).flatMapMaybe(SchemaRegistryCache::<T>toMaybe);
+            }
+
+            if (age >= cacheRefresh && entry.refreshing.compareAndSet(false, true)) {
+                load(clusterCache, key, loader).subscribe(value -> { }, error -> {
+                    entry.refreshing.set(false);
+                    log.debug("Error refreshing the Schema Registry value {} of cluster {}", key, cluster, error);
+                });
+            }
+
+            return SchemaRegistryCache.<T>toMaybe(entry.value);
+        });
+    }
+
+    /**
+     * Invalidate the values of a subject, and the list of subjects. The reads of these values in flight are not shared anymore
+     * @param cluster The Kafka cluster
+     * @param subject The subject
+     */
+    void invalidate(String cluster, String subject) {
+        ClusterCache clusterCache = clusters.get(cluster);
+        if (clusterCache == null) {
+            return;
+        }
+
+        synchronized (clusterCache) {
+            clusterCache.generation++;
+            clusterCache.entries.remove(SUBJECTS);
+            clusterCache.entries.remove(latestKey(subject));
+            clusterCache.entries.remove(compatibilityKey(subject));
+            clusterCache.loads.remove(SUBJECTS);
+            clusterCache.loads.remove(latestKey(subject));
+            clusterCache.loads.remove(compatibilityKey(subject));
+            clusterCache.entries.keySet().removeIf(key -> key.startsWith(fingerprintPrefix(subject)));
+            clusterCache.loads.keySet().removeIf(key -> key.startsWith(fingerprintPrefix(subject)));
+        }
+    }
+
+    /**
+     * Read a value, or join the read of the value already in flight
+     * @param clusterCache The cache of the Kafka cluster
+     * @param key The key of the value
+     * @param loader The read of the value
+     * @return The value
+     */
+    private <T> Single<Optional<?>> load(ClusterCache clusterCache, String key, Supplier<Maybe<T>> loader) {
+        return Single.defer(() -> clusterCache.loads.computeIfAbsent(key, k -> {
+            AtomicReference<Single<Optional<?>>> shared = new AtomicReference<>();
+            shared.set(read(clusterCache, k, loader)
+                    .doFinally(() -> clusterCache.loads.remove(k, shared.get()))
+                    .cache());
+            return shared.get();
+        }));
+    }
+
+    /**
+     * Read a value, and cache it unless a write invalidated the cluster meanwhile
+     * @param clusterCache The cache of the Kafka cluster
+     * @param key The key of the value
+     * @param loader The read of the value
+     * @return The value
+     */
+    private <T> Single<Optional<?>> read(ClusterCache clusterCache, String key, Supplier<Maybe<T>> loader) {
+        return Single.defer(() -> {
+            long generation = clusterCache.generation;
+            return loader.get()
+                    .<Optional<?>>map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .doOnSuccess(value -> {
+                        synchronized (clusterCache) {
+                            if (clusterCache.generation == generation) {
+                                clusterCache.entries.put(key, new Entry(value, clock.millis()));
+                            }
+                        }
+                    });
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Maybe<T> toMaybe(Optional<?> value) {
+        return value.map(present -> Maybe.just((T) present)).orElseGet(Maybe::empty);
+    }
+
+    private static class ClusterCache {
+        private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+        /**
+         * The reads in flight, shared by the concurrent reads of the same value
+         */
+        private final Map<String, Single<Optional<?>>> loads = new ConcurrentHashMap<>();
+
+        /**
+         * Incremented on every write, so that the reads started before are not cached
+         */
+        private volatile long generation;
+    }
+
+    private static class Entry {
+        private final Optional<?> value;
+
+        private final long loadedAt;
+
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(Optional<?> value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
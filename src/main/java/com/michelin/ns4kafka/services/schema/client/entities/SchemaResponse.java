@@ -2,8 +2,11 @@ package com.michelin.ns4kafka.services.schema.client.entities;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.michelin.ns4kafka.models.schema.Schema;
 import lombok.Builder;
 
+import java.util.List;
+
 @Builder
 public class SchemaResponse {
     /**
@@ -31,6 +34,11 @@ public class SchemaResponse {
      */
     private final String schemaType;
 
+    /**
+     * The references to other schemas
+     */
+    private final List<Schema.SchemaSpec.Reference> references;
+
     /**
      * Constructor
      *
@@ -39,15 +47,18 @@ public class SchemaResponse {
      * @param subject The schema subject
      * @param schema The schema itself
      * @param schemaType The schema type
+     * @param references The references to other schemas
      */
     @JsonCreator
     public SchemaResponse(@JsonProperty("id") Integer id, @JsonProperty("version") Integer version, @JsonProperty("subject") String subject,
-                          @JsonProperty("schema") String schema, @JsonProperty("schemaType") String schemaType) {
+                          @JsonProperty("schema") String schema, @JsonProperty("schemaType") String schemaType,
+                          @JsonProperty("references") List<Schema.SchemaSpec.Reference> references) {
         this.id = id;
         this.version = version;
         this.subject = subject;
         this.schema = schema;
         this.schemaType = schemaType;
+        this.references = references;
     }
 
     /**
@@ -94,4 +105,13 @@ public class SchemaResponse {
     public String schemaType() {
         return schemaType;
     }
+
+    /**
+     * References access method
+     *
+     * @return references property
+     */
+    public List<Schema.SchemaSpec.Reference> references() {
+        return references;
+    }
 }
@@ -0,0 +1,73 @@
+package com.michelin.ns4kafka.utils;
+
+import com.michelin.ns4kafka.models.AccessControlEntry;
+
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+public class ResourcePatternUtils {
+    /**
+     * Build the regex matching the resources of an ACL
+     * @param accessControlEntry The ACL
+     * @return The regex
+     */
+    public static String toRegex(AccessControlEntry accessControlEntry) {
+        String escapedString = Pattern.quote(accessControlEntry.getSpec().getResource());
+        if (accessControlEntry.getSpec().getResourcePatternType() == AccessControlEntry.ResourcePatternType.PREFIXED) {
+            return String.format("^%s.*$", escapedString);
+        } else {
+            return String.format("^%s$", escapedString);
+        }
+    }
+
+    /**
+     * Build a single regex matching the resources of all the given ACLs
+     * @param accessControlEntries The ACLs
+     * @return The regex
+     */
+    public static String toAlternationRegex(List<AccessControlEntry> accessControlEntries) {
+        return accessControlEntries.stream()
+                .map(accessControlEntry -> accessControlEntry.getSpec().getResourcePatternType() == AccessControlEntry.ResourcePatternType.PREFIXED
+                        ? Pattern.quote(accessControlEntry.getSpec().getResource()) + ".*"
+                        : Pattern.quote(accessControlEntry.getSpec().getResource()))
+                .collect(Collectors.joining("|", "^(?:", ")$"));
+    }
+
+    /**
+     * Remove the ACLs whose resources are all matched by another ACL of the list:
+     * duplicates, prefixes starting with a shorter prefix, and literals starting with a prefix.
+     * The other ACLs are kept in the given order
+     * @param accessControlEntries The ACLs, of the same resource type
+     * @return The minimal ACLs matching the same resources
+     */
+    public static List<AccessControlEntry> minimize(List<AccessControlEntry> accessControlEntries) {
+        TreeSet<String> prefixes = new TreeSet<>();
+        String lastPrefix = null;
+        for (String prefix : accessControlEntries.stream()
+                .filter(accessControlEntry -> accessControlEntry.getSpec().getResourcePatternType() == AccessControlEntry.ResourcePatternType.PREFIXED)
+                .map(accessControlEntry -> accessControlEntry.getSpec().getResource())
+                .sorted()
+                .toList()) {
+            if (lastPrefix == null || !prefix.startsWith(lastPrefix)) {
+                prefixes.add(prefix);
+                lastPrefix = prefix;
+            }
+        }
+
+        Set<String> seenPrefixes = new HashSet<>();
+        Set<String> seenLiterals = new HashSet<>();
+        return accessControlEntries.stream()
+                .filter(accessControlEntry -> {
+                    String resource = accessControlEntry.getSpec().getResource();
+                    if (accessControlEntry.getSpec().getResourcePatternType() == AccessControlEntry.ResourcePatternType.PREFIXED) {
+                        return prefixes.contains(resource) && seenPrefixes.add(resource);
+                    }
+
+                    // The kept prefixes never start with each other, so the only candidate is the greatest lower one
+                    String prefix = prefixes.floor(resource);
+                    return (prefix == null || !resource.startsWith(prefix)) && seenLiterals.add(resource);
+                })
+                .toList();
+    }
+}
@@ -0,0 +1,15 @@
+package com.michelin.ns4kafka.utils.exceptions;
+
+import lombok.Getter;
+
+public class ClusterUnavailableException extends RuntimeException {
+    private static final long serialVersionUID = 6127309861205541073L;
+
+    @Getter
+    private final String cluster;
+
+    public ClusterUnavailableException(String cluster, String message) {
+        super(message);
+        this.cluster = cluster;
+    }
+}
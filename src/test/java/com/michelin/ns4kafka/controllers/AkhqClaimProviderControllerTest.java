@@ -5,8 +5,10 @@ import com.michelin.ns4kafka.models.AccessControlEntry;
 import com.michelin.ns4kafka.models.Namespace;
 import com.michelin.ns4kafka.models.ObjectMeta;
 import com.michelin.ns4kafka.services.AccessControlEntryService;
+import com.michelin.ns4kafka.services.AkhqClaimIndex;
 import com.michelin.ns4kafka.services.NamespaceService;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -26,12 +28,20 @@ class AkhqClaimProviderControllerTest {
     @Mock
     AccessControlEntryService accessControlEntryService;
 
+    @InjectMocks
+    AkhqClaimIndex akhqClaimIndex;
+
     @InjectMocks
     AkhqClaimProviderController akhqClaimProviderController;
 
     @Spy
     AkhqClaimProviderControllerConfig akhqClaimProviderControllerConfig = getAkhqClaimProviderControllerConfig();
 
+    @BeforeEach
+    void init() {
+        akhqClaimProviderController.akhqClaimIndex = akhqClaimIndex;
+    }
+
     private AkhqClaimProviderControllerConfig getAkhqClaimProviderControllerConfig() {
         AkhqClaimProviderControllerConfig config = new AkhqClaimProviderControllerConfig();
         config.setGroupLabel("support-group");
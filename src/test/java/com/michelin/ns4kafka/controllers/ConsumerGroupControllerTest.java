@@ -1,11 +1,13 @@
 package com.michelin.ns4kafka.controllers;
 
+import com.michelin.ns4kafka.models.consumer.group.ConsumerGroupBulkResetOffsets;
 import com.michelin.ns4kafka.models.consumer.group.ConsumerGroupResetOffsets;
 import com.michelin.ns4kafka.models.consumer.group.ConsumerGroupResetOffsets.ConsumerGroupResetOffsetsSpec;
 import com.michelin.ns4kafka.models.consumer.group.ConsumerGroupResetOffsets.ResetOffsetsMethod;
 import com.michelin.ns4kafka.models.Namespace;
 import com.michelin.ns4kafka.models.ObjectMeta;
 import com.michelin.ns4kafka.models.consumer.group.ConsumerGroupResetOffsetsResponse;
+import com.michelin.ns4kafka.models.consumer.group.ConsumerGroupStatus;
 import com.michelin.ns4kafka.security.ResourceBasedSecurityRule;
 import com.michelin.ns4kafka.services.ConsumerGroupService;
 import com.michelin.ns4kafka.services.NamespaceService;
@@ -25,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -332,4 +335,134 @@ class ConsumerGroupControllerTest {
 
         assertEquals("Assignments can only be reset if the consumer group \"groupID\" is inactive, but the current state is active.", result.getMessage());
     }
+
+    /**
+     * Assert the consumer group statuses of the namespace are listed
+     */
+    @Test
+    void list() throws ExecutionException, InterruptedException {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("test")
+                        .cluster("local")
+                        .build())
+                .build();
+
+        ConsumerGroupStatus consumerGroupStatus = ConsumerGroupStatus.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("groupID")
+                        .build())
+                .spec(ConsumerGroupStatus.ConsumerGroupStatusSpec.builder()
+                        .state("Stable")
+                        .totalLag(10L)
+                        .partitions(List.of())
+                        .build())
+                .build();
+
+        when(namespaceService.findByName("test"))
+                .thenReturn(Optional.of(ns));
+        when(consumerGroupService.listConsumerGroupStatuses(ns))
+                .thenReturn(List.of(consumerGroupStatus));
+
+        List<ConsumerGroupStatus> result = consumerGroupController.list("test");
+
+        assertEquals(1, result.size());
+        assertEquals("groupID", result.get(0).getMetadata().getName());
+        assertEquals(10L, result.get(0).getSpec().getTotalLag());
+    }
+
+    /**
+     * Assert the offsets of several consumer groups are reset at once, and the consumer groups that failed are reported
+     * @throws InterruptedException Interrupted exception thrown
+     * @throws ExecutionException Execution exception thrown
+     */
+    @Test
+    void bulkResetSuccess() throws InterruptedException, ExecutionException {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("test")
+                        .cluster("local")
+                        .build())
+                .build();
+
+        ConsumerGroupBulkResetOffsets bulkResetOffsets = ConsumerGroupBulkResetOffsets.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("replay")
+                        .build())
+                .spec(ConsumerGroupBulkResetOffsets.ConsumerGroupBulkResetOffsetsSpec.builder()
+                        .consumerGroups(List.of("group1", "group2", "group1"))
+                        .topics(List.of("topic1"))
+                        .method(ResetOffsetsMethod.TO_EARLIEST)
+                        .build())
+                .build();
+
+        TopicPartition topicPartition1 = new TopicPartition("topic1", 0);
+        Map<String, Map<TopicPartition, Long>> preparedOffsets = Map.of(
+                "group1", Map.of(topicPartition1, 5L),
+                "group2", Map.of(topicPartition1, 5L));
+
+        when(namespaceService.findByName("test"))
+                .thenReturn(Optional.of(ns));
+        when(consumerGroupService.validateBulkResetOffsets(bulkResetOffsets))
+                .thenReturn(new ArrayList<>());
+        when(consumerGroupService.isNamespaceOwnerOfConsumerGroup(eq("test"), anyString()))
+                .thenReturn(true);
+        when(consumerGroupService.getConsumerGroupStatuses(ns, List.of("group1", "group2")))
+                .thenReturn(Map.of("group1", "Empty", "group2", "Dead"));
+        when(consumerGroupService.prepareBulkOffsetsToReset(ns, List.of("group1", "group2"), List.of("topic1"), ResetOffsetsMethod.TO_EARLIEST, null))
+                .thenReturn(preparedOffsets);
+        when(securityService.username()).thenReturn(Optional.of("test-user"));
+        when(securityService.hasRole(ResourceBasedSecurityRule.IS_ADMIN)).thenReturn(false);
+        doNothing().when(applicationEventPublisher).publishEvent(any());
+        when(consumerGroupService.alterConsumerGroupsOffsets(ns, preparedOffsets))
+                .thenReturn(Map.of("group2", "The coordinator is not available."));
+
+        List<ConsumerGroupResetOffsetsResponse> result = consumerGroupController.bulkResetOffsets("test", bulkResetOffsets, false);
+
+        assertEquals(2, result.size());
+        assertEquals(List.of("group1", "group2"), result.stream().map(response -> response.getSpec().getConsumerGroup()).sorted().toList());
+        assertEquals(Map.of("group2", "The coordinator is not available."), result.stream()
+                .filter(response -> response.getSpec().getError() != null)
+                .collect(Collectors.toMap(response -> response.getSpec().getConsumerGroup(), response -> response.getSpec().getError())));
+        verify(consumerGroupService, times(1)).alterConsumerGroupsOffsets(ns, preparedOffsets);
+    }
+
+    /**
+     * Assert the bulk offsets reset is rejected when a consumer group is active
+     */
+    @Test
+    void bulkResetValidationErrorConsumerGroupActive() throws InterruptedException, ExecutionException {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("test")
+                        .cluster("local")
+                        .build())
+                .build();
+
+        ConsumerGroupBulkResetOffsets bulkResetOffsets = ConsumerGroupBulkResetOffsets.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("replay")
+                        .build())
+                .spec(ConsumerGroupBulkResetOffsets.ConsumerGroupBulkResetOffsetsSpec.builder()
+                        .consumerGroups(List.of("group1", "group2"))
+                        .topics(List.of("*"))
+                        .method(ResetOffsetsMethod.TO_LATEST)
+                        .build())
+                .build();
+
+        when(namespaceService.findByName("test"))
+                .thenReturn(Optional.of(ns));
+        when(consumerGroupService.validateBulkResetOffsets(bulkResetOffsets))
+                .thenReturn(new ArrayList<>());
+        when(consumerGroupService.isNamespaceOwnerOfConsumerGroup(eq("test"), anyString()))
+                .thenReturn(true);
+        when(consumerGroupService.getConsumerGroupStatuses(ns, List.of("group1", "group2")))
+                .thenReturn(Map.of("group1", "Empty", "group2", "Stable"));
+
+        IllegalStateException result = assertThrows(IllegalStateException.class,
+                () -> consumerGroupController.bulkResetOffsets("test", bulkResetOffsets, false));
+
+        assertEquals("Assignments can only be reset if the consumer groups are inactive, but the following consumer groups are active: group2.", result.getMessage());
+        verify(consumerGroupService, never()).alterConsumerGroupsOffsets(any(), anyMap());
+    }
 }
@@ -1,5 +1,6 @@
 package com.michelin.ns4kafka.controllers;
 
+import com.michelin.ns4kafka.utils.exceptions.ClusterUnavailableException;
 import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
 import io.micronaut.http.HttpMethod;
 import io.micronaut.http.HttpRequest;
@@ -74,6 +75,17 @@ class ExceptionHandlerControllerTest {
         Assertions.assertEquals(HttpStatus.UNAUTHORIZED.getCode(), status.getCode());
     }
 
+    @Test
+    void clusterUnavailableError() {
+        var response = exceptionHandlerController.error(HttpRequest.create(HttpMethod.POST, "local"),
+                new ClusterUnavailableException("local", "Circuit breaker is OPEN"));
+        var status = response.body();
+
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatus());
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE.getCode(), status.getCode());
+        Assertions.assertEquals("Circuit breaker is OPEN", status.getDetails().getCauses().get(0));
+    }
+
     @Test
     void anyError() {
         var response = exceptionHandlerController.error(HttpRequest.create(HttpMethod.POST, "local"),
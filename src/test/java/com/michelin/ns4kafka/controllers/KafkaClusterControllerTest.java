@@ -0,0 +1,55 @@
+package com.michelin.ns4kafka.controllers;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import com.michelin.ns4kafka.models.KafkaClusterStatus;
+import com.michelin.ns4kafka.services.admin.AdminGateway;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaClusterControllerTest {
+    @Mock
+    ApplicationContext applicationContext;
+
+    @Mock
+    AdminGateway localAdminGateway;
+
+    @Mock
+    AdminGateway remoteAdminGateway;
+
+    @InjectMocks
+    KafkaClusterController kafkaClusterController;
+
+    /**
+     * Validate the circuit state of each Kafka cluster is listed
+     */
+    @Test
+    void listStatuses() {
+        kafkaClusterController.kafkaAsyncExecutorConfigs = List.of(new KafkaAsyncExecutorConfig("local"),
+                new KafkaAsyncExecutorConfig("remote"));
+        when(applicationContext.getBean(AdminGateway.class, Qualifiers.byName("local"))).thenReturn(localAdminGateway);
+        when(applicationContext.getBean(AdminGateway.class, Qualifiers.byName("remote"))).thenReturn(remoteAdminGateway);
+        when(localAdminGateway.getCircuitState()).thenReturn(AdminGateway.CircuitState.CLOSED);
+        when(remoteAdminGateway.getCircuitState()).thenReturn(AdminGateway.CircuitState.OPEN);
+
+        List<KafkaClusterStatus> actual = kafkaClusterController.listStatuses();
+
+        Assertions.assertEquals(2, actual.size());
+        Assertions.assertEquals("local", actual.get(0).getMetadata().getName());
+        Assertions.assertEquals(AdminGateway.CircuitState.CLOSED, actual.get(0).getSpec().getCircuitState());
+        Assertions.assertTrue(actual.get(0).getSpec().isAvailable());
+        Assertions.assertEquals("remote", actual.get(1).getMetadata().getName());
+        Assertions.assertEquals(AdminGateway.CircuitState.OPEN, actual.get(1).getSpec().getCircuitState());
+        Assertions.assertFalse(actual.get(1).getSpec().isAvailable());
+    }
+}
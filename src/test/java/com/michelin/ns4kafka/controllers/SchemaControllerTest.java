@@ -12,6 +12,7 @@ import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
 import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.http.HttpStatus;
 import io.micronaut.security.utils.SecurityService;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.core.Single;
 import org.junit.jupiter.api.Test;
@@ -82,6 +83,7 @@ class SchemaControllerTest {
         when(schemaService.validateSchemaCompatibility("local", schema)).thenReturn(Single.just(List.of()));
         when(schemaService.getLatestSubject(namespace, schema.getMetadata().getName()))
                 .thenReturn(Maybe.just(schema));
+        when(schemaService.isSameAsLatest(namespace, schema, schema)).thenReturn(Single.just(false));
         when(schemaService.register(namespace, schema)).thenReturn(Single.just(2));
         when(securityService.username()).thenReturn(Optional.of("test-user"));
         when(securityService.hasRole(ResourceBasedSecurityRule.IS_ADMIN)).thenReturn(false);
@@ -107,6 +109,7 @@ class SchemaControllerTest {
         when(schemaService.isNamespaceOwnerOfSubject(namespace, schema.getMetadata().getName())).thenReturn(true);
         when(schemaService.validateSchemaCompatibility("local", schema)).thenReturn(Single.just(List.of()));
         when(schemaService.getLatestSubject(namespace, schema.getMetadata().getName())).thenReturn(Maybe.just(schema));
+        when(schemaService.isSameAsLatest(namespace, schema, schema)).thenReturn(Single.just(false));
         when(schemaService.register(namespace, schema)).thenReturn(Single.just(1));
 
         schemaController.apply("myNamespace", schema, false)
@@ -116,6 +119,28 @@ class SchemaControllerTest {
                         && response.getBody().get().getMetadata().getName().equals("prefix.subject-value"));
     }
 
+    /**
+     * Test the schema creation when the schema is the same as the latest version
+     * The response should contain an "unchanged" header, without validating nor registering the schema
+     */
+    @Test
+    void applyUnchangedSameAsLatest() {
+        Namespace namespace = buildNamespace();
+        Schema schema = buildSchema();
+
+        when(namespaceService.findByName("myNamespace")).thenReturn(Optional.of(namespace));
+        when(schemaService.isNamespaceOwnerOfSubject(namespace, schema.getMetadata().getName())).thenReturn(true);
+        when(schemaService.getLatestSubject(namespace, schema.getMetadata().getName())).thenReturn(Maybe.just(schema));
+        when(schemaService.isSameAsLatest(namespace, schema, schema)).thenReturn(Single.just(true));
+
+        schemaController.apply("myNamespace", schema, false)
+                .test()
+                .assertValue(response -> Objects.equals(response.header("X-Ns4kafka-Result"), "unchanged"));
+
+        verify(schemaService, never()).validateSchemaCompatibility("local", schema);
+        verify(schemaService, never()).register(namespace, schema);
+    }
+
     /**
      * Test the schema creation when the subject has wrong format
      */
@@ -167,6 +192,7 @@ class SchemaControllerTest {
 
         when(namespaceService.findByName("myNamespace")).thenReturn(Optional.of(namespace));
         when(schemaService.isNamespaceOwnerOfSubject(namespace, schema.getMetadata().getName())).thenReturn(true);
+        when(schemaService.getLatestSubject(namespace, schema.getMetadata().getName())).thenReturn(Maybe.empty());
         when(schemaService.validateSchemaCompatibility("local", schema)).thenReturn(Single.just(List.of()));
 
         schemaController.apply("myNamespace", schema, true)
@@ -188,6 +214,7 @@ class SchemaControllerTest {
 
         when(namespaceService.findByName("myNamespace")).thenReturn(Optional.of(namespace));
         when(schemaService.isNamespaceOwnerOfSubject(namespace, schema.getMetadata().getName())).thenReturn(true);
+        when(schemaService.getLatestSubject(namespace, schema.getMetadata().getName())).thenReturn(Maybe.empty());
         when(schemaService.validateSchemaCompatibility("local", schema)).thenReturn(Single.just(List.of("Not compatible")));
 
         schemaController.apply("myNamespace", schema, true)
@@ -217,6 +244,22 @@ class SchemaControllerTest {
             .assertValue(schemas -> schemas.get(0).getMetadata().getName().equals("prefix.subject-value"));
     }
 
+    /**
+     * Test to get all schemas of namespace with their details
+     */
+    @Test
+    void listExpanded() {
+        Namespace namespace = buildNamespace();
+        Schema schema = buildSchema();
+
+        when(namespaceService.findByName("myNamespace")).thenReturn(Optional.of(namespace));
+        when(schemaService.findAllExpandedForNamespace(namespace)).thenReturn(Flowable.just(schema));
+
+        schemaController.listExpanded("myNamespace")
+                .test()
+                .assertValue(response -> response.getSpec().getVersion() == 1);
+    }
+
     /**
      * Test to get a subject by namespace and subject
      */
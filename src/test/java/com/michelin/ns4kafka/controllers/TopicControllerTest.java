@@ -6,6 +6,7 @@ import com.michelin.ns4kafka.models.Namespace;
 import com.michelin.ns4kafka.models.Namespace.NamespaceSpec;
 import com.michelin.ns4kafka.models.ObjectMeta;
 import com.michelin.ns4kafka.models.Topic;
+import com.michelin.ns4kafka.models.TopicStats;
 import com.michelin.ns4kafka.security.ResourceBasedSecurityRule;
 import com.michelin.ns4kafka.services.NamespaceService;
 import com.michelin.ns4kafka.services.ResourceQuotaService;
@@ -16,6 +17,7 @@ import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
 import io.micronaut.security.utils.SecurityService;
+import io.reactivex.rxjava3.core.Flowable;
 import org.apache.kafka.common.TopicPartition;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -283,6 +285,48 @@ class TopicControllerTest {
         assertEquals("test.topic", actual.getMetadata().getName());
     }
 
+    /**
+     * Validate topic creation fails when the name is reserved for the operations on several topics
+     * @throws InterruptedException Any interrupted exception
+     * @throws ExecutionException Any execution exception
+     * @throws TimeoutException Any timeout exception
+     */
+    @Test
+    void createNewTopicReservedName() throws InterruptedException, ExecutionException, TimeoutException {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("test")
+                        .cluster("local")
+                        .build())
+                .spec(NamespaceSpec.builder()
+                        .topicValidator(TopicValidator.makeDefault())
+                        .build())
+                .build();
+
+        Topic topic = Topic.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("_")
+                        .build())
+                .spec(Topic.TopicSpec.builder()
+                        .replicationFactor(3)
+                        .partitions(3)
+                        .configs(Map.of("cleanup.policy","delete",
+                                        "min.insync.replicas", "2",
+                                        "retention.ms", "60000"))
+                        .build())
+                .build();
+
+        when(namespaceService.findByName("test"))
+                .thenReturn(Optional.of(ns));
+        when(topicService.isNamespaceOwnerOfTopic(any(), any())).thenReturn(true);
+        when(topicService.findByName(ns, "_")).thenReturn(Optional.empty());
+
+        ResourceValidationException actual = Assertions.assertThrows(ResourceValidationException.class,
+                () -> topicController.apply("test", topic, false));
+        Assertions.assertTrue(actual.getValidationErrors().contains("Invalid value _ for name: Value is reserved for the operations on several topics."));
+        verify(topicService, never()).create(any());
+    }
+
     /**
      * Validate topic update
      * @throws InterruptedException Any interrupted exception
@@ -958,4 +1002,186 @@ class TopicControllerTest {
                 List.of("Topic test.topic collides with existing topics: test_topic."),
                 actual.getValidationErrors());
     }
+
+    /**
+     * Validate the statistics of an owned topic are returned
+     */
+    @Test
+    void getStats() throws InterruptedException, ExecutionException, TimeoutException {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("test")
+                        .cluster("local")
+                        .build())
+                .build();
+
+        Topic topic = Topic.builder()
+                .metadata(ObjectMeta.builder().name("topic.topic1").build())
+                .build();
+
+        TopicStats topicStats = TopicStats.builder()
+                .metadata(ObjectMeta.builder().name("topic.topic1").build())
+                .spec(TopicStats.TopicStatsSpec.builder()
+                        .records(10)
+                        .partitions(List.of())
+                        .build())
+                .build();
+
+        when(namespaceService.findByName("test"))
+                .thenReturn(Optional.of(ns));
+        when(topicService.findByName(ns, "topic.topic1"))
+                .thenReturn(Optional.of(topic));
+        when(topicService.getTopicStats(ns, List.of(topic)))
+                .thenReturn(List.of(topicStats));
+
+        Optional<TopicStats> actual = topicController.getStats("test", "topic.topic1");
+
+        Assertions.assertTrue(actual.isPresent());
+        assertEquals(10, actual.get().getSpec().getRecords());
+    }
+
+    /**
+     * Validate no statistics are returned for a topic not owned by the namespace
+     */
+    @Test
+    void getStatsNotOwned() throws InterruptedException, ExecutionException, TimeoutException {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("test")
+                        .cluster("local")
+                        .build())
+                .build();
+
+        when(namespaceService.findByName("test"))
+                .thenReturn(Optional.of(ns));
+        when(topicService.findByName(ns, "topic.topic1"))
+                .thenReturn(Optional.empty());
+
+        Assertions.assertTrue(topicController.getStats("test", "topic.topic1").isEmpty());
+        verify(topicService, never()).getTopicStats(any(), any());
+    }
+
+    /**
+     * Validate the statistics of all the topics of the namespace are returned
+     */
+    @Test
+    void listStats() throws InterruptedException, ExecutionException, TimeoutException {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("test")
+                        .cluster("local")
+                        .build())
+                .build();
+
+        List<Topic> topics = List.of(
+                Topic.builder().metadata(ObjectMeta.builder().name("topic.topic1").build()).build(),
+                Topic.builder().metadata(ObjectMeta.builder().name("topic.topic2").build()).build());
+
+        when(namespaceService.findByName("test"))
+                .thenReturn(Optional.of(ns));
+        when(topicService.findAllForNamespace(ns))
+                .thenReturn(topics);
+        when(topicService.getTopicStats(ns, topics))
+                .thenReturn(List.of(
+                        TopicStats.builder().metadata(ObjectMeta.builder().name("topic.topic1").build()).build(),
+                        TopicStats.builder().metadata(ObjectMeta.builder().name("topic.topic2").build()).build()));
+
+        assertEquals(2, topicController.listStats("test").size());
+    }
+
+    /**
+     * Validate delete records on all the topics of a prefix
+     * @throws InterruptedException Any interrupted exception
+     * @throws ExecutionException Any execution exception
+     */
+    @Test
+    void bulkDeleteRecordsByPrefix() throws ExecutionException, InterruptedException {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("test")
+                        .cluster("local")
+                        .build())
+                .build();
+
+        Topic toEmpty1 = Topic.builder().metadata(ObjectMeta.builder().name("topic.empty1").build()).build();
+        Topic toEmpty2 = Topic.builder().metadata(ObjectMeta.builder().name("topic.empty2").build()).build();
+        Topic other = Topic.builder().metadata(ObjectMeta.builder().name("topic.other").build()).build();
+
+        Map<TopicPartition, Long> partitionsToDelete = Map.of(
+                new TopicPartition("topic.empty1", 0), 100L,
+                new TopicPartition("topic.empty2", 0), 50L);
+
+        when(namespaceService.findByName("test"))
+                .thenReturn(Optional.of(ns));
+        when(topicService.findAllForNamespace(ns))
+                .thenReturn(List.of(toEmpty1, toEmpty2, other));
+        when(topicService.validateDeleteRecordsTopic(any()))
+                .thenReturn(List.of());
+        when(topicService.prepareBulkRecordsToDelete(ArgumentMatchers.eq(ns), anyList()))
+                .thenReturn(partitionsToDelete);
+        when(topicService.bulkDeleteRecords(ns, partitionsToDelete))
+                .thenReturn(Flowable.fromIterable(partitionsToDelete.entrySet())
+                        .map(entry -> TopicService.buildDeleteRecordsResponse(entry.getKey(), entry.getValue(), null)));
+        when(securityService.username()).thenReturn(Optional.of("test-user"));
+        when(securityService.hasRole(ResourceBasedSecurityRule.IS_ADMIN)).thenReturn(false);
+        doNothing().when(applicationEventPublisher).publishEvent(any());
+
+        List<DeleteRecordsResponse> actual = topicController.bulkDeleteRecords("test", null, "topic.empty", false)
+                .toList()
+                .blockingGet();
+
+        Assertions.assertEquals(2, actual.size());
+        verify(topicService).prepareBulkRecordsToDelete(ArgumentMatchers.eq(ns),
+                ArgumentMatchers.argThat(topics -> topics.size() == 2 && !topics.contains(other)));
+        verify(applicationEventPublisher, times(2)).publishEvent(any());
+    }
+
+    /**
+     * Validate delete records fails on several topics when one of them is not owned or compacted
+     */
+    @Test
+    void bulkDeleteRecordsValidationErrors() {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("test")
+                        .cluster("local")
+                        .build())
+                .build();
+
+        Topic compacted = Topic.builder().metadata(ObjectMeta.builder().name("topic.compacted").build()).build();
+
+        when(namespaceService.findByName("test"))
+                .thenReturn(Optional.of(ns));
+        when(topicService.findAllForNamespace(ns))
+                .thenReturn(List.of(compacted));
+        when(topicService.validateDeleteRecordsTopic(compacted))
+                .thenReturn(List.of("Cannot delete records on a compacted topic. Please delete and recreate the topic."));
+
+        ResourceValidationException actual = Assertions.assertThrows(ResourceValidationException.class,
+                () -> topicController.bulkDeleteRecords("test", List.of("topic.compacted", "topic.unknown"), null, false));
+
+        Assertions.assertEquals(List.of("Namespace not owner of this topic \"topic.unknown\".",
+                "topic.compacted: Cannot delete records on a compacted topic. Please delete and recreate the topic."), actual.getValidationErrors());
+    }
+
+    /**
+     * Validate delete records fails when neither topics nor a prefix are given
+     */
+    @Test
+    void bulkDeleteRecordsNoTopics() {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("test")
+                        .cluster("local")
+                        .build())
+                .build();
+
+        when(namespaceService.findByName("test"))
+                .thenReturn(Optional.of(ns));
+
+        ResourceValidationException actual = Assertions.assertThrows(ResourceValidationException.class,
+                () -> topicController.bulkDeleteRecords("test", List.of(), null, false));
+
+        Assertions.assertEquals(List.of("Either topics or a prefix must be given."), actual.getValidationErrors());
+    }
 }
@@ -0,0 +1,155 @@
+package com.michelin.ns4kafka.security;
+
+import com.michelin.ns4kafka.models.Namespace;
+import com.michelin.ns4kafka.models.ObjectMeta;
+import com.michelin.ns4kafka.models.RoleBinding;
+import com.michelin.ns4kafka.repositories.NamespaceRepository;
+import com.michelin.ns4kafka.repositories.RoleBindingRepository;
+import com.michelin.ns4kafka.repositories.kafka.KafkaStoreEvent;
+import io.micronaut.http.HttpMethod;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthorizationIndexTest {
+    @Mock
+    RoleBindingRepository roleBindingRepository;
+
+    @Mock
+    NamespaceRepository namespaceRepository;
+
+    @InjectMocks
+    AuthorizationIndex authorizationIndex;
+
+    /**
+     * Test the role bindings of a group are read once, then served from the index
+     */
+    @Test
+    void isAllowedIndexed() {
+        when(roleBindingRepository.findAllForGroups(List.of("group1")))
+                .thenReturn(List.of(buildRoleBinding("rb1", List.of("topics", "connectors"), List.of(RoleBinding.Verb.GET)),
+                        buildRoleBinding("rb2", List.of("topics"), List.of(RoleBinding.Verb.POST))));
+
+        Assertions.assertTrue(authorizationIndex.isAllowed(List.of("group1"), "test", "topics", HttpMethod.GET));
+        Assertions.assertTrue(authorizationIndex.isAllowed(List.of("group1"), "test", "topics", HttpMethod.POST));
+        Assertions.assertTrue(authorizationIndex.isAllowed(List.of("group1"), "test", "connectors", HttpMethod.GET));
+        Assertions.assertFalse(authorizationIndex.isAllowed(List.of("group1"), "test", "connectors", HttpMethod.POST));
+        Assertions.assertFalse(authorizationIndex.isAllowed(List.of("group1"), "test", "topics", HttpMethod.DELETE));
+        Assertions.assertFalse(authorizationIndex.isAllowed(List.of("group1"), "other", "topics", HttpMethod.GET));
+        Assertions.assertFalse(authorizationIndex.isAllowed(List.of("group1"), "test", "topics", HttpMethod.HEAD));
+
+        verify(roleBindingRepository, times(1)).findAllForGroups(List.of("group1"));
+    }
+
+    /**
+     * Test any of the groups of the user can grant the access
+     */
+    @Test
+    void isAllowedSecondGroup() {
+        when(roleBindingRepository.findAllForGroups(List.of("group1")))
+                .thenReturn(List.of());
+        when(roleBindingRepository.findAllForGroups(List.of("group2")))
+                .thenReturn(List.of(buildRoleBinding("rb1", List.of("topics"), List.of(RoleBinding.Verb.GET))));
+
+        Assertions.assertTrue(authorizationIndex.isAllowed(List.of("group1", "group2"), "test", "topics", HttpMethod.GET));
+    }
+
+    /**
+     * Test a role binding change drops the index of its group only
+     */
+    @Test
+    void onRoleBindingChange() {
+        RoleBinding roleBinding = buildRoleBinding("rb1", List.of("topics"), List.of(RoleBinding.Verb.GET));
+        when(roleBindingRepository.findAllForGroups(List.of("group1")))
+                .thenReturn(List.of())
+                .thenReturn(List.of(roleBinding));
+        when(roleBindingRepository.findAllForGroups(List.of("group2")))
+                .thenReturn(List.of());
+
+        Assertions.assertFalse(authorizationIndex.isAllowed(List.of("group1", "group2"), "test", "topics", HttpMethod.GET));
+
+        authorizationIndex.onApplicationEvent(new KafkaStoreEvent("test-rb1", null, roleBinding));
+
+        Assertions.assertTrue(authorizationIndex.isAllowed(List.of("group1"), "test", "topics", HttpMethod.GET));
+        Assertions.assertFalse(authorizationIndex.isAllowed(List.of("group2"), "test", "topics", HttpMethod.GET));
+        verify(roleBindingRepository, times(2)).findAllForGroups(List.of("group1"));
+        verify(roleBindingRepository, times(1)).findAllForGroups(List.of("group2"));
+    }
+
+    /**
+     * Test an existing namespace is kept until it is deleted, and an unknown one is looked up again
+     */
+    @Test
+    void namespaceExists() {
+        Namespace namespace = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("test")
+                        .build())
+                .build();
+
+        when(namespaceRepository.findByName("test"))
+                .thenReturn(Optional.of(namespace))
+                .thenReturn(Optional.empty());
+        when(namespaceRepository.findByName("unknown"))
+                .thenReturn(Optional.empty());
+
+        Assertions.assertTrue(authorizationIndex.namespaceExists("test"));
+        Assertions.assertTrue(authorizationIndex.namespaceExists("test"));
+        Assertions.assertFalse(authorizationIndex.namespaceExists("unknown"));
+        Assertions.assertFalse(authorizationIndex.namespaceExists("unknown"));
+
+        authorizationIndex.onApplicationEvent(new KafkaStoreEvent("test", namespace, null));
+
+        Assertions.assertFalse(authorizationIndex.namespaceExists("test"));
+        verify(namespaceRepository, times(2)).findByName("test");
+        verify(namespaceRepository, times(2)).findByName("unknown");
+    }
+
+    /**
+     * Test the bound groups and their version are computed once, then again when a role binding changes
+     */
+    @Test
+    void findBoundGroups() {
+        RoleBinding roleBinding = buildRoleBinding("rb1", List.of("topics"), List.of(RoleBinding.Verb.GET));
+        when(roleBindingRepository.findAll())
+                .thenReturn(List.of(roleBinding))
+                .thenReturn(List.of());
+
+        Assertions.assertEquals(List.of("group1"), authorizationIndex.findBoundGroups(List.of("group2", "group1")));
+        String version = authorizationIndex.getBoundGroupsVersion();
+
+        authorizationIndex.onApplicationEvent(new KafkaStoreEvent("test-rb1", roleBinding, null));
+
+        Assertions.assertEquals(List.of(), authorizationIndex.findBoundGroups(List.of("group2", "group1")));
+        Assertions.assertNotEquals(version, authorizationIndex.getBoundGroupsVersion());
+        verify(roleBindingRepository, times(2)).findAll();
+    }
+
+    private RoleBinding buildRoleBinding(String name, List<String> resourceTypes, List<RoleBinding.Verb> verbs) {
+        return RoleBinding.builder()
+                .metadata(ObjectMeta.builder()
+                        .name(name)
+                        .namespace("test")
+                        .build())
+                .spec(RoleBinding.RoleBindingSpec.builder()
+                        .role(RoleBinding.Role.builder()
+                                .resourceTypes(resourceTypes)
+                                .verbs(verbs)
+                                .build())
+                        .subject(RoleBinding.Subject.builder()
+                                .subjectType(RoleBinding.SubjectType.GROUP)
+                                .subjectName("group1")
+                                .build())
+                        .build())
+                .build();
+    }
+}
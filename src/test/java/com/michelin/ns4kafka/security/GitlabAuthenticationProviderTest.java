@@ -21,6 +21,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.reactivestreams.Publisher;
 
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Mockito.when;
@@ -72,6 +73,8 @@ class GitlabAuthenticationProviderTest {
                 .thenReturn(List.of(roleBinding));
         when(resourceBasedSecurityRule.computeRolesFromGroups(groups))
                 .thenReturn(List.of());
+        when(resourceBasedSecurityRule.computeAttributesFromGroups(groups))
+                .thenReturn(Map.of("groups", List.of("group-1"), ResourceBasedSecurityRule.GROUPS_VERSION, "1"));
 
         TestSubscriber<AuthenticationResponse> subscriber = new TestSubscriber<>();
         Publisher<AuthenticationResponse> authenticationResponsePublisher = gitlabAuthenticationProvider.authenticate(null, authenticationRequest);
@@ -88,7 +91,8 @@ class GitlabAuthenticationProviderTest {
 
         Authentication actualUserDetails = actual.getAuthentication().get();
         Assertions.assertEquals("email", actualUserDetails.getName());
-        Assertions.assertIterableEquals(groups, (List<String>) actualUserDetails.getAttributes().get( "groups"));
+        Assertions.assertIterableEquals(List.of("group-1"), (List<String>) actualUserDetails.getAttributes().get( "groups"));
+        Assertions.assertEquals("1", actualUserDetails.getAttributes().get(ResourceBasedSecurityRule.GROUPS_VERSION));
         Assertions.assertIterableEquals(List.of(), actualUserDetails.getRoles(),"User has no custom roles");
     }
 
@@ -110,6 +114,8 @@ class GitlabAuthenticationProviderTest {
                 .thenReturn("group-admin");
         when(resourceBasedSecurityRule.computeRolesFromGroups(groups))
                 .thenReturn(List.of(ResourceBasedSecurityRule.IS_ADMIN));
+        when(resourceBasedSecurityRule.computeAttributesFromGroups(groups))
+                .thenReturn(Map.of("groups", List.of("group-admin"), ResourceBasedSecurityRule.GROUPS_VERSION, "1"));
 
         TestSubscriber<AuthenticationResponse> subscriber = new TestSubscriber<>();
         Publisher<AuthenticationResponse> authenticationResponsePublisher = gitlabAuthenticationProvider.authenticate(null, authenticationRequest);
@@ -127,7 +133,7 @@ class GitlabAuthenticationProviderTest {
 
         Authentication  actualUserDetails = actual.getAuthentication().get();
         Assertions.assertEquals("email", actualUserDetails.getName());
-        Assertions.assertIterableEquals(groups, (List<String>) actualUserDetails.getAttributes().get("groups"));
+        Assertions.assertIterableEquals(List.of("group-admin"), (List<String>) actualUserDetails.getAttributes().get("groups"));
         Assertions.assertIterableEquals(List.of(ResourceBasedSecurityRule.IS_ADMIN), actualUserDetails.getRoles(),"User has custom roles");
     }
 
@@ -5,6 +5,7 @@ import com.michelin.ns4kafka.security.gitlab.GitlabAuthenticationService;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.MutableHttpResponse;
 import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.processors.PublishProcessor;
 import io.reactivex.rxjava3.subscribers.TestSubscriber;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -112,4 +113,62 @@ class GitlabAuthenticationServiceTest {
         List<String> actual = subscriber.values();
         Assertions.assertIterableEquals(List.of("group1","group2","group3","group4","group5","group6"), actual);
     }
+
+    @Test
+    void findGroupsPagesFetchedConcurrently(){
+        String token = "v4l1d_70k3n";
+        MutableHttpResponse<List<Map<String, Object>>> pageOneResponse = HttpResponse
+                .ok(List.<Map<String, Object>>of(Map.of("full_path", "group1")))
+                .header("X-Next-Page","2")
+                .header("X-Total-Pages","3");
+
+        MutableHttpResponse<List<Map<String, Object>>> pageTwoResponse = HttpResponse
+                .ok(List.<Map<String, Object>>of(Map.of("full_path", "group2")))
+                .header("X-Next-Page","3")
+                .header("X-Total-Pages","3");
+
+        MutableHttpResponse<List<Map<String, Object>>> pageThreeResponse = HttpResponse
+                .ok(List.<Map<String, Object>>of(Map.of("full_path", "group3")))
+                .header("X-Total-Pages","3");
+
+        PublishProcessor<HttpResponse<List<Map<String, Object>>>> pageTwo = PublishProcessor.create();
+        Mockito.when(gitlabApiClient.getGroupsPage(token,1)).thenReturn(Flowable.just(pageOneResponse));
+        Mockito.when(gitlabApiClient.getGroupsPage(token,2)).thenReturn(pageTwo);
+        Mockito.when(gitlabApiClient.getGroupsPage(token,3)).thenReturn(Flowable.just(pageThreeResponse));
+
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        gitlabAuthenticationService.findAllGroups(token).subscribe(subscriber);
+
+        // The third page is requested while the second one is still pending, but emitted after it
+        Mockito.verify(gitlabApiClient).getGroupsPage(token, 3);
+        subscriber.assertValues("group1");
+
+        pageTwo.onNext(pageTwoResponse);
+        pageTwo.onComplete();
+        subscriber.awaitDone(1L, TimeUnit.SECONDS);
+
+        subscriber.assertComplete();
+        subscriber.assertValues("group1", "group2", "group3");
+    }
+
+    @Test
+    void findGroupsPagesWithoutTotal(){
+        String token = "v4l1d_70k3n";
+        MutableHttpResponse<List<Map<String, Object>>> pageOneResponse = HttpResponse
+                .ok(List.<Map<String, Object>>of(Map.of("full_path", "group1")))
+                .header("X-Next-Page","2");
+
+        MutableHttpResponse<List<Map<String, Object>>> pageTwoResponse = HttpResponse
+                .ok(List.<Map<String, Object>>of(Map.of("full_path", "group2")));
+
+        Mockito.when(gitlabApiClient.getGroupsPage(token,1)).thenReturn(Flowable.just(pageOneResponse));
+        Mockito.when(gitlabApiClient.getGroupsPage(token,2)).thenReturn(Flowable.just(pageTwoResponse));
+
+        TestSubscriber<String> subscriber = new TestSubscriber<>();
+        gitlabAuthenticationService.findAllGroups(token).subscribe(subscriber);
+        subscriber.awaitDone(1L, TimeUnit.SECONDS);
+
+        subscriber.assertComplete();
+        subscriber.assertValues("group1", "group2");
+    }
 }
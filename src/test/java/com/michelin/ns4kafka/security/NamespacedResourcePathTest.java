@@ -0,0 +1,114 @@
+package com.michelin.ns4kafka.security;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+class NamespacedResourcePathTest {
+    /**
+     * The regex formerly used by the {@link ResourceBasedSecurityRule}
+     */
+    private static final Pattern NAMESPACED_RESOURCE_PATTERN = Pattern.compile("^\\/api\\/namespaces\\/(?<namespace>[a-zA-Z0-9_-]+)\\/(?<resourceType>[a-z_-]+)(\\/([a-zA-Z0-9_.-]+)(\\/(?<resourceSubtype>[a-z-]+))?)?$");
+
+    private static final String[] SEGMENTS = {"", "api", "namespaces", "ns", "Ns_1", "topics", "connectors", "role-bindings",
+            "consumer-groups", "_", "reset", "restart", "delete-records", "topic.with.dots", "a_b", "A", "9", "sub_type", "%20", " "};
+
+    private static final String CHARACTERS = "azAZ09_-./% ";
+
+    @Test
+    void parseResource() {
+        NamespacedResourcePath actual = NamespacedResourcePath.parse("/api/namespaces/test/topics");
+
+        Assertions.assertEquals("test", actual.getNamespace());
+        Assertions.assertEquals("topics", actual.getResourceType());
+    }
+
+    @Test
+    void parseNamedResource() {
+        NamespacedResourcePath actual = NamespacedResourcePath.parse("/api/namespaces/test/topics/topic.with.dots");
+
+        Assertions.assertEquals("test", actual.getNamespace());
+        Assertions.assertEquals("topics", actual.getResourceType());
+    }
+
+    @Test
+    void parseSubresource() {
+        NamespacedResourcePath actual = NamespacedResourcePath.parse("/api/namespaces/test/consumer-groups/_/reset");
+
+        Assertions.assertEquals("test", actual.getNamespace());
+        Assertions.assertSame("consumer-groups/reset", actual.getResourceType());
+    }
+
+    @Test
+    void parseUnknownSubresource() {
+        NamespacedResourcePath actual = NamespacedResourcePath.parse("/api/namespaces/test/connectors/name/restart");
+
+        Assertions.assertEquals("test", actual.getNamespace());
+        Assertions.assertEquals("connectors/restart", actual.getResourceType());
+    }
+
+    @Test
+    void parseInvalid() {
+        Assertions.assertNull(NamespacedResourcePath.parse("/api/namespaces/test"));
+        Assertions.assertNull(NamespacedResourcePath.parse("/api/namespaces/test/"));
+        Assertions.assertNull(NamespacedResourcePath.parse("/api/namespaces/test/topics/"));
+        Assertions.assertNull(NamespacedResourcePath.parse("/api/namespaces/test/Topics"));
+        Assertions.assertNull(NamespacedResourcePath.parse("/api/namespaces/test/topics/name/sub_type"));
+        Assertions.assertNull(NamespacedResourcePath.parse("/api/namespaces/test/topics/name/reset/more"));
+        Assertions.assertNull(NamespacedResourcePath.parse("/api/namespaces/te.st/topics"));
+        Assertions.assertNull(NamespacedResourcePath.parse("/api/topics"));
+    }
+
+    /**
+     * Test the tokenizer accepts the same paths as the former regex, and extracts the same namespace and resource type
+     */
+    @Test
+    void parseSameAsRegex() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            String path = randomPath(random);
+            Matcher matcher = NAMESPACED_RESOURCE_PATTERN.matcher(path);
+            NamespacedResourcePath actual = NamespacedResourcePath.parse(path);
+
+            if (!matcher.find()) {
+                Assertions.assertNull(actual, path);
+            } else {
+                String resourceSubtype = matcher.group("resourceSubtype");
+                String resourceType = resourceSubtype == null || resourceSubtype.isEmpty()
+                        ? matcher.group("resourceType")
+                        : matcher.group("resourceType") + "/" + resourceSubtype;
+
+                Assertions.assertNotNull(actual, path);
+                Assertions.assertEquals(matcher.group("namespace"), actual.getNamespace(), path);
+                Assertions.assertEquals(resourceType, actual.getResourceType(), path);
+            }
+        }
+    }
+
+    /**
+     * Build a path mostly starting like a namespaced resource path, followed by segments of known or random characters.
+     * Line terminators are left out, the regex accepting them at the end of a path
+     * @param random The random generator
+     * @return The path
+     */
+    private static String randomPath(Random random) {
+        StringBuilder path = new StringBuilder(random.nextInt(10) > 0 ? "/api/namespaces" : "/api");
+        int segments = random.nextInt(6);
+        for (int i = 0; i < segments; i++) {
+            path.append('/');
+            if (random.nextBoolean()) {
+                path.append(SEGMENTS[random.nextInt(SEGMENTS.length)]);
+            } else {
+                int length = random.nextInt(4);
+                for (int j = 0; j < length; j++) {
+                    path.append(CHARACTERS.charAt(random.nextInt(CHARACTERS.length())));
+                }
+            }
+        }
+        return path.toString();
+    }
+}
@@ -10,6 +10,7 @@ import io.micronaut.http.HttpRequest;
 import io.micronaut.security.authentication.Authentication;
 import io.micronaut.security.rules.SecurityRuleResult;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -17,6 +18,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -32,9 +34,17 @@ class ResourceBasedSecurityRuleTest {
     @Mock
     SecurityConfig securityConfig;
 
+    @InjectMocks
+    AuthorizationIndex authorizationIndex;
+
     @InjectMocks
     ResourceBasedSecurityRule resourceBasedSecurityRule;
 
+    @BeforeEach
+    void init() {
+        resourceBasedSecurityRule.authorizationIndex = authorizationIndex;
+    }
+
     @Test
     void checkReturnsUnknownUnauthenticated(){
         SecurityRuleResult actual = resourceBasedSecurityRule.checkSecurity(HttpRequest.GET("/anything"),null);
@@ -284,6 +294,42 @@ class ResourceBasedSecurityRuleTest {
         Assertions.assertEquals(SecurityRuleResult.UNKNOWN, actual);
     }
 
+    @Test
+    void checkReturnsUnknownOutdatedGroupsVersion(){
+        List<String> groups = List.of("group1");
+        Map<String,Object> claims = Map.of("sub","user", "groups", groups, "roles", List.of(), ResourceBasedSecurityRule.GROUPS_VERSION, "outdated");
+        Authentication auth = Authentication.build("user", claims);
+
+        Mockito.when(roleBindingRepository.findAll())
+                .thenReturn(List.of(buildGroupRoleBinding("group1")));
+
+        SecurityRuleResult actual = resourceBasedSecurityRule.checkSecurity(HttpRequest.GET("/api/namespaces/test/connectors"), auth);
+        Assertions.assertEquals(SecurityRuleResult.UNKNOWN, actual);
+    }
+
+    @Test
+    void checkReturnsAllowedComputedAttributes(){
+        Mockito.when(securityConfig.getAdminGroup())
+                .thenReturn("admin-group");
+        Mockito.when(roleBindingRepository.findAll())
+                .thenReturn(List.of(buildGroupRoleBinding("group1"), buildGroupRoleBinding("group3")));
+        Mockito.when(roleBindingRepository.findAllForGroups(List.of("group1")))
+                .thenReturn(List.of(buildGroupRoleBinding("group1")));
+        Mockito.when(namespaceRepository.findByName("test"))
+                .thenReturn(Optional.of(Namespace.builder().build()));
+
+        Map<String,Object> attributes = resourceBasedSecurityRule.computeAttributesFromGroups(List.of("group1", "group2", "admin-group"));
+        Assertions.assertIterableEquals(List.of("group1", "admin-group"), (List<String>) attributes.get("groups"));
+
+        Map<String,Object> claims = new HashMap<>(attributes);
+        claims.put("sub", "user");
+        claims.put("roles", List.of());
+        Authentication auth = Authentication.build("user", claims);
+
+        SecurityRuleResult actual = resourceBasedSecurityRule.checkSecurity(HttpRequest.GET("/api/namespaces/test/connectors"), auth);
+        Assertions.assertEquals(SecurityRuleResult.ALLOWED, actual);
+    }
+
     @Test
     void ComputeRolesNoAdmin() {
         Mockito.when(securityConfig.getAdminGroup())
@@ -301,4 +347,21 @@ class ResourceBasedSecurityRuleTest {
 
         Assertions.assertIterableEquals(List.of(ResourceBasedSecurityRule.IS_ADMIN), actual);
     }
+
+    private RoleBinding buildGroupRoleBinding(String group) {
+        return RoleBinding.builder()
+                .metadata(ObjectMeta.builder().namespace("test")
+                        .build())
+                .spec(RoleBinding.RoleBindingSpec.builder()
+                        .role(RoleBinding.Role.builder()
+                                .resourceTypes(List.of("connectors"))
+                                .verbs(List.of(RoleBinding.Verb.GET))
+                                .build())
+                        .subject(RoleBinding.Subject.builder()
+                                .subjectType(RoleBinding.SubjectType.GROUP)
+                                .subjectName(group)
+                                .build())
+                        .build())
+                .build();
+    }
 }
@@ -0,0 +1,167 @@
+package com.michelin.ns4kafka.security.gitlab;
+
+import com.michelin.ns4kafka.config.SecurityConfig;
+import com.michelin.ns4kafka.models.ObjectMeta;
+import com.michelin.ns4kafka.models.RoleBinding;
+import com.michelin.ns4kafka.security.ResourceBasedSecurityRule;
+import com.michelin.ns4kafka.services.RoleBindingService;
+import io.micronaut.security.authentication.AuthenticationException;
+import io.micronaut.security.authentication.AuthenticationFailed;
+import io.micronaut.security.authentication.AuthenticationFailureReason;
+import io.micronaut.security.authentication.AuthenticationRequest;
+import io.micronaut.security.authentication.AuthenticationResponse;
+import io.micronaut.security.authentication.UsernamePasswordCredentials;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.subscribers.TestSubscriber;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GitlabAuthenticationProviderCacheTest {
+    @Mock
+    GitlabAuthenticationService gitlabAuthenticationService;
+
+    @Mock
+    ResourceBasedSecurityRule resourceBasedSecurityRule;
+
+    @Mock
+    RoleBindingService roleBindingService;
+
+    @Mock
+    SecurityConfig securityConfig;
+
+    @InjectMocks
+    GitlabAuthenticationProvider gitlabAuthenticationProvider;
+
+    AuthenticationRequest<String, String> authenticationRequest = new UsernamePasswordCredentials("username", "53cu23d_70k3n");
+
+    List<String> groups = List.of("group-1", "group-2");
+
+    @BeforeEach
+    void init() {
+        gitlabAuthenticationProvider.cacheTtl = 60000;
+        gitlabAuthenticationProvider.clock = Clock.fixed(Instant.EPOCH, ZoneOffset.UTC);
+
+        RoleBinding roleBinding = RoleBinding.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace-rb1")
+                        .cluster("local")
+                        .build())
+                .spec(RoleBinding.RoleBindingSpec.builder()
+                        .subject(RoleBinding.Subject.builder()
+                                .subjectName("group-1")
+                                .subjectType(RoleBinding.SubjectType.GROUP)
+                                .build())
+                        .build())
+                .build();
+
+        lenient().when(roleBindingService.listByGroups(groups))
+                .thenReturn(List.of(roleBinding));
+        lenient().when(resourceBasedSecurityRule.computeRolesFromGroups(groups))
+                .thenReturn(List.of());
+    }
+
+    /**
+     * Assert the username and groups of a token are served from the cache on the next authentication
+     */
+    @Test
+    void authenticationCached() {
+        when(gitlabAuthenticationService.findUsername(authenticationRequest.getSecret()))
+                .thenReturn(Maybe.just("email"));
+        when(gitlabAuthenticationService.findAllGroups(authenticationRequest.getSecret()))
+                .thenReturn(Flowable.fromIterable(groups));
+
+        assertAuthenticated();
+        assertAuthenticated();
+
+        verify(gitlabAuthenticationService, times(1)).findUsername(authenticationRequest.getSecret());
+        verify(gitlabAuthenticationService, times(1)).findAllGroups(authenticationRequest.getSecret());
+        verify(roleBindingService, times(2)).listByGroups(groups);
+    }
+
+    /**
+     * Assert a cached user is refreshed in the background once half of the cache TTL is elapsed
+     */
+    @Test
+    void authenticationRefreshed() {
+        gitlabAuthenticationProvider.cacheRefresh = true;
+
+        when(gitlabAuthenticationService.findUsername(authenticationRequest.getSecret()))
+                .thenReturn(Maybe.just("email"));
+        when(gitlabAuthenticationService.findAllGroups(authenticationRequest.getSecret()))
+                .thenReturn(Flowable.fromIterable(groups));
+
+        assertAuthenticated();
+        gitlabAuthenticationProvider.clock = Clock.offset(gitlabAuthenticationProvider.clock, Duration.ofMillis(29999));
+        assertAuthenticated();
+        verify(gitlabAuthenticationService, times(1)).findUsername(authenticationRequest.getSecret());
+
+        gitlabAuthenticationProvider.clock = Clock.offset(gitlabAuthenticationProvider.clock, Duration.ofMillis(1));
+        assertAuthenticated();
+        verify(gitlabAuthenticationService, timeout(1000).times(2)).findUsername(authenticationRequest.getSecret());
+    }
+
+    /**
+     * Assert an expired user is fetched again before the authentication
+     */
+    @Test
+    void authenticationExpired() {
+        when(gitlabAuthenticationService.findUsername(authenticationRequest.getSecret()))
+                .thenReturn(Maybe.just("email"));
+        when(gitlabAuthenticationService.findAllGroups(authenticationRequest.getSecret()))
+                .thenReturn(Flowable.fromIterable(groups));
+
+        assertAuthenticated();
+        gitlabAuthenticationProvider.clock = Clock.offset(gitlabAuthenticationProvider.clock, Duration.ofMillis(60000));
+        assertAuthenticated();
+
+        verify(gitlabAuthenticationService, times(2)).findUsername(authenticationRequest.getSecret());
+        verify(gitlabAuthenticationService, times(2)).findAllGroups(authenticationRequest.getSecret());
+    }
+
+    /**
+     * Assert a token without GitLab user fails the authentication
+     */
+    @Test
+    void authenticationUserNotFound() {
+        when(gitlabAuthenticationService.findUsername(authenticationRequest.getSecret()))
+                .thenReturn(Maybe.empty());
+        when(gitlabAuthenticationService.findAllGroups(authenticationRequest.getSecret()))
+                .thenReturn(Flowable.fromIterable(groups));
+
+        TestSubscriber<AuthenticationResponse> subscriber = new TestSubscriber<>();
+        gitlabAuthenticationProvider.authenticate(null, authenticationRequest).subscribe(subscriber);
+        subscriber.awaitDone(1L, TimeUnit.SECONDS);
+
+        subscriber.assertError(AuthenticationException.class);
+        AuthenticationException actual = (AuthenticationException) subscriber.errors().get(0);
+        Assertions.assertEquals(AuthenticationFailureReason.USER_NOT_FOUND,
+                ((AuthenticationFailed) actual.getResponse()).getReason());
+        verify(roleBindingService, never()).listByGroups(any());
+    }
+
+    private void assertAuthenticated() {
+        TestSubscriber<AuthenticationResponse> subscriber = new TestSubscriber<>();
+        gitlabAuthenticationProvider.authenticate(null, authenticationRequest).subscribe(subscriber);
+        subscriber.awaitDone(1L, TimeUnit.SECONDS);
+
+        subscriber.assertComplete();
+        subscriber.assertValueCount(1);
+        Assertions.assertEquals("email", subscriber.values().get(0).getAuthentication().get().getName());
+    }
+}
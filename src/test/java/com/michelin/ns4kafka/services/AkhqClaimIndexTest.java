@@ -0,0 +1,131 @@
+package com.michelin.ns4kafka.services;
+
+import com.michelin.ns4kafka.config.AkhqClaimProviderControllerConfig;
+import com.michelin.ns4kafka.models.AccessControlEntry;
+import com.michelin.ns4kafka.models.Namespace;
+import com.michelin.ns4kafka.models.ObjectMeta;
+import com.michelin.ns4kafka.repositories.kafka.KafkaStoreEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AkhqClaimIndexTest {
+    @Mock
+    AccessControlEntryService accessControlEntryService;
+
+    @Mock
+    NamespaceService namespaceService;
+
+    @Mock
+    AkhqClaimProviderControllerConfig config;
+
+    @InjectMocks
+    AkhqClaimIndex akhqClaimIndex;
+
+    Namespace ns1;
+
+    Namespace ns2;
+
+    AccessControlEntry ns1Acl;
+
+    AccessControlEntry ns2Acl;
+
+    @BeforeEach
+    void init() {
+        ns1 = buildNamespace("ns1", "GP-PROJECT1");
+        ns2 = buildNamespace("ns2", "GP-PROJECT2");
+        ns1Acl = buildAcl("ns1", "project1.");
+        ns2Acl = buildAcl("ns2", "project2.");
+
+        when(config.getGroupLabel()).thenReturn("support-group");
+        when(namespaceService.listAll()).thenReturn(List.of(ns1, ns2));
+        when(accessControlEntryService.findAllPublicGrantedTo()).thenReturn(List.of());
+    }
+
+    /**
+     * Test the regexes of a group are computed once, then served from the index
+     */
+    @Test
+    void getAllowedRegexesIndexed() {
+        when(accessControlEntryService.findAllGrantedToNamespace(ns1)).thenReturn(List.of(ns1Acl));
+        when(accessControlEntryService.findAllGrantedToNamespace(ns2)).thenReturn(List.of(ns2Acl));
+
+        Assertions.assertEquals(List.of("^\\Qproject1.\\E.*$"), akhqClaimIndex.getAllowedRegexes(List.of("GP-PROJECT1")).getTopics());
+        Assertions.assertEquals(List.of("^\\Qproject1.\\E.*$", "^\\Qproject2.\\E.*$"),
+                akhqClaimIndex.getAllowedRegexes(List.of("GP-PROJECT1", "GP-PROJECT2", "GP-UNKNOWN")).getTopics());
+
+        verify(namespaceService, times(1)).listAll();
+        verify(accessControlEntryService, times(1)).findAllGrantedToNamespace(ns1);
+        verify(accessControlEntryService, times(1)).findAllGrantedToNamespace(ns2);
+        verify(accessControlEntryService, times(1)).findAllPublicGrantedTo();
+    }
+
+    /**
+     * Test an ACL change drops the regexes of the group of its namespace only
+     */
+    @Test
+    void onAclChange() {
+        AccessControlEntry newAcl = buildAcl("ns1", "project1-new.");
+        when(accessControlEntryService.findAllGrantedToNamespace(ns1))
+                .thenReturn(List.of(ns1Acl))
+                .thenReturn(List.of(ns1Acl, newAcl));
+        when(accessControlEntryService.findAllGrantedToNamespace(ns2)).thenReturn(List.of(ns2Acl));
+
+        akhqClaimIndex.getAllowedRegexes(List.of("GP-PROJECT1", "GP-PROJECT2"));
+        akhqClaimIndex.onApplicationEvent(new KafkaStoreEvent("acl", null, newAcl));
+
+        Assertions.assertEquals(List.of("^\\Qproject1.\\E.*$", "^\\Qproject1-new.\\E.*$", "^\\Qproject2.\\E.*$"),
+                akhqClaimIndex.getAllowedRegexes(List.of("GP-PROJECT1", "GP-PROJECT2")).getTopics());
+        verify(accessControlEntryService, times(2)).findAllGrantedToNamespace(ns1);
+        verify(accessControlEntryService, times(1)).findAllGrantedToNamespace(ns2);
+    }
+
+    /**
+     * Test a namespace moved to another group is served to its new group without listing the namespaces again
+     */
+    @Test
+    void onNamespaceChange() {
+        Namespace movedNs2 = buildNamespace("ns2", "GP-PROJECT1");
+        when(accessControlEntryService.findAllGrantedToNamespace(ns1)).thenReturn(List.of(ns1Acl));
+        when(accessControlEntryService.findAllGrantedToNamespace(ns2)).thenReturn(List.of(ns2Acl));
+        when(accessControlEntryService.findAllGrantedToNamespace(movedNs2)).thenReturn(List.of(ns2Acl));
+
+        akhqClaimIndex.getAllowedRegexes(List.of("GP-PROJECT1", "GP-PROJECT2"));
+        akhqClaimIndex.onApplicationEvent(new KafkaStoreEvent("ns2", ns2, movedNs2));
+
+        Assertions.assertEquals(List.of("^\\Qproject1.\\E.*$", "^\\Qproject2.\\E.*$"),
+                akhqClaimIndex.getAllowedRegexes(List.of("GP-PROJECT1")).getTopics());
+        Assertions.assertEquals(List.of(), akhqClaimIndex.getAllowedRegexes(List.of("GP-PROJECT2")).getTopics());
+        verify(namespaceService, times(1)).listAll();
+    }
+
+    private Namespace buildNamespace(String name, String group) {
+        return Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name(name)
+                        .labels(Map.of("support-group", group))
+                        .build())
+                .build();
+    }
+
+    private AccessControlEntry buildAcl(String grantedTo, String resource) {
+        return AccessControlEntry.builder()
+                .spec(AccessControlEntry.AccessControlEntrySpec.builder()
+                        .resourceType(AccessControlEntry.ResourceType.TOPIC)
+                        .resourcePatternType(AccessControlEntry.ResourcePatternType.PREFIXED)
+                        .resource(resource)
+                        .grantedTo(grantedTo)
+                        .build())
+                .build();
+    }
+}
@@ -358,7 +358,7 @@ class ConnectClusterServiceTest {
         List<String> errors = connectClusterService.validateConnectClusterCreation(connectCluster);
 
         Assertions.assertEquals(1L, errors.size());
-        Assertions.assertEquals("The Connect cluster test-connect is not healthy (HTTP code 500).", errors.get(0));
+        Assertions.assertEquals("The Connect cluster test-connect is not healthy at \"https://after\" (HTTP code 500).", errors.get(0));
     }
 
     /**
@@ -402,6 +402,6 @@ class ConnectClusterServiceTest {
         List<String> errors = connectClusterService.validateConnectClusterCreation(connectCluster);
 
         Assertions.assertEquals(1L, errors.size());
-        Assertions.assertEquals("The following error occurred trying to check the Connect cluster test-connect health: Error.", errors.get(0));
+        Assertions.assertEquals("The following error occurred trying to check the Connect cluster test-connect health at \"https://after\": Error.", errors.get(0));
     }
 }
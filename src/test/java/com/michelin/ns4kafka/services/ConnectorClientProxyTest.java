@@ -1,12 +1,6 @@
 package com.michelin.ns4kafka.services;
 
-import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
-import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig.ConnectConfig;
-import com.michelin.ns4kafka.config.SecurityConfig;
-import com.michelin.ns4kafka.models.ConnectCluster;
-import com.michelin.ns4kafka.models.ObjectMeta;
 import com.michelin.ns4kafka.services.connect.ConnectorClientProxy;
-import com.michelin.ns4kafka.utils.EncryptionUtils;
 import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
 import io.micronaut.core.async.publisher.Publishers;
 import io.micronaut.http.*;
@@ -24,9 +18,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.reactivestreams.Publisher;
 
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Stream;
 
 @ExtendWith(MockitoExtension.class)
 class ConnectorClientProxyTest {
@@ -34,13 +26,7 @@ class ConnectorClientProxyTest {
     ProxyHttpClient client;
 
     @Mock
-    List<KafkaAsyncExecutorConfig> kafkaAsyncExecutorConfigs;
-
-    @Mock
-    ConnectClusterService connectClusterService;
-
-    @Mock
-    SecurityConfig securityConfig;
+    ProxyRoutingTable proxyRoutingTable;
 
     @InjectMocks
     ConnectorClientProxy proxy;
@@ -132,7 +118,8 @@ class ConnectorClientProxyTest {
                 .header("X-Proxy-Secret", ConnectorClientProxy.PROXY_SECRET)
                 .header(ConnectorClientProxy.PROXY_HEADER_KAFKA_CLUSTER, "local")
                 .header(ConnectorClientProxy.PROXY_HEADER_CONNECT_CLUSTER, "local-name");
-        Mockito.when(kafkaAsyncExecutorConfigs.stream()).thenReturn(Stream.empty());
+        Mockito.when(proxyRoutingTable.getConnectRoute("local", "local-name"))
+                .thenThrow(new ResourceValidationException(List.of("Kafka Cluster [local] not found"), null, null));
 
         TestSubscriber<MutableHttpResponse<?>> subscriber = new TestSubscriber<>();
         Publisher<MutableHttpResponse<?>> mutableHttpResponsePublisher = proxy.doFilter(request, null);
@@ -153,12 +140,8 @@ class ConnectorClientProxyTest {
                 .header("X-Proxy-Secret", ConnectorClientProxy.PROXY_SECRET)
                 .header(ConnectorClientProxy.PROXY_HEADER_KAFKA_CLUSTER, "local")
                 .header(ConnectorClientProxy.PROXY_HEADER_CONNECT_CLUSTER, "local-name");
-        KafkaAsyncExecutorConfig config = new KafkaAsyncExecutorConfig("local");
-        ConnectConfig connectConfig = new KafkaAsyncExecutorConfig.ConnectConfig();
-        config.setConnects(Map.of("invalid-name",connectConfig));
-
-        Mockito.when(kafkaAsyncExecutorConfigs.stream())
-                .thenReturn(Stream.of(config));
+        Mockito.when(proxyRoutingTable.getConnectRoute("local", "local-name"))
+                .thenThrow(new ResourceValidationException(List.of("Connect cluster [local-name] not found"), null, null));
 
         TestSubscriber<MutableHttpResponse<?>> subscriber = new TestSubscriber<>();
         Publisher<MutableHttpResponse<?>> mutableHttpResponsePublisher = proxy.doFilter(request, null);
@@ -180,15 +163,8 @@ class ConnectorClientProxyTest {
                 .header("X-Proxy-Secret", ConnectorClientProxy.PROXY_SECRET)
                 .header(ConnectorClientProxy.PROXY_HEADER_KAFKA_CLUSTER, "local")
                 .header(ConnectorClientProxy.PROXY_HEADER_CONNECT_CLUSTER, "local-name");
-        KafkaAsyncExecutorConfig config1 = new KafkaAsyncExecutorConfig("local");
-        ConnectConfig connectConfig = new KafkaAsyncExecutorConfig.ConnectConfig();
-        connectConfig.setUrl("https://target/");
-        config1.setConnects(Map.of("local-name",connectConfig));
-        // Should not interfere
-        KafkaAsyncExecutorConfig config2 = new KafkaAsyncExecutorConfig("not-match");
-
-        Mockito.when(kafkaAsyncExecutorConfigs.stream())
-                .thenReturn(Stream.of(config1, config2));
+        Mockito.when(proxyRoutingTable.getConnectRoute("local", "local-name"))
+                .thenReturn(ProxyRoutingTable.Route.of("https://target/", null, null));
         Mockito.when(client.proxy(ArgumentMatchers.any(MutableHttpRequest.class)))
                 .thenReturn(Publishers.just(HttpResponse.ok()));
 
@@ -209,30 +185,10 @@ class ConnectorClientProxyTest {
                 .header(ConnectorClientProxy.PROXY_HEADER_KAFKA_CLUSTER, "local")
                 .header(ConnectorClientProxy.PROXY_HEADER_CONNECT_CLUSTER, "connect-cluster");
 
-        KafkaAsyncExecutorConfig config1 = new KafkaAsyncExecutorConfig("local");
-        ConnectConfig connectConfig = new KafkaAsyncExecutorConfig.ConnectConfig();
-        connectConfig.setUrl("https://target/");
-        config1.setConnects(Map.of("local-name",connectConfig));
-        KafkaAsyncExecutorConfig config2 = new KafkaAsyncExecutorConfig("not-match");
-
-        ConnectCluster connectCluster = ConnectCluster.builder()
-                .metadata(ObjectMeta.builder().name("connect-cluster")
-                        .build())
-                .spec(ConnectCluster.ConnectClusterSpec.builder()
-                        .url("https://my-custom-connect-cluster")
-                        .username("myUsername")
-                        .password(EncryptionUtils.encryptAES256GCM("myPassword", "changeitchangeitchangeitchangeit"))
-                        .build())
-                .build();
-
-        Mockito.when(kafkaAsyncExecutorConfigs.stream())
-                .thenReturn(Stream.of(config1, config2));
-        Mockito.when(connectClusterService.findAll())
-                .thenReturn(List.of(connectCluster));
+        Mockito.when(proxyRoutingTable.getConnectRoute("local", "connect-cluster"))
+                .thenReturn(ProxyRoutingTable.Route.of("https://my-custom-connect-cluster", "myUsername", "myPassword"));
         Mockito.when(client.proxy(ArgumentMatchers.any(MutableHttpRequest.class)))
                 .thenReturn(Publishers.just(HttpResponse.ok()));
-        Mockito.when(securityConfig.getAes256EncryptionKey())
-                .thenReturn("changeitchangeitchangeitchangeit");
 
         TestSubscriber<MutableHttpResponse<?>> subscriber = new TestSubscriber<>();
         Publisher<MutableHttpResponse<?>> mutableHttpResponsePublisher = proxy.doFilter(request, null);
@@ -248,7 +204,7 @@ class ConnectorClientProxyTest {
     void testMutateKafkaConnectRequest() {
         MutableHttpRequest<?> request = new MutableSimpleHttpRequest<>("http://localhost/connect-proxy/connectors");
 
-        MutableHttpRequest<?> actual = proxy.mutateKafkaConnectRequest(request, "https://target/", null, null);
+        MutableHttpRequest<?> actual = proxy.mutateKafkaConnectRequest(request, "https://target/", null);
 
         Assertions.assertEquals("https://target/connectors", actual.getUri().toString());
     }
@@ -258,7 +214,7 @@ class ConnectorClientProxyTest {
         MutableHttpRequest<?> request = new MutableSimpleHttpRequest<>("http://localhost/connect-proxy/connectors");
         request.header("Host","value");
 
-        MutableHttpRequest<?> actual = proxy.mutateKafkaConnectRequest(request, "https://target/", null, null);
+        MutableHttpRequest<?> actual = proxy.mutateKafkaConnectRequest(request, "https://target/", null);
 
         Assertions.assertEquals("https://target/connectors", actual.getUri().toString());
         Assertions.assertTrue(actual.getHeaders().getAll("Host").isEmpty(), "Host header should be unset");
@@ -268,7 +224,7 @@ class ConnectorClientProxyTest {
     void testMutateKafkaConnectRequestRewrite() {
         MutableHttpRequest<?> request = new MutableSimpleHttpRequest<>("http://localhost/connect-proxy/connectors");
 
-        MutableHttpRequest<?> actual = proxy.mutateKafkaConnectRequest(request, "https://target/rewrite", null, null);
+        MutableHttpRequest<?> actual = proxy.mutateKafkaConnectRequest(request, "https://target/rewrite", null);
 
         Assertions.assertEquals("https://target/rewrite/connectors", actual.getUri().toString());
     }
@@ -277,7 +233,8 @@ class ConnectorClientProxyTest {
     void testMutateKafkaConnectRequestAuthentication() {
         MutableHttpRequest<?> request = new MutableSimpleHttpRequest<>("http://localhost/connect-proxy/connectors");
 
-        MutableHttpRequest<?> actual = proxy.mutateKafkaConnectRequest(request, "https://target/", "toto", "titi");
+        MutableHttpRequest<?> actual = proxy.mutateKafkaConnectRequest(request, "https://target/",
+                ProxyRoutingTable.Route.of("https://target/", "toto", "titi").getAuthorization());
 
         Assertions.assertEquals("https://target/connectors", actual.getUri().toString());
         Assertions.assertEquals("Basic dG90bzp0aXRp", actual.getHeaders().get(HttpHeaders.AUTHORIZATION));
@@ -7,7 +7,7 @@ import com.michelin.ns4kafka.models.Namespace.NamespaceSpec;
 import com.michelin.ns4kafka.models.ObjectMeta;
 import com.michelin.ns4kafka.models.connector.Connector;
 import com.michelin.ns4kafka.repositories.ConnectorRepository;
-import com.michelin.ns4kafka.services.connect.ConnectorClientProxy;
+import com.michelin.ns4kafka.services.connect.ConnectorStatusCache;
 import com.michelin.ns4kafka.services.connect.client.ConnectorClient;
 import com.michelin.ns4kafka.services.connect.client.entities.*;
 import com.michelin.ns4kafka.services.executors.ConnectorAsyncExecutor;
@@ -55,6 +55,9 @@ class ConnectorServiceTest {
     @Mock
     ConnectClusterService connectClusterService;
 
+    @Mock
+    ConnectorStatusCache connectorStatusCache;
+
     /**
      * Test to find all connectors by namespace when there is no connector
      */
@@ -413,7 +416,7 @@ class ConnectorServiceTest {
                         .connectClusters(List.of("local-name"))
                         .build())
                 .build();
-        Mockito.when(connectorClient.connectPlugins(ConnectorClientProxy.PROXY_SECRET, "local", "local-name"))
+        Mockito.when(connectorClient.connectPlugins("local", "local-name"))
                 .thenReturn(Single.just(List.of()));
 
         connectorService.validateLocally(ns, connector)
@@ -449,7 +452,7 @@ class ConnectorServiceTest {
                         .connectClusters(List.of("local-name"))
                         .build())
                 .build();
-        Mockito.when(connectorClient.connectPlugins(ConnectorClientProxy.PROXY_SECRET, "local", "local-name"))
+        Mockito.when(connectorClient.connectPlugins("local", "local-name"))
                 .thenReturn(Single.just(List.of(new ConnectorPluginInfo("org.apache.kafka.connect.file.FileStreamSinkConnector", ConnectorType.SINK, "v1"))));
 
         connectorService.validateLocally(ns, connector)
@@ -485,7 +488,7 @@ class ConnectorServiceTest {
                         .connectClusters(List.of("local-name"))
                         .build())
                 .build();
-        Mockito.when(connectorClient.connectPlugins(ConnectorClientProxy.PROXY_SECRET, "local", "local-name"))
+        Mockito.when(connectorClient.connectPlugins("local", "local-name"))
                 .thenReturn(Single.just(List.of(new ConnectorPluginInfo("org.apache.kafka.connect.file.FileStreamSinkConnector", ConnectorType.SINK, "v1"))));
 
         connectorService.validateLocally(ns, connector)
@@ -527,7 +530,7 @@ class ConnectorServiceTest {
                                 .name("local-name")
                                 .build())
                 .build()));
-        when(connectorClient.connectPlugins(ConnectorClientProxy.PROXY_SECRET, "local", "local-name"))
+        when(connectorClient.connectPlugins("local", "local-name"))
                 .thenReturn(Single.just(List.of(new ConnectorPluginInfo("org.apache.kafka.connect.file.FileStreamSinkConnector", ConnectorType.SINK, "v1"))));
 
         connectorService.validateLocally(ns, connector)
@@ -563,7 +566,6 @@ class ConnectorServiceTest {
                         new ConfigValueInfo(null, null, null, List.of("error_message"), true))));
 
         Mockito.when(connectorClient.validate(
-                ArgumentMatchers.anyString(),
                 ArgumentMatchers.eq("local"),
                 ArgumentMatchers.eq("local-name"),
                 ArgumentMatchers.any(),
@@ -601,7 +603,6 @@ class ConnectorServiceTest {
 
         ConfigInfos configInfos = new ConfigInfos("name", 1, List.of(), List.of());
         Mockito.when(connectorClient.validate(
-                ArgumentMatchers.anyString(),
                 ArgumentMatchers.eq("local"),
                 ArgumentMatchers.eq("local-name"),
                 ArgumentMatchers.any(),
@@ -880,7 +881,7 @@ class ConnectorServiceTest {
                 .spec(Connector.ConnectorSpec.builder().connectCluster("local-name").build())
                 .build();
 
-        when(connectorClient.delete(ConnectorClientProxy.PROXY_SECRET, ns.getMetadata().getCluster(),
+        when(connectorClient.delete(ns.getMetadata().getCluster(),
                 "local-name", "ns-connect1")).thenReturn(Maybe.just(HttpResponse.ok()));
 
         doNothing().when(connectorRepository).delete(connector);
@@ -889,10 +890,11 @@ class ConnectorServiceTest {
                 .test()
                 .assertValue(response -> response.getStatus().equals(HttpStatus.OK));
 
-        verify(connectorClient, times(1)).delete(ConnectorClientProxy.PROXY_SECRET, ns.getMetadata().getCluster(),
+        verify(connectorClient, times(1)).delete(ns.getMetadata().getCluster(),
                 "local-name", "ns-connect1");
 
         verify(connectorRepository, times(1)).delete(connector);
+        verify(connectorStatusCache, times(1)).invalidate("local", "local-name");
     }
 
     /**
@@ -915,7 +917,7 @@ class ConnectorServiceTest {
                 .spec(Connector.ConnectorSpec.builder().connectCluster("local-name").build())
                 .build();
 
-        when(connectorClient.delete(ConnectorClientProxy.PROXY_SECRET, ns.getMetadata().getCluster(),
+        when(connectorClient.delete(ns.getMetadata().getCluster(),
                 "local-name", "ns-connect1")).thenReturn(Maybe.error(new HttpClientResponseException("Error", HttpResponse.serverError())));
 
         connectorService.delete(ns, connector)
@@ -924,4 +926,41 @@ class ConnectorServiceTest {
 
         verify(connectorRepository, never()).delete(connector);
     }
+
+    /**
+     * Tests to restart a connector from the cached status
+     */
+    @Test
+    void restartConnectorSuccess() {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace")
+                        .cluster("local")
+                        .build())
+                .spec(NamespaceSpec.builder()
+                        .connectClusters(List.of("local-name"))
+                        .build())
+                .build();
+
+        Connector connector = Connector.builder()
+                .metadata(ObjectMeta.builder().name("ns-connect1").build())
+                .spec(Connector.ConnectorSpec.builder().connectCluster("local-name").build())
+                .build();
+
+        when(connectorStatusCache.status("local", "local-name", "ns-connect1"))
+                .thenReturn(Single.just(new ConnectorStateInfo("ns-connect1",
+                        new ConnectorStateInfo.ConnectorState("RUNNING", "worker", null),
+                        List.of(new ConnectorStateInfo.TaskState(0, "FAILED", "worker", "error")),
+                        ConnectorType.SOURCE)));
+        when(connectorClient.restart("local", "local-name", "ns-connect1", 0))
+                .thenReturn(Single.just(HttpResponse.ok()));
+
+        connectorService.restart(ns, connector)
+                .test()
+                .assertValue(response -> response.getStatus().equals(HttpStatus.OK));
+
+        verify(connectorClient, times(1)).restart("local", "local-name", "ns-connect1", 0);
+        verify(connectorClient, never()).status(any(), any(), any());
+        verify(connectorStatusCache, times(1)).invalidate("local", "local-name");
+    }
 }
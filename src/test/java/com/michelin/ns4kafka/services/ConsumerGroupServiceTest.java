@@ -4,10 +4,14 @@ import com.michelin.ns4kafka.models.consumer.group.ConsumerGroupResetOffsets;
 import com.michelin.ns4kafka.models.consumer.group.ConsumerGroupResetOffsets.ConsumerGroupResetOffsetsSpec;
 import com.michelin.ns4kafka.models.consumer.group.ConsumerGroupResetOffsets.ResetOffsetsMethod;
 import com.michelin.ns4kafka.models.Namespace;
+import com.michelin.ns4kafka.models.AccessControlEntry;
 import com.michelin.ns4kafka.models.ObjectMeta;
+import com.michelin.ns4kafka.models.consumer.group.ConsumerGroupStatus;
 import com.michelin.ns4kafka.services.executors.ConsumerGroupAsyncExecutor;
 import io.micronaut.context.ApplicationContext;
 import io.micronaut.inject.qualifiers.Qualifiers;
+import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.common.ConsumerGroupState;
 import org.apache.kafka.common.TopicPartition;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,8 +26,11 @@ import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +38,9 @@ class ConsumerGroupServiceTest {
     @Mock
     ApplicationContext applicationContext;
 
+    @Mock
+    AccessControlEntryService accessControlEntryService;
+
     @InjectMocks
     ConsumerGroupService consumerGroupService;
 
@@ -444,4 +454,161 @@ class ConsumerGroupServiceTest {
         assertEquals(5, result.get(topicPartition1));
         assertEquals(10, result.get(topicPartition2));
     }
+
+    /**
+     * Assert the lag of the owned consumer groups is computed from a single request of each kind, then served from memory
+     * @throws ExecutionException Any execution exception during consumer groups description
+     * @throws InterruptedException Any interrupted exception during consumer groups description
+     */
+    @Test
+    void listConsumerGroupStatuses() throws ExecutionException, InterruptedException {
+        Namespace namespace = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace")
+                        .cluster("test")
+                        .build())
+                .build();
+
+        TopicPartition topicPartition1 = new TopicPartition("topic1", 0);
+        TopicPartition topicPartition2 = new TopicPartition("topic1", 1);
+
+        ConsumerGroupAsyncExecutor consumerGroupAsyncExecutor = mock(ConsumerGroupAsyncExecutor.class);
+        when(applicationContext.getBean(ConsumerGroupAsyncExecutor.class,
+                Qualifiers.byName(namespace.getMetadata().getCluster()))).thenReturn(consumerGroupAsyncExecutor);
+        when(consumerGroupAsyncExecutor.listConsumerGroupIds()).thenReturn(List.of("ns-group2", "ns-group1", "other-group"));
+        when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.GROUP, "ns-group1")).thenReturn(true);
+        when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.GROUP, "ns-group2")).thenReturn(true);
+        when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.GROUP, "other-group")).thenReturn(false);
+        when(consumerGroupAsyncExecutor.describeConsumerGroups(List.of("ns-group1", "ns-group2"))).thenReturn(Map.of(
+                "ns-group1", new ConsumerGroupDescription("ns-group1", false, List.of(), "range", ConsumerGroupState.STABLE, null),
+                "ns-group2", new ConsumerGroupDescription("ns-group2", false, List.of(), "range", ConsumerGroupState.EMPTY, null)));
+        when(consumerGroupAsyncExecutor.getCommittedOffsetsByGroup(List.of("ns-group1", "ns-group2"))).thenReturn(Map.of(
+                "ns-group1", Map.of(topicPartition1, 5L, topicPartition2, 10L),
+                "ns-group2", Map.of(topicPartition1, 20L)));
+        when(consumerGroupAsyncExecutor.getAvailableLogEndOffsets(anyList())).thenReturn(Map.of(topicPartition1, 20L, topicPartition2, 15L));
+
+        consumerGroupService.statusCacheTtl = 60000;
+        List<ConsumerGroupStatus> result = consumerGroupService.listConsumerGroupStatuses(namespace);
+
+        assertEquals(2, result.size());
+        assertEquals("ns-group1", result.get(0).getMetadata().getName());
+        assertEquals("Stable", result.get(0).getSpec().getState());
+        assertEquals(20L, result.get(0).getSpec().getTotalLag());
+        assertEquals(2, result.get(0).getSpec().getPartitions().size());
+        assertEquals(15L, result.get(0).getSpec().getPartitions().get(0).getLag());
+        assertEquals(5L, result.get(0).getSpec().getPartitions().get(1).getLag());
+        assertEquals("ns-group2", result.get(1).getMetadata().getName());
+        assertEquals("Empty", result.get(1).getSpec().getState());
+        assertEquals(0L, result.get(1).getSpec().getTotalLag());
+
+        consumerGroupService.listConsumerGroupStatuses(namespace);
+        verify(consumerGroupAsyncExecutor, times(1)).listConsumerGroupIds();
+        verify(consumerGroupAsyncExecutor, times(1)).getAvailableLogEndOffsets(anyList());
+    }
+
+    /**
+     * Assert the partitions without end offset, such as the partitions of a deleted topic, are skipped from the lag
+     * @throws ExecutionException Any execution exception during consumer groups description
+     * @throws InterruptedException Any interrupted exception during consumer groups description
+     */
+    @Test
+    void listConsumerGroupStatusesDeletedTopic() throws ExecutionException, InterruptedException {
+        Namespace namespace = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace")
+                        .cluster("test")
+                        .build())
+                .build();
+
+        TopicPartition topicPartition = new TopicPartition("topic1", 0);
+        TopicPartition deletedTopicPartition = new TopicPartition("deleted-topic", 0);
+
+        ConsumerGroupAsyncExecutor consumerGroupAsyncExecutor = mock(ConsumerGroupAsyncExecutor.class);
+        when(applicationContext.getBean(ConsumerGroupAsyncExecutor.class,
+                Qualifiers.byName(namespace.getMetadata().getCluster()))).thenReturn(consumerGroupAsyncExecutor);
+        when(consumerGroupAsyncExecutor.listConsumerGroupIds()).thenReturn(List.of("ns-group1"));
+        when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.GROUP, "ns-group1")).thenReturn(true);
+        when(consumerGroupAsyncExecutor.describeConsumerGroups(List.of("ns-group1"))).thenReturn(Map.of(
+                "ns-group1", new ConsumerGroupDescription("ns-group1", false, List.of(), "range", ConsumerGroupState.EMPTY, null)));
+        when(consumerGroupAsyncExecutor.getCommittedOffsetsByGroup(List.of("ns-group1"))).thenReturn(Map.of(
+                "ns-group1", Map.of(topicPartition, 5L, deletedTopicPartition, 10L)));
+        when(consumerGroupAsyncExecutor.getAvailableLogEndOffsets(anyList())).thenReturn(Map.of(topicPartition, 20L));
+
+        List<ConsumerGroupStatus> result = consumerGroupService.listConsumerGroupStatuses(namespace);
+
+        assertEquals(1, result.size());
+        assertEquals(15L, result.get(0).getSpec().getTotalLag());
+        assertEquals(1, result.get(0).getSpec().getPartitions().size());
+        assertEquals("topic1", result.get(0).getSpec().getPartitions().get(0).getTopic());
+    }
+
+    /**
+     * Assert bulk offsets of several groups and topics are prepared from a single offsets listing
+     * @throws ExecutionException Any execution exception during offsets description
+     * @throws InterruptedException Any interrupted exception during offsets description
+     */
+    @Test
+    void doPrepareBulkOffsetsToResetShiftBy() throws ExecutionException, InterruptedException {
+        Namespace namespace = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .cluster("test")
+                        .build())
+                .build();
+
+        TopicPartition topicPartition1 = new TopicPartition("topic1", 0);
+        TopicPartition topicPartition2 = new TopicPartition("topic2", 0);
+
+        ConsumerGroupAsyncExecutor consumerGroupAsyncExecutor = mock(ConsumerGroupAsyncExecutor.class);
+        when(applicationContext.getBean(ConsumerGroupAsyncExecutor.class,
+                Qualifiers.byName(namespace.getMetadata().getCluster()))).thenReturn(consumerGroupAsyncExecutor);
+        when(consumerGroupAsyncExecutor.getCommittedOffsetsByGroup(List.of("group1", "group2"))).thenReturn(Map.of(
+                "group1", Map.of(topicPartition1, 10L, topicPartition2, 2L),
+                "group2", Map.of(topicPartition1, 50L, topicPartition2, 19L)));
+        when(consumerGroupAsyncExecutor.getTopicPartitions(List.of("topic1"))).thenReturn(Map.of("topic1", List.of(topicPartition1)));
+        when(consumerGroupAsyncExecutor.listOffsets(anyList())).thenReturn(List.of(
+                Map.of(topicPartition1, 0L, topicPartition2, 5L),
+                Map.of(topicPartition1, 52L, topicPartition2, 20L),
+                Map.of()));
+
+        Map<String, Map<TopicPartition, Long>> result = consumerGroupService.prepareBulkOffsetsToReset(namespace,
+                List.of("group1", "group2"), List.of("topic1", "topic2:0"), ResetOffsetsMethod.SHIFT_BY, "5");
+
+        assertEquals(2, result.size());
+        assertEquals(Map.of(topicPartition1, 15L, topicPartition2, 7L), result.get("group1"));
+        assertEquals(Map.of(topicPartition1, 52L, topicPartition2, 20L), result.get("group2"));
+        verify(consumerGroupAsyncExecutor, times(1)).listOffsets(anyList());
+    }
+
+    /**
+     * Assert bulk offsets by datetime fall back to the latest offset when no record is after the datetime
+     * @throws ExecutionException Any execution exception during offsets description
+     * @throws InterruptedException Any interrupted exception during offsets description
+     */
+    @Test
+    void doPrepareBulkOffsetsToResetToDatetime() throws ExecutionException, InterruptedException {
+        Namespace namespace = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .cluster("test")
+                        .build())
+                .build();
+
+        TopicPartition topicPartition1 = new TopicPartition("topic1", 0);
+        TopicPartition topicPartition2 = new TopicPartition("topic1", 1);
+
+        ConsumerGroupAsyncExecutor consumerGroupAsyncExecutor = mock(ConsumerGroupAsyncExecutor.class);
+        when(applicationContext.getBean(ConsumerGroupAsyncExecutor.class,
+                Qualifiers.byName(namespace.getMetadata().getCluster()))).thenReturn(consumerGroupAsyncExecutor);
+        when(consumerGroupAsyncExecutor.getCommittedOffsetsByGroup(List.of("group1"))).thenReturn(Map.of(
+                "group1", Map.of(topicPartition1, 10L, topicPartition2, 10L)));
+        when(consumerGroupAsyncExecutor.getTopicPartitions(List.of())).thenReturn(Map.of());
+        when(consumerGroupAsyncExecutor.listOffsets(anyList())).thenReturn(List.of(
+                Map.of(),
+                Map.of(topicPartition1, 100L, topicPartition2, 200L),
+                Map.of(topicPartition1, 40L, topicPartition2, -1L)));
+
+        Map<String, Map<TopicPartition, Long>> result = consumerGroupService.prepareBulkOffsetsToReset(namespace,
+                List.of("group1"), List.of("*"), ResetOffsetsMethod.TO_DATETIME, "2021-06-02T11:23:33.249+02:00");
+
+        assertEquals(Map.of(topicPartition1, 40L, topicPartition2, 200L), result.get("group1"));
+    }
 }
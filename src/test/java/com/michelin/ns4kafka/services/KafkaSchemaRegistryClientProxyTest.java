@@ -1,6 +1,5 @@
 package com.michelin.ns4kafka.services;
 
-import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
 import com.michelin.ns4kafka.services.schema.KafkaSchemaRegistryClientProxy;
 import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
 import io.micronaut.http.*;
@@ -17,7 +16,6 @@ import org.reactivestreams.Publisher;
 
 import java.util.List;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Stream;
 
 import static io.micronaut.core.async.publisher.Publishers.just;
 import static org.mockito.ArgumentMatchers.any;
@@ -29,7 +27,7 @@ class KafkaSchemaRegistryClientProxyTest {
     ProxyHttpClient client;
 
     @Mock
-    List<KafkaAsyncExecutorConfig> kafkaAsyncExecutorConfigs;
+    ProxyRoutingTable proxyRoutingTable;
 
     @InjectMocks
     KafkaSchemaRegistryClientProxy proxy;
@@ -100,7 +98,8 @@ class KafkaSchemaRegistryClientProxyTest {
                 .header(KafkaSchemaRegistryClientProxy.PROXY_HEADER_SECRET, KafkaSchemaRegistryClientProxy.PROXY_SECRET)
                 .header(KafkaSchemaRegistryClientProxy.PROXY_HEADER_KAFKA_CLUSTER, "local");
 
-        when(kafkaAsyncExecutorConfigs.stream()).thenReturn(Stream.empty());
+        when(proxyRoutingTable.getSchemaRegistryRoute("local"))
+                .thenThrow(new ResourceValidationException(List.of("Kafka Cluster [local] not found"), null, null));
 
         TestSubscriber<MutableHttpResponse<?>> subscriber = new TestSubscriber<>();
         Publisher<MutableHttpResponse<?>> mutableHttpResponsePublisher = proxy.doFilter(request, null);
@@ -121,7 +120,8 @@ class KafkaSchemaRegistryClientProxyTest {
                 .header(KafkaSchemaRegistryClientProxy.PROXY_HEADER_SECRET, KafkaSchemaRegistryClientProxy.PROXY_SECRET)
                 .header(KafkaSchemaRegistryClientProxy.PROXY_HEADER_KAFKA_CLUSTER, "local");
 
-        when(kafkaAsyncExecutorConfigs.stream()).thenReturn(Stream.of(new KafkaAsyncExecutorConfig("local")));
+        when(proxyRoutingTable.getSchemaRegistryRoute("local"))
+                .thenThrow(new ResourceValidationException(List.of("Kafka Cluster [local] has no schema registry"), null, null));
 
         TestSubscriber<MutableHttpResponse<?>> subscriber = new TestSubscriber<>();
         Publisher<MutableHttpResponse<?>> mutableHttpResponsePublisher = proxy.doFilter(request, null);
@@ -141,13 +141,8 @@ class KafkaSchemaRegistryClientProxyTest {
                 .header(KafkaSchemaRegistryClientProxy.PROXY_HEADER_SECRET, KafkaSchemaRegistryClientProxy.PROXY_SECRET)
                 .header(KafkaSchemaRegistryClientProxy.PROXY_HEADER_KAFKA_CLUSTER, "local");
 
-        KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig = new KafkaAsyncExecutorConfig("local");
-        KafkaAsyncExecutorConfig.RegistryConfig registryConfig = new KafkaAsyncExecutorConfig.RegistryConfig();
-        registryConfig.setUrl("http://schema-registry");
-        kafkaAsyncExecutorConfig.setSchemaRegistry(registryConfig);
-
-        when(kafkaAsyncExecutorConfigs.stream())
-                .thenReturn(Stream.of(kafkaAsyncExecutorConfig));
+        when(proxyRoutingTable.getSchemaRegistryRoute("local"))
+                .thenReturn(ProxyRoutingTable.Route.of("http://schema-registry", null, null));
 
         when(client.proxy(any(MutableHttpRequest.class)))
                 .thenReturn(just(HttpResponse.ok()));
@@ -171,12 +166,7 @@ class KafkaSchemaRegistryClientProxyTest {
     void mutateSchemaRegistryRequest() {
         MutableHttpRequest<?> request = new MutableSimpleHttpRequest<>("http://localhost/schema-registry-proxy/success");
 
-        KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig = new KafkaAsyncExecutorConfig("local");
-        KafkaAsyncExecutorConfig.RegistryConfig registryConfig = new KafkaAsyncExecutorConfig.RegistryConfig();
-        registryConfig.setUrl("http://schema-registry");
-        kafkaAsyncExecutorConfig.setSchemaRegistry(registryConfig);
-
-        MutableHttpRequest<?> actual = proxy.mutateSchemaRegistryRequest(request, kafkaAsyncExecutorConfig);
+        MutableHttpRequest<?> actual = proxy.mutateSchemaRegistryRequest(request, "http://schema-registry", null);
 
         Assertions.assertEquals("http", actual.getUri().getScheme());
         Assertions.assertEquals("schema-registry", actual.getUri().getHost());
@@ -191,14 +181,8 @@ class KafkaSchemaRegistryClientProxyTest {
     void mutateSchemaRegistryRequestWithBasicAuth() {
         MutableHttpRequest<?> request = new MutableSimpleHttpRequest<>("http://localhost/schema-registry-proxy/success");
 
-        KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig = new KafkaAsyncExecutorConfig("local");
-        KafkaAsyncExecutorConfig.RegistryConfig registryConfig = new KafkaAsyncExecutorConfig.RegistryConfig();
-        registryConfig.setUrl("http://schema-registry");
-        registryConfig.setBasicAuthUsername("username");
-        registryConfig.setBasicAuthPassword("password");
-        kafkaAsyncExecutorConfig.setSchemaRegistry(registryConfig);
-
-        MutableHttpRequest<?> actual = proxy.mutateSchemaRegistryRequest(request, kafkaAsyncExecutorConfig);
+        MutableHttpRequest<?> actual = proxy.mutateSchemaRegistryRequest(request, "http://schema-registry",
+                ProxyRoutingTable.Route.of("http://schema-registry", "username", "password").getAuthorization());
 
         Assertions.assertEquals("http", actual.getUri().getScheme());
         Assertions.assertEquals("schema-registry", actual.getUri().getHost());
@@ -0,0 +1,341 @@
+package com.michelin.ns4kafka.services;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import com.michelin.ns4kafka.config.SecurityConfig;
+import com.michelin.ns4kafka.models.ConnectCluster;
+import com.michelin.ns4kafka.models.ObjectMeta;
+import com.michelin.ns4kafka.repositories.kafka.KafkaStoreEvent;
+import com.michelin.ns4kafka.utils.EncryptionUtils;
+import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.client.exceptions.HttpClientException;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.reactivex.rxjava3.core.Flowable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProxyRoutingTableTest {
+    @Mock
+    ConnectClusterService connectClusterService;
+
+    @Mock
+    SecurityConfig securityConfig;
+
+    @InjectMocks
+    ProxyRoutingTable proxyRoutingTable;
+
+    @BeforeEach
+    void init() {
+        KafkaAsyncExecutorConfig config1 = new KafkaAsyncExecutorConfig("local");
+        KafkaAsyncExecutorConfig.ConnectConfig connectConfig = new KafkaAsyncExecutorConfig.ConnectConfig();
+        connectConfig.setUrl("https://target/");
+        connectConfig.setBasicAuthUsername("toto");
+        connectConfig.setBasicAuthPassword("titi");
+        config1.setConnects(Map.of("local-name", connectConfig));
+        KafkaAsyncExecutorConfig.RegistryConfig registryConfig = new KafkaAsyncExecutorConfig.RegistryConfig();
+        registryConfig.setUrl("http://schema-registry");
+        config1.setSchemaRegistry(registryConfig);
+        // Should not interfere
+        KafkaAsyncExecutorConfig config2 = new KafkaAsyncExecutorConfig("not-match");
+        proxyRoutingTable.kafkaAsyncExecutorConfigs = List.of(config1, config2);
+    }
+
+    /**
+     * Test the routes of the Ns4Kafka configuration
+     */
+    @Test
+    void getConfiguredRoutes() {
+        when(connectClusterService.findAll()).thenReturn(List.of());
+
+        ProxyRoutingTable.Route connectRoute = proxyRoutingTable.getConnectRoute("local", "local-name");
+        Assertions.assertEquals("https://target/", connectRoute.getUrl());
+        Assertions.assertEquals("Basic dG90bzp0aXRp", connectRoute.getAuthorization());
+
+        ProxyRoutingTable.Route schemaRegistryRoute = proxyRoutingTable.getSchemaRegistryRoute("local");
+        Assertions.assertEquals("http://schema-registry", schemaRegistryRoute.getUrl());
+        Assertions.assertNull(schemaRegistryRoute.getAuthorization());
+    }
+
+    /**
+     * Test the errors of the unknown routes
+     */
+    @Test
+    void getUnknownRoutes() {
+        when(connectClusterService.findAll()).thenReturn(List.of());
+
+        ResourceValidationException exception = Assertions.assertThrows(ResourceValidationException.class,
+                () -> proxyRoutingTable.getConnectRoute("unknown", "local-name"));
+        Assertions.assertEquals(List.of("Kafka Cluster [unknown] not found"), exception.getValidationErrors());
+
+        exception = Assertions.assertThrows(ResourceValidationException.class,
+                () -> proxyRoutingTable.getConnectRoute("local", "unknown"));
+        Assertions.assertEquals(List.of("Connect cluster [unknown] not found"), exception.getValidationErrors());
+
+        exception = Assertions.assertThrows(ResourceValidationException.class,
+                () -> proxyRoutingTable.getSchemaRegistryRoute("not-match"));
+        Assertions.assertEquals(List.of("Kafka Cluster [not-match] has no schema registry"), exception.getValidationErrors());
+    }
+
+    /**
+     * Test the self-deployed Connect clusters are decrypted once, and routed again after a Connect cluster change
+     */
+    @Test
+    void getSelfDeployedRoute() {
+        ConnectCluster connectCluster = ConnectCluster.builder()
+                .metadata(ObjectMeta.builder().name("connect-cluster")
+                        .build())
+                .spec(ConnectCluster.ConnectClusterSpec.builder()
+                        .url("https://my-custom-connect-cluster")
+                        .username("myUsername")
+                        .password(EncryptionUtils.encryptAES256GCM("myPassword", "changeitchangeitchangeitchangeit"))
+                        .build())
+                .build();
+
+        when(connectClusterService.findAll())
+                .thenReturn(List.of(connectCluster))
+                .thenReturn(List.of());
+        when(securityConfig.getAes256EncryptionKey())
+                .thenReturn("changeitchangeitchangeitchangeit");
+
+        ProxyRoutingTable.Route route = proxyRoutingTable.getConnectRoute("local", "connect-cluster");
+        Assertions.assertEquals("https://my-custom-connect-cluster", route.getUrl());
+        Assertions.assertEquals(ProxyRoutingTable.Route.of("", "myUsername", "myPassword").getAuthorization(), route.getAuthorization());
+        Assertions.assertSame(route, proxyRoutingTable.getConnectRoute("not-match", "connect-cluster"));
+
+        proxyRoutingTable.onApplicationEvent(new KafkaStoreEvent("connect-cluster", connectCluster, null));
+
+        Assertions.assertThrows(ResourceValidationException.class, () -> proxyRoutingTable.getConnectRoute("local", "connect-cluster"));
+        verify(connectClusterService, times(2)).findAll();
+        verify(securityConfig, times(1)).getAes256EncryptionKey();
+    }
+
+    /**
+     * Test a self-deployed Connect cluster whose password cannot be decrypted is left out, without failing the other routes
+     */
+    @Test
+    void getSelfDeployedRouteInvalidPassword() {
+        ConnectCluster brokenConnectCluster = ConnectCluster.builder()
+                .metadata(ObjectMeta.builder().name("broken-connect-cluster")
+                        .build())
+                .spec(ConnectCluster.ConnectClusterSpec.builder()
+                        .url("https://my-broken-connect-cluster")
+                        .username("myUsername")
+                        .password("notEncrypted")
+                        .build())
+                .build();
+
+        ConnectCluster connectCluster = ConnectCluster.builder()
+                .metadata(ObjectMeta.builder().name("connect-cluster")
+                        .build())
+                .spec(ConnectCluster.ConnectClusterSpec.builder()
+                        .url("https://my-custom-connect-cluster")
+                        .username("myUsername")
+                        .password(EncryptionUtils.encryptAES256GCM("myPassword", "changeitchangeitchangeitchangeit"))
+                        .build())
+                .build();
+
+        when(connectClusterService.findAll()).thenReturn(List.of(brokenConnectCluster, connectCluster));
+        when(securityConfig.getAes256EncryptionKey()).thenReturn("changeitchangeitchangeitchangeit");
+
+        Assertions.assertEquals("https://my-custom-connect-cluster", proxyRoutingTable.getConnectRoute("local", "connect-cluster").getUrl());
+        Assertions.assertEquals("http://schema-registry", proxyRoutingTable.getSchemaRegistryRoute("local").getUrl());
+
+        ResourceValidationException exception = Assertions.assertThrows(ResourceValidationException.class,
+                () -> proxyRoutingTable.getConnectRoute("local", "broken-connect-cluster"));
+        Assertions.assertEquals(List.of("Connect cluster [broken-connect-cluster] not found"), exception.getValidationErrors());
+        verify(connectClusterService, times(1)).findAll();
+    }
+
+    /**
+     * Test the routes whose settings did not change are reused after a Connect cluster change, with their state
+     */
+    @Test
+    void getRoutesReusedAfterChange() {
+        ConnectCluster connectCluster = ConnectCluster.builder()
+                .metadata(ObjectMeta.builder().name("connect-cluster")
+                        .build())
+                .spec(ConnectCluster.ConnectClusterSpec.builder()
+                        .url("https://my-custom-connect-cluster")
+                        .build())
+                .build();
+
+        when(connectClusterService.findAll())
+                .thenReturn(List.of())
+                .thenReturn(List.of(connectCluster));
+        when(securityConfig.getAes256EncryptionKey()).thenReturn("changeitchangeitchangeitchangeit");
+
+        ProxyRoutingTable.Route connectRoute = proxyRoutingTable.getConnectRoute("local", "local-name");
+        ProxyRoutingTable.Route schemaRegistryRoute = proxyRoutingTable.getSchemaRegistryRoute("local");
+
+        proxyRoutingTable.onApplicationEvent(new KafkaStoreEvent("connect-cluster", null, connectCluster));
+
+        Assertions.assertEquals("https://my-custom-connect-cluster", proxyRoutingTable.getConnectRoute("local", "connect-cluster").getUrl());
+        Assertions.assertSame(connectRoute, proxyRoutingTable.getConnectRoute("local", "local-name"));
+        Assertions.assertSame(schemaRegistryRoute, proxyRoutingTable.getSchemaRegistryRoute("local"));
+    }
+
+    /**
+     * Test the comma-separated URLs of a route
+     */
+    @Test
+    void parseUrls() {
+        Assertions.assertEquals(List.of("http://worker1:8083", "http://worker2:8083"),
+                ProxyRoutingTable.Route.parseUrls("http://worker1:8083, http://worker2:8083,"));
+        Assertions.assertEquals(List.of(), ProxyRoutingTable.Route.parseUrls(null));
+        Assertions.assertEquals("http://worker1:8083", ProxyRoutingTable.Route.of("http://worker1:8083,http://worker2:8083", null, null).getUrl());
+    }
+
+    /**
+     * Test the calls go to the worker with the least outstanding requests
+     */
+    @Test
+    void callLeastOutstanding() {
+        ProxyRoutingTable.Route route = ProxyRoutingTable.Route.of("http://worker1,http://worker2", null, null);
+        List<String> urls = new ArrayList<>();
+
+        route.call(HttpMethod.GET, url -> {
+            urls.add(url);
+            return Flowable.never();
+        }).test();
+        route.call(HttpMethod.GET, url -> {
+            urls.add(url);
+            return Flowable.never();
+        }).test();
+
+        Assertions.assertEquals(2, urls.size());
+        Assertions.assertNotEquals(urls.get(0), urls.get(1));
+    }
+
+    /**
+     * Test an idempotent call is sent again to another worker on a connection error, and the failed worker is left out
+     */
+    @Test
+    void callRetriedOnAnotherWorker() {
+        ProxyRoutingTable.Route route = ProxyRoutingTable.Route.of("http://worker1,http://worker2", null, null);
+        List<String> urls = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            route.call(HttpMethod.GET, url -> {
+                urls.add(url);
+                return url.equals("http://worker1") ? Flowable.<String>error(new HttpClientException("Connection refused")) : Flowable.just(url);
+            }).test().assertValue("http://worker2");
+        }
+
+        Assertions.assertEquals(1, urls.stream().filter("http://worker1"::equals).count());
+    }
+
+    /**
+     * Test a non-idempotent call, a call with a body and a client error are not sent again
+     */
+    @Test
+    void callNotRetried() {
+        ProxyRoutingTable.Route route = ProxyRoutingTable.Route.of("http://worker1,http://worker2", null, null);
+        List<String> urls = new ArrayList<>();
+
+        route.call(HttpMethod.POST, url -> {
+            urls.add(url);
+            return Flowable.error(new HttpClientException("Connection refused"));
+        }).test().assertError(HttpClientException.class);
+        Assertions.assertEquals(1, urls.size());
+
+        urls.clear();
+        route.call(HttpMethod.PUT, url -> {
+            urls.add(url);
+            return Flowable.error(new HttpClientException("Connection refused"));
+        }).test().assertError(HttpClientException.class);
+        Assertions.assertEquals(1, urls.size());
+
+        urls.clear();
+        route.call(HttpMethod.GET, url -> {
+            urls.add(url);
+            return Flowable.error(new HttpClientResponseException("Not found", HttpResponse.notFound()));
+        }).test().assertError(HttpClientResponseException.class);
+        Assertions.assertEquals(1, urls.size());
+    }
+
+    /**
+     * Test a proxied server error leaves the worker out and is sent again, and the last one is returned as is
+     */
+    @Test
+    void proxyServerError() {
+        ProxyRoutingTable.Route route = ProxyRoutingTable.Route.of("http://worker1,http://worker2", null, null);
+        List<String> urls = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            route.proxy(HttpMethod.GET, url -> {
+                urls.add(url);
+                return Flowable.<MutableHttpResponse<?>>just(url.equals("http://worker1") ? HttpResponse.serverError() : HttpResponse.ok());
+            }).test().assertValue(response -> response.status() == HttpStatus.OK);
+        }
+
+        Assertions.assertEquals(1, urls.stream().filter("http://worker1"::equals).count());
+
+        urls.clear();
+        route.proxy(HttpMethod.PUT, url -> {
+            urls.add(url);
+            return Flowable.<MutableHttpResponse<?>>just(HttpResponse.serverError());
+        }).test().assertValue(response -> response.status() == HttpStatus.INTERNAL_SERVER_ERROR);
+        Assertions.assertEquals(1, urls.size());
+    }
+
+    /**
+     * Test the calls in order go to the first URL, unless it failed recently
+     */
+    @Test
+    void callInOrder() {
+        ProxyRoutingTable.Route route = ProxyRoutingTable.Route.of("http://registry1,http://registry2", null, null);
+
+        for (int i = 0; i < 3; i++) {
+            route.callInOrder(HttpMethod.POST, Flowable::just).test().assertValue("http://registry1");
+        }
+
+        route.callInOrder(HttpMethod.POST, url -> Flowable.<String>error(new HttpClientException("Connection refused")))
+                .test()
+                .assertError(HttpClientException.class);
+        route.callInOrder(HttpMethod.POST, Flowable::just).test().assertValue("http://registry2");
+    }
+
+    /**
+     * Test a slow read is sent again to another URL once the usual latency of the reads is known
+     */
+    @Test
+    void readHedged() {
+        ProxyRoutingTable.Route route = ProxyRoutingTable.Route.of("http://registry1,http://registry2", null, null, true);
+        AtomicInteger calls = new AtomicInteger();
+
+        // No hedging before enough reads
+        route.read(url -> calls.getAndIncrement() == 0 ? Flowable.<String>never() : Flowable.just(url))
+                .test()
+                .awaitDone(100, TimeUnit.MILLISECONDS)
+                .assertNoValues();
+        Assertions.assertEquals(1, calls.get());
+
+        for (int i = 0; i < 20; i++) {
+            route.read(Flowable::just).test().assertValueCount(1);
+        }
+
+        calls.set(0);
+        route.read(url -> calls.getAndIncrement() == 0 ? Flowable.<String>never() : Flowable.just(url))
+                .test()
+                .awaitDone(1, TimeUnit.SECONDS)
+                .assertValueCount(1);
+        Assertions.assertEquals(2, calls.get());
+    }
+}
@@ -7,7 +7,11 @@ import com.michelin.ns4kafka.models.connector.Connector;
 import com.michelin.ns4kafka.models.quota.ResourceQuota;
 import com.michelin.ns4kafka.models.quota.ResourceQuotaResponse;
 import com.michelin.ns4kafka.repositories.ResourceQuotaRepository;
+import com.michelin.ns4kafka.services.admin.LogDirUsageCollector;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.inject.qualifiers.Qualifiers;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -17,6 +21,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.michelin.ns4kafka.models.quota.ResourceQuota.ResourceQuotaSpecKey.*;
 import static org.apache.kafka.common.config.TopicConfig.RETENTION_BYTES_CONFIG;
@@ -39,6 +44,24 @@ class ResourceQuotaServiceTest {
     @Mock
     NamespaceService namespaceService;
 
+    @Mock
+    AccessControlEntryService accessControlEntryService;
+
+    @Mock
+    ApplicationContext applicationContext;
+
+    @Mock
+    LogDirUsageCollector logDirUsageCollector;
+
+    @BeforeEach
+    void init() {
+        ResourceUsageIndex resourceUsageIndex = new ResourceUsageIndex();
+        resourceUsageIndex.topicService = topicService;
+        resourceUsageIndex.connectorService = connectorService;
+        resourceUsageIndex.accessControlEntryService = accessControlEntryService;
+        resourceQuotaService.resourceUsageIndex = resourceUsageIndex;
+    }
+
     /**
      * Test get quota by namespace when it is defined
      */
@@ -240,21 +263,21 @@ class ResourceQuotaServiceTest {
 
         Topic topic1 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic1")
                         .namespace("namespace")
                         .build())
                 .build();
 
         Topic topic2 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic2")
                         .namespace("namespace")
                         .build())
                 .build();
 
         Topic topic3 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic3")
                         .namespace("namespace")
                         .build())
                 .build();
@@ -291,21 +314,21 @@ class ResourceQuotaServiceTest {
 
         Topic topic1 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic1")
                         .namespace("namespace")
                         .build())
                 .build();
 
         Topic topic2 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic2")
                         .namespace("namespace")
                         .build())
                 .build();
 
         Topic topic3 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic3")
                         .namespace("namespace")
                         .build())
                 .build();
@@ -343,7 +366,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic1 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic1")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -353,7 +376,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic2 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic2")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -363,7 +386,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic3 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic3")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -407,6 +430,68 @@ class ResourceQuotaServiceTest {
         Assertions.assertEquals("Invalid value for disk/topics: value must end with either B, KiB, MiB or GiB", validationErrors.get(0));
     }
 
+    /**
+     * Test format when creating quota on user byte rates and request percentage
+     */
+    @Test
+    void validateNewQuotaUserQuotasFormat() {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace")
+                        .cluster("local")
+                        .build())
+                .spec(Namespace.NamespaceSpec.builder()
+                        .connectClusters(List.of("local-name"))
+                        .build())
+                .build();
+
+        ResourceQuota resourceQuota = ResourceQuota.builder()
+                .metadata(ObjectMeta.builder()
+                        .cluster("local")
+                        .name("test")
+                        .build())
+                .spec(Map.of(USER_PRODUCER_BYTE_RATE.toString(), "1MiB",
+                        USER_CONSUMER_BYTE_RATE.toString(), "204800",
+                        USER_REQUEST_PERCENTAGE.toString(), "-5"))
+                .build();
+
+        List<String> validationErrors = resourceQuotaService.validateNewResourceQuota(ns, resourceQuota);
+        Assertions.assertEquals(2, validationErrors.size());
+        Assertions.assertEquals("Invalid value for user/producer_byte_rate: value must be a non-negative integer", validationErrors.get(0));
+        Assertions.assertEquals("Invalid value for user/request_percentage: value must be a non-negative number", validationErrors.get(1));
+    }
+
+    /**
+     * Test the user byte rates must be whole numbers and the request percentage a finite number
+     */
+    @Test
+    void validateNewQuotaUserQuotasNotWholeOrInfinite() {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace")
+                        .cluster("local")
+                        .build())
+                .spec(Namespace.NamespaceSpec.builder()
+                        .connectClusters(List.of("local-name"))
+                        .build())
+                .build();
+
+        ResourceQuota resourceQuota = ResourceQuota.builder()
+                .metadata(ObjectMeta.builder()
+                        .cluster("local")
+                        .name("test")
+                        .build())
+                .spec(Map.of(USER_PRODUCER_BYTE_RATE.toString(), "1.5",
+                        USER_CONSUMER_BYTE_RATE.toString(), "0",
+                        USER_REQUEST_PERCENTAGE.toString(), "Infinity"))
+                .build();
+
+        List<String> validationErrors = resourceQuotaService.validateNewResourceQuota(ns, resourceQuota);
+        Assertions.assertEquals(2, validationErrors.size());
+        Assertions.assertEquals("Invalid value for user/producer_byte_rate: value must be a non-negative integer", validationErrors.get(0));
+        Assertions.assertEquals("Invalid value for user/request_percentage: value must be a non-negative number", validationErrors.get(1));
+    }
+
     /**
      * Test validation when creating quota on disk/topics
      */
@@ -432,7 +517,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic1 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic1")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -443,7 +528,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic2 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic2")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -460,6 +545,74 @@ class ResourceQuotaServiceTest {
         Assertions.assertEquals("Quota already exceeded for disk/topics: 8.79KiB/5000B (used/limit)", validationErrors.get(0));
     }
 
+    /**
+     * Test validation when creating quota on disk/usage with a wrong format
+     */
+    @Test
+    void validateNewQuotaDiskUsageFormat() {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace")
+                        .cluster("local")
+                        .build())
+                .build();
+
+        ResourceQuota resourceQuota = ResourceQuota.builder()
+                .metadata(ObjectMeta.builder()
+                        .cluster("local")
+                        .name("test")
+                        .build())
+                .spec(Map.of(DISK_USAGE.toString(), "10"))
+                .build();
+
+        List<String> validationErrors = resourceQuotaService.validateNewResourceQuota(ns, resourceQuota);
+        Assertions.assertEquals(1, validationErrors.size());
+        Assertions.assertEquals("Invalid value for disk/usage: value must end with either B, KiB, MiB or GiB", validationErrors.get(0));
+    }
+
+    /**
+     * Test validation when creating quota on disk/usage
+     */
+    @Test
+    void validateNewQuotaAgainstCurrentResourceForDiskUsage() {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace")
+                        .cluster("local")
+                        .build())
+                .build();
+
+        ResourceQuota resourceQuota = ResourceQuota.builder()
+                .metadata(ObjectMeta.builder()
+                        .cluster("local")
+                        .name("test")
+                        .build())
+                .spec(Map.of(DISK_USAGE.toString(), "5000B"))
+                .build();
+
+        Topic topic1 = Topic.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("topic1")
+                        .namespace("namespace")
+                        .build())
+                .spec(Topic.TopicSpec.builder()
+                        .partitions(6)
+                        .configs(Map.of())
+                        .build())
+                .build();
+
+        when(topicService.findAllForNamespace(ns))
+                .thenReturn(List.of(topic1));
+        when(applicationContext.findBean(LogDirUsageCollector.class, Qualifiers.byName("local")))
+                .thenReturn(Optional.of(logDirUsageCollector));
+        when(logDirUsageCollector.getDiskUsage(Set.of("topic1")))
+                .thenReturn(Optional.of(6144L));
+
+        List<String> validationErrors = resourceQuotaService.validateNewResourceQuota(ns, resourceQuota);
+        Assertions.assertEquals(1, validationErrors.size());
+        Assertions.assertEquals("Quota already exceeded for disk/usage: 6.0KiB/5000B (used/limit)", validationErrors.get(0));
+    }
+
     /**
      * Test validation when creating quota on count/connectors
      */
@@ -510,21 +663,21 @@ class ResourceQuotaServiceTest {
 
         Topic topic1 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic1")
                         .namespace("namespace")
                         .build())
                 .build();
 
         Topic topic2 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic2")
                         .namespace("namespace")
                         .build())
                 .build();
 
         Topic topic3 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic3")
                         .namespace("namespace")
                         .build())
                 .build();
@@ -554,7 +707,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic1 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic1")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -564,7 +717,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic2 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic2")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -574,7 +727,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic3 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic3")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -630,7 +783,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic1 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic1")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -641,7 +794,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic2 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic2")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -652,7 +805,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic3 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic3")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -706,7 +859,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic1 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic1")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -717,7 +870,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic2 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic2")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -728,7 +881,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic3 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic3")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -815,7 +968,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic1 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic1")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -826,7 +979,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic2 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic2")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -837,7 +990,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic3 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic3")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -858,6 +1011,91 @@ class ResourceQuotaServiceTest {
         Assertions.assertEquals("Exceeding quota for disk/topics: 18.555KiB/20.0KiB (used/limit). Cannot add 5.86KiB of data.", validationErrors.get(2));
     }
 
+    /**
+     * Test quota validation on topics when the disk usage measured on the brokers exceeds the quota
+     */
+    @Test
+    void validateTopicQuotaDiskUsageExceed() {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace")
+                        .cluster("local")
+                        .build())
+                .build();
+
+        ResourceQuota resourceQuota = ResourceQuota.builder()
+                .metadata(ObjectMeta.builder()
+                        .cluster("local")
+                        .name("test")
+                        .build())
+                .spec(Map.of(DISK_USAGE.toString(), "1KiB"))
+                .build();
+
+        Topic newTopic = Topic.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("topic")
+                        .namespace("namespace")
+                        .build())
+                .spec(Topic.TopicSpec.builder()
+                        .partitions(6)
+                        .configs(Map.of())
+                        .build())
+                .build();
+
+        when(resourceQuotaRepository.findForNamespace("namespace"))
+                .thenReturn(Optional.of(resourceQuota));
+        when(applicationContext.findBean(LogDirUsageCollector.class, Qualifiers.byName("local")))
+                .thenReturn(Optional.of(logDirUsageCollector));
+        when(logDirUsageCollector.getDiskUsage(Set.of()))
+                .thenReturn(Optional.of(2048L));
+
+        List<String> validationErrors = resourceQuotaService.validateTopicQuota(ns, Optional.empty(), newTopic);
+        Assertions.assertEquals(1, validationErrors.size());
+        Assertions.assertEquals("Exceeding quota for disk/usage: 2.0KiB/1.0KiB (used/limit). Cannot apply topic until disk usage is reduced.", validationErrors.get(0));
+    }
+
+    /**
+     * Test quota validation on topics does not block when the disk usage has not been collected
+     */
+    @Test
+    void validateTopicQuotaDiskUsageUnknown() {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace")
+                        .cluster("local")
+                        .build())
+                .build();
+
+        ResourceQuota resourceQuota = ResourceQuota.builder()
+                .metadata(ObjectMeta.builder()
+                        .cluster("local")
+                        .name("test")
+                        .build())
+                .spec(Map.of(DISK_USAGE.toString(), "1KiB"))
+                .build();
+
+        Topic newTopic = Topic.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("topic")
+                        .namespace("namespace")
+                        .build())
+                .spec(Topic.TopicSpec.builder()
+                        .partitions(6)
+                        .configs(Map.of())
+                        .build())
+                .build();
+
+        when(resourceQuotaRepository.findForNamespace("namespace"))
+                .thenReturn(Optional.of(resourceQuota));
+        when(applicationContext.findBean(LogDirUsageCollector.class, Qualifiers.byName("local")))
+                .thenReturn(Optional.of(logDirUsageCollector));
+        when(logDirUsageCollector.getDiskUsage(Set.of()))
+                .thenReturn(Optional.empty());
+
+        List<String> validationErrors = resourceQuotaService.validateTopicQuota(ns, Optional.empty(), newTopic);
+        Assertions.assertTrue(validationErrors.isEmpty());
+    }
+
     /**
      * Test quota validation on topic update when quota is being exceeded
      */
@@ -894,7 +1132,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic1 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic1")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -905,7 +1143,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic2 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic2")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -916,7 +1154,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic3 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic3")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -1054,7 +1292,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic1 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic1")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -1065,7 +1303,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic2 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic2")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -1076,7 +1314,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic3 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic3")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -1117,7 +1355,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic1 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic1")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -1128,7 +1366,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic2 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic2")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -1139,7 +1377,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic3 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic3")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -1222,7 +1460,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic1 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic1")
                         .namespace("namespace")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -1233,7 +1471,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic2 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic2")
                         .namespace("namespace2")
                         .build())
                 .spec(Topic.TopicSpec.builder()
@@ -1244,7 +1482,7 @@ class ResourceQuotaServiceTest {
 
         Topic topic3 = Topic.builder()
                 .metadata(ObjectMeta.builder()
-                        .name("topic")
+                        .name("topic3")
                         .namespace("namespace3")
                         .build())
                 .spec(Topic.TopicSpec.builder()
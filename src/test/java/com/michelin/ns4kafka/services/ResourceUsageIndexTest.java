@@ -0,0 +1,172 @@
+package com.michelin.ns4kafka.services;
+
+import com.michelin.ns4kafka.models.AccessControlEntry;
+import com.michelin.ns4kafka.models.Namespace;
+import com.michelin.ns4kafka.models.ObjectMeta;
+import com.michelin.ns4kafka.models.Topic;
+import com.michelin.ns4kafka.models.connector.Connector;
+import com.michelin.ns4kafka.repositories.kafka.KafkaStoreEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ResourceUsageIndexTest {
+    @InjectMocks
+    ResourceUsageIndex resourceUsageIndex;
+
+    @Mock
+    TopicService topicService;
+
+    @Mock
+    ConnectorService connectorService;
+
+    @Mock
+    AccessControlEntryService accessControlEntryService;
+
+    Namespace ns;
+
+    AccessControlEntry ownerAcl;
+
+    @BeforeEach
+    void init() {
+        ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace")
+                        .cluster("local")
+                        .build())
+                .build();
+
+        ownerAcl = AccessControlEntry.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("acl")
+                        .cluster("local")
+                        .build())
+                .spec(AccessControlEntry.AccessControlEntrySpec.builder()
+                        .permission(AccessControlEntry.Permission.OWNER)
+                        .grantedTo("namespace")
+                        .resourcePatternType(AccessControlEntry.ResourcePatternType.PREFIXED)
+                        .resourceType(AccessControlEntry.ResourceType.TOPIC)
+                        .resource("ns-")
+                        .build())
+                .build();
+
+        when(accessControlEntryService.findAllGrantedToNamespace(ns)).thenReturn(List.of(ownerAcl));
+    }
+
+    /**
+     * Test the usage is computed once, then updated from the topic changes of the store
+     */
+    @Test
+    void getUsageUpdatedFromTopicChanges() {
+        Topic topic1 = buildTopic("ns-topic1", 3, "1000");
+        when(topicService.findAllForNamespace(ns)).thenReturn(List.of(topic1));
+        when(connectorService.findAllForNamespace(ns)).thenReturn(List.of());
+
+        ResourceUsageIndex.NamespaceUsage usage = resourceUsageIndex.getUsage(ns);
+        Assertions.assertEquals(1, usage.getCountTopics());
+        Assertions.assertEquals(3, usage.getCountPartitions());
+        Assertions.assertEquals(3000, usage.getDiskTopics());
+
+        // New topic owned by the namespace
+        Topic topic2 = buildTopic("ns-topic2", 6, "0");
+        resourceUsageIndex.onApplicationEvent(new KafkaStoreEvent("local/ns-topic2", null, topic2));
+
+        // Updated topic, applied twice
+        Topic updatedTopic1 = buildTopic("ns-topic1", 3, "2000");
+        resourceUsageIndex.onApplicationEvent(new KafkaStoreEvent("local/ns-topic1", topic1, updatedTopic1));
+        resourceUsageIndex.onApplicationEvent(new KafkaStoreEvent("local/ns-topic1", topic1, updatedTopic1));
+
+        // Topic not owned by the namespace
+        resourceUsageIndex.onApplicationEvent(new KafkaStoreEvent("local/other-topic", null, buildTopic("other-topic", 12, "0")));
+
+        usage = resourceUsageIndex.getUsage(ns);
+        Assertions.assertEquals(2, usage.getCountTopics());
+        Assertions.assertEquals(9, usage.getCountPartitions());
+        Assertions.assertEquals(6000, usage.getDiskTopics());
+
+        // Deleted topic
+        resourceUsageIndex.onApplicationEvent(new KafkaStoreEvent("local/ns-topic2", topic2, null));
+
+        usage = resourceUsageIndex.getUsage(ns);
+        Assertions.assertEquals(1, usage.getCountTopics());
+        Assertions.assertEquals(3, usage.getCountPartitions());
+
+        verify(topicService, times(1)).findAllForNamespace(ns);
+    }
+
+    /**
+     * Test connectors are counted from the store changes
+     */
+    @Test
+    void getUsageUpdatedFromConnectorChanges() {
+        AccessControlEntry connectOwnerAcl = AccessControlEntry.builder()
+                .metadata(ownerAcl.getMetadata())
+                .spec(AccessControlEntry.AccessControlEntrySpec.builder()
+                        .permission(AccessControlEntry.Permission.OWNER)
+                        .grantedTo("namespace")
+                        .resourcePatternType(AccessControlEntry.ResourcePatternType.PREFIXED)
+                        .resourceType(AccessControlEntry.ResourceType.CONNECT)
+                        .resource("ns-")
+                        .build())
+                .build();
+
+        when(accessControlEntryService.findAllGrantedToNamespace(ns)).thenReturn(List.of(ownerAcl, connectOwnerAcl));
+        when(topicService.findAllForNamespace(ns)).thenReturn(List.of());
+        when(connectorService.findAllForNamespace(ns)).thenReturn(List.of());
+
+        Assertions.assertEquals(0, resourceUsageIndex.getUsage(ns).getCountConnectors());
+
+        Connector connector = Connector.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("ns-connect1")
+                        .cluster("local")
+                        .build())
+                .build();
+        resourceUsageIndex.onApplicationEvent(new KafkaStoreEvent("local/ns-connect1", null, connector));
+        Assertions.assertEquals(1, resourceUsageIndex.getUsage(ns).getCountConnectors());
+
+        resourceUsageIndex.onApplicationEvent(new KafkaStoreEvent("local/ns-connect1", connector, null));
+        Assertions.assertEquals(0, resourceUsageIndex.getUsage(ns).getCountConnectors());
+    }
+
+    /**
+     * Test an ownership change makes the usage of the namespace computed again
+     */
+    @Test
+    void getUsageRecomputedOnOwnershipChange() {
+        when(topicService.findAllForNamespace(ns))
+                .thenReturn(List.of(buildTopic("ns-topic1", 3, "0")))
+                .thenReturn(List.of(buildTopic("ns-topic1", 3, "0"), buildTopic("ns2-topic1", 1, "0")));
+        when(connectorService.findAllForNamespace(ns)).thenReturn(List.of());
+
+        Assertions.assertEquals(1, resourceUsageIndex.getUsage(ns).getCountTopics());
+
+        resourceUsageIndex.onApplicationEvent(new KafkaStoreEvent("local/namespace/acl", ownerAcl, ownerAcl));
+
+        Assertions.assertEquals(2, resourceUsageIndex.getUsage(ns).getCountTopics());
+        verify(topicService, times(2)).findAllForNamespace(ns);
+    }
+
+    private Topic buildTopic(String name, int partitions, String retentionBytes) {
+        return Topic.builder()
+                .metadata(ObjectMeta.builder()
+                        .name(name)
+                        .cluster("local")
+                        .build())
+                .spec(Topic.TopicSpec.builder()
+                        .partitions(partitions)
+                        .configs(Map.of("retention.bytes", retentionBytes))
+                        .build())
+                .build();
+    }
+}
@@ -4,7 +4,6 @@ import com.michelin.ns4kafka.models.AccessControlEntry;
 import com.michelin.ns4kafka.models.Namespace;
 import com.michelin.ns4kafka.models.ObjectMeta;
 import com.michelin.ns4kafka.models.schema.Schema;
-import com.michelin.ns4kafka.services.schema.KafkaSchemaRegistryClientProxy;
 import com.michelin.ns4kafka.services.schema.client.KafkaSchemaRegistryClient;
 import com.michelin.ns4kafka.services.schema.client.entities.SchemaCompatibilityCheckResponse;
 import com.michelin.ns4kafka.services.schema.client.entities.SchemaCompatibilityResponse;
@@ -23,6 +22,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,7 +44,7 @@ class SchemaServiceTest {
         Namespace namespace = buildNamespace();
         List<String> subjectsResponse = Arrays.asList("prefix.schema-one", "prefix2.schema-two", "prefix2.schema-three");
 
-        when(kafkaSchemaRegistryClient.getSubjects(KafkaSchemaRegistryClientProxy.PROXY_SECRET, namespace.getMetadata().getCluster())).thenReturn(Single.just(subjectsResponse));
+        when(kafkaSchemaRegistryClient.getSubjects(namespace.getMetadata().getCluster())).thenReturn(Single.just(subjectsResponse));
         Mockito.when(accessControlEntryService.findAllGrantedToNamespace(namespace))
                 .thenReturn(List.of(
                         AccessControlEntry.builder()
@@ -93,6 +93,39 @@ class SchemaServiceTest {
             .assertValue(schemas -> schemas.stream().noneMatch(schema -> schema.getMetadata().getName().equals("prefix2.schema-three")));
     }
 
+    /**
+     * Test to find all schemas by namespace with their details, in the order of the subjects
+     */
+    @Test
+    void getAllExpandedByNamespace() {
+        Namespace namespace = buildNamespace();
+
+        when(kafkaSchemaRegistryClient.getSubjects(namespace.getMetadata().getCluster()))
+                .thenReturn(Single.just(List.of("prefix.schema-one-value", "prefix.schema-two-value")));
+        when(accessControlEntryService.findAllGrantedToNamespace(namespace))
+                .thenReturn(List.of(AccessControlEntry.builder()
+                        .spec(AccessControlEntry.AccessControlEntrySpec.builder()
+                                .permission(AccessControlEntry.Permission.OWNER)
+                                .grantedTo("namespace")
+                                .resourcePatternType(AccessControlEntry.ResourcePatternType.PREFIXED)
+                                .resourceType(AccessControlEntry.ResourceType.TOPIC)
+                                .resource("prefix.")
+                                .build())
+                        .build()));
+        when(kafkaSchemaRegistryClient.getLatestSubject(namespace.getMetadata().getCluster(), "prefix.schema-one-value"))
+                .thenReturn(Maybe.just(buildSchemaResponse("prefix.schema-one-value")));
+        when(kafkaSchemaRegistryClient.getLatestSubject(namespace.getMetadata().getCluster(), "prefix.schema-two-value"))
+                .thenReturn(Maybe.just(buildSchemaResponse("prefix.schema-two-value")));
+        when(kafkaSchemaRegistryClient.getCurrentCompatibilityBySubject(any(), any())).thenReturn(Maybe.just(buildCompatibilityResponse()));
+
+        schemaService.findAllExpandedForNamespace(namespace)
+                .test()
+                .assertValueCount(2)
+                .assertValueAt(0, schema -> schema.getMetadata().getName().equals("prefix.schema-one-value"))
+                .assertValueAt(1, schema -> schema.getMetadata().getName().equals("prefix.schema-two-value")
+                        && schema.getSpec().getCompatibility() == Schema.Compatibility.BACKWARD);
+    }
+
     /**
      * Test to find all schemas by namespace and the response from the schema registry is empty
      */
@@ -100,7 +133,7 @@ class SchemaServiceTest {
     void getAllByNamespaceEmptyResponse() {
         Namespace namespace = buildNamespace();
 
-        when(kafkaSchemaRegistryClient.getSubjects(KafkaSchemaRegistryClientProxy.PROXY_SECRET, namespace.getMetadata().getCluster())).thenReturn(Single.just(List.of()));
+        when(kafkaSchemaRegistryClient.getSubjects(namespace.getMetadata().getCluster())).thenReturn(Single.just(List.of()));
 
        schemaService.findAllForNamespace(namespace)
                 .test()
@@ -115,8 +148,8 @@ class SchemaServiceTest {
         Namespace namespace = buildNamespace();
         SchemaCompatibilityResponse compatibilityResponse = buildCompatibilityResponse();
 
-        when(kafkaSchemaRegistryClient.getLatestSubject(KafkaSchemaRegistryClientProxy.PROXY_SECRET, namespace.getMetadata().getCluster(), "prefix.schema-one")).thenReturn(Maybe.just(buildSchemaResponse("prefix.schema-one")));
-        when(kafkaSchemaRegistryClient.getCurrentCompatibilityBySubject(any(), any(), any())).thenReturn(Maybe.just(compatibilityResponse));
+        when(kafkaSchemaRegistryClient.getLatestSubject(namespace.getMetadata().getCluster(), "prefix.schema-one")).thenReturn(Maybe.just(buildSchemaResponse("prefix.schema-one")));
+        when(kafkaSchemaRegistryClient.getCurrentCompatibilityBySubject(any(), any())).thenReturn(Maybe.just(compatibilityResponse));
 
         schemaService.getLatestSubject(namespace, "prefix.schema-one")
                 .test()
@@ -132,7 +165,7 @@ class SchemaServiceTest {
     void getBySubjectAndVersionEmptyResponse() {
         Namespace namespace = buildNamespace();
 
-        when(kafkaSchemaRegistryClient.getLatestSubject(KafkaSchemaRegistryClientProxy.PROXY_SECRET, namespace.getMetadata().getCluster(), "prefix.schema-one")).thenReturn(Maybe.empty());
+        when(kafkaSchemaRegistryClient.getLatestSubject(namespace.getMetadata().getCluster(), "prefix.schema-one")).thenReturn(Maybe.empty());
 
         schemaService.getLatestSubject(namespace, "prefix.schema-one")
                 .test()
@@ -148,7 +181,7 @@ class SchemaServiceTest {
         Namespace namespace = buildNamespace();
         Schema schema = buildSchema();
 
-        when(kafkaSchemaRegistryClient.register(any(), any(), any(), any()))
+        when(kafkaSchemaRegistryClient.register(any(), any(), any()))
                 .thenReturn(Single.just(SchemaResponse.builder().id(1).version(1).build()));
 
         schemaService.register(namespace, schema)
@@ -163,21 +196,19 @@ class SchemaServiceTest {
     void deleteSubject() {
         Namespace namespace = buildNamespace();
 
-        when(kafkaSchemaRegistryClient.deleteSubject(KafkaSchemaRegistryClientProxy.PROXY_SECRET, namespace.getMetadata().getCluster(),
+        when(kafkaSchemaRegistryClient.deleteSubject(namespace.getMetadata().getCluster(),
                 "prefix.schema-one", false)).thenReturn(Single.just(new Integer[]{1}));
 
-        when(kafkaSchemaRegistryClient.deleteSubject(KafkaSchemaRegistryClientProxy.PROXY_SECRET, namespace.getMetadata().getCluster(),
+        when(kafkaSchemaRegistryClient.deleteSubject(namespace.getMetadata().getCluster(),
                 "prefix.schema-one", true)).thenReturn(Single.just(new Integer[]{1}));
 
         schemaService.deleteSubject(namespace, "prefix.schema-one")
                 .test()
                 .assertValue(ids -> ids.length == 1 && ids[0] == 1);
 
-        verify(kafkaSchemaRegistryClient, times(1)).deleteSubject(KafkaSchemaRegistryClientProxy.PROXY_SECRET,
-                namespace.getMetadata().getCluster(), "prefix.schema-one", false);
+        verify(kafkaSchemaRegistryClient, times(1)).deleteSubject(namespace.getMetadata().getCluster(), "prefix.schema-one", false);
 
-        verify(kafkaSchemaRegistryClient, times(1)).deleteSubject(KafkaSchemaRegistryClientProxy.PROXY_SECRET,
-                namespace.getMetadata().getCluster(), "prefix.schema-one", true);
+        verify(kafkaSchemaRegistryClient, times(1)).deleteSubject(namespace.getMetadata().getCluster(), "prefix.schema-one", true);
     }
 
     /**
@@ -191,7 +222,7 @@ class SchemaServiceTest {
                 .isCompatible(true)
                 .build();
 
-        when(kafkaSchemaRegistryClient.validateSchemaCompatibility(any(), any(), any(), any()))
+        when(kafkaSchemaRegistryClient.validateSchemaCompatibility(any(), any(), any()))
                 .thenReturn(Maybe.just(schemaCompatibilityCheckResponse));
 
         schemaService.validateSchemaCompatibility(namespace.getMetadata().getCluster(), schema)
@@ -211,7 +242,7 @@ class SchemaServiceTest {
                 .messages(List.of("Incompatible schema"))
                 .build();
 
-        when(kafkaSchemaRegistryClient.validateSchemaCompatibility(any(), any(), any(), any()))
+        when(kafkaSchemaRegistryClient.validateSchemaCompatibility(any(), any(), any()))
                 .thenReturn(Maybe.just(schemaCompatibilityCheckResponse));
 
         schemaService.validateSchemaCompatibility(namespace.getMetadata().getCluster(), schema)
@@ -228,7 +259,7 @@ class SchemaServiceTest {
         Namespace namespace = buildNamespace();
         Schema schema = buildSchema();
 
-        when(kafkaSchemaRegistryClient.validateSchemaCompatibility(any(), any(), any(), any()))
+        when(kafkaSchemaRegistryClient.validateSchemaCompatibility(any(), any(), any()))
                 .thenReturn(Maybe.empty());
 
         schemaService.validateSchemaCompatibility(namespace.getMetadata().getCluster(), schema)
@@ -244,7 +275,7 @@ class SchemaServiceTest {
         Namespace namespace = buildNamespace();
         Schema schema = buildSchema();
 
-        when(kafkaSchemaRegistryClient.deleteCurrentCompatibilityBySubject(any(), any(), any()))
+        when(kafkaSchemaRegistryClient.deleteCurrentCompatibilityBySubject(any(), any()))
                 .thenReturn(Single.just(SchemaCompatibilityResponse.builder()
                         .compatibilityLevel(Schema.Compatibility.FORWARD)
                         .build()));
@@ -253,7 +284,7 @@ class SchemaServiceTest {
                 .test()
                 .assertValue(schemaCompatibilityResponse -> schemaCompatibilityResponse.compatibilityLevel().equals(Schema.Compatibility.FORWARD));
 
-        verify(kafkaSchemaRegistryClient, times(1)).deleteCurrentCompatibilityBySubject(any(), any(), any());
+        verify(kafkaSchemaRegistryClient, times(1)).deleteCurrentCompatibilityBySubject(any(), any());
     }
 
     /**
@@ -264,7 +295,7 @@ class SchemaServiceTest {
         Namespace namespace = buildNamespace();
         Schema schema = buildSchema();
 
-        when(kafkaSchemaRegistryClient.updateSubjectCompatibility(any(), any(), any(), any()))
+        when(kafkaSchemaRegistryClient.updateSubjectCompatibility(any(), any(), any()))
                 .thenReturn(Single.just(SchemaCompatibilityResponse.builder()
                          .compatibilityLevel(Schema.Compatibility.FORWARD)
                         .build()));
@@ -273,7 +304,55 @@ class SchemaServiceTest {
                 .test()
                 .assertValue(schemaCompatibilityResponse -> schemaCompatibilityResponse.compatibilityLevel().equals(Schema.Compatibility.FORWARD));
 
-        verify(kafkaSchemaRegistryClient, times(1)).updateSubjectCompatibility(any(), any(), any(), any());
+        verify(kafkaSchemaRegistryClient, times(1)).updateSubjectCompatibility(any(), any(), any());
+    }
+
+    /**
+     * Test a schema is the same as the latest version despite a different formatting, once confirmed by the Schema Registry,
+     * but not with another content or other references
+     */
+    @Test
+    void isSameAsLatest() {
+        Namespace namespace = buildNamespace();
+        Schema latestSchema = buildSchema();
+        latestSchema.getSpec().setId(1);
+
+        when(kafkaSchemaRegistryClient.isLatestVersion(any(), any(), any(), any(), any()))
+                .thenReturn(Single.just(true));
+
+        Schema reformattedSchema = buildSchema();
+        reformattedSchema.getSpec().setSchema(" {\n  " + reformattedSchema.getSpec().getSchema().substring(1));
+        schemaService.isSameAsLatest(namespace, reformattedSchema, latestSchema).test().assertValue(true);
+
+        Schema changedSchema = buildSchema();
+        changedSchema.getSpec().setSchema(changedSchema.getSpec().getSchema().replace("First name", "Given name"));
+        schemaService.isSameAsLatest(namespace, changedSchema, latestSchema).test().assertValue(false);
+
+        Schema referencingSchema = buildSchema();
+        referencingSchema.getSpec().setReferences(List.of(Schema.SchemaSpec.Reference.builder()
+                .name("Header")
+                .subject("header-value")
+                .version(1)
+                .build()));
+        schemaService.isSameAsLatest(namespace, referencingSchema, latestSchema).test().assertValue(false);
+
+        verify(kafkaSchemaRegistryClient, times(1)).isLatestVersion(any(), any(), any(), any(), any());
+    }
+
+    /**
+     * Test a schema identical to a stale latest version is not the same as the latest version when the Schema Registry
+     * does not confirm it is the latest version
+     */
+    @Test
+    void isSameAsLatestStale() {
+        Namespace namespace = buildNamespace();
+        Schema latestSchema = buildSchema();
+        latestSchema.getSpec().setId(1);
+
+        when(kafkaSchemaRegistryClient.isLatestVersion(eq("local"), eq("prefix.schema-one"), eq(1), any(), any()))
+                .thenReturn(Single.just(false));
+
+        schemaService.isSameAsLatest(namespace, buildSchema(), latestSchema).test().assertValue(false);
     }
 
     /**
@@ -1,15 +1,22 @@
 package com.michelin.ns4kafka.services;
 
 import com.michelin.ns4kafka.models.AccessControlEntry;
+import com.michelin.ns4kafka.models.DeleteRecordsResponse;
 import com.michelin.ns4kafka.models.Namespace;
 import com.michelin.ns4kafka.models.Namespace.NamespaceSpec;
 import com.michelin.ns4kafka.models.ObjectMeta;
 import com.michelin.ns4kafka.models.Topic;
+import com.michelin.ns4kafka.models.TopicStats;
 import com.michelin.ns4kafka.repositories.TopicRepository;
 import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import com.michelin.ns4kafka.services.admin.BrokerTopicCache;
 import com.michelin.ns4kafka.services.executors.TopicAsyncExecutor;
 import io.micronaut.context.ApplicationContext;
 import io.micronaut.inject.qualifiers.Qualifiers;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.NotLeaderOrFollowerException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -284,24 +291,16 @@ class TopicServiceTest {
                         .build())
                 .build();
 
-        // init topicAsyncExecutor
-        TopicAsyncExecutor topicAsyncExecutor = Mockito.mock(TopicAsyncExecutor.class);
-        Mockito.when(applicationContext.getBean(TopicAsyncExecutor.class,
-                Qualifiers.byName(ns.getMetadata().getCluster()))).thenReturn(topicAsyncExecutor);
+        // init brokerTopicCache
+        BrokerTopicCache brokerTopicCache = Mockito.mock(BrokerTopicCache.class);
+        Mockito.when(applicationContext.getBean(BrokerTopicCache.class,
+                Qualifiers.byName(ns.getMetadata().getCluster()))).thenReturn(brokerTopicCache);
 
-        // list of existing broker topics
-        Mockito.when(topicAsyncExecutor.listBrokerTopicNames()).thenReturn(List.of("ns-topic1", "ns-topic2",
-                "ns1-topic1", "ns2-topic1"));
+        // list of existing broker topics, "ns2-topic1" is not owned by the namespace
+        Mockito.when(brokerTopicCache.findAllByPrefix("ns-")).thenReturn(List.of("ns-topic1", "ns-topic2"));
+        Mockito.when(brokerTopicCache.contains("ns1-topic1")).thenReturn(true);
 
         // list of existing ns4kfk access control entries
-        Mockito.when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.TOPIC, "ns-topic1"))
-                .thenReturn(true);
-        Mockito.when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.TOPIC, "ns-topic2"))
-                .thenReturn(true);
-        Mockito.when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.TOPIC, "ns1-topic1"))
-                .thenReturn(true);
-        Mockito.when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.TOPIC, "ns2-topic1"))
-                .thenReturn(false);
 
         Mockito.when(accessControlEntryService.findAllGrantedToNamespace(ns))
                 .thenReturn(List.of(
@@ -373,24 +372,16 @@ class TopicServiceTest {
                 .metadata(ObjectMeta.builder().name("ns2-topic1").build())
                 .build();
 
-        // init topicAsyncExecutor
-        TopicAsyncExecutor topicAsyncExecutor = Mockito.mock(TopicAsyncExecutor.class);
-        Mockito.when(applicationContext.getBean(TopicAsyncExecutor.class,
-                Qualifiers.byName(ns.getMetadata().getCluster()))).thenReturn(topicAsyncExecutor);
+        // init brokerTopicCache
+        BrokerTopicCache brokerTopicCache = Mockito.mock(BrokerTopicCache.class);
+        Mockito.when(applicationContext.getBean(BrokerTopicCache.class,
+                Qualifiers.byName(ns.getMetadata().getCluster()))).thenReturn(brokerTopicCache);
 
-        // list of existing broker topics
-        Mockito.when(topicAsyncExecutor.listBrokerTopicNames()).thenReturn(List.of(t1.getMetadata().getName(), t2.getMetadata().getName(),
-                t3.getMetadata().getName(), t4.getMetadata().getName()));
+        // list of existing broker topics, "ns2-topic1" is not owned by the namespace
+        Mockito.when(brokerTopicCache.findAllByPrefix("ns-")).thenReturn(List.of("ns-topic1", "ns-topic2"));
+        Mockito.when(brokerTopicCache.contains("ns1-topic1")).thenReturn(true);
 
         // list of existing ns4kfk access control entries
-        Mockito.when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.TOPIC, t1.getMetadata().getName()))
-                .thenReturn(true);
-        Mockito.when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.TOPIC, t2.getMetadata().getName()))
-                .thenReturn(true);
-        Mockito.when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.TOPIC, t3.getMetadata().getName()))
-                .thenReturn(true);
-        Mockito.when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.TOPIC, t4.getMetadata().getName()))
-                .thenReturn(false);
 
         Mockito.when(accessControlEntryService.findAllGrantedToNamespace(ns))
                 .thenReturn(List.of(
@@ -448,24 +439,16 @@ class TopicServiceTest {
                 .metadata(ObjectMeta.builder().name("ns-topic1").build())
                 .build();
 
-        // init topicAsyncExecutor
-        TopicAsyncExecutor topicAsyncExecutor = Mockito.mock(TopicAsyncExecutor.class);
-        Mockito.when(applicationContext.getBean(TopicAsyncExecutor.class,
-                Qualifiers.byName(ns.getMetadata().getCluster()))).thenReturn(topicAsyncExecutor);
+        // init brokerTopicCache
+        BrokerTopicCache brokerTopicCache = Mockito.mock(BrokerTopicCache.class);
+        Mockito.when(applicationContext.getBean(BrokerTopicCache.class,
+                Qualifiers.byName(ns.getMetadata().getCluster()))).thenReturn(brokerTopicCache);
 
-        // list of existing broker topics
-        Mockito.when(topicAsyncExecutor.listBrokerTopicNames()).thenReturn(List.of("ns-topic1", "ns-topic2",
-                "ns1-topic1", "ns2-topic1"));
+        // list of existing broker topics, "ns2-topic1" is not owned by the namespace
+        Mockito.when(brokerTopicCache.findAllByPrefix("ns-")).thenReturn(List.of("ns-topic1", "ns-topic2"));
+        Mockito.when(brokerTopicCache.contains("ns1-topic1")).thenReturn(true);
 
         // list of existing ns4kfk access control entries
-        Mockito.when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.TOPIC, "ns-topic1"))
-                .thenReturn(true);
-        Mockito.when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.TOPIC, "ns-topic2"))
-                .thenReturn(true);
-        Mockito.when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.TOPIC, "ns1-topic1"))
-                .thenReturn(true);
-        Mockito.when(accessControlEntryService.isNamespaceOwnerOfResource("namespace", AccessControlEntry.ResourceType.TOPIC, "ns2-topic1"))
-                .thenReturn(false);
 
         Mockito.when(accessControlEntryService.findAllGrantedToNamespace(ns))
                 .thenReturn(List.of(
@@ -505,64 +488,6 @@ class TopicServiceTest {
 
     }
 
-    /**
-     * Validate colliding topics when there is no collision
-     * @throws InterruptedException Any interrupted exception
-     * @throws ExecutionException Any execution exception
-     * @throws TimeoutException Any timeout exception
-     */
-    @Test
-    void findCollidingTopicsNoCollision() throws ExecutionException, InterruptedException, TimeoutException {
-        Namespace ns = Namespace.builder()
-                .metadata(ObjectMeta.builder()
-                        .name("namespace")
-                        .cluster("local")
-                        .build())
-                .build();
-        Topic topic = Topic.builder()
-                .metadata(ObjectMeta.builder().name("project1.topic").build())
-                .build();
-
-        TopicAsyncExecutor topicAsyncExecutor = Mockito.mock(TopicAsyncExecutor.class);
-        Mockito.when(applicationContext.getBean(TopicAsyncExecutor.class, Qualifiers.byName("local")))
-                .thenReturn(topicAsyncExecutor);
-        Mockito.when(topicAsyncExecutor.listBrokerTopicNames())
-                .thenReturn(List.of("project2.topic", "project1.other"));
-
-        List<String> actual = topicService.findCollidingTopics(ns, topic);
-
-        Assertions.assertTrue(actual.isEmpty());
-    }
-
-    /**
-     * Validate colliding topics when names collide
-     * @throws InterruptedException Any interrupted exception
-     * @throws ExecutionException Any execution exception
-     * @throws TimeoutException Any timeout exception
-     */
-    @Test
-    void findCollidingTopicsIdenticalName() throws ExecutionException, InterruptedException, TimeoutException {
-        Namespace ns = Namespace.builder()
-                .metadata(ObjectMeta.builder()
-                        .name("namespace")
-                        .cluster("local")
-                        .build())
-                .build();
-        Topic topic = Topic.builder()
-                .metadata(ObjectMeta.builder().name("project1.topic").build())
-                .build();
-
-        TopicAsyncExecutor topicAsyncExecutor = Mockito.mock(TopicAsyncExecutor.class);
-        Mockito.when(applicationContext.getBean(TopicAsyncExecutor.class, Qualifiers.byName("local")))
-                .thenReturn(topicAsyncExecutor);
-        Mockito.when(topicAsyncExecutor.listBrokerTopicNames())
-                .thenReturn(List.of("project1.topic", "project2.topic", "project1.other"));
-
-        List<String> actual = topicService.findCollidingTopics(ns, topic);
-
-        Assertions.assertTrue(actual.isEmpty(), "Topic with exactly the same name should not interfere with collision check");
-    }
-
     /**
      * Validate colliding topics when names collide
      * @throws InterruptedException Any interrupted exception
@@ -581,10 +506,10 @@ class TopicServiceTest {
                 .metadata(ObjectMeta.builder().name("project1.topic").build())
                 .build();
 
-        TopicAsyncExecutor topicAsyncExecutor = Mockito.mock(TopicAsyncExecutor.class);
-        Mockito.when(applicationContext.getBean(TopicAsyncExecutor.class, Qualifiers.byName("local")))
-                .thenReturn(topicAsyncExecutor);
-        Mockito.when(topicAsyncExecutor.listBrokerTopicNames())
+        BrokerTopicCache brokerTopicCache = Mockito.mock(BrokerTopicCache.class);
+        Mockito.when(applicationContext.getBean(BrokerTopicCache.class, Qualifiers.byName("local")))
+                .thenReturn(brokerTopicCache);
+        Mockito.when(brokerTopicCache.findCollidingTopics("project1.topic"))
                 .thenReturn(List.of("project1_topic"));
 
         List<String> actual = topicService.findCollidingTopics(ns, topic);
@@ -611,10 +536,10 @@ class TopicServiceTest {
                 .metadata(ObjectMeta.builder().name("project1.topic").build())
                 .build();
 
-        TopicAsyncExecutor topicAsyncExecutor = Mockito.mock(TopicAsyncExecutor.class);
-        Mockito.when(applicationContext.getBean(TopicAsyncExecutor.class, Qualifiers.byName("local")))
-                .thenReturn(topicAsyncExecutor);
-        Mockito.when(topicAsyncExecutor.listBrokerTopicNames())
+        BrokerTopicCache brokerTopicCache = Mockito.mock(BrokerTopicCache.class);
+        Mockito.when(applicationContext.getBean(BrokerTopicCache.class, Qualifiers.byName("local")))
+                .thenReturn(brokerTopicCache);
+        Mockito.when(brokerTopicCache.findCollidingTopics("project1.topic"))
                 .thenThrow(new InterruptedException());
 
        Assertions.assertThrows(InterruptedException.class,
@@ -642,10 +567,10 @@ class TopicServiceTest {
                 .metadata(ObjectMeta.builder().name("project1.topic").build())
                 .build();
 
-        TopicAsyncExecutor topicAsyncExecutor = Mockito.mock(TopicAsyncExecutor.class);
-        Mockito.when(applicationContext.getBean(TopicAsyncExecutor.class, Qualifiers.byName("local")))
-                .thenReturn(topicAsyncExecutor);
-        Mockito.when(topicAsyncExecutor.listBrokerTopicNames())
+        BrokerTopicCache brokerTopicCache = Mockito.mock(BrokerTopicCache.class);
+        Mockito.when(applicationContext.getBean(BrokerTopicCache.class, Qualifiers.byName("local")))
+                .thenReturn(brokerTopicCache);
+        Mockito.when(brokerTopicCache.findCollidingTopics("project1.topic"))
                 .thenThrow(new RuntimeException("Unknown Error"));
 
         Assertions.assertThrows(RuntimeException.class,
@@ -935,4 +860,72 @@ class TopicServiceTest {
         List<Topic> topics = topicService.findAll();
         Assertions.assertEquals(4, topics.size());
     }
+
+    /**
+     * Validate topic statistics are returned in the order of the topics, for the topics existing on the cluster
+     */
+    @Test
+    void getTopicStats() throws ExecutionException, InterruptedException, TimeoutException {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace")
+                        .cluster("local")
+                        .build())
+                .build();
+
+        List<Topic> topics = List.of(
+                Topic.builder().metadata(ObjectMeta.builder().name("ns-topic2").build()).build(),
+                Topic.builder().metadata(ObjectMeta.builder().name("ns-topic1").build()).build(),
+                Topic.builder().metadata(ObjectMeta.builder().name("ns-topic3").build()).build());
+
+        TopicAsyncExecutor topicAsyncExecutor = Mockito.mock(TopicAsyncExecutor.class);
+        Mockito.when(applicationContext.getBean(TopicAsyncExecutor.class, Qualifiers.byName("local")))
+                .thenReturn(topicAsyncExecutor);
+        Mockito.when(topicAsyncExecutor.getTopicStats(List.of("ns-topic2", "ns-topic1", "ns-topic3")))
+                .thenReturn(Map.of(
+                        "ns-topic1", TopicStats.builder().metadata(ObjectMeta.builder().name("ns-topic1").build()).build(),
+                        "ns-topic2", TopicStats.builder().metadata(ObjectMeta.builder().name("ns-topic2").build()).build()));
+
+        List<TopicStats> actual = topicService.getTopicStats(ns, topics);
+
+        Assertions.assertEquals(2, actual.size());
+        Assertions.assertEquals("ns-topic2", actual.get(0).getMetadata().getName());
+        Assertions.assertEquals("ns-topic1", actual.get(1).getMetadata().getName());
+    }
+
+    /**
+     * Validate a topic-partition failing to delete its records is reported with its error, without failing the others
+     */
+    @Test
+    void bulkDeleteRecordsPartialFailure() {
+        Namespace ns = Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name("namespace")
+                        .cluster("local")
+                        .build())
+                .build();
+
+        TopicPartition topicPartition = new TopicPartition("ns-topic1", 0);
+        TopicPartition failedTopicPartition = new TopicPartition("ns-topic2", 0);
+        KafkaFutureImpl<Long> failure = new KafkaFutureImpl<>();
+        failure.completeExceptionally(new NotLeaderOrFollowerException("This server is not the leader for that topic-partition."));
+
+        TopicAsyncExecutor topicAsyncExecutor = Mockito.mock(TopicAsyncExecutor.class);
+        Mockito.when(applicationContext.getBean(TopicAsyncExecutor.class, Qualifiers.byName("local")))
+                .thenReturn(topicAsyncExecutor);
+        Mockito.when(topicAsyncExecutor.deleteRecordsAsync(Mockito.anyMap()))
+                .thenReturn(Map.of(
+                        topicPartition, KafkaFuture.completedFuture(100L),
+                        failedTopicPartition, failure));
+
+        Map<String, DeleteRecordsResponse.DeleteRecordsResponseSpec> actual = topicService
+                .bulkDeleteRecords(ns, Map.of(topicPartition, 100L, failedTopicPartition, 50L))
+                .toMap(response -> response.getSpec().getTopic(), DeleteRecordsResponse::getSpec)
+                .blockingGet();
+
+        Assertions.assertEquals(100L, actual.get("ns-topic1").getOffset());
+        Assertions.assertNull(actual.get("ns-topic1").getError());
+        Assertions.assertEquals(-1L, actual.get("ns-topic2").getOffset());
+        Assertions.assertEquals("This server is not the leader for that topic-partition.", actual.get("ns-topic2").getError());
+    }
 }
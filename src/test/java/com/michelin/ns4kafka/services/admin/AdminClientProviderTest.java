@@ -0,0 +1,120 @@
+package com.michelin.ns4kafka.services.admin;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class AdminClientProviderTest {
+    KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig;
+
+    List<Admin> createdClients;
+
+    @BeforeEach
+    void init() {
+        KafkaAsyncExecutorConfig.AdminConfig adminConfig = new KafkaAsyncExecutorConfig.AdminConfig();
+        adminConfig.setRecreateThreshold(2);
+
+        Properties config = new Properties();
+        config.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+
+        kafkaAsyncExecutorConfig = new KafkaAsyncExecutorConfig("local");
+        kafkaAsyncExecutorConfig.setAdmin(adminConfig);
+        kafkaAsyncExecutorConfig.setConfig(config);
+
+        createdClients = new ArrayList<>();
+    }
+
+    /**
+     * Test the configured timeouts are applied when the cluster config does not define them
+     */
+    @Test
+    void buildAdminPropertiesDefaultTimeouts() {
+        Properties properties = buildAdminClientProvider().buildAdminProperties();
+
+        Assertions.assertEquals("localhost:9092", properties.get(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG));
+        Assertions.assertEquals("15000", properties.get(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG));
+        Assertions.assertEquals("30000", properties.get(AdminClientConfig.DEFAULT_API_TIMEOUT_MS_CONFIG));
+    }
+
+    /**
+     * Test the timeouts of the cluster config take precedence, and the API timeout is never lower than the request timeout
+     */
+    @Test
+    void buildAdminPropertiesClusterTimeouts() {
+        kafkaAsyncExecutorConfig.getConfig().put(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG, "60000");
+
+        Properties properties = buildAdminClientProvider().buildAdminProperties();
+
+        Assertions.assertEquals("60000", properties.get(AdminClientConfig.REQUEST_TIMEOUT_MS_CONFIG));
+        Assertions.assertEquals("60000", properties.get(AdminClientConfig.DEFAULT_API_TIMEOUT_MS_CONFIG));
+    }
+
+    /**
+     * Test the Admin client is created once
+     */
+    @Test
+    void getAdminClientCreatedOnce() {
+        AdminClientProvider adminClientProvider = buildAdminClientProvider();
+
+        Admin first = adminClientProvider.getAdminClient();
+        Admin second = adminClientProvider.getAdminClient();
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, createdClients.size());
+    }
+
+    /**
+     * Test the Admin client is closed and recreated after consecutive failures
+     */
+    @Test
+    void onFailureRecreatesAdminClient() {
+        AdminClientProvider adminClientProvider = buildAdminClientProvider();
+        Admin first = adminClientProvider.getAdminClient();
+
+        adminClientProvider.onFailure();
+        adminClientProvider.onSuccess();
+        adminClientProvider.onFailure();
+        Assertions.assertSame(first, adminClientProvider.getAdminClient());
+
+        adminClientProvider.onFailure();
+        verify(first).close(any(Duration.class));
+        Assertions.assertNotSame(first, adminClientProvider.getAdminClient());
+        Assertions.assertEquals(2, createdClients.size());
+    }
+
+    /**
+     * Test the Admin client is closed on shutdown and cannot be used anymore
+     */
+    @Test
+    void closeAdminClient() {
+        AdminClientProvider adminClientProvider = buildAdminClientProvider();
+        Admin admin = adminClientProvider.getAdminClient();
+
+        adminClientProvider.close();
+
+        verify(admin).close(any(Duration.class));
+        Assertions.assertThrows(IllegalStateException.class, adminClientProvider::getAdminClient);
+    }
+
+    private AdminClientProvider buildAdminClientProvider() {
+        return new AdminClientProvider(kafkaAsyncExecutorConfig) {
+            @Override
+            Admin createAdminClient(Properties properties) {
+                Admin admin = mock(Admin.class);
+                createdClients.add(admin);
+                return admin;
+            }
+        };
+    }
+}
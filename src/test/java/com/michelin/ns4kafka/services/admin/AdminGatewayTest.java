@@ -0,0 +1,167 @@
+package com.michelin.ns4kafka.services.admin;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import com.michelin.ns4kafka.utils.exceptions.ClusterUnavailableException;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.ExecutionException;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminGatewayTest {
+    @Mock
+    Admin admin;
+
+    @Mock
+    ApplicationContext applicationContext;
+
+    @Mock
+    AdminClientProvider adminClientProvider;
+
+    KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig;
+
+    @BeforeEach
+    void init() {
+        KafkaAsyncExecutorConfig.AdminConfig adminConfig = new KafkaAsyncExecutorConfig.AdminConfig();
+        adminConfig.setFailureThreshold(2);
+        adminConfig.setOpenDuration(60000);
+        adminConfig.setMaxWait(0);
+
+        kafkaAsyncExecutorConfig = new KafkaAsyncExecutorConfig("local");
+        kafkaAsyncExecutorConfig.setAdmin(adminConfig);
+
+        when(applicationContext.getBean(AdminClientProvider.class, Qualifiers.byName("local"))).thenReturn(adminClientProvider);
+        when(adminClientProvider.getAdminClient()).thenReturn(admin);
+    }
+
+    /**
+     * Test a successful request goes through
+     */
+    @Test
+    void callSuccess() throws ExecutionException, InterruptedException {
+        AdminGateway adminGateway = buildAdminGateway();
+
+        Assertions.assertEquals("result", adminGateway.call(client -> KafkaFuture.completedFuture("result")).get());
+        Assertions.assertEquals(AdminGateway.CircuitState.CLOSED, adminGateway.getCircuitState());
+    }
+
+    /**
+     * Test the circuit opens after consecutive timeouts and rejects the next requests
+     */
+    @Test
+    void callOpensCircuit() {
+        AdminGateway adminGateway = buildAdminGateway();
+
+        adminGateway.call(client -> failedFuture(new TimeoutException("timeout")));
+        Assertions.assertTrue(adminGateway.isAvailable());
+
+        adminGateway.call(client -> failedFuture(new TimeoutException("timeout")));
+        Assertions.assertFalse(adminGateway.isAvailable());
+        Assertions.assertEquals(AdminGateway.CircuitState.OPEN, adminGateway.getCircuitState());
+
+        ClusterUnavailableException exception = Assertions.assertThrows(ClusterUnavailableException.class,
+                () -> adminGateway.call(client -> KafkaFuture.completedFuture("result")));
+        Assertions.assertEquals("local", exception.getCluster());
+    }
+
+    /**
+     * Test request errors do not open the circuit
+     */
+    @Test
+    void callRequestErrorKeepsCircuitClosed() {
+        AdminGateway adminGateway = buildAdminGateway();
+
+        adminGateway.call(client -> failedFuture(new TopicExistsException("exists")));
+        adminGateway.call(client -> failedFuture(new TopicExistsException("exists")));
+
+        Assertions.assertEquals(AdminGateway.CircuitState.CLOSED, adminGateway.getCircuitState());
+    }
+
+    /**
+     * Test the circuit lets a trial request through once the open duration is elapsed, and closes on success
+     */
+    @Test
+    void callHalfOpenCircuit() throws ExecutionException, InterruptedException {
+        kafkaAsyncExecutorConfig.getAdmin().setOpenDuration(0);
+        AdminGateway adminGateway = buildAdminGateway();
+
+        adminGateway.call(client -> failedFuture(new TimeoutException("timeout")));
+        adminGateway.call(client -> failedFuture(new TimeoutException("timeout")));
+        Assertions.assertEquals(AdminGateway.CircuitState.HALF_OPEN, adminGateway.getCircuitState());
+
+        Assertions.assertEquals("result", adminGateway.call(client -> KafkaFuture.completedFuture("result")).get());
+        Assertions.assertEquals(AdminGateway.CircuitState.CLOSED, adminGateway.getCircuitState());
+    }
+
+    /**
+     * Test requests above the burst are rejected right away, without waiting for a token
+     */
+    @Test
+    void callRateLimited() {
+        kafkaAsyncExecutorConfig.getAdmin().setBurst(1);
+        kafkaAsyncExecutorConfig.getAdmin().setRequestsPerSecond(0.001);
+        AdminGateway adminGateway = buildAdminGateway();
+
+        adminGateway.call(client -> KafkaFuture.completedFuture("result"));
+
+        Assertions.assertThrows(ClusterUnavailableException.class,
+                () -> adminGateway.call(client -> KafkaFuture.completedFuture("result")));
+    }
+
+    /**
+     * Test requests are rejected when too many requests are in flight
+     */
+    @Test
+    void callBulkheadFull() {
+        kafkaAsyncExecutorConfig.getAdmin().setMaxInFlightRequests(1);
+        AdminGateway adminGateway = buildAdminGateway();
+
+        KafkaFutureImpl<String> pending = new KafkaFutureImpl<>();
+        adminGateway.call(client -> pending);
+
+        Assertions.assertThrows(ClusterUnavailableException.class,
+                () -> adminGateway.call(client -> KafkaFuture.completedFuture("result")));
+
+        pending.complete("result");
+        Assertions.assertDoesNotThrow(() -> adminGateway.call(client -> KafkaFuture.completedFuture("result")));
+    }
+
+    /**
+     * Test cluster failures are reported to the Admin client provider, so it can recreate the client
+     */
+    @Test
+    void callReportsFailuresToProvider() {
+        AdminGateway adminGateway = buildAdminGateway();
+
+        adminGateway.call(client -> failedFuture(new TimeoutException("timeout")));
+        adminGateway.call(client -> KafkaFuture.completedFuture("result"));
+
+        verify(adminClientProvider, times(1)).onFailure();
+        verify(adminClientProvider, times(1)).onSuccess();
+    }
+
+    private AdminGateway buildAdminGateway() {
+        AdminGateway adminGateway = new AdminGateway(kafkaAsyncExecutorConfig);
+        adminGateway.applicationContext = applicationContext;
+        return adminGateway;
+    }
+
+    private static <T> KafkaFuture<T> failedFuture(Throwable error) {
+        KafkaFutureImpl<T> future = new KafkaFutureImpl<>();
+        future.completeExceptionally(error);
+        return future;
+    }
+}
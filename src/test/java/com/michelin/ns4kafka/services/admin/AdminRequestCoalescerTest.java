@@ -0,0 +1,174 @@
+package com.michelin.ns4kafka.services.admin;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import io.micronaut.scheduling.TaskScheduler;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicListing;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminRequestCoalescerTest {
+    @Mock
+    ApplicationContext applicationContext;
+
+    @Mock
+    TaskScheduler taskScheduler;
+
+    @Mock
+    AdminGateway adminGateway;
+
+    AdminRequestCoalescer adminRequestCoalescer;
+
+    @BeforeEach
+    void init() {
+        adminRequestCoalescer = new AdminRequestCoalescer(new KafkaAsyncExecutorConfig("local"));
+        adminRequestCoalescer.applicationContext = applicationContext;
+        adminRequestCoalescer.taskScheduler = taskScheduler;
+    }
+
+    /**
+     * Test concurrent identical requests share the in-flight request
+     */
+    @Test
+    void listTopicsCoalesced() throws ExecutionException, InterruptedException {
+        KafkaFutureImpl<Collection<TopicListing>> response = new KafkaFutureImpl<>();
+        when(applicationContext.getBean(AdminGateway.class, Qualifiers.byName("local"))).thenReturn(adminGateway);
+        when(adminGateway.<Collection<TopicListing>>call(any())).thenReturn(response);
+
+        KafkaFuture<Collection<TopicListing>> first = adminRequestCoalescer.listTopics();
+        KafkaFuture<Collection<TopicListing>> second = adminRequestCoalescer.listTopics();
+
+        response.complete(List.of(new TopicListing("topic", false)));
+
+        Assertions.assertEquals(1, first.get().size());
+        Assertions.assertEquals(1, second.get().size());
+        verify(adminGateway, times(1)).submit(any(), any());
+    }
+
+    /**
+     * Test a failed topic-partition only fails the requests listing it
+     */
+    @Test
+    void listOffsetsPartitionFailure() throws ExecutionException, InterruptedException {
+        TopicPartition partition0 = new TopicPartition("deleted-topic", 0);
+        TopicPartition partition1 = new TopicPartition("topic", 0);
+        KafkaFutureImpl<ListOffsetsResult.ListOffsetsResultInfo> failure = new KafkaFutureImpl<>();
+        failure.completeExceptionally(new UnknownTopicOrPartitionException("This server does not host this topic-partition."));
+        ListOffsetsResult response = new ListOffsetsResult(Map.of(
+                partition0, failure,
+                partition1, KafkaFuture.completedFuture(new ListOffsetsResult.ListOffsetsResultInfo(20L, 0L, Optional.empty()))));
+        when(applicationContext.getBean(AdminGateway.class, Qualifiers.byName("local"))).thenReturn(adminGateway);
+        when(adminGateway.<ListOffsetsResult>submit(any(), any())).thenReturn(response);
+
+        var first = adminRequestCoalescer.listOffsets(Map.of(partition0, OffsetSpec.latest()));
+        var second = adminRequestCoalescer.listOffsets(Map.of(partition1, OffsetSpec.latest()));
+
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(1)).schedule(any(Duration.class), flush.capture());
+        flush.getValue().run();
+
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, first::get);
+        Assertions.assertInstanceOf(UnknownTopicOrPartitionException.class, exception.getCause());
+        Assertions.assertEquals(20L, second.get().get(partition1).offset());
+        verify(adminGateway, times(1)).submit(any(), any());
+    }
+
+    /**
+     * Test listOffsets requests submitted in the same window are sent as a single request
+     */
+    @Test
+    void listOffsetsBatched() throws ExecutionException, InterruptedException {
+        TopicPartition partition0 = new TopicPartition("topic", 0);
+        TopicPartition partition1 = new TopicPartition("topic", 1);
+        ListOffsetsResult response = new ListOffsetsResult(Map.of(
+                partition0, KafkaFuture.completedFuture(new ListOffsetsResult.ListOffsetsResultInfo(10L, 0L, Optional.empty())),
+                partition1, KafkaFuture.completedFuture(new ListOffsetsResult.ListOffsetsResultInfo(20L, 0L, Optional.empty()))));
+        when(applicationContext.getBean(AdminGateway.class, Qualifiers.byName("local"))).thenReturn(adminGateway);
+        when(adminGateway.<ListOffsetsResult>submit(any(), any())).thenReturn(response);
+
+        var first = adminRequestCoalescer.listOffsets(Map.of(partition0, OffsetSpec.latest()));
+        var second = adminRequestCoalescer.listOffsets(Map.of(partition1, OffsetSpec.latest()));
+
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(1)).schedule(any(Duration.class), flush.capture());
+        flush.getValue().run();
+
+        Assertions.assertEquals(1, first.get().size());
+        Assertions.assertEquals(10L, first.get().get(partition0).offset());
+        Assertions.assertEquals(20L, second.get().get(partition1).offset());
+        Assertions.assertEquals(1, second.get().size());
+        verify(adminGateway, times(1)).submit(any(), any());
+    }
+
+    /**
+     * Test a failed topic-partition only fails the requests listing it
+     */
+    @Test
+    void listOffsetsPartitionFailure() throws ExecutionException, InterruptedException {
+        TopicPartition partition0 = new TopicPartition("deleted-topic", 0);
+        TopicPartition partition1 = new TopicPartition("topic", 0);
+        KafkaFutureImpl<ListOffsetsResult.ListOffsetsResultInfo> failure = new KafkaFutureImpl<>();
+        failure.completeExceptionally(new UnknownTopicOrPartitionException("This server does not host this topic-partition."));
+        ListOffsetsResult response = new ListOffsetsResult(Map.of(
+                partition0, failure,
+                partition1, KafkaFuture.completedFuture(new ListOffsetsResult.ListOffsetsResultInfo(20L, 0L, Optional.empty()))));
+        when(applicationContext.getBean(AdminGateway.class, Qualifiers.byName("local"))).thenReturn(adminGateway);
+        when(adminGateway.<ListOffsetsResult>submit(any(), any())).thenReturn(response);
+
+        var first = adminRequestCoalescer.listOffsets(Map.of(partition0, OffsetSpec.latest()));
+        var second = adminRequestCoalescer.listOffsets(Map.of(partition1, OffsetSpec.latest()));
+
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(1)).schedule(any(Duration.class), flush.capture());
+        flush.getValue().run();
+
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, first::get);
+        Assertions.assertInstanceOf(UnknownTopicOrPartitionException.class, exception.getCause());
+        Assertions.assertEquals(20L, second.get().get(partition1).offset());
+        verify(adminGateway, times(1)).submit(any(), any());
+    }
+
+    /**
+     * Test listOffsets requests on the same topic-partition are sent as separate requests
+     */
+    @Test
+    void listOffsetsSamePartition() {
+        TopicPartition partition0 = new TopicPartition("topic", 0);
+        when(applicationContext.getBean(AdminGateway.class, Qualifiers.byName("local"))).thenReturn(adminGateway);
+        when(adminGateway.<ListOffsetsResult>submit(any(), any()))
+                .thenReturn(new ListOffsetsResult(Map.of(partition0,
+                        KafkaFuture.completedFuture(new ListOffsetsResult.ListOffsetsResultInfo(10L, 0L, Optional.empty())))));
+
+        adminRequestCoalescer.listOffsets(Map.of(partition0, OffsetSpec.earliest()));
+        adminRequestCoalescer.listOffsets(Map.of(partition0, OffsetSpec.latest()));
+
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(taskScheduler, times(1)).schedule(any(Duration.class), flush.capture());
+        flush.getValue().run();
+
+        verify(adminGateway, times(2)).submit(any(), any());
+    }
+}
@@ -0,0 +1,159 @@
+package com.michelin.ns4kafka.services.admin;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import org.apache.kafka.clients.admin.TopicListing;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.Uuid;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BrokerTopicCacheTest {
+    @Mock
+    ApplicationContext applicationContext;
+
+    @Mock
+    AdminRequestCoalescer adminRequestCoalescer;
+
+    BrokerTopicCache brokerTopicCache;
+
+    @BeforeEach
+    void init() {
+        brokerTopicCache = new BrokerTopicCache(new KafkaAsyncExecutorConfig("local"));
+        brokerTopicCache.applicationContext = applicationContext;
+        brokerTopicCache.brokerCacheTtl = 60000;
+    }
+
+    /**
+     * Validate colliding topics when there is no collision
+     */
+    @Test
+    void findCollidingTopicsNoCollision() throws ExecutionException, InterruptedException, TimeoutException {
+        brokerTopicCache.replaceAll(List.of("project2.topic", "project1.other"), brokerTopicCache.getGeneration());
+
+        Assertions.assertTrue(brokerTopicCache.findCollidingTopics("project1.topic").isEmpty());
+    }
+
+    /**
+     * Validate a topic with exactly the same name does not collide
+     */
+    @Test
+    void findCollidingTopicsIdenticalName() throws ExecutionException, InterruptedException, TimeoutException {
+        brokerTopicCache.replaceAll(List.of("project1.topic", "project2.topic", "project1.other"), brokerTopicCache.getGeneration());
+
+        Assertions.assertTrue(brokerTopicCache.findCollidingTopics("project1.topic").isEmpty(),
+                "Topic with exactly the same name should not interfere with collision check");
+    }
+
+    /**
+     * Validate colliding topics when names collide
+     */
+    @Test
+    void findCollidingTopicsCollidingName() throws ExecutionException, InterruptedException, TimeoutException {
+        brokerTopicCache.replaceAll(List.of("project1_topic", "project1.topic"), brokerTopicCache.getGeneration());
+
+        Assertions.assertEquals(List.of("project1_topic"), brokerTopicCache.findCollidingTopics("project1.topic"));
+    }
+
+    /**
+     * Validate topics created and deleted by ns4kafka are reflected without reloading the cluster topics
+     */
+    @Test
+    void addAndRemove() throws ExecutionException, InterruptedException, TimeoutException {
+        brokerTopicCache.replaceAll(List.of("project1.topic"), brokerTopicCache.getGeneration());
+
+        brokerTopicCache.add("project1_topic");
+        Assertions.assertEquals(List.of("project1_topic"), brokerTopicCache.findCollidingTopics("project1.topic"));
+
+        brokerTopicCache.remove("project1_topic");
+        Assertions.assertTrue(brokerTopicCache.findCollidingTopics("project1.topic").isEmpty());
+        Assertions.assertFalse(brokerTopicCache.contains("project1_topic"));
+    }
+
+    /**
+     * Validate prefix lookups only return the topics starting with the prefix
+     */
+    @Test
+    void findAllByPrefix() throws ExecutionException, InterruptedException, TimeoutException {
+        brokerTopicCache.replaceAll(List.of("ns-topic1", "ns-topic2", "ns1-topic1", "other"), brokerTopicCache.getGeneration());
+
+        Assertions.assertEquals(List.of("ns-topic1", "ns-topic2"), brokerTopicCache.findAllByPrefix("ns-"));
+        Assertions.assertTrue(brokerTopicCache.findAllByPrefix("unknown").isEmpty());
+    }
+
+    /**
+     * Validate the cluster topics are listed once on first use, then served from memory
+     */
+    @Test
+    void loadOnFirstUse() throws ExecutionException, InterruptedException, TimeoutException {
+        when(applicationContext.getBean(AdminRequestCoalescer.class, Qualifiers.byName("local")))
+                .thenReturn(adminRequestCoalescer);
+        when(adminRequestCoalescer.listTopics())
+                .thenReturn(KafkaFuture.<Collection<TopicListing>>completedFuture(List.of(new TopicListing("topic1", Uuid.randomUuid(), false))));
+
+        Assertions.assertTrue(brokerTopicCache.contains("topic1"));
+        Assertions.assertFalse(brokerTopicCache.contains("topic2"));
+
+        verify(adminRequestCoalescer, times(1)).listTopics();
+    }
+
+    /**
+     * Validate a stale cache is served while being refreshed in the background
+     */
+    @Test
+    void refreshWhenStale() throws ExecutionException, InterruptedException, TimeoutException {
+        brokerTopicCache.brokerCacheTtl = -1;
+        brokerTopicCache.replaceAll(List.of("topic1"), brokerTopicCache.getGeneration());
+
+        when(applicationContext.getBean(AdminRequestCoalescer.class, Qualifiers.byName("local")))
+                .thenReturn(adminRequestCoalescer);
+        when(adminRequestCoalescer.listTopics())
+                .thenReturn(KafkaFuture.<Collection<TopicListing>>completedFuture(List.of(new TopicListing("topic2", Uuid.randomUuid(), false))));
+
+        Assertions.assertTrue(brokerTopicCache.contains("topic1"));
+        Assertions.assertTrue(brokerTopicCache.contains("topic2"));
+    }
+
+    /**
+     * Validate the topics added or removed while the cluster topics are listed are kept after the listing
+     */
+    @Test
+    void replaceAllReplayLocalChanges() throws ExecutionException, InterruptedException, TimeoutException {
+        brokerTopicCache.replaceAll(List.of("topic1", "topic2"), brokerTopicCache.getGeneration());
+
+        long listingGeneration = brokerTopicCache.getGeneration();
+        brokerTopicCache.add("topic3");
+        brokerTopicCache.remove("topic2");
+        brokerTopicCache.replaceAll(List.of("topic1", "topic2"), listingGeneration);
+
+        Assertions.assertTrue(brokerTopicCache.contains("topic1"));
+        Assertions.assertFalse(brokerTopicCache.contains("topic2"));
+        Assertions.assertTrue(brokerTopicCache.contains("topic3"));
+    }
+
+    /**
+     * Validate a listing started before the cached one is discarded
+     */
+    @Test
+    void replaceAllDiscardStaleListing() throws ExecutionException, InterruptedException, TimeoutException {
+        long staleGeneration = brokerTopicCache.getGeneration();
+        brokerTopicCache.add("topic1");
+        brokerTopicCache.replaceAll(List.of("topic1"), brokerTopicCache.getGeneration());
+        brokerTopicCache.replaceAll(List.of(), staleGeneration);
+
+        Assertions.assertTrue(brokerTopicCache.contains("topic1"));
+    }
+}
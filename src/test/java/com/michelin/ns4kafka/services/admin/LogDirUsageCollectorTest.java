@@ -0,0 +1,102 @@
+package com.michelin.ns4kafka.services.admin;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.LogDirDescription;
+import org.apache.kafka.clients.admin.ReplicaInfo;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LogDirUsageCollectorTest {
+    @Mock
+    ApplicationContext applicationContext;
+
+    @Mock
+    AdminGateway adminGateway;
+
+    KafkaAsyncExecutorConfig kafkaAsyncExecutorConfig;
+
+    LogDirUsageCollector logDirUsageCollector;
+
+    @BeforeEach
+    void init() {
+        kafkaAsyncExecutorConfig = new KafkaAsyncExecutorConfig("local");
+        logDirUsageCollector = new LogDirUsageCollector(kafkaAsyncExecutorConfig);
+        logDirUsageCollector.applicationContext = applicationContext;
+    }
+
+    /**
+     * Test the disk usage is unknown until the log dirs are collected
+     */
+    @Test
+    void getDiskUsageNotCollected() {
+        Assertions.assertEquals(Optional.empty(), logDirUsageCollector.getDiskUsage(List.of("topic1")));
+    }
+
+    /**
+     * Test the replica sizes of all the brokers are summed by topic, without the future replicas of a log dir reassignment
+     */
+    @Test
+    void collect() {
+        Map<Integer, Map<String, LogDirDescription>> logDirsByBroker = Map.of(
+                1, Map.of("/data", new LogDirDescription(null, Map.of(
+                        new TopicPartition("topic1", 0), new ReplicaInfo(100, 0, false),
+                        new TopicPartition("topic2", 0), new ReplicaInfo(50, 0, false)))),
+                2, Map.of("/data", new LogDirDescription(null, Map.of(
+                        new TopicPartition("topic1", 0), new ReplicaInfo(100, 0, false))),
+                        "/data2", new LogDirDescription(null, Map.of(
+                        new TopicPartition("topic1", 0), new ReplicaInfo(80, 0, true)))));
+
+        when(applicationContext.getBean(AdminGateway.class, Qualifiers.byName("local"))).thenReturn(adminGateway);
+        doReturn(KafkaFuture.<Collection<Node>>completedFuture(List.of(new Node(1, "broker1", 9092), new Node(2, "broker2", 9092))))
+                .doReturn(KafkaFuture.completedFuture(logDirsByBroker))
+                .when(adminGateway).call(any());
+
+        logDirUsageCollector.collect();
+
+        Assertions.assertEquals(Optional.of(200L), logDirUsageCollector.getDiskUsage(List.of("topic1")));
+        Assertions.assertEquals(Optional.of(250L), logDirUsageCollector.getDiskUsage(List.of("topic1", "topic2", "topic3")));
+    }
+
+    /**
+     * Test a failed collection keeps the disk usage unknown
+     */
+    @Test
+    void collectFailure() {
+        when(applicationContext.getBean(AdminGateway.class, Qualifiers.byName("local"))).thenReturn(adminGateway);
+        when(adminGateway.call(any())).thenThrow(new IllegalStateException("closed"));
+
+        logDirUsageCollector.collect();
+
+        Assertions.assertEquals(Optional.empty(), logDirUsageCollector.getDiskUsage(List.of("topic1")));
+    }
+
+    /**
+     * Test Confluent Cloud clusters are never collected
+     */
+    @Test
+    void runSkipsConfluentCloud() {
+        kafkaAsyncExecutorConfig.setProvider(KafkaAsyncExecutorConfig.KafkaProvider.CONFLUENT_CLOUD);
+
+        logDirUsageCollector.run();
+
+        verify(applicationContext, never()).getBean(AdminGateway.class, Qualifiers.byName("local"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.michelin.ns4kafka.services.connect;
+
+import com.michelin.ns4kafka.services.connect.client.ConnectorClient;
+import com.michelin.ns4kafka.services.connect.client.entities.ConnectorStatus;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.subjects.SingleSubject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectorStatusCacheTest {
+    @Mock
+    ConnectorClient connectorClient;
+
+    @InjectMocks
+    ConnectorStatusCache connectorStatusCache;
+
+    @BeforeEach
+    void init() {
+        connectorStatusCache.statusCacheTtl = 60000;
+    }
+
+    /**
+     * Test concurrent reads share a single in-flight call
+     */
+    @Test
+    void listAllSingleFlight() {
+        SingleSubject<Map<String, ConnectorStatus>> response = SingleSubject.create();
+        when(connectorClient.listAll("local", "local-name"))
+                .thenReturn(response);
+
+        var first = connectorStatusCache.listAll("local", "local-name").test();
+        var second = connectorStatusCache.listAll("local", "local-name").test();
+
+        response.onSuccess(Map.of("connect1", new ConnectorStatus()));
+
+        first.assertValue(statuses -> statuses.containsKey("connect1"));
+        second.assertValue(statuses -> statuses.containsKey("connect1"));
+        connectorStatusCache.listAll("local", "local-name").test().assertValue(statuses -> statuses.containsKey("connect1"));
+
+        verify(connectorClient, times(1)).listAll("local", "local-name");
+    }
+
+    /**
+     * Test an invalidated entry is reloaded
+     */
+    @Test
+    void listAllAfterInvalidate() {
+        when(connectorClient.listAll("local", "local-name"))
+                .thenReturn(Single.just(Map.of()));
+
+        connectorStatusCache.listAll("local", "local-name").test().assertComplete();
+        connectorStatusCache.invalidate("local", "local-name");
+        connectorStatusCache.listAll("local", "local-name").test().assertComplete();
+
+        verify(connectorClient, times(2)).listAll("local", "local-name");
+    }
+
+    /**
+     * Test a failed load is not cached
+     */
+    @Test
+    void listAllErrorNotCached() {
+        when(connectorClient.listAll("local", "local-name"))
+                .thenReturn(Single.error(new HttpClientResponseException("Error", HttpResponse.serverError())))
+                .thenReturn(Single.just(Map.of()));
+
+        connectorStatusCache.listAll("local", "local-name").test().assertError(HttpClientResponseException.class);
+        connectorStatusCache.listAll("local", "local-name").test().assertComplete();
+
+        verify(connectorClient, times(2)).listAll("local", "local-name");
+    }
+}
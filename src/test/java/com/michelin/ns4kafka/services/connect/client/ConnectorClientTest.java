@@ -0,0 +1,86 @@
+package com.michelin.ns4kafka.services.connect.client;
+
+import com.michelin.ns4kafka.services.ProxyRoutingTable;
+import com.michelin.ns4kafka.services.connect.client.entities.ConnectorStateInfo;
+import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.exceptions.HttpClientException;
+import io.micronaut.rxjava3.http.client.Rx3HttpClient;
+import io.reactivex.rxjava3.core.Flowable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectorClientTest {
+    @Mock
+    Rx3HttpClient httpClient;
+
+    @Mock
+    ProxyRoutingTable proxyRoutingTable;
+
+    @InjectMocks
+    ConnectorClient connectorClient;
+
+    /**
+     * Test the request is sent directly to the Connect cluster of the configuration
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void statusRouted() {
+        ConnectorStateInfo stateInfo = new ConnectorStateInfo("connector1", null, List.of(), null);
+        ArgumentCaptor<HttpRequest<?>> request = ArgumentCaptor.forClass(HttpRequest.class);
+        when(proxyRoutingTable.getConnectRoute("local", "local-connect"))
+                .thenReturn(ProxyRoutingTable.Route.of("http://connect:8083", null, null));
+        when(httpClient.retrieve(request.capture(), any(Argument.class))).thenReturn(Flowable.just(stateInfo));
+
+        Assertions.assertEquals(stateInfo, connectorClient.status("local", "local-connect", "connector1").blockingGet());
+        Assertions.assertEquals("http://connect:8083/connectors/connector1/status", request.getValue().getUri().toString());
+    }
+
+    /**
+     * Test a retried request is sent again to another worker with a single authorization header
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void statusRetriedAuthorizedOnce() {
+        ConnectorStateInfo stateInfo = new ConnectorStateInfo("connector1", null, List.of(), null);
+        ArgumentCaptor<HttpRequest<?>> request = ArgumentCaptor.forClass(HttpRequest.class);
+        when(proxyRoutingTable.getConnectRoute("local", "local-connect"))
+                .thenReturn(ProxyRoutingTable.Route.of("http://connect1:8083,http://connect2:8083", "user", "password"));
+        when(httpClient.retrieve(request.capture(), any(Argument.class)))
+                .thenReturn(Flowable.error(new HttpClientException("Connection refused")), Flowable.just(stateInfo));
+
+        Assertions.assertEquals(stateInfo, connectorClient.status("local", "local-connect", "connector1").blockingGet());
+        Assertions.assertEquals(2, request.getAllValues().size());
+        Assertions.assertNotEquals(request.getAllValues().get(0).getUri(), request.getAllValues().get(1).getUri());
+        request.getAllValues().forEach(sent ->
+                Assertions.assertEquals(1, sent.getHeaders().getAll(HttpHeaders.AUTHORIZATION).size()));
+    }
+
+    /**
+     * Test an unknown Connect cluster fails without calling any Connect cluster
+     */
+    @Test
+    void statusUnknownConnectCluster() {
+        when(proxyRoutingTable.getConnectRoute("local", "unknown"))
+                .thenThrow(new ResourceValidationException(List.of("Connect cluster [unknown] not found"), null, null));
+
+        connectorClient.status("local", "unknown", "connector1")
+                .test()
+                .assertError(ResourceValidationException.class);
+
+        verifyNoInteractions(httpClient);
+    }
+}
@@ -0,0 +1,93 @@
+package com.michelin.ns4kafka.services.executors;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import com.michelin.ns4kafka.services.admin.AdminGateway;
+import com.michelin.ns4kafka.services.admin.AdminRequestCoalescer;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.CoordinatorNotAvailableException;
+import org.apache.kafka.common.errors.UnknownTopicOrPartitionException;
+import org.apache.kafka.common.internals.KafkaFutureImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConsumerGroupAsyncExecutorTest {
+    @Mock
+    ApplicationContext applicationContext;
+
+    @Mock
+    AdminRequestCoalescer adminRequestCoalescer;
+
+    @Mock
+    AdminGateway adminGateway;
+
+    ConsumerGroupAsyncExecutor consumerGroupAsyncExecutor;
+
+    @BeforeEach
+    void init() {
+        consumerGroupAsyncExecutor = new ConsumerGroupAsyncExecutor(new KafkaAsyncExecutorConfig("local"));
+        consumerGroupAsyncExecutor.applicationContext = applicationContext;
+    }
+
+    /**
+     * Test the topic-partitions whose end offset cannot be listed are skipped without failing the others
+     */
+    @Test
+    void getAvailableLogEndOffsetsSkipFailedPartitions() throws InterruptedException {
+        TopicPartition topicPartition = new TopicPartition("topic", 0);
+        TopicPartition deletedTopicPartition = new TopicPartition("deleted-topic", 0);
+        KafkaFutureImpl<Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo>> failure = new KafkaFutureImpl<>();
+        failure.completeExceptionally(new UnknownTopicOrPartitionException("This server does not host this topic-partition."));
+
+        when(applicationContext.getBean(AdminRequestCoalescer.class, Qualifiers.byName("local"))).thenReturn(adminRequestCoalescer);
+        when(adminRequestCoalescer.listOffsets(argThat(specs -> specs != null && specs.containsKey(topicPartition))))
+                .thenReturn(KafkaFuture.completedFuture(Map.of(topicPartition,
+                        new ListOffsetsResult.ListOffsetsResultInfo(20L, 0L, Optional.empty()))));
+        when(adminRequestCoalescer.listOffsets(argThat(specs -> specs != null && specs.containsKey(deletedTopicPartition))))
+                .thenReturn(failure);
+
+        Map<TopicPartition, Long> result = consumerGroupAsyncExecutor.getAvailableLogEndOffsets(List.of(topicPartition, deletedTopicPartition));
+
+        Assertions.assertEquals(Map.of(topicPartition, 20L), result);
+    }
+
+    /**
+     * Test a consumer group failing to change its offsets is reported without failing the others
+     */
+    @Test
+    void alterConsumerGroupsOffsetsPartialFailure() throws InterruptedException {
+        TopicPartition topicPartition = new TopicPartition("topic", 0);
+        KafkaFutureImpl<Void> failure = new KafkaFutureImpl<>();
+        failure.completeExceptionally(new CoordinatorNotAvailableException("The coordinator is not available."));
+
+        when(applicationContext.getBean(AdminGateway.class, Qualifiers.byName("local"))).thenReturn(adminGateway);
+        when(adminGateway.<Void>call(any()))
+                .thenReturn(KafkaFuture.completedFuture(null))
+                .thenReturn(failure);
+
+        Map<String, Map<TopicPartition, Long>> preparedOffsets = new LinkedHashMap<>();
+        preparedOffsets.put("group1", Map.of(topicPartition, 5L));
+        preparedOffsets.put("group2", Map.of(topicPartition, 5L));
+
+        Map<String, String> result = consumerGroupAsyncExecutor.alterConsumerGroupsOffsets(preparedOffsets);
+
+        Assertions.assertEquals(Map.of("group2", "The coordinator is not available."), result);
+    }
+}
@@ -0,0 +1,197 @@
+package com.michelin.ns4kafka.services.executors;
+
+import com.michelin.ns4kafka.config.KafkaAsyncExecutorConfig;
+import com.michelin.ns4kafka.models.Namespace;
+import com.michelin.ns4kafka.models.ObjectMeta;
+import com.michelin.ns4kafka.models.quota.ResourceQuota;
+import com.michelin.ns4kafka.repositories.NamespaceRepository;
+import com.michelin.ns4kafka.repositories.ResourceQuotaRepository;
+import com.michelin.ns4kafka.services.admin.AdminGateway;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.inject.qualifiers.Qualifiers;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AlterClientQuotasResult;
+import org.apache.kafka.common.KafkaFuture;
+import org.apache.kafka.common.quota.ClientQuotaAlteration;
+import org.apache.kafka.common.quota.ClientQuotaEntity;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static com.michelin.ns4kafka.models.quota.ResourceQuota.ResourceQuotaSpecKey.USER_PRODUCER_BYTE_RATE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserAsyncExecutorTest {
+    @Mock
+    NamespaceRepository namespaceRepository;
+
+    @Mock
+    ResourceQuotaRepository resourceQuotaRepository;
+
+    @Mock
+    ApplicationContext applicationContext;
+
+    @Mock
+    AdminGateway adminGateway;
+
+    @Mock
+    Admin admin;
+
+    UserAsyncExecutor userAsyncExecutor;
+
+    @BeforeEach
+    void init() {
+        userAsyncExecutor = new UserAsyncExecutor(new KafkaAsyncExecutorConfig("local", KafkaAsyncExecutorConfig.KafkaProvider.SELF_MANAGED));
+        userAsyncExecutor.namespaceRepository = namespaceRepository;
+        userAsyncExecutor.resourceQuotaRepository = resourceQuotaRepository;
+        userAsyncExecutor.applicationContext = applicationContext;
+
+        when(applicationContext.getBean(AdminGateway.class, Qualifiers.byName("local"))).thenReturn(adminGateway);
+    }
+
+    /**
+     * Test the users only differing from the broker by quotas not managed by Ns4Kafka are not altered
+     */
+    @Test
+    void synchronizeUsersIgnoreUnmanagedQuotas() {
+        when(namespaceRepository.findAllForCluster("local")).thenReturn(List.of(buildNamespace("namespace", "user1")));
+        when(resourceQuotaRepository.findForNamespace("namespace")).thenReturn(Optional.empty());
+        doReturn(KafkaFuture.completedFuture(Map.of(
+                new ClientQuotaEntity(Map.of(ClientQuotaEntity.USER, "user1")),
+                Map.of("producer_byte_rate", UserAsyncExecutor.BYTE_RATE_DEFAULT_VALUE,
+                        "consumer_byte_rate", UserAsyncExecutor.BYTE_RATE_DEFAULT_VALUE,
+                        "controller_mutation_rate", 10.0))))
+                .when(adminGateway).call(any());
+
+        userAsyncExecutor.synchronizeUsers();
+
+        verify(adminGateway, never()).submit(any(), any());
+    }
+
+    /**
+     * Test the created and updated users are altered in a single request, with the changed quotas only
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void synchronizeUsersApplyChangedQuotasOnly() {
+        ResourceQuota resourceQuota = ResourceQuota.builder()
+                .metadata(ObjectMeta.builder()
+                        .cluster("local")
+                        .name("quota")
+                        .build())
+                .spec(Map.of(USER_PRODUCER_BYTE_RATE.toString(), "204800"))
+                .build();
+
+        ClientQuotaEntity user1 = new ClientQuotaEntity(Map.of(ClientQuotaEntity.USER, "user1"));
+        ClientQuotaEntity user2 = new ClientQuotaEntity(Map.of(ClientQuotaEntity.USER, "user2"));
+        ClientQuotaEntity user3 = new ClientQuotaEntity(Map.of(ClientQuotaEntity.USER, "user3"));
+
+        when(namespaceRepository.findAllForCluster("local")).thenReturn(List.of(
+                buildNamespace("namespace1", "user1"),
+                buildNamespace("namespace2", "user2"),
+                buildNamespace("namespace3", "user3")));
+        when(resourceQuotaRepository.findForNamespace("namespace1")).thenReturn(Optional.of(resourceQuota));
+        when(resourceQuotaRepository.findForNamespace("namespace2")).thenReturn(Optional.empty());
+        when(resourceQuotaRepository.findForNamespace("namespace3")).thenReturn(Optional.empty());
+        doReturn(KafkaFuture.completedFuture(Map.of(
+                user1, Map.of("producer_byte_rate", UserAsyncExecutor.BYTE_RATE_DEFAULT_VALUE,
+                        "consumer_byte_rate", UserAsyncExecutor.BYTE_RATE_DEFAULT_VALUE,
+                        "request_percentage", 50.0),
+                user3, Map.of("producer_byte_rate", UserAsyncExecutor.BYTE_RATE_DEFAULT_VALUE,
+                        "consumer_byte_rate", UserAsyncExecutor.BYTE_RATE_DEFAULT_VALUE))))
+                .when(adminGateway).call(any());
+        doAnswer(invocation -> invocation.<Function<Admin, Object>>getArgument(0).apply(admin))
+                .when(adminGateway).submit(any(), any());
+        when(admin.alterClientQuotas(anyCollection())).thenReturn(new AlterClientQuotasResult(Map.of(
+                user1, KafkaFuture.completedFuture(null),
+                user2, KafkaFuture.completedFuture(null))));
+
+        userAsyncExecutor.synchronizeUsers();
+
+        ArgumentCaptor<Collection<ClientQuotaAlteration>> alterations = ArgumentCaptor.forClass(Collection.class);
+        verify(admin).alterClientQuotas(alterations.capture());
+
+        Map<String, Map<String, Double>> opsByUser = new HashMap<>();
+        alterations.getValue().forEach(alteration -> {
+            Map<String, Double> ops = new HashMap<>();
+            alteration.ops().forEach(op -> ops.put(op.key(), op.value()));
+            opsByUser.put(alteration.entity().entries().get(ClientQuotaEntity.USER), ops);
+        });
+
+        Map<String, Double> user1Ops = new HashMap<>();
+        user1Ops.put("producer_byte_rate", 204800.0);
+        user1Ops.put("request_percentage", null);
+
+        Assertions.assertEquals(2, opsByUser.size());
+        Assertions.assertEquals(user1Ops, opsByUser.get("user1"));
+        Assertions.assertEquals(Map.of("producer_byte_rate", UserAsyncExecutor.BYTE_RATE_DEFAULT_VALUE,
+                "consumer_byte_rate", UserAsyncExecutor.BYTE_RATE_DEFAULT_VALUE), opsByUser.get("user2"));
+    }
+
+    /**
+     * Test a user shared by several namespaces gets the quotas of the first namespace by name, whatever the store order
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void synchronizeUsersSharedUser() {
+        ResourceQuota resourceQuota = ResourceQuota.builder()
+                .metadata(ObjectMeta.builder()
+                        .cluster("local")
+                        .name("quota")
+                        .build())
+                .spec(Map.of(USER_PRODUCER_BYTE_RATE.toString(), "204800"))
+                .build();
+
+        ClientQuotaEntity user1 = new ClientQuotaEntity(Map.of(ClientQuotaEntity.USER, "user1"));
+
+        when(namespaceRepository.findAllForCluster("local")).thenReturn(List.of(
+                buildNamespace("namespace2", "user1"),
+                buildNamespace("namespace1", "user1")));
+        when(resourceQuotaRepository.findForNamespace("namespace1")).thenReturn(Optional.of(resourceQuota));
+        when(resourceQuotaRepository.findForNamespace("namespace2")).thenReturn(Optional.empty());
+        doReturn(KafkaFuture.completedFuture(Map.of(
+                user1, Map.of("producer_byte_rate", UserAsyncExecutor.BYTE_RATE_DEFAULT_VALUE,
+                        "consumer_byte_rate", UserAsyncExecutor.BYTE_RATE_DEFAULT_VALUE))))
+                .when(adminGateway).call(any());
+        doAnswer(invocation -> invocation.<Function<Admin, Object>>getArgument(0).apply(admin))
+                .when(adminGateway).submit(any(), any());
+        when(admin.alterClientQuotas(anyCollection())).thenReturn(new AlterClientQuotasResult(Map.of(
+                user1, KafkaFuture.completedFuture(null))));
+
+        userAsyncExecutor.synchronizeUsers();
+
+        ArgumentCaptor<Collection<ClientQuotaAlteration>> alterations = ArgumentCaptor.forClass(Collection.class);
+        verify(admin).alterClientQuotas(alterations.capture());
+
+        Assertions.assertEquals(1, alterations.getValue().size());
+        ClientQuotaAlteration alteration = alterations.getValue().iterator().next();
+        Assertions.assertEquals(user1, alteration.entity());
+        Assertions.assertEquals(List.of(new ClientQuotaAlteration.Op("producer_byte_rate", 204800.0)), List.copyOf(alteration.ops()));
+    }
+
+    private Namespace buildNamespace(String name, String kafkaUser) {
+        return Namespace.builder()
+                .metadata(ObjectMeta.builder()
+                        .name(name)
+                        .cluster("local")
+                        .build())
+                .spec(Namespace.NamespaceSpec.builder()
+                        .kafkaUser(kafkaUser)
+                        .build())
+                .build();
+    }
+}
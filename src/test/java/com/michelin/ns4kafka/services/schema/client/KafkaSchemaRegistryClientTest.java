@@ -0,0 +1,207 @@
+package com.michelin.ns4kafka.services.schema.client;
+
+import com.michelin.ns4kafka.services.ProxyRoutingTable;
+import com.michelin.ns4kafka.services.schema.client.entities.SchemaRequest;
+import com.michelin.ns4kafka.services.schema.client.entities.SchemaResponse;
+import com.michelin.ns4kafka.utils.exceptions.ResourceValidationException;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.rxjava3.http.client.Rx3HttpClient;
+import io.reactivex.rxjava3.core.Flowable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaSchemaRegistryClientTest {
+    @Mock
+    Rx3HttpClient httpClient;
+
+    @Mock
+    ProxyRoutingTable proxyRoutingTable;
+
+    @Spy
+    SchemaRegistryCache schemaRegistryCache = new SchemaRegistryCache();
+
+    @InjectMocks
+    KafkaSchemaRegistryClient kafkaSchemaRegistryClient;
+
+    @BeforeEach
+    void setUp() {
+        schemaRegistryCache.cacheRefresh = 30000;
+        schemaRegistryCache.cacheExpiry = 300000;
+    }
+
+    /**
+     * Test the request is sent directly to the Schema Registry of the cluster
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void getSubjectsRouted() {
+        ArgumentCaptor<HttpRequest<?>> request = ArgumentCaptor.forClass(HttpRequest.class);
+        when(proxyRoutingTable.getSchemaRegistryRoute("local"))
+                .thenReturn(ProxyRoutingTable.Route.of("http://schema-registry:8081/base", "user", "password"));
+        when(httpClient.retrieve(request.capture(), any(Argument.class))).thenReturn(Flowable.just(List.of("subject-value")));
+
+        Assertions.assertEquals(List.of("subject-value"), kafkaSchemaRegistryClient.getSubjects("local").blockingGet());
+        Assertions.assertEquals("http://schema-registry:8081/base/subjects", request.getValue().getUri().toString());
+        Assertions.assertEquals("Basic dXNlcjpwYXNzd29yZA==", request.getValue().getHeaders().get(HttpHeaders.AUTHORIZATION));
+    }
+
+    /**
+     * Test a write is sent to the first Schema Registry URL, with its body
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void registerToFirstUrl() {
+        SchemaRequest schemaRequest = SchemaRequest.builder().schema("{}").build();
+        SchemaResponse schemaResponse = SchemaResponse.builder().id(1).build();
+        ArgumentCaptor<HttpRequest<?>> request = ArgumentCaptor.forClass(HttpRequest.class);
+        when(proxyRoutingTable.getSchemaRegistryRoute("local"))
+                .thenReturn(ProxyRoutingTable.Route.of("http://registry1:8081,http://registry2:8081", null, null));
+        when(httpClient.retrieve(request.capture(), any(Argument.class))).thenReturn(Flowable.just(schemaResponse));
+
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertEquals(schemaResponse, kafkaSchemaRegistryClient.register("local", "subject-value", schemaRequest).blockingGet());
+        }
+
+        request.getAllValues().forEach(value -> {
+            Assertions.assertEquals("http://registry1:8081/subjects/subject-value/versions", value.getUri().toString());
+            Assertions.assertEquals(schemaRequest, value.getBody().orElseThrow());
+        });
+    }
+
+    /**
+     * Test an unknown subject completes empty
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void getLatestSubjectNotFound() {
+        when(proxyRoutingTable.getSchemaRegistryRoute("local"))
+                .thenReturn(ProxyRoutingTable.Route.of("http://schema-registry:8081", null, null));
+        when(httpClient.retrieve(any(HttpRequest.class), any(Argument.class)))
+                .thenReturn(Flowable.error(new HttpClientResponseException("Not found", HttpResponse.notFound())));
+
+        Assertions.assertNull(kafkaSchemaRegistryClient.getLatestSubject("local", "subject-value").blockingGet());
+    }
+
+    /**
+     * Test the subjects are served from the cache until a write invalidates them
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void getSubjectsCached() {
+        SchemaResponse schemaResponse = SchemaResponse.builder().id(1).build();
+        when(proxyRoutingTable.getSchemaRegistryRoute("local"))
+                .thenReturn(ProxyRoutingTable.Route.of("http://schema-registry:8081", null, null));
+        when(httpClient.retrieve(any(HttpRequest.class), any(Argument.class)))
+                .thenReturn(Flowable.just(List.of("subject-value")))
+                .thenReturn(Flowable.just(schemaResponse))
+                .thenReturn(Flowable.just(List.of("subject-value", "new-subject-value")));
+
+        Assertions.assertEquals(List.of("subject-value"), kafkaSchemaRegistryClient.getSubjects("local").blockingGet());
+        Assertions.assertEquals(List.of("subject-value"), kafkaSchemaRegistryClient.getSubjects("local").blockingGet());
+        verify(httpClient, times(1)).retrieve(any(HttpRequest.class), any(Argument.class));
+
+        kafkaSchemaRegistryClient.register("local", "new-subject-value", SchemaRequest.builder().schema("{}").build()).blockingGet();
+
+        Assertions.assertEquals(List.of("subject-value", "new-subject-value"), kafkaSchemaRegistryClient.getSubjects("local").blockingGet());
+        verify(httpClient, times(3)).retrieve(any(HttpRequest.class), any(Argument.class));
+    }
+
+    /**
+     * Test a schema found as the latest version is not looked up again until a write invalidates its subject
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void isLatestVersionCached() {
+        SchemaRequest schemaRequest = SchemaRequest.builder().schema("{}").build();
+        when(proxyRoutingTable.getSchemaRegistryRoute("local"))
+                .thenReturn(ProxyRoutingTable.Route.of("http://schema-registry:8081", null, null));
+        when(httpClient.retrieve(any(HttpRequest.class), any(Argument.class)))
+                .thenReturn(Flowable.just(SchemaResponse.builder().id(1).build()));
+
+        Assertions.assertTrue(kafkaSchemaRegistryClient.isLatestVersion("local", "subject-value", 1, "fingerprint", schemaRequest).blockingGet());
+        Assertions.assertTrue(kafkaSchemaRegistryClient.isLatestVersion("local", "subject-value", 1, "fingerprint", schemaRequest).blockingGet());
+        Assertions.assertFalse(kafkaSchemaRegistryClient.isLatestVersion("local", "subject-value", 1, "other-fingerprint", schemaRequest).blockingGet());
+        verify(httpClient, times(1)).retrieve(any(HttpRequest.class), any(Argument.class));
+
+        kafkaSchemaRegistryClient.register("local", "subject-value", schemaRequest).blockingGet();
+
+        Assertions.assertTrue(kafkaSchemaRegistryClient.isLatestVersion("local", "subject-value", 1, "fingerprint", schemaRequest).blockingGet());
+        verify(httpClient, times(3)).retrieve(any(HttpRequest.class), any(Argument.class));
+    }
+
+    /**
+     * Test a schema found with another id than the latest version, or not found, is not the latest version
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void isLatestVersionStale() {
+        SchemaRequest schemaRequest = SchemaRequest.builder().schema("{}").build();
+        when(proxyRoutingTable.getSchemaRegistryRoute("local"))
+                .thenReturn(ProxyRoutingTable.Route.of("http://schema-registry:8081", null, null));
+        when(httpClient.retrieve(any(HttpRequest.class), any(Argument.class)))
+                .thenReturn(Flowable.just(SchemaResponse.builder().id(2).build()))
+                .thenReturn(Flowable.error(new HttpClientResponseException("Not found", HttpResponse.notFound())));
+
+        Assertions.assertFalse(kafkaSchemaRegistryClient.isLatestVersion("local", "subject-value", 1, "fingerprint", schemaRequest).blockingGet());
+        Assertions.assertFalse(kafkaSchemaRegistryClient.isLatestVersion("local", "other-subject-value", 1, "fingerprint", schemaRequest).blockingGet());
+    }
+
+    /**
+     * Test a slow read is hedged to another Schema Registry URL once the usual latency of the reads is known
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void getLatestSubjectHedged() {
+        SchemaResponse schemaResponse = SchemaResponse.builder().id(1).build();
+        AtomicBoolean slow = new AtomicBoolean();
+        when(proxyRoutingTable.getSchemaRegistryRoute("local"))
+                .thenReturn(ProxyRoutingTable.Route.of("http://registry1:8081,http://registry2:8081", null, null, true));
+        when(httpClient.retrieve(any(HttpRequest.class), any(Argument.class)))
+                .thenAnswer(invocation -> slow.getAndSet(false) ? Flowable.never() : Flowable.just(schemaResponse));
+
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertEquals(schemaResponse, kafkaSchemaRegistryClient.getLatestSubject("local", "subject-" + i).blockingGet());
+        }
+
+        // The first URL called does not respond
+        slow.set(true);
+        Assertions.assertEquals(schemaResponse, kafkaSchemaRegistryClient.getLatestSubject("local", "slow-subject")
+                .timeout(1, TimeUnit.SECONDS)
+                .blockingGet());
+        verify(httpClient, times(22)).retrieve(any(HttpRequest.class), any(Argument.class));
+    }
+
+    /**
+     * Test an unknown cluster fails without calling any Schema Registry
+     */
+    @Test
+    void getSubjectsUnknownCluster() {
+        when(proxyRoutingTable.getSchemaRegistryRoute("unknown"))
+                .thenThrow(new ResourceValidationException(List.of("Kafka Cluster [unknown] not found"), null, null));
+
+        kafkaSchemaRegistryClient.getSubjects("unknown")
+                .test()
+                .assertError(ResourceValidationException.class);
+
+        verifyNoInteractions(httpClient);
+    }
+}
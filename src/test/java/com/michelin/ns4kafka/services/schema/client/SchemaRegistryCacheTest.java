@@ -0,0 +1,99 @@
+package com.michelin.ns4kafka.services.schema.client;
+
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.subjects.MaybeSubject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SchemaRegistryCacheTest {
+    SchemaRegistryCache schemaRegistryCache;
+
+    @BeforeEach
+    void setUp() {
+        schemaRegistryCache = new SchemaRegistryCache();
+        schemaRegistryCache.cacheRefresh = 30000;
+        schemaRegistryCache.cacheExpiry = 300000;
+        schemaRegistryCache.clock = Clock.fixed(Instant.EPOCH, ZoneOffset.UTC);
+    }
+
+    /**
+     * Test a value older than the refresh delay is served while it is read again in the background
+     */
+    @Test
+    void getRefreshed() {
+        AtomicInteger reads = new AtomicInteger();
+
+        Assertions.assertEquals(1, schemaRegistryCache.get("local", "key", () -> Maybe.just(reads.incrementAndGet())).blockingGet());
+
+        schemaRegistryCache.clock = Clock.offset(schemaRegistryCache.clock, Duration.ofMillis(29999));
+        Assertions.assertEquals(1, schemaRegistryCache.get("local", "key", () -> Maybe.just(reads.incrementAndGet())).blockingGet());
+        Assertions.assertEquals(1, reads.get());
+
+        schemaRegistryCache.clock = Clock.offset(schemaRegistryCache.clock, Duration.ofMillis(1));
+        Assertions.assertEquals(1, schemaRegistryCache.get("local", "key", () -> Maybe.just(reads.incrementAndGet())).blockingGet());
+        Assertions.assertEquals(2, schemaRegistryCache.get("local", "key", () -> Maybe.just(reads.incrementAndGet())).blockingGet());
+        Assertions.assertEquals(2, reads.get());
+    }
+
+    /**
+     * Test a value older than the expiry delay is read again before being served
+     */
+    @Test
+    void getExpired() {
+        AtomicInteger reads = new AtomicInteger();
+
+        Assertions.assertEquals(1, schemaRegistryCache.get("local", "key", () -> Maybe.just(reads.incrementAndGet())).blockingGet());
+
+        schemaRegistryCache.clock = Clock.offset(schemaRegistryCache.clock, Duration.ofMillis(300000));
+        Assertions.assertEquals(2, schemaRegistryCache.get("local", "key", () -> Maybe.just(reads.incrementAndGet())).blockingGet());
+    }
+
+    /**
+     * Test the concurrent reads of a missing value share a single read
+     */
+    @Test
+    void getSingleFlight() {
+        MaybeSubject<String> read = MaybeSubject.create();
+        AtomicInteger reads = new AtomicInteger();
+
+        TestObserver<String> first = schemaRegistryCache.get("local", "key", () -> {
+            reads.incrementAndGet();
+            return read;
+        }).test();
+        TestObserver<String> second = schemaRegistryCache.get("local", "key", () -> {
+            reads.incrementAndGet();
+            return read;
+        }).test();
+
+        read.onSuccess("value");
+
+        first.assertValue("value");
+        second.assertValue("value");
+        Assertions.assertEquals(1, reads.get());
+    }
+
+    /**
+     * Test a read in flight during a write is neither shared nor cached
+     */
+    @Test
+    void getInvalidatedInFlight() {
+        MaybeSubject<String> staleRead = MaybeSubject.create();
+
+        TestObserver<String> stale = schemaRegistryCache.get("local", SchemaRegistryCache.latestKey("subject"), () -> staleRead).test();
+        schemaRegistryCache.invalidate("local", "subject");
+
+        Assertions.assertEquals("fresh", schemaRegistryCache.get("local", SchemaRegistryCache.latestKey("subject"), () -> Maybe.just("fresh")).blockingGet());
+
+        staleRead.onSuccess("stale");
+        stale.assertValue("stale");
+        Assertions.assertEquals("fresh", schemaRegistryCache.get("local", SchemaRegistryCache.latestKey("subject"), () -> Maybe.just("other")).blockingGet());
+    }
+}
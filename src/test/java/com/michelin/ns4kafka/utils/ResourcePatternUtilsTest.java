@@ -0,0 +1,97 @@
+package com.michelin.ns4kafka.utils;
+
+import com.michelin.ns4kafka.models.AccessControlEntry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+class ResourcePatternUtilsTest {
+
+    /**
+     * Validate the prefixes starting with a shorter prefix are removed
+     */
+    @Test
+    void minimizeCoveredPrefixes() {
+        AccessControlEntry project = buildAcl(AccessControlEntry.ResourcePatternType.PREFIXED, "project1.");
+        AccessControlEntry subProject = buildAcl(AccessControlEntry.ResourcePatternType.PREFIXED, "project1.sub.");
+        AccessControlEntry otherProject = buildAcl(AccessControlEntry.ResourcePatternType.PREFIXED, "project10.");
+
+        Assertions.assertEquals(List.of(project, otherProject), ResourcePatternUtils.minimize(List.of(subProject, project, otherProject)));
+    }
+
+    /**
+     * Validate the literals starting with a prefix are removed, and the duplicates are removed
+     */
+    @Test
+    void minimizeCoveredLiteralsAndDuplicates() {
+        AccessControlEntry project = buildAcl(AccessControlEntry.ResourcePatternType.PREFIXED, "project1.");
+        AccessControlEntry coveredTopic = buildAcl(AccessControlEntry.ResourcePatternType.LITERAL, "project1.topic1");
+        AccessControlEntry otherTopic = buildAcl(AccessControlEntry.ResourcePatternType.LITERAL, "project2.topic1");
+        AccessControlEntry prefixAsLiteral = buildAcl(AccessControlEntry.ResourcePatternType.LITERAL, "project1");
+
+        Assertions.assertEquals(List.of(otherTopic, project, prefixAsLiteral),
+                ResourcePatternUtils.minimize(List.of(otherTopic, coveredTopic, project, otherTopic, prefixAsLiteral, project)));
+    }
+
+    /**
+     * Validate the regexes of a single ACL and of several ACLs
+     */
+    @Test
+    void toRegexes() {
+        AccessControlEntry project = buildAcl(AccessControlEntry.ResourcePatternType.PREFIXED, "project1.");
+        AccessControlEntry topic = buildAcl(AccessControlEntry.ResourcePatternType.LITERAL, "project2.topic1");
+
+        Assertions.assertEquals("^\\Qproject1.\\E.*$", ResourcePatternUtils.toRegex(project));
+        Assertions.assertEquals("^\\Qproject2.topic1\\E$", ResourcePatternUtils.toRegex(topic));
+        Assertions.assertEquals("^(?:\\Qproject1.\\E.*|\\Qproject2.topic1\\E)$", ResourcePatternUtils.toAlternationRegex(List.of(project, topic)));
+    }
+
+    /**
+     * Validate the minimized regexes and the alternation regex match the same resources as the original regexes
+     */
+    @Test
+    void minimizeEquivalence() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            List<AccessControlEntry> acls = new ArrayList<>();
+            for (int j = random.nextInt(8); j >= 0; j--) {
+                acls.add(buildAcl(random.nextBoolean() ? AccessControlEntry.ResourcePatternType.PREFIXED : AccessControlEntry.ResourcePatternType.LITERAL,
+                        randomName(random)));
+            }
+
+            List<Pattern> original = acls.stream().map(acl -> Pattern.compile(ResourcePatternUtils.toRegex(acl))).toList();
+            List<AccessControlEntry> minimized = ResourcePatternUtils.minimize(acls);
+            List<Pattern> minimal = minimized.stream().map(acl -> Pattern.compile(ResourcePatternUtils.toRegex(acl))).toList();
+            Pattern alternation = Pattern.compile(ResourcePatternUtils.toAlternationRegex(minimized));
+
+            for (int k = 0; k < 50; k++) {
+                String name = randomName(random);
+                boolean expected = original.stream().anyMatch(pattern -> pattern.matcher(name).matches());
+                Assertions.assertEquals(expected, minimal.stream().anyMatch(pattern -> pattern.matcher(name).matches()), name);
+                Assertions.assertEquals(expected, alternation.matcher(name).matches(), name);
+            }
+        }
+    }
+
+    private String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        for (int i = random.nextInt(5); i >= 0; i--) {
+            name.append("ab.*".charAt(random.nextInt(4)));
+        }
+        return name.toString();
+    }
+
+    private AccessControlEntry buildAcl(AccessControlEntry.ResourcePatternType patternType, String resource) {
+        return AccessControlEntry.builder()
+                .spec(AccessControlEntry.AccessControlEntrySpec.builder()
+                        .resourceType(AccessControlEntry.ResourceType.TOPIC)
+                        .resourcePatternType(patternType)
+                        .resource(resource)
+                        .build())
+                .build();
+    }
+}